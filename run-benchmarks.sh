@@ -0,0 +1,61 @@
+#!/bin/bash
+
+# Usage: ./run-benchmarks.sh [baseline.csv] [-- extra JMH options, e.g. a benchmark regex]
+#
+# Builds the JMH jar, runs the benchmarks with the GC profiler and writes
+# machine-readable results to target/jmh-result.csv. When a baseline results
+# file from an earlier build is given, prints the relative change per benchmark.
+
+BASELINE=""
+if [ $# -gt 0 ] && [ "$1" != "--" ]; then
+    BASELINE="$1"
+    shift
+fi
+if [ "$1" == "--" ]; then
+    shift
+fi
+
+RESULT_FILE="target/jmh-result.csv"
+
+echo "Building benchmark jar..."
+echo "-------------------------------------------------------------------"
+
+mvn -B -q -Pjmh clean package -DskipTests || exit 1
+
+echo "Running benchmarks..."
+echo "-------------------------------------------------------------------"
+
+java -jar target/benchmarks.jar -prof gc -rf csv -rff "$RESULT_FILE" "$@" || exit 1
+
+echo "-------------------------------------------------------------------"
+echo "Results written to: $RESULT_FILE"
+
+if [ -n "$BASELINE" ]; then
+    if [ ! -f "$BASELINE" ]; then
+        echo "Baseline file not found: $BASELINE"
+        exit 1
+    fi
+    echo "Comparison against baseline: $BASELINE"
+    # Key on every column except samples, score and score error (columns 4-6)
+    awk -F',' '
+        function key(   k, i) {
+            k = $1
+            for (i = 2; i <= NF; i++) {
+                if (i < 4 || i > 6) {
+                    k = k FS $i
+                }
+            }
+            return k
+        }
+        FNR == 1 { next }
+        NR == FNR { base[key()] = $5; next }
+        {
+            k = key()
+            if (k in base && base[k] != 0) {
+                printf "%-100s %14.3f -> %14.3f  %+7.2f%%\n", k, base[k], $5, ($5 - base[k]) / base[k] * 100
+            }
+        }
+' "$BASELINE" "$RESULT_FILE"
+fi
+
+echo "-------------------------------------------------------------------"
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookup cost when every key shares one hash code, scaling the COLLISION_* constants of the
+ * functional test to thousands of keys. {@code KEY} uses a comparable key with a constant
+ * hashCode, {@code STRING} uses strings built from the colliding blocks "Aa" and "BB". Bounded
+ * lookups show up as a score that grows with log of {@code collisions} instead of linearly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CollisionResistantSetBenchmark
+{
+    @Param({"1024", "4096", "16384"})
+    public int collisions;
+
+    @Param({"KEY", "STRING"})
+    public String keyKind;
+
+    private Object[] keys;
+    private Object[] probes;
+    private CollisionResistantSet<Object> collisionResistantSet;
+    private UnifiedSet<Object> unifiedSet;
+    private Set<Object> hashSet;
+
+    @Setup
+    public void setUp()
+    {
+        this.keys = new Object[this.collisions];
+        this.probes = new Object[this.collisions];
+        for (int i = 0; i < this.collisions; i++)
+        {
+            this.keys[i] = "KEY".equals(this.keyKind) ? new CollidingKey(i) : collidingString(i);
+            // Equal but distinct instances, so lookups cannot short-circuit on identity
+            this.probes[i] = "KEY".equals(this.keyKind) ? new CollidingKey(i) : collidingString(i);
+        }
+        this.collisionResistantSet = CollisionResistantSet.newSetWith(this.keys);
+        this.unifiedSet = UnifiedSet.newSetWith(this.keys);
+        this.hashSet = new HashSet<>(this.unifiedSet);
+    }
+
+    /**
+     * Builds the {@code index}-th string of 14 two-character blocks, each "Aa" or "BB", which
+     * all have the same hashCode
+     */
+    private static String collidingString(int index)
+    {
+        StringBuilder builder = new StringBuilder(28);
+        for (int bit = 13; bit >= 0; bit--)
+        {
+            builder.append((index >>> bit & 1) == 0 ? "Aa" : "BB");
+        }
+        return builder.toString();
+    }
+
+    private Object probe()
+    {
+        return this.probes[ThreadLocalRandom.current().nextInt(this.collisions)];
+    }
+
+    @Benchmark
+    public boolean containsCollisionResistantSet()
+    {
+        return this.collisionResistantSet.contains(this.probe());
+    }
+
+    @Benchmark
+    public boolean containsUnifiedSet()
+    {
+        return this.unifiedSet.contains(this.probe());
+    }
+
+    @Benchmark
+    public boolean containsHashSet()
+    {
+        return this.hashSet.contains(this.probe());
+    }
+
+    /**
+     * Comparable key whose hashCode is shared by every instance.
+     */
+    private static final class CollidingKey implements Comparable<CollidingKey>
+    {
+        private static final int COLLISION_HASH = 31;
+
+        private final int id;
+
+        private CollidingKey(int id)
+        {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return COLLISION_HASH;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == this.id;
+        }
+
+        @Override
+        public int compareTo(CollidingKey other)
+        {
+            return Integer.compare(this.id, other.id);
+        }
+    }
+}
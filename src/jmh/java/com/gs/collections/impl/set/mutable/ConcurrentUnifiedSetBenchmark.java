@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.impl.list.Interval;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mixed read/write throughput of {@link ConcurrentUnifiedSet} against
+ * {@link ConcurrentHashMap#newKeySet()} and a synchronized {@link UnifiedSet}, from 1 to 32 threads.
+ * Each operation is a {@code contains} with probability {@code 1 - writeRatio}, otherwise an
+ * {@code add} or {@code remove} of a random key, so the set stays around half of {@code keys}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConcurrentUnifiedSetBenchmark
+{
+    @Param({"ConcurrentUnifiedSet", "ConcurrentHashMap", "SynchronizedUnifiedSet"})
+    public String implementation;
+
+    @Param({"100000"})
+    public int keys;
+
+    /**
+     * Percentage of operations that mutate the set.
+     */
+    @Param({"10"})
+    public int writeRatio;
+
+    private Set<Integer> set;
+    private Integer[] boxed;
+
+    @Setup
+    public void setUp()
+    {
+        if ("ConcurrentUnifiedSet".equals(this.implementation))
+        {
+            this.set = ConcurrentUnifiedSet.newSet();
+        }
+        else if ("ConcurrentHashMap".equals(this.implementation))
+        {
+            this.set = ConcurrentHashMap.newKeySet();
+        }
+        else
+        {
+            this.set = UnifiedSet.<Integer>newSet().asSynchronized();
+        }
+        this.boxed = Interval.zeroTo(this.keys - 1).toArray(new Integer[this.keys]);
+        for (int i = 0; i < this.keys; i += 2)
+        {
+            this.set.add(this.boxed[i]);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean mixed01()
+    {
+        return this.mixed();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean mixed02()
+    {
+        return this.mixed();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean mixed04()
+    {
+        return this.mixed();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean mixed08()
+    {
+        return this.mixed();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean mixed16()
+    {
+        return this.mixed();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean mixed32()
+    {
+        return this.mixed();
+    }
+
+    private boolean mixed()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = this.boxed[random.nextInt(this.keys)];
+        int roll = random.nextInt(100);
+        if (roll >= this.writeRatio)
+        {
+            return this.set.contains(key);
+        }
+        return (roll & 1) == 0 ? this.set.add(key) : this.set.remove(key);
+    }
+}
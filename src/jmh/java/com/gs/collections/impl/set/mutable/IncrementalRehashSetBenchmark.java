@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Grows an empty set to {@code size} keys, {@link IncrementalRehashSet} against the stock
+ * {@link UnifiedSet}, timing every add. The score is the time for the whole growth; the
+ * {@code maxAddMicros} counter is the slowest single add and {@code slowAdds} the number of adds
+ * over 100 us. Sampling modes miss the handful of adds that trigger a rehash, hence the explicit
+ * per-add timing. JMH sums the counters over the measurement iterations, so divide them by
+ * {@code Cnt}. Each iteration starts after a full GC, but young collections during growth still
+ * show up in the counters.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class IncrementalRehashSetBenchmark
+{
+    private static final long SLOW_ADD_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Param({"4194304"})
+    public int size;
+
+    private Integer[] keys;
+
+    @Setup
+    public void setUp()
+    {
+        this.keys = new Integer[this.size];
+        for (int i = 0; i < this.size; i++)
+        {
+            this.keys[i] = i;
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class AddLatency
+    {
+        public long maxAddMicros;
+        public long slowAdds;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            this.maxAddMicros = 0;
+            this.slowAdds = 0;
+            System.gc();
+        }
+    }
+
+    @Benchmark
+    public int growUnifiedSet(AddLatency latency)
+    {
+        return this.grow(UnifiedSet.newSet(), latency);
+    }
+
+    @Benchmark
+    public int growIncrementalRehashSet(AddLatency latency)
+    {
+        return this.grow(IncrementalRehashSet.newSet(), latency);
+    }
+
+    private int grow(Set<Integer> set, AddLatency latency)
+    {
+        long max = 0;
+        long slow = 0;
+        for (Integer key : this.keys)
+        {
+            long start = System.nanoTime();
+            set.add(key);
+            long elapsed = System.nanoTime() - start;
+            max = Math.max(max, elapsed);
+            slow += elapsed > SLOW_ADD_NANOS ? 1 : 0;
+        }
+        latency.maxAddMicros = TimeUnit.NANOSECONDS.toMicros(max);
+        latency.slowAdds = slow;
+        return set.size();
+    }
+}
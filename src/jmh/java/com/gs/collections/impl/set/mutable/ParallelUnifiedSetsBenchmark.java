@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.impl.list.Interval;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ParallelUnifiedSets} against the sequential {@link UnifiedSet} methods, across set sizes
+ * and pool parallelism. Speedup is the ratio of the {@code *Sequential} and {@code *Parallel}
+ * scores for one size; the crossover size is the smallest {@code size} where the parallel score
+ * wins. The sequential scores do not depend on {@code parallelism}. Both retainAll variants work
+ * on a fresh copy of the set, so the copy cost is in both scores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParallelUnifiedSetsBenchmark
+{
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"16384"})
+    public int batchSize;
+
+    private UnifiedSet<Integer> set;
+    private UnifiedSet<Integer> retained;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp()
+    {
+        this.set = UnifiedSet.newSet(Interval.zeroTo(this.size - 1));
+        this.retained = UnifiedSet.newSet(Interval.fromToBy(0, this.size - 1, 2));
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        this.pool.shutdownNow();
+    }
+
+    @Benchmark
+    public UnifiedSet<Integer> selectSequential()
+    {
+        return this.set.select(each -> each % 3 == 0);
+    }
+
+    @Benchmark
+    public UnifiedSet<Integer> selectParallel()
+    {
+        return ParallelUnifiedSets.select(this.set, each -> each % 3 == 0, this.batchSize, this.pool);
+    }
+
+    @Benchmark
+    public UnifiedSet<String> collectSequential()
+    {
+        return this.set.collect(String::valueOf);
+    }
+
+    @Benchmark
+    public UnifiedSet<String> collectParallel()
+    {
+        return ParallelUnifiedSets.collect(this.set, String::valueOf, this.batchSize, this.pool);
+    }
+
+    @Benchmark
+    public int retainAllSequential()
+    {
+        UnifiedSet<Integer> copy = UnifiedSet.newSet(this.set);
+        copy.retainAll(this.retained);
+        return copy.size();
+    }
+
+    @Benchmark
+    public int retainAllParallel()
+    {
+        UnifiedSet<Integer> copy = UnifiedSet.newSet(this.set);
+        ParallelUnifiedSets.retainAll(copy, this.retained, this.batchSize, this.pool);
+        return copy.size();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.api.set.MutableSet;
+import com.gs.collections.impl.factory.Sets;
+import com.gs.collections.impl.set.mutable.primitive.LongHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SetAlgebra} against the {@link Sets} factory methods on skewed operands: a snapshot of
+ * {@code largeSize} keys reconciled against a batch of {@code smallSize} keys, half of which are in
+ * the snapshot. {@code smallOnLeft} puts the batch on the left, the order {@link Sets} iterates.
+ * The {@code *SortedLongs} methods run the same intersection on sorted {@code long[]} keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SetAlgebraBenchmark
+{
+    @Param({"100", "10000"})
+    public int smallSize;
+
+    @Param({"1000000"})
+    public int largeSize;
+
+    @Param({"true", "false"})
+    public boolean smallOnLeft;
+
+    private Set<Long> left;
+    private Set<Long> right;
+    private long[] sortedLeft;
+    private long[] sortedRight;
+
+    @Setup
+    public void setUp()
+    {
+        UnifiedSet<Long> large = UnifiedSet.newSet(this.largeSize);
+        LongHashSet largeKeys = new LongHashSet(this.largeSize);
+        for (long i = 0; i < this.largeSize; i++)
+        {
+            large.add(i * 2);
+            largeKeys.add(i * 2);
+        }
+        UnifiedSet<Long> small = UnifiedSet.newSet(this.smallSize);
+        LongHashSet smallKeys = new LongHashSet(this.smallSize);
+        long stride = 2L * this.largeSize / this.smallSize;
+        for (long i = 0; i < this.smallSize; i++)
+        {
+            // Alternates between keys in the snapshot and odd keys that are not
+            long key = i * stride + (i & 1);
+            small.add(key);
+            smallKeys.add(key);
+        }
+        this.left = this.smallOnLeft ? small : large;
+        this.right = this.smallOnLeft ? large : small;
+        this.sortedLeft = (this.smallOnLeft ? smallKeys : largeKeys).toSortedArray();
+        this.sortedRight = (this.smallOnLeft ? largeKeys : smallKeys).toSortedArray();
+    }
+
+    @Benchmark
+    public MutableSet<Long> intersectSets()
+    {
+        return Sets.intersect(this.left, this.right);
+    }
+
+    @Benchmark
+    public UnifiedSet<Long> intersectSetAlgebra()
+    {
+        return SetAlgebra.intersect(this.left, this.right);
+    }
+
+    @Benchmark
+    public int intersectView()
+    {
+        return SetAlgebra.intersectView(this.left, this.right).size();
+    }
+
+    @Benchmark
+    public long[] intersectSortedLongs()
+    {
+        return SetAlgebra.intersect(this.sortedLeft, this.sortedRight);
+    }
+
+    @Benchmark
+    public MutableSet<Long> unionSets()
+    {
+        return Sets.union(this.left, this.right);
+    }
+
+    @Benchmark
+    public UnifiedSet<Long> unionSetAlgebra()
+    {
+        return SetAlgebra.union(this.left, this.right);
+    }
+
+    @Benchmark
+    public long[] unionSortedLongs()
+    {
+        return SetAlgebra.union(this.sortedLeft, this.sortedRight);
+    }
+
+    @Benchmark
+    public MutableSet<Long> differenceSets()
+    {
+        return Sets.difference(this.left, this.right);
+    }
+
+    @Benchmark
+    public UnifiedSet<Long> differenceSetAlgebra()
+    {
+        return SetAlgebra.difference(this.left, this.right);
+    }
+
+    @Benchmark
+    public long[] differenceSortedLongs()
+    {
+        return SetAlgebra.difference(this.sortedLeft, this.sortedRight);
+    }
+}
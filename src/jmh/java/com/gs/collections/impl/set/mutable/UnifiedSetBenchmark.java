@@ -0,0 +1,230 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.gs.collections.api.set.MutableSet;
+import com.gs.collections.impl.list.mutable.FastList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link UnifiedSet} operations covered by UnifiedSetFunctionalTest,
+ * each paired with a JDK {@link HashSet} (or {@link HashMap} for pool methods) baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UnifiedSetBenchmark
+{
+    @Param({"1000", "100000"})
+    public int size;
+
+    /**
+     * Number of keys sharing each hashCode in the collision benchmarks.
+     */
+    @Param({"4", "64"})
+    public int chainLength;
+
+    private Integer[] keys;
+    private CollidingKey[] collidingKeys;
+    private List<Integer> retained;
+    private UnifiedSet<Integer> unifiedSet;
+    private HashSet<Integer> hashSet;
+    private HashMap<Integer, Integer> hashPool;
+
+    @Setup
+    public void setUp()
+    {
+        this.keys = new Integer[this.size];
+        this.collidingKeys = new CollidingKey[this.size];
+        for (int i = 0; i < this.size; i++)
+        {
+            this.keys[i] = i;
+            this.collidingKeys[i] = new CollidingKey(i, i / this.chainLength);
+        }
+        this.retained = FastList.newList();
+        for (int i = 0; i < this.size; i += 2)
+        {
+            this.retained.add(i);
+        }
+        this.unifiedSet = UnifiedSet.newSetWith(this.keys);
+        this.hashSet = new HashSet<>(this.unifiedSet);
+        this.hashPool = new HashMap<>();
+        for (Integer key : this.keys)
+        {
+            this.hashPool.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public int addRemoveCollidingUnifiedSet()
+    {
+        UnifiedSet<CollidingKey> set = UnifiedSet.newSet();
+        for (CollidingKey key : this.collidingKeys)
+        {
+            set.add(key);
+        }
+        for (CollidingKey key : this.collidingKeys)
+        {
+            set.remove(key);
+        }
+        return set.size();
+    }
+
+    @Benchmark
+    public int addRemoveCollidingHashSet()
+    {
+        Set<CollidingKey> set = new HashSet<>();
+        for (CollidingKey key : this.collidingKeys)
+        {
+            set.add(key);
+        }
+        for (CollidingKey key : this.collidingKeys)
+        {
+            set.remove(key);
+        }
+        return set.size();
+    }
+
+    @Benchmark
+    public int growFromEmptyUnifiedSet()
+    {
+        UnifiedSet<Integer> set = new UnifiedSet<>(2, 0.75f);
+        for (Integer key : this.keys)
+        {
+            set.add(key);
+        }
+        return set.size();
+    }
+
+    @Benchmark
+    public int growFromEmptyHashSet()
+    {
+        Set<Integer> set = new HashSet<>(2, 0.75f);
+        for (Integer key : this.keys)
+        {
+            set.add(key);
+        }
+        return set.size();
+    }
+
+    @Benchmark
+    public int retainAllUnifiedSet()
+    {
+        UnifiedSet<Integer> set = new UnifiedSet<>(this.unifiedSet);
+        set.retainAll(this.retained);
+        return set.size();
+    }
+
+    @Benchmark
+    public int retainAllHashSet()
+    {
+        Set<Integer> set = new HashSet<>(this.hashSet);
+        set.retainAll(this.retained);
+        return set.size();
+    }
+
+    @Benchmark
+    public MutableSet<String> selectCollectUnifiedSet()
+    {
+        return this.unifiedSet.select(each -> each % 2 == 0).collect(String::valueOf);
+    }
+
+    @Benchmark
+    public Set<String> selectCollectHashSet()
+    {
+        return this.hashSet.stream().filter(each -> each % 2 == 0).map(String::valueOf).collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public int poolGetRemovePutUnifiedSet()
+    {
+        int hits = 0;
+        for (Integer key : this.keys)
+        {
+            if (this.unifiedSet.get(key) != null)
+            {
+                hits++;
+            }
+            this.unifiedSet.put(this.unifiedSet.removeFromPool(key));
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int poolGetRemovePutHashMap()
+    {
+        int hits = 0;
+        for (Integer key : this.keys)
+        {
+            if (this.hashPool.get(key) != null)
+            {
+                hits++;
+            }
+            Integer removed = this.hashPool.remove(key);
+            this.hashPool.put(removed, removed);
+        }
+        return hits;
+    }
+
+    /**
+     * Key whose hashCode is shared by {@code chainLength} distinct keys, scaling up the
+     * COLLISION_* constants of the functional test.
+     */
+    private static final class CollidingKey
+    {
+        private final int id;
+        private final int hash;
+
+        private CollidingKey(int id, int hash)
+        {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == this.id;
+        }
+    }
+}
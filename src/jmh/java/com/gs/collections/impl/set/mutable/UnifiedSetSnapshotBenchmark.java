@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Restoring a {@link UnifiedSet} of {@code size} interned-key strings after a restart: from a
+ * {@link SetSnapshots} file, through Java serialization, and by adding already decoded strings to
+ * an empty set, the lower bound of rebuilding it by replaying traffic. The snapshot and the
+ * serialized form both decode every string; only the snapshot skips hashing and table growth.
+ * 50M strings need a heap of about 16g, e.g. {@code -jvmArgsAppend -Xmx16g}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class UnifiedSetSnapshotBenchmark
+{
+    @Param({"50000000"})
+    public int size;
+
+    private Path dir;
+    private Path snapshot;
+    private Path serialized;
+    private String[] keys;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        this.dir = Files.createTempDirectory("set-snapshot-bench");
+        this.snapshot = this.dir.resolve("keys.snap");
+        this.serialized = this.dir.resolve("keys.ser");
+        this.keys = new String[this.size];
+        UnifiedSet<String> set = UnifiedSet.newSet();
+        for (int i = 0; i < this.size; i++)
+        {
+            this.keys[i] = "tenant-" + (i & 1023) + "/order-" + i;
+            set.add(this.keys[i]);
+        }
+        SetSnapshots.write(set, SetSnapshots.STRINGS, this.snapshot);
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(this.serialized), 1 << 16)))
+        {
+            out.writeObject(set);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        try (Stream<Path> paths = Files.walk(this.dir))
+        {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public UnifiedSet<String> restoreSnapshot() throws IOException
+    {
+        return SetSnapshots.readUnifiedSet(this.snapshot, SetSnapshots.STRINGS);
+    }
+
+    @Benchmark
+    public Object restoreJavaSerialization() throws IOException, ClassNotFoundException
+    {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(this.serialized), 1 << 16)))
+        {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public UnifiedSet<String> reAdd()
+    {
+        UnifiedSet<String> set = UnifiedSet.newSet();
+        for (String key : this.keys)
+        {
+            set.add(key);
+        }
+        return set;
+    }
+}
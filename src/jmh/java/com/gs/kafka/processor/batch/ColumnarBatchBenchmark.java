@@ -0,0 +1,149 @@
+package com.gs.kafka.processor.batch;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.kafka.processor.dummy.DummyService;
+import com.gs.kafka.processor.query.BatchFilter;
+import com.gs.kafka.processor.query.Filter;
+import com.gs.kafka.processor.sink.Column;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Processed order records held as a {@link ColumnarBatch} vs. a list of {@link Order} objects.
+ * The {@code filterCalculate} pair selects one tenant's large orders and sums
+ * {@link DummyService#calculate(int)} of their quantity; the {@code build} pair appends every
+ * record, so with {@code -prof gc} their allocation divided by {@code rows} is the memory per
+ * record of each layout.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ColumnarBatchBenchmark {
+
+    private static final Schema SCHEMA = Schema.of(null,
+            new Column("partition", ColumnType.INT),
+            new Column("offset", ColumnType.LONG),
+            new Column("tenant", ColumnType.STRING),
+            new Column("price", ColumnType.DOUBLE),
+            new Column("quantity", ColumnType.INT));
+
+    private static final String TARGET_TENANT = "tenant-00000007";
+
+    @Param({"65536"})
+    public int rows;
+
+    private final DummyService service = new DummyService();
+
+    private int[] partitions;
+    private String[] tenants;
+    private double[] prices;
+    private int[] quantities;
+
+    private ColumnarBatch batch;
+    private MutableList<Order> orders;
+    private int[] selection;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        partitions = new int[rows];
+        tenants = new String[rows];
+        prices = new double[rows];
+        quantities = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            partitions[i] = i % 16;
+            // A fresh String per record, as decoding a message produces
+            tenants[i] = new String(String.format("tenant-%08d", random.nextInt(64)));
+            prices[i] = random.nextInt(100_000) / 100.0;
+            quantities[i] = random.nextInt(21);
+        }
+        batch = buildColumnar();
+        orders = buildObjects();
+        selection = new int[rows];
+    }
+
+    @Benchmark
+    public long filterCalculateColumnar() {
+        int count = BatchFilter.select(batch, selection,
+                Filter.eq("tenant", TARGET_TENANT), Filter.gt("quantity", 10));
+        int[] values = ((IntBatchColumn) batch.column(4)).getValues();
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += service.calculate(values[selection[i]]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long filterCalculateObjects() {
+        long sum = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (TARGET_TENANT.equals(order.tenant) && order.quantity > 10) {
+                sum += service.calculate(order.quantity);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public ColumnarBatch buildColumnar() {
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(SCHEMA, rows);
+        for (int i = 0; i < rows; i++) {
+            builder.setInt(0, partitions[i])
+                    .setLong(1, i)
+                    .setString(2, tenants[i])
+                    .setDouble(3, prices[i])
+                    .setInt(4, quantities[i])
+                    .appendRow();
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public MutableList<Order> buildObjects() {
+        MutableList<Order> list = FastList.newList(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(new Order(partitions[i], i, tenants[i], prices[i], quantities[i]));
+        }
+        return list;
+    }
+
+    /**
+     * Row object of the baseline
+     */
+    static final class Order {
+
+        final int partition;
+        final long offset;
+        final String tenant;
+        final double price;
+        final int quantity;
+
+        Order(int partition, long offset, String tenant, double price, int quantity) {
+            this.partition = partition;
+            this.offset = offset;
+            this.tenant = tenant;
+            this.price = price;
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.gs.kafka.processor.checkpoint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to reopen a {@link CheckpointStore} whose log holds {@code entries} changes: offset
+ * commits across 64 partitions interleaved with dedup keys, a window rotation every 100,000
+ * keys, synced every 1,000 entries. With {@code compacted} the state is in a snapshot instead,
+ * which is what a store left at the default compaction threshold mostly recovers from. The files
+ * are in the page cache, so this is the replay cost rather than the disk read.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CheckpointRecoveryBenchmark {
+
+    @Param({"1000000", "4000000"})
+    public int entries;
+
+    @Param({"false", "true"})
+    public boolean compacted;
+
+    private Path dir;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("checkpoint-recovery-bench");
+        try (CheckpointStore store = CheckpointStore.open(dir, Long.MAX_VALUE)) {
+            for (int i = 0; i < entries; i++) {
+                if ((i & 1) == 0) {
+                    store.appendOffset(i & 63, i);
+                } else {
+                    store.appendDedupKey(i);
+                }
+                if (i % 200_000 == 199_999) {
+                    store.appendDedupRotation();
+                }
+                if (i % 1000 == 999) {
+                    store.sync();
+                }
+            }
+            if (compacted) {
+                store.compact();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long recover() throws IOException {
+        try (CheckpointStore store = CheckpointStore.open(dir, Long.MAX_VALUE)) {
+            return store.getOffset(0);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.gs.kafka.processor.checkpoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Durable offset commits through a {@link CheckpointStore} from 1, 4 and 16 partition threads,
+ * vs. a log that writes and fsyncs every commit on its own. The {@code syncsPerCommit} counter
+ * printed at tear down shows how many commits each group-committed fsync carried; throughput only
+ * separates from the baseline once threads queue behind an fsync, so it depends on the disk.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CheckpointStoreBenchmark {
+
+    private final AtomicInteger partitions = new AtomicInteger();
+
+    private Path dir;
+    private CheckpointStore store;
+    private FileChannel perCommitLog;
+    private final ByteBuffer entry = ByteBuffer.allocate(13);
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("checkpoint-bench");
+        store = CheckpointStore.open(dir.resolve("store"));
+        perCommitLog = FileChannel.open(dir.resolve("per-commit.log"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (store.getEntriesWritten() > 0) {
+            System.out.printf("%n%d commits in %d syncs, %.1f commits per sync%n", store.getEntriesWritten(),
+                    store.getSyncs(), store.getEntriesWritten() / (double) store.getSyncs());
+        }
+        store.close();
+        perCommitLog.close();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Partition and next offset of one committing thread
+     */
+    @State(Scope.Thread)
+    public static class Partition {
+
+        int partition;
+        long offset;
+
+        @Setup
+        public void setUp(CheckpointStoreBenchmark benchmark) {
+            partition = benchmark.partitions.getAndIncrement();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void groupCommit1(Partition state) throws IOException {
+        store.commit(state.partition, ++state.offset);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void groupCommit4(Partition state) throws IOException {
+        store.commit(state.partition, ++state.offset);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void groupCommit16(Partition state) throws IOException {
+        store.commit(state.partition, ++state.offset);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void fsyncPerCommit4(Partition state) throws IOException {
+        synchronized (perCommitLog) {
+            entry.clear();
+            entry.put((byte) 1).putInt(state.partition).putLong(++state.offset).flip();
+            perCommitLog.write(entry);
+            perCommitLog.force(false);
+        }
+    }
+}
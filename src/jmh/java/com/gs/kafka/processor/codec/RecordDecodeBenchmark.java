@@ -0,0 +1,220 @@
+package com.gs.kafka.processor.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.gs.kafka.processor.dummy.DummyService;
+import com.gs.kafka.processor.sink.Column;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodes one poll of order messages and feeds each quantity to {@link DummyService#calculate(int)},
+ * also counting the messages of one tenant. The {@code flyweight} pair reads binary records in
+ * place from a heap or direct buffer; {@code objectMapping} decodes the same records into an
+ * {@link Order} per message; {@code json} parses JSON text into an {@link Order}. Run with
+ * {@code -prof gc} to compare allocation per poll.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RecordDecodeBenchmark {
+
+    private static final RecordLayout LAYOUT = new RecordLayout(Schema.of(null,
+            new Column("partition", ColumnType.INT),
+            new Column("offset", ColumnType.LONG),
+            new Column("tenant", ColumnType.STRING),
+            new Column("price", ColumnType.DOUBLE),
+            new Column("quantity", ColumnType.INT)));
+
+    private static final int PARTITION = 0;
+    private static final int OFFSET = 1;
+    private static final int TENANT = 2;
+    private static final int PRICE = 3;
+    private static final int QUANTITY = 4;
+
+    private static final String TARGET_TENANT = "tenant-00000007";
+
+    @Param({"4096"})
+    public int messages;
+
+    private final DummyService service = new DummyService();
+    private final RecordFlyweight flyweight = new RecordFlyweight(LAYOUT);
+    private final byte[] targetTenant = TARGET_TENANT.getBytes(StandardCharsets.UTF_8);
+
+    private ByteBuffer heap;
+    private ByteBuffer direct;
+    private ByteBuffer littleEndianHeap;
+    private byte[][] json;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        heap = ByteBuffer.allocate(messages * (LAYOUT.getFixedLength() + TARGET_TENANT.length()));
+        json = new byte[messages][];
+        RecordWriter writer = new RecordWriter(LAYOUT);
+        int position = 0;
+        for (int i = 0; i < messages; i++) {
+            int partition = i % 16;
+            String tenant = String.format("tenant-%08d", random.nextInt(64));
+            double price = random.nextInt(100_000) / 100.0;
+            int quantity = random.nextInt(21);
+            position += writer.wrap(heap, position)
+                    .putInt(PARTITION, partition)
+                    .putLong(OFFSET, i)
+                    .putString(TENANT, tenant)
+                    .putDouble(PRICE, price)
+                    .putInt(QUANTITY, quantity)
+                    .finish();
+            json[i] = ("{\"partition\":" + partition + ",\"offset\":" + i + ",\"tenant\":\"" + tenant
+                    + "\",\"price\":" + price + ",\"quantity\":" + quantity + "}").getBytes(StandardCharsets.UTF_8);
+        }
+        heap.limit(position);
+        direct = ByteBuffer.allocateDirect(position);
+        direct.put(0, heap, 0, position);
+        littleEndianHeap = heap.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    public long flyweightHeap() {
+        return flyweight(heap);
+    }
+
+    @Benchmark
+    public long flyweightDirect() {
+        return flyweight(direct);
+    }
+
+    private long flyweight(ByteBuffer records) {
+        long sum = 0;
+        int matches = 0;
+        for (int offset = 0; offset < records.limit(); offset += flyweight.length()) {
+            flyweight.wrap(records, offset);
+            sum += service.calculate(flyweight.getInt(QUANTITY));
+            if (flyweight.stringEquals(TENANT, targetTenant)) {
+                matches++;
+            }
+        }
+        return sum + matches;
+    }
+
+    @Benchmark
+    public long objectMapping() {
+        long sum = 0;
+        int matches = 0;
+        for (int offset = 0; offset < littleEndianHeap.limit(); offset += littleEndianHeap.getInt(offset)) {
+            Order order = Order.decode(littleEndianHeap, offset);
+            sum += service.calculate(order.quantity);
+            if (TARGET_TENANT.equals(order.tenant)) {
+                matches++;
+            }
+        }
+        return sum + matches;
+    }
+
+    @Benchmark
+    public long json() {
+        long sum = 0;
+        int matches = 0;
+        for (byte[] message : json) {
+            Order order = Order.parseJson(message);
+            sum += service.calculate(order.quantity);
+            if (TARGET_TENANT.equals(order.tenant)) {
+                matches++;
+            }
+        }
+        return sum + matches;
+    }
+
+    /**
+     * Message object of the mapping baselines
+     */
+    static final class Order {
+
+        int partition;
+        long offset;
+        String tenant;
+        double price;
+        int quantity;
+
+        /**
+         * Copies every field of a binary record out of the buffer, as a generated decoder would
+         */
+        static Order decode(ByteBuffer view, int offset) {
+            Order order = new Order();
+            order.partition = view.getInt(offset + LAYOUT.offset(PARTITION));
+            order.offset = view.getLong(offset + LAYOUT.offset(OFFSET));
+            int start = view.getInt(offset + LAYOUT.offset(TENANT));
+            int length = view.getInt(offset + LAYOUT.offset(TENANT) + 4);
+            order.tenant = new String(view.array(), offset + start, length, StandardCharsets.UTF_8);
+            order.price = view.getDouble(offset + LAYOUT.offset(PRICE));
+            order.quantity = view.getInt(offset + LAYOUT.offset(QUANTITY));
+            return order;
+        }
+
+        /**
+         * Minimal mapper for flat JSON objects of numbers and unescaped strings, in the style of a
+         * data-binding library: decode the text, read each key and assign the matching field
+         */
+        static Order parseJson(byte[] message) {
+            String text = new String(message, StandardCharsets.UTF_8);
+            Order order = new Order();
+            int i = text.indexOf('"');
+            while (i >= 0) {
+                int keyEnd = text.indexOf('"', i + 1);
+                String key = text.substring(i + 1, keyEnd);
+                int valueStart = keyEnd + 2;
+                int valueEnd;
+                String value;
+                if (text.charAt(valueStart) == '"') {
+                    valueEnd = text.indexOf('"', valueStart + 1) + 1;
+                    value = text.substring(valueStart + 1, valueEnd - 1);
+                } else {
+                    valueEnd = valueStart;
+                    while (text.charAt(valueEnd) != ',' && text.charAt(valueEnd) != '}') {
+                        valueEnd++;
+                    }
+                    value = text.substring(valueStart, valueEnd);
+                }
+                switch (key) {
+                    case "partition":
+                        order.partition = Integer.parseInt(value);
+                        break;
+                    case "offset":
+                        order.offset = Long.parseLong(value);
+                        break;
+                    case "tenant":
+                        order.tenant = value;
+                        break;
+                    case "price":
+                        order.price = Double.parseDouble(value);
+                        break;
+                    case "quantity":
+                        order.quantity = Integer.parseInt(value);
+                        break;
+                    default:
+                        break;
+                }
+                i = text.indexOf('"', valueEnd);
+            }
+            return order;
+        }
+    }
+}
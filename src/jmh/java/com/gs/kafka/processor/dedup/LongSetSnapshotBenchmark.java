@@ -0,0 +1,129 @@
+package com.gs.kafka.processor.dedup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.gs.collections.impl.set.mutable.SetSnapshots;
+import com.gs.collections.impl.set.mutable.primitive.LongHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Restoring {@code size} packed (partition, offset) dedup keys after a restart. A
+ * {@link LongHashSet} comes back from a {@link SetSnapshots} file, through Java serialization, or
+ * by adding the keys to an empty set; an {@link OffHeapLongHashSet} is mapped from its snapshot
+ * or rebuilt the same way. Mapping is lazy, so {@code mapOffHeapAndScan} also reads every slot,
+ * which is the cost once the whole table has been paged in.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-XX:MaxDirectMemorySize=2g"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class LongSetSnapshotBenchmark {
+
+    @Param({"50000000"})
+    public int size;
+
+    private Path dir;
+    private Path snapshot;
+    private Path serialized;
+    private Path offHeapSnapshot;
+    private long[] keys;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("long-set-snapshot-bench");
+        snapshot = dir.resolve("keys.snap");
+        serialized = dir.resolve("keys.ser");
+        offHeapSnapshot = dir.resolve("keys.offheap");
+        keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = OffHeapLongHashSet.key(i & 63, i);
+        }
+        LongHashSet set = LongHashSet.newSetWith(keys);
+        SetSnapshots.write(set, snapshot);
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(serialized), 1 << 16))) {
+            out.writeObject(set);
+        }
+        set = null;
+        OffHeapLongHashSet offHeap = new OffHeapLongHashSet(size);
+        for (long key : keys) {
+            offHeap.add(key);
+        }
+        offHeap.writeTo(offHeapSnapshot);
+        offHeap.close();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public LongHashSet restoreSnapshot() throws IOException {
+        return SetSnapshots.readLongHashSet(snapshot);
+    }
+
+    @Benchmark
+    public Object restoreJavaSerialization() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(serialized), 1 << 16))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public LongHashSet reAdd() {
+        LongHashSet set = new LongHashSet();
+        for (long key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public OffHeapLongHashSet mapOffHeap() throws IOException {
+        return OffHeapLongHashSet.map(offHeapSnapshot);
+    }
+
+    @Benchmark
+    public long mapOffHeapAndScan() throws IOException {
+        OffHeapLongHashSet set = OffHeapLongHashSet.map(offHeapSnapshot);
+        long[] sum = new long[1];
+        set.forEach(key -> sum[0] += key);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long reAddOffHeap() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet();
+        for (long key : keys) {
+            set.add(key);
+        }
+        set.close();
+        return set.size();
+    }
+}
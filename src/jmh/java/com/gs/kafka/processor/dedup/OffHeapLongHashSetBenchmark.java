@@ -0,0 +1,131 @@
+package com.gs.kafka.processor.dedup;
+
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.impl.set.mutable.UnifiedSet;
+import com.gs.collections.impl.set.mutable.primitive.LongHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dedup-style workload over packed (partition, offset) keys: fill a set, then probe it with a
+ * mix of hits and misses. Compares the off-heap set with {@code UnifiedSet<Long>} and the
+ * on-heap primitive {@link LongHashSet}; run with {@code -prof gc} to see the allocation gap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=4g")
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OffHeapLongHashSetBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private long[] keys;
+    private OffHeapLongHashSet offHeap;
+    private LongHashSet primitive;
+    private UnifiedSet<Long> boxed;
+
+    @Setup
+    public void setUp() {
+        keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = OffHeapLongHashSet.key(i % 64, i / 64);
+        }
+        offHeap = new OffHeapLongHashSet(size);
+        primitive = new LongHashSet(size);
+        boxed = UnifiedSet.newSet(size);
+        for (long key : keys) {
+            offHeap.add(key);
+            primitive.add(key);
+            boxed.add(key);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        offHeap.close();
+    }
+
+    @Benchmark
+    public long fillOffHeap() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet()) {
+            for (long key : keys) {
+                set.add(key);
+            }
+            return set.size();
+        }
+    }
+
+    @Benchmark
+    public int fillLongHashSet() {
+        LongHashSet set = new LongHashSet();
+        for (long key : keys) {
+            set.add(key);
+        }
+        return set.size();
+    }
+
+    @Benchmark
+    public int fillUnifiedSet() {
+        UnifiedSet<Long> set = UnifiedSet.newSet();
+        for (long key : keys) {
+            set.add(key);
+        }
+        return set.size();
+    }
+
+    @Benchmark
+    public int probeOffHeap() {
+        int hits = 0;
+        for (long key : keys) {
+            if (offHeap.contains(key)) {
+                hits++;
+            }
+            if (offHeap.contains(key + 1_000_000_000L)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int probeLongHashSet() {
+        int hits = 0;
+        for (long key : keys) {
+            if (primitive.contains(key)) {
+                hits++;
+            }
+            if (primitive.contains(key + 1_000_000_000L)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int probeUnifiedSet() {
+        int hits = 0;
+        for (long key : keys) {
+            if (boxed.contains(key)) {
+                hits++;
+            }
+            if (boxed.contains(key + 1_000_000_000L)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
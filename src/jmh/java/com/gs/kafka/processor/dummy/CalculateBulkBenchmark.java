@@ -0,0 +1,91 @@
+package com.gs.kafka.processor.dummy;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-element cost of the bulk calculate variants against the scalar method.
+ * Scores are nanoseconds per element thanks to {@link OperationsPerInvocation}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CalculateBulkBenchmark {
+
+    private static final int SIZE = 4096;
+
+    private DummyService service;
+    private int[] src;
+    private int[] dest;
+    private IntBuffer directSrc;
+    private IntBuffer directDest;
+    private IntArrayList listSrc;
+    private IntArrayList listDest;
+
+    @Setup
+    public void setUp() {
+        service = new DummyService();
+        Random random = new Random(42);
+        src = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            // Mixed values so the scalar branch is unpredictable
+            src[i] = random.nextInt(21);
+        }
+        dest = new int[SIZE];
+        directSrc = ByteBuffer.allocateDirect(SIZE * 4).asIntBuffer().put(src);
+        directDest = ByteBuffer.allocateDirect(SIZE * 4).asIntBuffer();
+        listSrc = IntArrayList.newListWith(src);
+        listDest = new IntArrayList(SIZE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] scalar() {
+        for (int i = 0; i < SIZE; i++) {
+            dest[i] = service.calculate(src[i]);
+        }
+        return dest;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] bulkArray() {
+        service.calculate(src, dest);
+        return dest;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public IntBuffer bulkDirectBuffer() {
+        directSrc.clear();
+        directDest.clear();
+        service.calculate(directSrc, directDest);
+        return directDest;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public IntArrayList bulkIntList() {
+        listDest.clear();
+        service.calculate(listSrc, listDest);
+        return listDest;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gs.kafka.processor.dummy;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.kafka.processor.pipeline.InMemoryRecordSource;
+import com.gs.kafka.processor.pipeline.PipelineResult;
+import com.gs.kafka.processor.pipeline.Record;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks DummyService over one poll worth of messages. Every benchmark processes
+ * {@code batchSize} messages so scores are comparable per batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DummyServiceBenchmark {
+
+    @Param({"256", "4096"})
+    public int batchSize;
+
+    private DummyService service;
+    private int[] values;
+    private MutableList<Record> records;
+
+    @Setup
+    public void setUp() {
+        service = new DummyService();
+        Random random = new Random(42);
+        values = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            values[i] = random.nextInt(21);
+        }
+        records = InMemoryRecordSource.ofInts(4, batchSize).poll(batchSize);
+    }
+
+    @Benchmark
+    public int calculatePerMessage() {
+        int sum = 0;
+        for (int value : values) {
+            sum += service.calculate(value);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void performOperationPerMessage(Blackhole blackhole) {
+        for (int i = 0; i < batchSize; i++) {
+            blackhole.consume(service.performOperation());
+        }
+    }
+
+    @Benchmark
+    public PipelineResult performOperationPipeline(Blackhole blackhole) {
+        return service.performOperation(new InMemoryRecordSource(records), blackhole::consume);
+    }
+}
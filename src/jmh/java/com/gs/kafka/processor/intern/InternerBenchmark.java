@@ -0,0 +1,162 @@
+package com.gs.kafka.processor.intern;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Replays decoded message headers and keeps every decoded string alive, as a batch buffer or
+ * window would, then measures the heap they retain. Each message carries one of 32 topic names,
+ * one of 50,000 tenant IDs drawn from a Zipf(1.0) distribution and 4 of 200 schema field names,
+ * each decoded from UTF-8 bytes into a fresh {@code String}. {@code mode} selects no interning,
+ * {@link String#intern()}, or an {@link Interner} of {@code maxSize} entries with strong or weak
+ * values. The score is the replay time. Outside the timed part, {@code distinctStrings} counts the
+ * distinct {@code String} instances the replay holds, {@code retainedKb} estimates their heap plus
+ * the holding array and {@link Interner#footprintBytes()} (the JVM string table behind
+ * {@code String.intern()} is not counted) and {@code hitRatioPercent} is the interner's hit ratio.
+ * JMH sums the counters over the measurement iterations, so divide them by {@code Cnt}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class InternerBenchmark {
+
+    private static final int TOPICS = 32;
+    private static final int TENANTS = 50_000;
+    private static final int FIELDS = 200;
+    private static final int STRINGS_PER_MESSAGE = 6;
+
+    // Compact Latin-1 strings on a 64-bit JVM with compressed oops
+    private static final int STRING_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    public enum InternMode { NONE, STRING_INTERN, CLOCK, CLOCK_WEAK }
+
+    @Param({"500000"})
+    public int messages;
+
+    @Param({"NONE", "STRING_INTERN", "CLOCK", "CLOCK_WEAK"})
+    public InternMode mode;
+
+    @Param({"8192"})
+    public int maxSize;
+
+    private byte[][] encoded;
+    private int[] replay;
+    private String[] retained;
+    private Interner<String> interner;
+
+    @Setup
+    public void setUp() {
+        encoded = new byte[TOPICS + TENANTS + FIELDS][];
+        for (int i = 0; i < TOPICS; i++) {
+            encoded[i] = ("trading.orders.region-" + i).getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < TENANTS; i++) {
+            encoded[TOPICS + i] = String.format("tenant-%08d", i).getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < FIELDS; i++) {
+            encoded[TOPICS + TENANTS + i] = ("field_name_" + i).getBytes(StandardCharsets.UTF_8);
+        }
+        double[] tenantCdf = zipfCdf(TENANTS, 1.0);
+        Random random = new Random(42);
+        replay = new int[messages * STRINGS_PER_MESSAGE];
+        for (int m = 0, i = 0; m < messages; m++) {
+            replay[i++] = random.nextInt(TOPICS);
+            int tenant = Arrays.binarySearch(tenantCdf, random.nextDouble());
+            replay[i++] = TOPICS + Math.min(tenant >= 0 ? tenant : -tenant - 1, TENANTS - 1);
+            for (int f = 0; f < STRINGS_PER_MESSAGE - 2; f++) {
+                replay[i++] = TOPICS + TENANTS + random.nextInt(FIELDS);
+            }
+        }
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HeapCounters {
+
+        public long retainedKb;
+        public long distinctStrings;
+        public long hitRatioPercent;
+
+        /**
+         * Runs outside the timed invocation, while the replayed strings are still reachable
+         */
+        @TearDown(Level.Iteration)
+        public void measure(InternerBenchmark benchmark) {
+            Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+            instances.addAll(Arrays.asList(benchmark.retained));
+            long bytes = align(ARRAY_HEADER_BYTES + 4L * benchmark.retained.length);
+            for (String each : instances) {
+                bytes += STRING_BYTES + align(ARRAY_HEADER_BYTES + each.length());
+            }
+            Interner<String> interner = benchmark.interner;
+            retainedKb = (bytes + (interner == null ? 0 : interner.footprintBytes())) >> 10;
+            distinctStrings = instances.size();
+            hitRatioPercent = interner == null ? 0 : Math.round(interner.hitRatio() * 100);
+            benchmark.retained = null;
+            benchmark.interner = null;
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7L) & ~7L;
+        }
+    }
+
+    /**
+     * @param counters filled by its iteration teardown
+     */
+    @Benchmark
+    public int replay(HeapCounters counters) {
+        interner = mode == InternMode.CLOCK || mode == InternMode.CLOCK_WEAK
+                ? new Interner<>(maxSize, mode == InternMode.CLOCK_WEAK)
+                : null;
+        String[] strings = new String[replay.length];
+        for (int i = 0; i < replay.length; i++) {
+            String decoded = new String(encoded[replay[i]], StandardCharsets.UTF_8);
+            if (mode == InternMode.STRING_INTERN) {
+                decoded = decoded.intern();
+            } else if (interner != null) {
+                decoded = interner.intern(decoded);
+            }
+            strings[i] = decoded;
+        }
+        retained = strings;
+        return strings.length;
+    }
+}
@@ -0,0 +1,102 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.kafka.processor.metrics.HistogramSnapshot;
+import com.gs.kafka.processor.metrics.LatencyHistogram;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bursty traffic from a {@link BurstyRecordSource} through a {@link BatchPipeline} whose
+ * transform stage costs 1ms per batch, standing in for a sink commit. Each period of 500ms has a
+ * 100ms burst at 200k records/s and 400ms at 5k records/s, about 44k records/s on average.
+ * <p>
+ * {@code ADAPTIVE} batches with {@link AdaptiveBatchingSource} and a 20ms latency budget;
+ * {@code FIXED_n} waits for n records with a 1s linger, as a static batch size does;
+ * {@code AS_POLLED} hands on whatever a poll returns. The score is the time to push all records
+ * through, which is at least the schedule's length; the counters are the end-to-end p99 and
+ * maximum latency and the number of batches. JMH sums the counters over the measurement
+ * iterations, so divide them by {@code Cnt}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class AdaptiveBatchingBenchmark {
+
+    private static final int RECORDS = 100_000;
+    private static final int MAX_BATCH = 8192;
+
+    @Param({"ADAPTIVE", "FIXED_64", "FIXED_4096", "AS_POLLED"})
+    public String batching;
+
+    /**
+     * Latency and batch counts of one run
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Latency {
+
+        public long p99Micros;
+        public long maxMicros;
+        public long batches;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            p99Micros = 0;
+            maxMicros = 0;
+            batches = 0;
+        }
+    }
+
+    @Benchmark
+    public long burstyLoad(Latency latency) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        RecordSource load = new BurstyRecordSource(8, RECORDS, 5_000, 200_000, 500, 0.2);
+        RecordSource source;
+        switch (batching) {
+            case "ADAPTIVE":
+                source = new AdaptiveBatchingSource(load, BatchingPolicy.defaults().withMaxBatchSize(MAX_BATCH));
+                break;
+            case "FIXED_64":
+                source = new AdaptiveBatchingSource(load, BatchingPolicy.fixed(64, 1_000_000));
+                break;
+            case "FIXED_4096":
+                source = new AdaptiveBatchingSource(load, BatchingPolicy.fixed(4096, 1_000_000));
+                break;
+            default:
+                source = load;
+                break;
+        }
+        PipelineResult result = new BatchPipeline<Record, Record>(source,
+                batch -> batch,
+                new BlockingLatencyStage<>(1, TimeUnit.MILLISECONDS),
+                (MutableList<Record> batch) -> {
+                    long now = System.nanoTime();
+                    for (int i = 0; i < batch.size(); i++) {
+                        histogram.record(now - batch.get(i).getTimestamp());
+                    }
+                },
+                MAX_BATCH, BatchPipeline.DEFAULT_QUEUE_CAPACITY).run();
+        HistogramSnapshot snapshot = histogram.snapshot();
+        latency.p99Micros = TimeUnit.NANOSECONDS.toMicros(snapshot.getValueAtQuantile(0.99));
+        latency.maxMicros = TimeUnit.NANOSECONDS.toMicros(snapshot.getMax());
+        latency.batches = result.getBatches();
+        return result.getWritten();
+    }
+}
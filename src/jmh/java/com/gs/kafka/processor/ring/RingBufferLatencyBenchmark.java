@@ -0,0 +1,127 @@
+package com.gs.kafka.processor.ring;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ping-pong between the benchmark thread and an echo thread over two handoffs of the same kind.
+ * Sample mode reports p50/p99/p999 of the round trip, i.e. two handoffs. Busy-spin needs two free
+ * cores to mean anything.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RingBufferLatencyBenchmark {
+
+    private static final int CAPACITY = 1024;
+    private static final Long PAYLOAD = 42L;
+
+    public enum Kind {
+        SPSC_BUSY_SPIN, SPSC_YIELD, SPSC_PARK, MPSC_YIELD, ARRAY_BLOCKING_QUEUE, LINKED_BLOCKING_QUEUE
+    }
+
+    private interface Channel {
+        void put(Long element) throws InterruptedException;
+
+        Long take() throws InterruptedException;
+    }
+
+    @Param
+    public Kind kind;
+
+    private Channel ping;
+    private Channel pong;
+    private Thread echo;
+
+    @Setup
+    public void setUp() {
+        ping = newChannel(kind);
+        pong = newChannel(kind);
+        echo = new Thread(() -> {
+            try {
+                while (true) {
+                    pong.put(ping.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "echo");
+        echo.setDaemon(true);
+        echo.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        echo.interrupt();
+        echo.join();
+    }
+
+    @Benchmark
+    public Long roundTrip() throws InterruptedException {
+        ping.put(PAYLOAD);
+        return pong.take();
+    }
+
+    private static Channel newChannel(Kind kind) {
+        switch (kind) {
+            case SPSC_BUSY_SPIN:
+                return ring(RingBuffer.spsc(CAPACITY, WaitStrategy.BUSY_SPIN));
+            case SPSC_YIELD:
+                return ring(RingBuffer.spsc(CAPACITY, WaitStrategy.YIELD));
+            case SPSC_PARK:
+                return ring(RingBuffer.spsc(CAPACITY, WaitStrategy.PARK));
+            case MPSC_YIELD:
+                return ring(RingBuffer.mpsc(CAPACITY, WaitStrategy.YIELD));
+            case ARRAY_BLOCKING_QUEUE:
+                return queue(new ArrayBlockingQueue<>(CAPACITY));
+            default:
+                return queue(new LinkedBlockingQueue<>(CAPACITY));
+        }
+    }
+
+    private static Channel ring(RingBuffer<Long> ring) {
+        return new Channel() {
+            @Override
+            public void put(Long element) throws InterruptedException {
+                ring.put(element);
+            }
+
+            @Override
+            public Long take() throws InterruptedException {
+                return ring.take();
+            }
+        };
+    }
+
+    private static Channel queue(BlockingQueue<Long> queue) {
+        return new Channel() {
+            @Override
+            public void put(Long element) throws InterruptedException {
+                queue.put(element);
+            }
+
+            @Override
+            public Long take() throws InterruptedException {
+                return queue.take();
+            }
+        };
+    }
+}
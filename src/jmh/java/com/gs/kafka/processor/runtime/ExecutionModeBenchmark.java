@@ -0,0 +1,58 @@
+package com.gs.kafka.processor.runtime;
+
+import java.util.concurrent.TimeUnit;
+
+import com.gs.kafka.processor.pipeline.BlockingLatencyStage;
+import com.gs.kafka.processor.pipeline.Record;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Drains a 64-partition topic whose stage blocks for {@code latencyMicros} per batch, once on a
+ * fixed pool of {@code workers} platform threads and once on a virtual thread per partition.
+ * Thread usage per run is reported by {@link RuntimeResult}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExecutionModeBenchmark {
+
+    private static final int PARTITIONS = 64;
+
+    @Param({"FIXED_POOL", "VIRTUAL_THREADS"})
+    public ExecutionMode mode;
+
+    @Param({"8"})
+    public int workers;
+
+    @Param({"0", "1000"})
+    public int latencyMicros;
+
+    private FakeBroker broker;
+    private BlockingLatencyStage<Record> stage;
+    private int run;
+
+    @Setup
+    public void setUp() {
+        broker = FakeBroker.ofInts(PARTITIONS, 1000);
+        stage = new BlockingLatencyStage<>(latencyMicros, TimeUnit.MICROSECONDS);
+    }
+
+    @Benchmark
+    public long drain() {
+        return new PartitionedRuntime<>(broker, "bench-" + run++, stage, batch -> { },
+                new RuntimeConfig(workers, 100, mode)).run().getRecords();
+    }
+}
@@ -0,0 +1,74 @@
+package com.gs.kafka.processor.runtime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.gs.kafka.processor.dummy.DummyService;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.PipelineResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Drains a 16-partition {@link FakeBroker} topic with 1 to N workers. Every record is decoded,
+ * passed through {@code calculate} and burns {@code cpuTokens} of simulated deserialization work,
+ * so the time per drain shows how the runtime scales with cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PartitionedRuntimeBenchmark {
+
+    private static final int PARTITIONS = 16;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    @Param({"50"})
+    public int cpuTokens;
+
+    @Param({"20000"})
+    public int recordsPerPartition;
+
+    private FakeBroker broker;
+    private DummyService service;
+    private int run;
+
+    @Setup
+    public void setUp() {
+        broker = FakeBroker.ofInts(PARTITIONS, recordsPerPartition);
+        service = new DummyService();
+    }
+
+    @Benchmark
+    public long drain() {
+        LongAdder sum = new LongAdder();
+        int tokens = cpuTokens;
+        // A fresh consumer group starts from offset 0 on every invocation
+        PipelineResult result = new PartitionedRuntime<>(broker, "bench-" + run++,
+                BatchStage.perRecord(record -> {
+                    Blackhole.consumeCPU(tokens);
+                    return service.calculate(record.valueAsInt());
+                }),
+                batch -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        sum.add(batch.get(i));
+                    }
+                },
+                new RuntimeConfig(workers, RuntimeConfig.DEFAULT_BATCH_SIZE)).run();
+        return result.getRecords() + sum.sum();
+    }
+}
@@ -0,0 +1,119 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full scans of one data file through the stream based {@link DataFileReader} and the
+ * {@link MappedDataFileReader}. The {@code scanOffsets} pair touches a single numeric column,
+ * the {@code scanAll} pair also decodes the string column. Run with {@code -prof gc} to compare
+ * allocation per scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataFileReaderBenchmark {
+
+    private static final Schema SCHEMA = Schema.of(null,
+            new Column("partition", ColumnType.INT),
+            new Column("offset", ColumnType.LONG),
+            new Column("key", ColumnType.STRING));
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"NONE", "DEFLATE"})
+    public Codec codec;
+
+    private Path dir;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("reader-bench");
+        PartitionBuffer buffer = new PartitionBuffer(SCHEMA, null, 0);
+        for (int i = 0; i < rows; i++) {
+            buffer.column(0).appendLong(i % 16);
+            buffer.column(1).appendLong(i);
+            buffer.column(2).appendString("key-" + (i % 1024));
+            buffer.rowAppended();
+        }
+        DataFileWriter.write(dir, "bench.kdf", SCHEMA, buffer, codec);
+        file = dir.resolve("bench.kdf");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long scanOffsetsStream() throws IOException {
+        try (ColumnChunkReader reader = new DataFileReader(file)) {
+            return sumOffsets(reader);
+        }
+    }
+
+    @Benchmark
+    public long scanOffsetsMapped() throws IOException {
+        try (ColumnChunkReader reader = new MappedDataFileReader(file)) {
+            return sumOffsets(reader);
+        }
+    }
+
+    @Benchmark
+    public long scanAllStream() throws IOException {
+        try (ColumnChunkReader reader = new DataFileReader(file)) {
+            return sumAll(reader);
+        }
+    }
+
+    @Benchmark
+    public long scanAllMapped() throws IOException {
+        try (ColumnChunkReader reader = new MappedDataFileReader(file)) {
+            return sumAll(reader);
+        }
+    }
+
+    private static long sumOffsets(ColumnChunkReader reader) throws IOException {
+        ColumnVector offsets = reader.readColumn(1);
+        long sum = 0;
+        for (int row = 0; row < offsets.size(); row++) {
+            sum += offsets.getLong(row);
+        }
+        return sum;
+    }
+
+    private static long sumAll(ColumnChunkReader reader) throws IOException {
+        ColumnVector partitions = reader.readColumn(0);
+        ColumnVector offsets = reader.readColumn(1);
+        ColumnVector keys = reader.readColumn(2);
+        long sum = 0;
+        for (int row = 0; row < offsets.size(); row++) {
+            sum += partitions.getInt(row) + offsets.getLong(row) + keys.getString(row).length();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,109 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.gs.kafka.processor.query.Filter;
+import com.gs.kafka.processor.query.TableScan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Table scans before and after {@link TableCompactor} merges the small files left by frequent
+ * commits. The generated table has 16 partitions of {@code commits} single-commit files of 200
+ * rows; {@code compacted} rewrites each partition into 256 KB files sorted by {@code user}, a
+ * target scaled down with the table so each partition still spans several files. The
+ * {@code scanAll} reads one column of every row, {@code scanUser} filters a 0.1% range of
+ * the random {@code user} column, which file stats only prune once files are sorted by it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TableCompactionBenchmark {
+
+    private static final Schema SCHEMA = Schema.of("partition",
+            new Column("partition", ColumnType.INT),
+            new Column("offset", ColumnType.LONG),
+            new Column("user", ColumnType.LONG),
+            new Column("key", ColumnType.STRING));
+    private static final int PARTITIONS = 16;
+    private static final int ROWS_PER_FILE = 200;
+    private static final long USERS = 1_000_000;
+
+    @Param({"250"})
+    public int commits;
+
+    @Param({"false", "true"})
+    public boolean compacted;
+
+    private Path dir;
+    private Table table;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("compaction-bench");
+        table = Table.create(dir.resolve("events"), SCHEMA);
+        Random random = new Random(42);
+        TableWriter writer = table.newWriter(SinkConfig.defaults());
+        long offset = 0;
+        for (int commit = 0; commit < commits; commit++) {
+            for (int partition = 0; partition < PARTITIONS; partition++) {
+                for (int row = 0; row < ROWS_PER_FILE; row++) {
+                    writer.setInt(0, partition).setLong(1, offset++).setLong(2, random.nextInt((int) USERS))
+                            .setString(3, "key-" + offset % 1024).appendRow();
+                }
+            }
+            writer.commit();
+        }
+        if (compacted) {
+            TableCompactor compactor = new TableCompactor(table,
+                    CompactionConfig.defaults().withTargetFileBytes(256 << 10).withMinInputFiles(2)
+                            .withSortColumn("user"));
+            compactor.compact();
+            System.out.println("\n" + compactor.getFilesRewritten() + " files rewritten into "
+                    + compactor.getFilesWritten());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long scanAll() throws IOException {
+        long[] sum = new long[1];
+        new TableScan(table).select("offset").forEach(row -> sum[0] += row.getLong(0));
+        return sum[0];
+    }
+
+    @Benchmark
+    public long scanUser() throws IOException {
+        long[] sum = new long[1];
+        new TableScan(table).select("offset")
+                .filter(Filter.gte("user", 500_000L))
+                .filter(Filter.lt("user", 501_000L))
+                .forEach(row -> sum[0] += row.getLong(0));
+        return sum[0];
+    }
+}
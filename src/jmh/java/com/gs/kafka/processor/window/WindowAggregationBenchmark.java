@@ -0,0 +1,183 @@
+package com.gs.kafka.processor.window;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.collections.impl.map.mutable.UnifiedMap;
+import com.gs.collections.impl.set.mutable.UnifiedSet;
+import com.gs.kafka.processor.dummy.DummyService;
+import com.gs.kafka.processor.pipeline.Record;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-key count, sum and optionally distinct count of {@link DummyService#calculate(int)} over
+ * 10 s windows of {@code records} int records from {@code keys} keys, 100 per millisecond of
+ * event time, in polls of 2048, up to 50 ms out of order. {@code window} is a tumbling window or
+ * a window sliding by 1 s, which covers each record ten times. {@code incremental} runs
+ * {@link WindowAggregationStage}; {@code recompute} keeps the raw records and, for every window
+ * the watermark closes, aggregates the buffered records inside it from scratch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WindowAggregationBenchmark {
+
+    private static final int BATCH_SIZE = 2048;
+    private static final long SIZE_MILLIS = 10_000;
+    private static final long SLIDE_MILLIS = 1_000;
+    private static final long LATENESS_MILLIS = 50;
+
+    @Param({"1000000"})
+    public int records;
+
+    @Param({"1000"})
+    public int keys;
+
+    @Param({"TUMBLING", "SLIDING"})
+    public String window;
+
+    @Param({"false", "true"})
+    public boolean distinct;
+
+    private final DummyService service = new DummyService();
+    private MutableList<MutableList<Record>> batches;
+    private WindowSpec spec;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "key-" + i;
+        }
+        batches = FastList.newList();
+        MutableList<Record> batch = FastList.newList(BATCH_SIZE);
+        for (int i = 0; i < records; i++) {
+            long timestamp = Math.max(0, i / 100 - random.nextInt((int) LATENESS_MILLIS));
+            byte[] value = ByteBuffer.allocate(4).putInt(random.nextInt(100)).array();
+            batch.add(new Record(0, i, keyNames[random.nextInt(keys)], value, timestamp));
+            if (batch.size() == BATCH_SIZE) {
+                batches.add(batch);
+                batch = FastList.newList(BATCH_SIZE);
+            }
+        }
+        if (batch.notEmpty()) {
+            batches.add(batch);
+        }
+        long slide = "TUMBLING".equals(window) ? SIZE_MILLIS : SLIDE_MILLIS;
+        spec = new WindowSpec(SIZE_MILLIS, slide, LATENESS_MILLIS, distinct);
+    }
+
+    @Benchmark
+    public long incremental() {
+        WindowAggregationStage<String> stage = service.newWindowStage(spec);
+        long sum = 0;
+        for (int i = 0; i < batches.size(); i++) {
+            sum += checksum(stage.apply(batches.get(i)));
+        }
+        return sum + checksum(stage.drain());
+    }
+
+    @Benchmark
+    public long recompute() {
+        RecomputingWindows windows = new RecomputingWindows(spec, service);
+        long sum = 0;
+        for (int i = 0; i < batches.size(); i++) {
+            sum += checksum(windows.apply(batches.get(i)));
+        }
+        return sum + checksum(windows.advanceWatermark(Long.MAX_VALUE - SIZE_MILLIS));
+    }
+
+    private static long checksum(MutableList<WindowResult<String>> results) {
+        long sum = 0;
+        for (int i = 0; i < results.size(); i++) {
+            WindowResult<String> result = results.get(i);
+            sum += result.getCount() + result.getSum() + result.getDistinctValues();
+        }
+        return sum;
+    }
+
+    /**
+     * Baseline that buffers raw records and aggregates each closed window by scanning them.
+     */
+    static final class RecomputingWindows {
+
+        private final WindowSpec spec;
+        private final DummyService service;
+        private MutableList<Record> buffered = FastList.newList();
+        private long maxTimestamp = Long.MIN_VALUE;
+        private long nextWindowEnd = Long.MIN_VALUE;
+
+        RecomputingWindows(WindowSpec spec, DummyService service) {
+            this.spec = spec;
+            this.service = service;
+        }
+
+        MutableList<WindowResult<String>> apply(MutableList<Record> batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                Record record = batch.get(i);
+                if (record.getTimestamp() >= nextWindowEnd - spec.getSlideMillis()
+                        || nextWindowEnd == Long.MIN_VALUE) {
+                    buffered.add(record);
+                    maxTimestamp = Math.max(maxTimestamp, record.getTimestamp());
+                }
+            }
+            return advanceWatermark(maxTimestamp - spec.getAllowedLatenessMillis());
+        }
+
+        MutableList<WindowResult<String>> advanceWatermark(long watermark) {
+            MutableList<WindowResult<String>> results = FastList.newList(0);
+            if (buffered.isEmpty()) {
+                return results;
+            }
+            if (nextWindowEnd == Long.MIN_VALUE) {
+                long first = buffered.collectLong(Record::getTimestamp).min();
+                nextWindowEnd = (Math.floorDiv(first, spec.getSlideMillis()) + 1) * spec.getSlideMillis();
+            }
+            while (nextWindowEnd <= watermark && buffered.notEmpty()) {
+                long start = nextWindowEnd - spec.getSizeMillis();
+                UnifiedMap<String, long[]> aggregates = UnifiedMap.newMap();
+                UnifiedMap<String, UnifiedSet<Integer>> values = UnifiedMap.newMap();
+                for (int i = 0; i < buffered.size(); i++) {
+                    Record record = buffered.get(i);
+                    if (record.getTimestamp() < start || record.getTimestamp() >= nextWindowEnd) {
+                        continue;
+                    }
+                    int value = service.calculate(record.valueAsInt());
+                    long[] aggregate = aggregates.getIfAbsentPut(record.getKey(), () -> new long[2]);
+                    aggregate[0]++;
+                    aggregate[1] += value;
+                    if (spec.isDistinctValues()) {
+                        values.getIfAbsentPut(record.getKey(), UnifiedSet::new).add(value);
+                    }
+                }
+                long end = nextWindowEnd;
+                aggregates.forEachKeyValue((key, aggregate) -> {
+                    UnifiedSet<Integer> distinct = values.get(key);
+                    results.add(new WindowResult<>(key, start, end, aggregate[0], aggregate[1],
+                            distinct == null ? 0 : distinct.size()));
+                });
+                nextWindowEnd += spec.getSlideMillis();
+                long evictBefore = nextWindowEnd - spec.getSizeMillis();
+                buffered = buffered.reject(record -> record.getTimestamp() < evictBefore);
+            }
+            return results;
+        }
+    }
+}
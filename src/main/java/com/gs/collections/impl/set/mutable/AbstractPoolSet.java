@@ -0,0 +1,238 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import com.gs.collections.api.block.procedure.Procedure2;
+import com.gs.collections.api.block.procedure.primitive.ObjectIntProcedure;
+import com.gs.collections.api.set.ParallelUnsortedSetIterable;
+import com.gs.collections.api.set.Pool;
+
+/**
+ * Methods shared by the pool sets of this package that are written in terms of {@link #each},
+ * {@link #size()} and the add and remove methods, together with the collision chain they use for
+ * buckets. Iteration defaults to a copy taken when the iterator is created.
+ *
+ * @param <T> element type
+ * @param <S> the concrete set type returned by {@code with} and its variants
+ */
+abstract class AbstractPoolSet<T, S extends AbstractPoolSet<T, S>>
+        extends AbstractMutableSet<T>
+        implements Pool<T>
+{
+    @SuppressWarnings("unchecked")
+    private S self()
+    {
+        return (S) this;
+    }
+
+    public S with(T element)
+    {
+        this.add(element);
+        return this.self();
+    }
+
+    public S without(T element)
+    {
+        this.remove(element);
+        return this.self();
+    }
+
+    public S withAll(Iterable<? extends T> elements)
+    {
+        this.addAllIterable(elements);
+        return this.self();
+    }
+
+    public S withoutAll(Iterable<? extends T> elements)
+    {
+        this.removeAllIterable(elements);
+        return this.self();
+    }
+
+    @Deprecated
+    @Override
+    public T getFirst()
+    {
+        Iterator<T> iterator = this.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    @Deprecated
+    @Override
+    public T getLast()
+    {
+        Object[] last = new Object[1];
+        this.each(each -> last[0] = each);
+        @SuppressWarnings("unchecked")
+        T element = (T) last[0];
+        return element;
+    }
+
+    @Override
+    public void forEachWithIndex(ObjectIntProcedure<? super T> objectIntProcedure)
+    {
+        int[] index = new int[1];
+        this.each(each -> objectIntProcedure.value(each, index[0]++));
+    }
+
+    @Override
+    public <P> void forEachWith(Procedure2<? super T, ? super P> procedure, P parameter)
+    {
+        this.each(each -> procedure.value(each, parameter));
+    }
+
+    /**
+     * Runs parallel operations over a {@link UnifiedSet} copy of the set
+     */
+    public ParallelUnsortedSetIterable<T> asParallel(ExecutorService executorService, int batchSize)
+    {
+        UnifiedSet<T> copy = UnifiedSet.newSet(this.size());
+        this.each(copy::add);
+        return copy.asParallel(executorService, batchSize);
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new SnapshotIterator(this.toArray());
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (this == object)
+        {
+            return true;
+        }
+        if (!(object instanceof Set))
+        {
+            return false;
+        }
+        Set<?> other = (Set<?>) object;
+        return this.size() == other.size() && this.containsAll(other);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int[] hashCode = new int[1];
+        this.each(each -> hashCode[0] += each == null ? 0 : each.hashCode());
+        return hashCode[0];
+    }
+
+    /**
+     * Distinct elements sharing a bucket, in no particular order: removal moves the last element
+     * into the freed slot
+     */
+    static final class Chain
+    {
+        Object[] items;
+        int size;
+
+        Chain(Object first)
+        {
+            this.items = new Object[4];
+            this.items[0] = first;
+            this.size = 1;
+        }
+
+        Object find(Object key)
+        {
+            for (int i = 0; i < this.size; i++)
+            {
+                Object each = this.items[i];
+                if (key.equals(each))
+                {
+                    return each;
+                }
+            }
+            return null;
+        }
+
+        void add(Object element)
+        {
+            if (this.size == this.items.length)
+            {
+                Object[] grown = new Object[this.size << 1];
+                System.arraycopy(this.items, 0, grown, 0, this.size);
+                this.items = grown;
+            }
+            this.items[this.size++] = element;
+        }
+
+        Object remove(Object key)
+        {
+            for (int i = 0; i < this.size; i++)
+            {
+                Object each = this.items[i];
+                if (key.equals(each))
+                {
+                    this.items[i] = this.items[--this.size];
+                    this.items[this.size] = null;
+                    return each;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final class SnapshotIterator implements Iterator<T>
+    {
+        private final Object[] elements;
+        private int position;
+        private boolean canRemove;
+
+        private SnapshotIterator(Object[] elements)
+        {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.position < this.elements.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next()
+        {
+            if (!this.hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            this.canRemove = true;
+            return (T) this.elements[this.position++];
+        }
+
+        @Override
+        public void remove()
+        {
+            if (!this.canRemove)
+            {
+                throw new IllegalStateException();
+            }
+            this.canRemove = false;
+            AbstractPoolSet.this.remove(this.elements[this.position - 1]);
+        }
+    }
+}
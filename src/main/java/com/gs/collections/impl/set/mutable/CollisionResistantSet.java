@@ -0,0 +1,531 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.gs.collections.api.block.procedure.Procedure;
+import com.gs.collections.impl.map.mutable.primitive.IntObjectHashMap;
+
+/**
+ * Hash set that keeps lookups bounded when many keys share a hash code.
+ * <p>
+ * Elements are grouped by hash code in an {@link IntObjectHashMap}, after the hash code is mixed
+ * with a per-instance random seed, so keys crafted to collide in the low bits of one table do not
+ * collide in this one. A bucket holds one element directly, or a short chain when distinct keys
+ * have the very same hash code. Once a chain grows past {@link #TREEIFY_THRESHOLD} it is turned into
+ * a red-black tree, ordered by the set's comparator or, without one, by the keys' natural order
+ * when they are all instances of the same {@link Comparable} class; it turns back into a chain
+ * when it shrinks to {@link #UNTREEIFY_THRESHOLD}. Tree ordering must be consistent with
+ * {@code equals}. Keys that cannot be ordered stay in a chain and are scanned linearly, as they
+ * would be in {@link UnifiedSet}.
+ * <p>
+ * Iterators walk a copy taken when they are created. Results of {@code select}, {@code collect}
+ * and similar methods are plain {@link UnifiedSet}s. Not thread-safe.
+ */
+public class CollisionResistantSet<T>
+        extends AbstractPoolSet<T, CollisionResistantSet<T>>
+{
+    public static final int TREEIFY_THRESHOLD = 8;
+    public static final int UNTREEIFY_THRESHOLD = 6;
+
+    private final IntObjectHashMap<Object> buckets;
+    private final Comparator<? super T> comparator;
+    private final int seed;
+    private boolean containsNull;
+    private int size;
+    private int treeBins;
+
+    public CollisionResistantSet()
+    {
+        this(0, null);
+    }
+
+    /**
+     * @param initialCapacity expected number of distinct hash codes
+     * @param comparator order used for colliding keys, consistent with {@code equals}; null to
+     * use natural order for {@link Comparable} keys only
+     */
+    public CollisionResistantSet(int initialCapacity, Comparator<? super T> comparator)
+    {
+        if (initialCapacity < 0)
+        {
+            throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+        }
+        this.buckets = new IntObjectHashMap<Object>(initialCapacity);
+        this.comparator = comparator;
+        this.seed = ThreadLocalRandom.current().nextInt();
+    }
+
+    public static <T> CollisionResistantSet<T> newSet()
+    {
+        return new CollisionResistantSet<T>();
+    }
+
+    public static <T> CollisionResistantSet<T> newSet(Comparator<? super T> comparator)
+    {
+        return new CollisionResistantSet<T>(0, comparator);
+    }
+
+    public static <T> CollisionResistantSet<T> newSet(Iterable<? extends T> source)
+    {
+        CollisionResistantSet<T> set = new CollisionResistantSet<T>();
+        for (T each : source)
+        {
+            set.add(each);
+        }
+        return set;
+    }
+
+    @SafeVarargs
+    public static <T> CollisionResistantSet<T> newSetWith(T... elements)
+    {
+        CollisionResistantSet<T> set = new CollisionResistantSet<T>(elements.length, null);
+        for (T each : elements)
+        {
+            set.add(each);
+        }
+        return set;
+    }
+
+    /**
+     * Gets the number of buckets currently stored as trees
+     */
+    public int getTreeBinCount()
+    {
+        return this.treeBins;
+    }
+
+    private int spread(Object element)
+    {
+        int hash = (element.hashCode() ^ this.seed) * 0x9E3779B9;
+        return hash ^ hash >>> 16;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(Object element)
+    {
+        if (element == null)
+        {
+            return this.containsNull;
+        }
+        return this.find(this.buckets.get(this.spread(element)), element) != null;
+    }
+
+    public T get(T key)
+    {
+        if (key == null)
+        {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        T found = (T) this.find(this.buckets.get(this.spread(key)), key);
+        return found;
+    }
+
+    @Override
+    public boolean add(T element)
+    {
+        if (element == null)
+        {
+            boolean added = !this.containsNull;
+            this.containsNull = true;
+            this.size += added ? 1 : 0;
+            return added;
+        }
+        return this.insert(element) == null;
+    }
+
+    public T put(T key)
+    {
+        if (key == null)
+        {
+            this.add(null);
+            return null;
+        }
+        T existing = this.insert(key);
+        return existing == null ? key : existing;
+    }
+
+    @Override
+    public boolean remove(Object element)
+    {
+        if (element == null)
+        {
+            boolean removed = this.containsNull;
+            this.containsNull = false;
+            this.size -= removed ? 1 : 0;
+            return removed;
+        }
+        return this.delete(element) != null;
+    }
+
+    public T removeFromPool(T key)
+    {
+        if (key == null)
+        {
+            this.remove(null);
+            return null;
+        }
+        return this.delete(key);
+    }
+
+    private Object find(Object bucket, Object key)
+    {
+        if (bucket == null)
+        {
+            return null;
+        }
+        if (bucket instanceof Chain)
+        {
+            return ((Chain) bucket).find(key);
+        }
+        if (bucket instanceof TreeBin)
+        {
+            return ((TreeBin) bucket).find(key);
+        }
+        return key.equals(bucket) ? bucket : null;
+    }
+
+    /**
+     * Adds {@code element} unless an equal element is present
+     * @return the equal element already in the set, or null if {@code element} was added
+     */
+    @SuppressWarnings("unchecked")
+    private T insert(T element)
+    {
+        int hash = this.spread(element);
+        Object bucket = this.buckets.get(hash);
+        Object existing = this.find(bucket, element);
+        if (existing != null)
+        {
+            return (T) existing;
+        }
+        if (bucket == null)
+        {
+            this.buckets.put(hash, element);
+        }
+        else if (bucket instanceof TreeBin)
+        {
+            ((TreeBin) bucket).add(element);
+        }
+        else
+        {
+            Chain chain;
+            if (bucket instanceof Chain)
+            {
+                chain = (Chain) bucket;
+            }
+            else
+            {
+                chain = new Chain(bucket);
+                this.buckets.put(hash, chain);
+            }
+            chain.add(element);
+            if (chain.size > TREEIFY_THRESHOLD)
+            {
+                TreeBin tree = TreeBin.treeify(chain, this.comparator);
+                if (tree != null)
+                {
+                    this.buckets.put(hash, tree);
+                    this.treeBins++;
+                }
+            }
+        }
+        this.size++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T delete(Object element)
+    {
+        int hash = this.spread(element);
+        Object bucket = this.buckets.get(hash);
+        Object removed;
+        if (bucket == null)
+        {
+            return null;
+        }
+        if (bucket instanceof Chain)
+        {
+            Chain chain = (Chain) bucket;
+            removed = chain.remove(element);
+            if (chain.size == 1)
+            {
+                this.buckets.put(hash, chain.items[0]);
+            }
+        }
+        else if (bucket instanceof TreeBin)
+        {
+            TreeBin tree = (TreeBin) bucket;
+            removed = tree.remove(element);
+            if (tree.size() <= UNTREEIFY_THRESHOLD)
+            {
+                this.buckets.put(hash, tree.untreeify());
+                this.treeBins--;
+            }
+        }
+        else
+        {
+            removed = element.equals(bucket) ? bucket : null;
+            if (removed != null)
+            {
+                this.buckets.remove(hash);
+            }
+        }
+        if (removed != null)
+        {
+            this.size--;
+        }
+        return (T) removed;
+    }
+
+    @Override
+    public void clear()
+    {
+        this.buckets.clear();
+        this.containsNull = false;
+        this.size = 0;
+        this.treeBins = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void each(Procedure<? super T> procedure)
+    {
+        if (this.containsNull)
+        {
+            procedure.value(null);
+        }
+        this.buckets.forEachValue(bucket -> {
+            if (bucket instanceof Chain)
+            {
+                Chain chain = (Chain) bucket;
+                for (int i = 0; i < chain.size; i++)
+                {
+                    procedure.value((T) chain.items[i]);
+                }
+            }
+            else if (bucket instanceof TreeBin)
+            {
+                ((TreeBin) bucket).each((Procedure<Object>) procedure);
+            }
+            else
+            {
+                procedure.value((T) bucket);
+            }
+        });
+    }
+
+    @Override
+    public CollisionResistantSet<T> clone()
+    {
+        CollisionResistantSet<T> copy = new CollisionResistantSet<T>(this.buckets.size(), this.comparator);
+        this.each(copy::add);
+        return copy;
+    }
+
+    /**
+     * Colliding keys kept in a {@link TreeMap}. Keys the tree cannot order, because they are of a
+     * different class than {@code keyClass}, go to the linear {@code rest} chain.
+     */
+    private static final class TreeBin
+    {
+        private final TreeMap<Object, Object> tree;
+        private final Class<?> keyClass;
+        private Chain rest;
+
+        @SuppressWarnings("unchecked")
+        private TreeBin(Comparator<?> comparator, Class<?> keyClass)
+        {
+            this.tree = new TreeMap<Object, Object>((Comparator<Object>) comparator);
+            this.keyClass = keyClass;
+        }
+
+        /**
+         * @return the tree, or null when the chain's keys have no common order
+         */
+        private static TreeBin treeify(Chain chain, Comparator<?> comparator)
+        {
+            Class<?> keyClass = null;
+            if (comparator == null)
+            {
+                keyClass = chain.items[0].getClass();
+                if (!Comparable.class.isAssignableFrom(keyClass))
+                {
+                    return null;
+                }
+                for (int i = 1; i < chain.size; i++)
+                {
+                    if (chain.items[i].getClass() != keyClass)
+                    {
+                        return null;
+                    }
+                }
+            }
+            TreeBin bin = new TreeBin(comparator, keyClass);
+            for (int i = 0; i < chain.size; i++)
+            {
+                bin.tree.put(chain.items[i], chain.items[i]);
+            }
+            return bin;
+        }
+
+        private boolean ordered(Object key)
+        {
+            return this.keyClass == null || key.getClass() == this.keyClass;
+        }
+
+        private Object find(Object key)
+        {
+            Object found = null;
+            if (this.ordered(key))
+            {
+                try
+                {
+                    found = this.tree.get(key);
+                }
+                catch (ClassCastException ignored)
+                {
+                    // The comparator does not accept this key, so the tree cannot hold it
+                }
+            }
+            else
+            {
+                for (Object each : this.tree.keySet())
+                {
+                    if (key.equals(each))
+                    {
+                        return each;
+                    }
+                }
+            }
+            if (found == null && this.rest != null)
+            {
+                found = this.rest.find(key);
+            }
+            return found;
+        }
+
+        private void add(Object element)
+        {
+            if (this.ordered(element))
+            {
+                try
+                {
+                    this.tree.put(element, element);
+                    return;
+                }
+                catch (ClassCastException ignored)
+                {
+                    // Fall through to the unordered chain
+                }
+            }
+            if (this.rest == null)
+            {
+                this.rest = new Chain(element);
+            }
+            else
+            {
+                this.rest.add(element);
+            }
+        }
+
+        private Object remove(Object key)
+        {
+            if (this.ordered(key))
+            {
+                try
+                {
+                    Object removed = this.tree.remove(key);
+                    if (removed != null)
+                    {
+                        return removed;
+                    }
+                }
+                catch (ClassCastException ignored)
+                {
+                    // The comparator does not accept this key, so the tree cannot hold it
+                }
+            }
+            else
+            {
+                Iterator<Object> iterator = this.tree.keySet().iterator();
+                while (iterator.hasNext())
+                {
+                    Object each = iterator.next();
+                    if (key.equals(each))
+                    {
+                        iterator.remove();
+                        return each;
+                    }
+                }
+            }
+            return this.rest == null ? null : this.rest.remove(key);
+        }
+
+        private int size()
+        {
+            return this.tree.size() + (this.rest == null ? 0 : this.rest.size);
+        }
+
+        private void each(Procedure<Object> procedure)
+        {
+            for (Object each : this.tree.keySet())
+            {
+                procedure.value(each);
+            }
+            if (this.rest != null)
+            {
+                for (int i = 0; i < this.rest.size; i++)
+                {
+                    procedure.value(this.rest.items[i]);
+                }
+            }
+        }
+
+        /**
+         * Returns the bucket that replaces this tree: a chain, or the single element left
+         */
+        private Object untreeify()
+        {
+            // The unordered chain may be all that is left once the tree has been emptied
+            Chain chain = this.rest;
+            for (Object each : this.tree.keySet())
+            {
+                if (chain == null)
+                {
+                    chain = new Chain(each);
+                }
+                else
+                {
+                    chain.add(each);
+                }
+            }
+            return chain.size == 1 ? chain.items[0] : chain;
+        }
+    }
+}
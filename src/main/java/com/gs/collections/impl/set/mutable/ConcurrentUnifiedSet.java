@@ -0,0 +1,403 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+
+import com.gs.collections.api.block.procedure.Procedure;
+
+/**
+ * Thread-safe set made of {@link UnifiedSet} segments, each guarded by its own {@link StampedLock}.
+ * <p>
+ * An element's segment is chosen by the high bits of its spread hash code, leaving the low bits
+ * to the segment's own table. Writers take the segment's write lock and {@link #contains} and the
+ * pool's {@link #get} its read lock, so lookups in different segments never contend and lookups in
+ * the same segment only wait for writers. Lookups are not attempted optimistically: they call the
+ * elements' {@code equals} and {@code hashCode}, which must not see a table a writer is changing.
+ * <p>
+ * Iteration and the internal iteration methods are weakly consistent: each segment is copied
+ * under its lock when reached, so they never throw {@link java.util.ConcurrentModificationException}
+ * and callbacks run without holding any lock, but changes made to segments already visited are
+ * not seen. Results of {@code select}, {@code collect} and similar methods are plain,
+ * single-threaded {@link UnifiedSet}s.
+ */
+public class ConcurrentUnifiedSet<T>
+        extends AbstractPoolSet<T, ConcurrentUnifiedSet<T>>
+{
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+
+    private static final Object[] EMPTY = {};
+
+    private final UnifiedSet<T>[] segments;
+    private final StampedLock[] locks;
+    private final int segmentShift;
+
+    public ConcurrentUnifiedSet()
+    {
+        this(0, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * @param initialCapacity expected number of elements, spread over the segments
+     * @param concurrencyLevel number of segments, rounded up to a power of two
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public ConcurrentUnifiedSet(int initialCapacity, int concurrencyLevel)
+    {
+        if (initialCapacity < 0)
+        {
+            throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+        }
+        if (concurrencyLevel <= 0)
+        {
+            throw new IllegalArgumentException("concurrencyLevel must be positive: " + concurrencyLevel);
+        }
+        int segmentCount = concurrencyLevel == 1 ? 1 : Integer.highestOneBit(concurrencyLevel - 1) << 1;
+        this.segments = new UnifiedSet[segmentCount];
+        this.locks = new StampedLock[segmentCount];
+        int perSegment = (initialCapacity + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++)
+        {
+            this.segments[i] = UnifiedSet.newSet(perSegment);
+            this.locks[i] = new StampedLock();
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+    }
+
+    public static <T> ConcurrentUnifiedSet<T> newSet()
+    {
+        return new ConcurrentUnifiedSet<T>();
+    }
+
+    public static <T> ConcurrentUnifiedSet<T> newSet(Iterable<? extends T> source)
+    {
+        ConcurrentUnifiedSet<T> set = new ConcurrentUnifiedSet<T>();
+        for (T each : source)
+        {
+            set.add(each);
+        }
+        return set;
+    }
+
+    @SafeVarargs
+    public static <T> ConcurrentUnifiedSet<T> newSetWith(T... elements)
+    {
+        ConcurrentUnifiedSet<T> set = new ConcurrentUnifiedSet<T>(elements.length, DEFAULT_CONCURRENCY_LEVEL);
+        for (T each : elements)
+        {
+            set.add(each);
+        }
+        return set;
+    }
+
+    public int getConcurrencyLevel()
+    {
+        return this.segments.length;
+    }
+
+    private int segmentIndex(Object element)
+    {
+        if (this.segmentShift == 32)
+        {
+            return 0;
+        }
+        int hash = element == null ? 0 : element.hashCode();
+        return ((hash ^ hash >>> 16) * 0x9E3779B9) >>> this.segmentShift;
+    }
+
+    private Object[] copySegment(int index)
+    {
+        UnifiedSet<T> segment = this.segments[index];
+        StampedLock lock = this.locks[index];
+        long stamp = lock.readLock();
+        try
+        {
+            return segment.isEmpty() ? EMPTY : segment.toArray();
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean contains(Object element)
+    {
+        int index = this.segmentIndex(element);
+        StampedLock lock = this.locks[index];
+        long stamp = lock.readLock();
+        try
+        {
+            return this.segments[index].contains(element);
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean add(T element)
+    {
+        int index = this.segmentIndex(element);
+        StampedLock lock = this.locks[index];
+        long stamp = lock.writeLock();
+        try
+        {
+            return this.segments[index].add(element);
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(Object element)
+    {
+        int index = this.segmentIndex(element);
+        StampedLock lock = this.locks[index];
+        long stamp = lock.writeLock();
+        try
+        {
+            return this.segments[index].remove(element);
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the element of the set equal to {@code key} under its segment's read lock
+     */
+    public T get(T key)
+    {
+        int index = this.segmentIndex(key);
+        StampedLock lock = this.locks[index];
+        long stamp = lock.readLock();
+        try
+        {
+            return this.segments[index].get(key);
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Adds {@code key} unless an equal element is present, atomically
+     * @return the element now in the set
+     */
+    public T put(T key)
+    {
+        int index = this.segmentIndex(key);
+        StampedLock lock = this.locks[index];
+        long stamp = lock.writeLock();
+        try
+        {
+            return this.segments[index].put(key);
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public T removeFromPool(T key)
+    {
+        int index = this.segmentIndex(key);
+        StampedLock lock = this.locks[index];
+        long stamp = lock.writeLock();
+        try
+        {
+            return this.segments[index].removeFromPool(key);
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sums the segment sizes; exact only while no writer is active
+     */
+    @Override
+    public int size()
+    {
+        int size = 0;
+        for (int i = 0; i < this.segments.length; i++)
+        {
+            long stamp = this.locks[i].readLock();
+            try
+            {
+                size += this.segments[i].size();
+            }
+            finally
+            {
+                this.locks[i].unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        for (int i = 0; i < this.segments.length; i++)
+        {
+            long stamp = this.locks[i].readLock();
+            try
+            {
+                if (this.segments[i].notEmpty())
+                {
+                    return false;
+                }
+            }
+            finally
+            {
+                this.locks[i].unlockRead(stamp);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean notEmpty()
+    {
+        return !this.isEmpty();
+    }
+
+    /**
+     * Clears the segments one at a time; elements added concurrently to an already cleared
+     * segment survive
+     */
+    @Override
+    public void clear()
+    {
+        for (int i = 0; i < this.segments.length; i++)
+        {
+            StampedLock lock = this.locks[i];
+            long stamp = lock.writeLock();
+            try
+            {
+                this.segments[i].clear();
+            }
+            finally
+            {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void each(Procedure<? super T> procedure)
+    {
+        for (int i = 0; i < this.segments.length; i++)
+        {
+            for (Object each : this.copySegment(i))
+            {
+                procedure.value((T) each);
+            }
+        }
+    }
+
+    @Deprecated
+    @Override
+    public T getLast()
+    {
+        T last = null;
+        for (int i = this.segments.length - 1; i >= 0; i--)
+        {
+            Object[] copy = this.copySegment(i);
+            if (copy.length > 0)
+            {
+                @SuppressWarnings("unchecked")
+                T element = (T) copy[copy.length - 1];
+                last = element;
+                break;
+            }
+        }
+        return last;
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new WeaklyConsistentIterator();
+    }
+
+    @Override
+    public ConcurrentUnifiedSet<T> clone()
+    {
+        ConcurrentUnifiedSet<T> copy = new ConcurrentUnifiedSet<T>(this.size(), this.segments.length);
+        this.each(copy::add);
+        return copy;
+    }
+
+    private final class WeaklyConsistentIterator implements Iterator<T>
+    {
+        private int segment;
+        private Object[] current = EMPTY;
+        private int position;
+        private boolean canRemove;
+        private T last;
+
+        @Override
+        public boolean hasNext()
+        {
+            while (this.position == this.current.length)
+            {
+                if (this.segment == ConcurrentUnifiedSet.this.segments.length)
+                {
+                    return false;
+                }
+                this.current = ConcurrentUnifiedSet.this.copySegment(this.segment++);
+                this.position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next()
+        {
+            if (!this.hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            this.last = (T) this.current[this.position++];
+            this.canRemove = true;
+            return this.last;
+        }
+
+        @Override
+        public void remove()
+        {
+            if (!this.canRemove)
+            {
+                throw new IllegalStateException();
+            }
+            this.canRemove = false;
+            ConcurrentUnifiedSet.this.remove(this.last);
+        }
+    }
+}
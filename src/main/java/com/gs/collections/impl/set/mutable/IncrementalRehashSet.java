@@ -0,0 +1,540 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.gs.collections.api.block.procedure.Procedure;
+
+/**
+ * Hash set that grows without stop-the-world rehashes.
+ * <p>
+ * Like {@link UnifiedSet}, each bucket holds one element directly or, on collisions, a small
+ * chain. When the table passes its load factor a table twice the size is allocated, and from then
+ * on every add and remove moves the next {@code migrationStep} buckets of the old table into the
+ * new one. New elements always go to the new table; lookups and removals check the new table and,
+ * while a resize is in progress, the not yet migrated bucket of the old one. The work of a rehash
+ * is thus spread over the following writes instead of landing on the one that crosses the
+ * threshold, which only pays for allocating the new table. Should the new table fill up before
+ * migration is done, the remaining buckets are moved at once. Lookups never migrate, so they do
+ * not modify the set, and a set that is only read keeps checking both tables until the next write.
+ * <p>
+ * Iterators walk the tables in place, without copying them, and removing through an iterator
+ * does not migrate; the set must not be modified otherwise while an iterator is in use. Results
+ * of {@code select}, {@code collect} and similar methods are plain {@link UnifiedSet}s. Not
+ * thread-safe.
+ */
+public class IncrementalRehashSet<T>
+        extends AbstractPoolSet<T, IncrementalRehashSet<T>>
+{
+    public static final int DEFAULT_MIGRATION_STEP = 16;
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private final int migrationStep;
+    private Object[] table;
+    private Object[] oldTable;
+    private int migrated;
+    private int threshold;
+    private boolean containsNull;
+    private int size;
+
+    public IncrementalRehashSet()
+    {
+        this(0, DEFAULT_MIGRATION_STEP);
+    }
+
+    /**
+     * @param initialCapacity expected number of elements
+     * @param migrationStep old buckets moved per operation while a resize is in progress
+     */
+    public IncrementalRehashSet(int initialCapacity, int migrationStep)
+    {
+        if (initialCapacity < 0)
+        {
+            throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+        }
+        if (migrationStep <= 0)
+        {
+            throw new IllegalArgumentException("migrationStep must be positive: " + migrationStep);
+        }
+        this.migrationStep = migrationStep;
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity * LOAD_FACTOR < initialCapacity)
+        {
+            capacity <<= 1;
+        }
+        this.allocate(capacity);
+    }
+
+    public static <T> IncrementalRehashSet<T> newSet()
+    {
+        return new IncrementalRehashSet<T>();
+    }
+
+    public static <T> IncrementalRehashSet<T> newSet(int initialCapacity)
+    {
+        return new IncrementalRehashSet<T>(initialCapacity, DEFAULT_MIGRATION_STEP);
+    }
+
+    public static <T> IncrementalRehashSet<T> newSet(Iterable<? extends T> source)
+    {
+        IncrementalRehashSet<T> set = new IncrementalRehashSet<T>();
+        for (T each : source)
+        {
+            set.add(each);
+        }
+        return set;
+    }
+
+    @SafeVarargs
+    public static <T> IncrementalRehashSet<T> newSetWith(T... elements)
+    {
+        IncrementalRehashSet<T> set = new IncrementalRehashSet<T>(elements.length, DEFAULT_MIGRATION_STEP);
+        for (T each : elements)
+        {
+            set.add(each);
+        }
+        return set;
+    }
+
+    private void allocate(int capacity)
+    {
+        this.table = new Object[capacity];
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Gets whether an old table is still being migrated
+     */
+    public boolean isRehashing()
+    {
+        return this.oldTable != null;
+    }
+
+    /**
+     * Gets the number of buckets of the current table
+     */
+    public int capacity()
+    {
+        return this.table.length;
+    }
+
+    private static int index(Object element, int length)
+    {
+        int hash = element.hashCode();
+        return (hash ^ hash >>> 16) & length - 1;
+    }
+
+    private static void addToBucket(Object[] table, int index, Object element)
+    {
+        Object bucket = table[index];
+        if (bucket == null)
+        {
+            table[index] = element;
+        }
+        else if (bucket instanceof Chain)
+        {
+            ((Chain) bucket).add(element);
+        }
+        else
+        {
+            Chain chain = new Chain(bucket);
+            chain.add(element);
+            table[index] = chain;
+        }
+    }
+
+    private static Object findInBucket(Object bucket, Object element)
+    {
+        if (bucket instanceof Chain)
+        {
+            return ((Chain) bucket).find(element);
+        }
+        return bucket != null && element.equals(bucket) ? bucket : null;
+    }
+
+    private static Object removeFromBucket(Object[] table, int index, Object element)
+    {
+        Object bucket = table[index];
+        if (bucket instanceof Chain)
+        {
+            Chain chain = (Chain) bucket;
+            Object removed = chain.remove(element);
+            if (chain.size == 1)
+            {
+                table[index] = chain.items[0];
+            }
+            return removed;
+        }
+        if (bucket != null && element.equals(bucket))
+        {
+            table[index] = null;
+            return bucket;
+        }
+        return null;
+    }
+
+    private void migrate(int buckets)
+    {
+        Object[] old = this.oldTable;
+        int end = Math.min(old.length, this.migrated + buckets);
+        Object[] target = this.table;
+        for (int i = this.migrated; i < end; i++)
+        {
+            Object bucket = old[i];
+            old[i] = null;
+            if (bucket instanceof Chain)
+            {
+                Chain chain = (Chain) bucket;
+                for (int j = 0; j < chain.size; j++)
+                {
+                    addToBucket(target, index(chain.items[j], target.length), chain.items[j]);
+                }
+            }
+            else if (bucket != null)
+            {
+                addToBucket(target, index(bucket, target.length), bucket);
+            }
+        }
+        this.migrated = end;
+        if (end == old.length)
+        {
+            this.oldTable = null;
+        }
+    }
+
+    private void step()
+    {
+        if (this.oldTable != null)
+        {
+            this.migrate(this.migrationStep);
+        }
+    }
+
+    private void grow()
+    {
+        if (this.oldTable != null)
+        {
+            this.migrate(this.oldTable.length);
+        }
+        this.oldTable = this.table;
+        this.migrated = 0;
+        this.allocate(this.table.length << 1);
+    }
+
+    private Object find(Object element)
+    {
+        Object found = findInBucket(this.table[index(element, this.table.length)], element);
+        Object[] old = this.oldTable;
+        if (found == null && old != null)
+        {
+            int index = index(element, old.length);
+            if (index >= this.migrated)
+            {
+                found = findInBucket(old[index], element);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(Object element)
+    {
+        if (element == null)
+        {
+            return this.containsNull;
+        }
+        return this.find(element) != null;
+    }
+
+    public T get(T key)
+    {
+        if (key == null)
+        {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        T found = (T) this.find(key);
+        return found;
+    }
+
+    @Override
+    public boolean add(T element)
+    {
+        if (element == null)
+        {
+            boolean added = !this.containsNull;
+            this.containsNull = true;
+            this.size += added ? 1 : 0;
+            return added;
+        }
+        return this.insert(element) == null;
+    }
+
+    public T put(T key)
+    {
+        if (key == null)
+        {
+            this.add(null);
+            return null;
+        }
+        T existing = this.insert(key);
+        return existing == null ? key : existing;
+    }
+
+    /**
+     * Adds {@code element} unless an equal element is present
+     * @return the equal element already in the set, or null if {@code element} was added
+     */
+    @SuppressWarnings("unchecked")
+    private T insert(T element)
+    {
+        this.step();
+        Object existing = this.find(element);
+        if (existing != null)
+        {
+            return (T) existing;
+        }
+        if (this.size >= this.threshold)
+        {
+            this.grow();
+            this.step();
+        }
+        addToBucket(this.table, index(element, this.table.length), element);
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public boolean remove(Object element)
+    {
+        if (element == null)
+        {
+            boolean removed = this.containsNull;
+            this.containsNull = false;
+            this.size -= removed ? 1 : 0;
+            return removed;
+        }
+        return this.delete(element) != null;
+    }
+
+    public T removeFromPool(T key)
+    {
+        if (key == null)
+        {
+            this.remove(null);
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        T removed = (T) this.delete(key);
+        return removed;
+    }
+
+    private Object delete(Object element)
+    {
+        this.step();
+        return this.unlink(element);
+    }
+
+    /**
+     * Removes {@code element} from whichever table holds it, without migrating any bucket
+     */
+    private Object unlink(Object element)
+    {
+        Object removed = removeFromBucket(this.table, index(element, this.table.length), element);
+        Object[] old = this.oldTable;
+        if (removed == null && old != null)
+        {
+            int index = index(element, old.length);
+            if (index >= this.migrated)
+            {
+                removed = removeFromBucket(old, index, element);
+            }
+        }
+        if (removed != null)
+        {
+            this.size--;
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear()
+    {
+        this.oldTable = null;
+        this.migrated = 0;
+        this.allocate(MINIMUM_CAPACITY);
+        this.containsNull = false;
+        this.size = 0;
+    }
+
+    @Override
+    public void each(Procedure<? super T> procedure)
+    {
+        if (this.containsNull)
+        {
+            procedure.value(null);
+        }
+        Object[] old = this.oldTable;
+        if (old != null)
+        {
+            for (int i = this.migrated; i < old.length; i++)
+            {
+                eachInBucket(old[i], procedure);
+            }
+        }
+        for (Object bucket : this.table)
+        {
+            eachInBucket(bucket, procedure);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void eachInBucket(Object bucket, Procedure<? super T> procedure)
+    {
+        if (bucket instanceof Chain)
+        {
+            Chain chain = (Chain) bucket;
+            for (int i = 0; i < chain.size; i++)
+            {
+                procedure.value((T) chain.items[i]);
+            }
+        }
+        else if (bucket != null)
+        {
+            procedure.value((T) bucket);
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new TableIterator();
+    }
+
+    @Override
+    public IncrementalRehashSet<T> clone()
+    {
+        IncrementalRehashSet<T> copy = new IncrementalRehashSet<T>(this.size, this.migrationStep);
+        this.each(copy::add);
+        return copy;
+    }
+
+    /**
+     * Walks null, the not yet migrated part of the old table and then the new table. A chain is
+     * read in place: removing one of its elements moves the chain's last element into the freed
+     * slot, so the position steps back to return that element next.
+     */
+    private final class TableIterator implements Iterator<T>
+    {
+        private final Object[] old = IncrementalRehashSet.this.oldTable;
+        private int oldIndex = IncrementalRehashSet.this.migrated;
+        private int index;
+        private boolean nullPending = IncrementalRehashSet.this.containsNull;
+        private Object bucket;
+        private int position;
+        private Chain lastChain;
+        private Object last;
+        private boolean canRemove;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.nullPending || this.advance();
+        }
+
+        private boolean advance()
+        {
+            while (this.bucket == null || this.bucket instanceof Chain && this.position == ((Chain) this.bucket).size)
+            {
+                Object[] table = IncrementalRehashSet.this.table;
+                if (this.old != null && this.oldIndex < this.old.length)
+                {
+                    this.bucket = this.old[this.oldIndex++];
+                }
+                else if (this.index < table.length)
+                {
+                    this.bucket = table[this.index++];
+                }
+                else
+                {
+                    this.bucket = null;
+                    return false;
+                }
+                this.position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next()
+        {
+            if (!this.hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            this.lastChain = null;
+            if (this.nullPending)
+            {
+                this.nullPending = false;
+                this.last = null;
+            }
+            else if (this.bucket instanceof Chain)
+            {
+                this.lastChain = (Chain) this.bucket;
+                this.last = this.lastChain.items[this.position++];
+            }
+            else
+            {
+                this.last = this.bucket;
+                this.bucket = null;
+            }
+            this.canRemove = true;
+            return (T) this.last;
+        }
+
+        @Override
+        public void remove()
+        {
+            if (!this.canRemove)
+            {
+                throw new IllegalStateException();
+            }
+            this.canRemove = false;
+            if (this.last == null)
+            {
+                IncrementalRehashSet.this.remove(null);
+                return;
+            }
+            IncrementalRehashSet.this.unlink(this.last);
+            if (this.lastChain != null && this.lastChain == this.bucket)
+            {
+                this.position--;
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.gs.collections.api.block.function.Function;
+import com.gs.collections.api.block.predicate.Predicate;
+import com.gs.collections.api.block.procedure.Procedure2;
+import com.gs.collections.impl.list.mutable.FastList;
+
+/**
+ * Fork-join variants of {@link UnifiedSet#select}, {@link UnifiedSet#collect} and
+ * {@link UnifiedSet#retainAll} for sets large enough to be worth splitting.
+ * <p>
+ * The internal table is cut into sections of {@code batchSize} slots through
+ * {@link UnifiedSet#batchForEach}, and the sections are evaluated as fork-join tasks. Each section
+ * collects its matches into its own list, stored in a slot of an array no other task writes to,
+ * so no lock is taken while scanning; the calling thread then merges the lists into a pre-sized
+ * result. A set that fits in one section is processed sequentially on the calling thread.
+ */
+public final class ParallelUnifiedSets
+{
+    /**
+     * Table slots scanned by one fork-join task by default
+     */
+    public static final int DEFAULT_BATCH_SIZE = 16_384;
+
+    private ParallelUnifiedSets()
+    {
+    }
+
+    public static <T> UnifiedSet<T> select(UnifiedSet<T> set, Predicate<? super T> predicate)
+    {
+        return select(set, predicate, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param batchSize table slots scanned by one task
+     * @param pool pool the section tasks run in
+     * @return the elements matching {@code predicate}
+     */
+    public static <T> UnifiedSet<T> select(
+            UnifiedSet<T> set,
+            Predicate<? super T> predicate,
+            int batchSize,
+            ForkJoinPool pool)
+    {
+        FastList<T>[] sections = scan(set, batchSize, pool, (T each, FastList<T> out) -> {
+            if (predicate.accept(each))
+            {
+                out.add(each);
+            }
+        });
+        return merge(sections);
+    }
+
+    public static <T, V> UnifiedSet<V> collect(UnifiedSet<T> set, Function<? super T, ? extends V> function)
+    {
+        return collect(set, function, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param batchSize table slots scanned by one task
+     * @param pool pool the section tasks run in
+     * @return the distinct results of {@code function}
+     */
+    public static <T, V> UnifiedSet<V> collect(
+            UnifiedSet<T> set,
+            Function<? super T, ? extends V> function,
+            int batchSize,
+            ForkJoinPool pool)
+    {
+        FastList<V>[] sections = scan(set, batchSize, pool, (T each, FastList<V> out) -> out.add(function.valueOf(each)));
+        return merge(sections);
+    }
+
+    public static <T> boolean retainAll(UnifiedSet<T> set, Collection<?> retained)
+    {
+        return retainAll(set, retained, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Removes the elements of {@code set} not in {@code retained}. The {@code contains} checks run
+     * in parallel; the removals, which mutate the table, run on the calling thread.
+     * @param retained collection safe for concurrent {@code contains} calls
+     * @return true if {@code set} changed
+     */
+    public static <T> boolean retainAll(
+            UnifiedSet<T> set,
+            Collection<?> retained,
+            int batchSize,
+            ForkJoinPool pool)
+    {
+        FastList<T>[] sections = scan(set, batchSize, pool, (T each, FastList<T> out) -> {
+            if (!retained.contains(each))
+            {
+                out.add(each);
+            }
+        });
+        boolean changed = false;
+        for (FastList<T> section : sections)
+        {
+            for (int i = 0; i < section.size(); i++)
+            {
+                changed |= set.remove(section.get(i));
+            }
+        }
+        return changed;
+    }
+
+    private static <T, V> FastList<V>[] scan(
+            UnifiedSet<T> set,
+            int batchSize,
+            ForkJoinPool pool,
+            Procedure2<T, FastList<V>> procedure)
+    {
+        if (batchSize <= 0)
+        {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        int sectionCount = set.getBatchCount(batchSize);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        FastList<V>[] sections = new FastList[sectionCount];
+        SectionTask<T, V> task = new SectionTask<T, V>(set, procedure, sections, 0, sectionCount);
+        if (sectionCount == 1)
+        {
+            task.compute();
+        }
+        else
+        {
+            pool.invoke(task);
+        }
+        return sections;
+    }
+
+    private static <V> UnifiedSet<V> merge(FastList<V>[] sections)
+    {
+        int size = 0;
+        for (FastList<V> section : sections)
+        {
+            size += section.size();
+        }
+        UnifiedSet<V> result = UnifiedSet.newSet(size);
+        for (FastList<V> section : sections)
+        {
+            result.addAll(section);
+        }
+        return result;
+    }
+
+    private static final class SectionTask<T, V> extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final UnifiedSet<T> set;
+        private final Procedure2<T, FastList<V>> procedure;
+        private final FastList<V>[] sections;
+        private final int from;
+        private final int to;
+
+        private SectionTask(
+                UnifiedSet<T> set,
+                Procedure2<T, FastList<V>> procedure,
+                FastList<V>[] sections,
+                int from,
+                int to)
+        {
+            this.set = set;
+            this.procedure = procedure;
+            this.sections = sections;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (this.to - this.from > 1)
+            {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new SectionTask<T, V>(this.set, this.procedure, this.sections, this.from, middle),
+                        new SectionTask<T, V>(this.set, this.procedure, this.sections, middle, this.to));
+                return;
+            }
+            FastList<V> out = FastList.newList();
+            this.set.batchForEach(each -> this.procedure.value(each, out), this.from, this.sections.length);
+            this.sections[this.from] = out;
+        }
+    }
+}
@@ -0,0 +1,562 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.gs.collections.impl.lazy.iterator.SelectIterator;
+
+/**
+ * Union, intersection and difference that look at the operands' sizes before iterating.
+ * <p>
+ * Unlike the {@link com.gs.collections.impl.factory.Sets} factory methods, which always iterate
+ * the left set into a default-sized result, these methods iterate the smaller operand whenever the
+ * operation allows it and size the result table for the largest possible outcome, so it never
+ * rehashes. The {@code InPlace} variants update their first argument instead of allocating, and
+ * the {@code View} variants return live, unmodifiable sets computed on access. Keys that are
+ * numeric can skip hashing altogether with the {@code long[]} overloads, which merge sorted
+ * arrays such as the output of {@code LongHashSet.toSortedArray()}.
+ */
+public final class SetAlgebra
+{
+    /**
+     * Length ratio above which the sorted array operations binary search the larger array
+     * instead of merging both
+     */
+    static final int GALLOP_RATIO = 32;
+
+    private static final long[] EMPTY_LONGS = {};
+
+    private SetAlgebra()
+    {
+    }
+
+    public static <T> UnifiedSet<T> union(Set<? extends T> left, Set<? extends T> right)
+    {
+        Set<? extends T> larger = left.size() >= right.size() ? left : right;
+        Set<? extends T> smaller = larger == left ? right : left;
+        UnifiedSet<T> result = UnifiedSet.newSet(larger.size() + smaller.size());
+        result.addAll(larger);
+        result.addAll(smaller);
+        return result;
+    }
+
+    /**
+     * Iterates the smaller operand and probes the larger one
+     */
+    public static <T> UnifiedSet<T> intersect(Set<? extends T> left, Set<? extends T> right)
+    {
+        Set<? extends T> larger = left.size() >= right.size() ? left : right;
+        Set<? extends T> smaller = larger == left ? right : left;
+        UnifiedSet<T> result = UnifiedSet.newSet(smaller.size());
+        for (T each : smaller)
+        {
+            if (larger.contains(each))
+            {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Iterates {@code left} probing {@code right} when {@code left} is the smaller operand;
+     * otherwise copies {@code left} and removes each element of {@code right}
+     */
+    public static <T> UnifiedSet<T> difference(Set<? extends T> left, Set<?> right)
+    {
+        if (left.size() <= right.size())
+        {
+            UnifiedSet<T> result = UnifiedSet.newSet(left.size());
+            for (T each : left)
+            {
+                if (!right.contains(each))
+                {
+                    result.add(each);
+                }
+            }
+            return result;
+        }
+        UnifiedSet<T> result = UnifiedSet.newSet(left);
+        for (Object each : right)
+        {
+            result.remove(each);
+        }
+        return result;
+    }
+
+    /**
+     * @return true if {@code target} changed
+     */
+    public static <T> boolean unionInPlace(Set<T> target, Set<? extends T> other)
+    {
+        return target.addAll(other);
+    }
+
+    /**
+     * Keeps the elements of {@code target} also in {@code other}, removing the others through the
+     * iterator of {@code target} so the instances it keeps are its own and nothing is rehashed.
+     * Returns without iterating when {@code other} cannot leave anything to remove.
+     * @return true if {@code target} changed
+     */
+    public static <T> boolean intersectInPlace(Set<T> target, Set<?> other)
+    {
+        if (target.isEmpty() || other == target)
+        {
+            return false;
+        }
+        if (other.isEmpty())
+        {
+            target.clear();
+            return true;
+        }
+        boolean changed = false;
+        Iterator<T> iterator = target.iterator();
+        while (iterator.hasNext())
+        {
+            if (!other.contains(iterator.next()))
+            {
+                iterator.remove();
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes the elements of {@code other} from {@code target}, iterating whichever is smaller
+     * @return true if {@code target} changed
+     */
+    public static <T> boolean differenceInPlace(Set<T> target, Set<?> other)
+    {
+        boolean changed = false;
+        if (other.size() <= target.size())
+        {
+            for (Object each : other)
+            {
+                changed |= target.remove(each);
+            }
+            return changed;
+        }
+        Iterator<T> iterator = target.iterator();
+        while (iterator.hasNext())
+        {
+            if (other.contains(iterator.next()))
+            {
+                iterator.remove();
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Live union; {@code size()} iterates the view
+     */
+    public static <T> Set<T> unionView(Set<? extends T> left, Set<? extends T> right)
+    {
+        return new UnionView<T>(left, right);
+    }
+
+    /**
+     * Live intersection; {@code size()} iterates the view
+     */
+    public static <T> Set<T> intersectView(Set<? extends T> left, Set<? extends T> right)
+    {
+        return new IntersectView<T>(left, right);
+    }
+
+    /**
+     * Live difference; {@code size()} iterates the view
+     */
+    public static <T> Set<T> differenceView(Set<? extends T> left, Set<?> right)
+    {
+        return new DifferenceView<T>(left, right);
+    }
+
+    /**
+     * Merges the arrays, or, once their lengths differ by more than {@link #GALLOP_RATIO}, binary
+     * searches the larger one for each key of the smaller and copies the runs in between
+     * @param left ascending, distinct keys
+     * @param right ascending, distinct keys
+     * @return ascending, distinct keys in either array
+     */
+    public static long[] union(long[] left, long[] right)
+    {
+        long[] smaller = left.length <= right.length ? left : right;
+        long[] larger = smaller == left ? right : left;
+        if (skewed(smaller, larger))
+        {
+            // Sized exactly, as copying a trimmed result would double the traffic of the large array
+            long[] result = new long[larger.length + smaller.length - countCommon(smaller, larger)];
+            int size = 0;
+            int from = 0;
+            for (long key : smaller)
+            {
+                int index = Arrays.binarySearch(larger, from, larger.length, key);
+                int run = (index >= 0 ? index : -index - 1) - from;
+                System.arraycopy(larger, from, result, size, run);
+                size += run;
+                from += run;
+                if (index < 0)
+                {
+                    result[size++] = key;
+                }
+            }
+            System.arraycopy(larger, from, result, size, larger.length - from);
+            return result;
+        }
+        long[] result = new long[left.length + right.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length)
+        {
+            long a = left[i];
+            long b = right[j];
+            if (a < b)
+            {
+                result[size++] = a;
+                i++;
+            }
+            else if (b < a)
+            {
+                result[size++] = b;
+                j++;
+            }
+            else
+            {
+                result[size++] = a;
+                i++;
+                j++;
+            }
+        }
+        System.arraycopy(left, i, result, size, left.length - i);
+        size += left.length - i;
+        System.arraycopy(right, j, result, size, right.length - j);
+        size += right.length - j;
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Merges the arrays, or binary searches the larger one for each key of the smaller once their
+     * lengths differ by more than {@link #GALLOP_RATIO}
+     * @param left ascending, distinct keys
+     * @param right ascending, distinct keys
+     * @return ascending keys in both arrays
+     */
+    public static long[] intersect(long[] left, long[] right)
+    {
+        long[] smaller = left.length <= right.length ? left : right;
+        long[] larger = smaller == left ? right : left;
+        if (smaller.length == 0)
+        {
+            return EMPTY_LONGS;
+        }
+        long[] result = new long[smaller.length];
+        int size = 0;
+        if (skewed(smaller, larger))
+        {
+            int from = 0;
+            for (long key : smaller)
+            {
+                int index = Arrays.binarySearch(larger, from, larger.length, key);
+                if (index >= 0)
+                {
+                    result[size++] = key;
+                    from = index + 1;
+                }
+                else
+                {
+                    from = -index - 1;
+                }
+                if (from == larger.length)
+                {
+                    break;
+                }
+            }
+        }
+        else
+        {
+            int i = 0;
+            int j = 0;
+            while (i < smaller.length && j < larger.length)
+            {
+                long a = smaller[i];
+                long b = larger[j];
+                if (a < b)
+                {
+                    i++;
+                }
+                else if (b < a)
+                {
+                    j++;
+                }
+                else
+                {
+                    result[size++] = a;
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Merges the arrays, or binary searches the larger one once their lengths differ by more than
+     * {@link #GALLOP_RATIO}
+     * @param left ascending, distinct keys
+     * @param right ascending, distinct keys
+     * @return ascending keys of {@code left} not in {@code right}
+     */
+    public static long[] difference(long[] left, long[] right)
+    {
+        if (skewed(right, left))
+        {
+            long[] result = new long[left.length - countCommon(right, left)];
+            int size = 0;
+            int from = 0;
+            for (long key : right)
+            {
+                int index = Arrays.binarySearch(left, from, left.length, key);
+                int run = (index >= 0 ? index : -index - 1) - from;
+                System.arraycopy(left, from, result, size, run);
+                size += run;
+                from += run + (index >= 0 ? 1 : 0);
+            }
+            System.arraycopy(left, from, result, size, left.length - from);
+            return result;
+        }
+        long[] result = new long[left.length];
+        int size = 0;
+        if (skewed(left, right))
+        {
+            int from = 0;
+            for (long key : left)
+            {
+                int index = Arrays.binarySearch(right, from, right.length, key);
+                if (index < 0)
+                {
+                    result[size++] = key;
+                    from = -index - 1;
+                }
+                else
+                {
+                    from = index + 1;
+                }
+            }
+        }
+        else
+        {
+            int j = 0;
+            for (long key : left)
+            {
+                while (j < right.length && right[j] < key)
+                {
+                    j++;
+                }
+                if (j == right.length || right[j] != key)
+                {
+                    result[size++] = key;
+                }
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static int countCommon(long[] smaller, long[] larger)
+    {
+        int common = 0;
+        int from = 0;
+        for (long key : smaller)
+        {
+            int index = Arrays.binarySearch(larger, from, larger.length, key);
+            common += index >= 0 ? 1 : 0;
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        return common;
+    }
+
+    private static boolean skewed(long[] smaller, long[] larger)
+    {
+        return (long) smaller.length * GALLOP_RATIO < larger.length;
+    }
+
+    private abstract static class View<T> extends AbstractSet<T>
+    {
+        @Override
+        public int size()
+        {
+            int size = 0;
+            for (Iterator<T> iterator = this.iterator(); iterator.hasNext(); iterator.next())
+            {
+                size++;
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return !this.iterator().hasNext();
+        }
+    }
+
+    private static final class UnionView<T> extends View<T>
+    {
+        private final Set<? extends T> left;
+        private final Set<? extends T> right;
+
+        private UnionView(Set<? extends T> left, Set<? extends T> right)
+        {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean contains(Object element)
+        {
+            return this.left.contains(element) || this.right.contains(element);
+        }
+
+        @Override
+        public int size()
+        {
+            Set<? extends T> larger = this.left.size() >= this.right.size() ? this.left : this.right;
+            Set<? extends T> smaller = larger == this.left ? this.right : this.left;
+            int size = larger.size();
+            for (T each : smaller)
+            {
+                if (!larger.contains(each))
+                {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Iterates the larger set, then the elements of the smaller one it does not contain
+         */
+        @Override
+        public Iterator<T> iterator()
+        {
+            Set<? extends T> larger = this.left.size() >= this.right.size() ? this.left : this.right;
+            Set<? extends T> smaller = larger == this.left ? this.right : this.left;
+            Iterator<T> first = readOnly(larger.iterator());
+            Iterator<T> second = new SelectIterator<T>(readOnly(smaller.iterator()), each -> !larger.contains(each));
+            return new Iterator<T>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return first.hasNext() || second.hasNext();
+                }
+
+                @Override
+                public T next()
+                {
+                    if (first.hasNext())
+                    {
+                        return first.next();
+                    }
+                    if (second.hasNext())
+                    {
+                        return second.next();
+                    }
+                    throw new NoSuchElementException();
+                }
+            };
+        }
+    }
+
+    private static final class IntersectView<T> extends View<T>
+    {
+        private final Set<? extends T> left;
+        private final Set<? extends T> right;
+
+        private IntersectView(Set<? extends T> left, Set<? extends T> right)
+        {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean contains(Object element)
+        {
+            return this.left.contains(element) && this.right.contains(element);
+        }
+
+        /**
+         * Iterates the smaller set, keeping the elements the larger one contains
+         */
+        @Override
+        public Iterator<T> iterator()
+        {
+            Set<? extends T> larger = this.left.size() >= this.right.size() ? this.left : this.right;
+            Set<? extends T> smaller = larger == this.left ? this.right : this.left;
+            return new SelectIterator<T>(readOnly(smaller.iterator()), larger::contains);
+        }
+    }
+
+    private static final class DifferenceView<T> extends View<T>
+    {
+        private final Set<? extends T> left;
+        private final Set<?> right;
+
+        private DifferenceView(Set<? extends T> left, Set<?> right)
+        {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean contains(Object element)
+        {
+            return this.left.contains(element) && !this.right.contains(element);
+        }
+
+        @Override
+        public Iterator<T> iterator()
+        {
+            return new SelectIterator<T>(readOnly(this.left.iterator()), each -> !this.right.contains(each));
+        }
+    }
+
+    private static <T> Iterator<T> readOnly(Iterator<? extends T> iterator)
+    {
+        return new Iterator<T>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next()
+            {
+                return iterator.next();
+            }
+        };
+    }
+}
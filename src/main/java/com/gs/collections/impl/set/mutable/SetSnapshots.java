@@ -0,0 +1,589 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.gs.collections.impl.set.mutable.primitive.LongHashSet;
+
+/**
+ * Binary snapshots of large sets, so a restarted process gets its dedup and interning sets back
+ * without replaying traffic into them.
+ * <p>
+ * A {@link UnifiedSet} is written slot by slot: each occupied slot of the internal table is
+ * stored with its index and the elements of its chain. Restoring allocates the table at the
+ * snapshot's capacity and puts every element back into its recorded slot, so no element is hashed
+ * and the table never grows. That is only valid when element hash codes are computed from their
+ * value the same way in every JVM, as for {@code String} and the boxed primitives; the first
+ * records are checked and a mismatch fails the restore, while the slot, element count and length of
+ * every record are validated. A {@link LongHashSet} is written as its raw table. Snapshots replace
+ * the target file atomically, and files are read through memory-mapped windows. Lives in the UnifiedSet package so it
+ * can read and fill the table; chained buckets and the LongHashSet fields are reached
+ * reflectively.
+ */
+public final class SetSnapshots
+{
+    private static final int UNIFIED_SET_MAGIC = 0x55534E31;
+    private static final int LONG_HASH_SET_MAGIC = 0x4C534E31;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_HEADER_BYTES = 12;
+    private static final int VERIFIED_RECORDS = 64;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final long WINDOW_BYTES = 1L << 28;
+
+    private static final Class<?> CHAINED_BUCKET_CLASS;
+    private static final Constructor<?> NEW_BUCKET;
+    private static final Field[] BUCKET_FIELDS;
+
+    private static final Field LONG_TABLE;
+    private static final Field LONG_OCCUPIED_WITH_DATA;
+    private static final Field LONG_OCCUPIED_WITH_SENTINELS;
+    private static final Field LONG_ZERO_TO_THIRTY_ONE;
+    private static final Field LONG_ZERO_TO_THIRTY_ONE_OCCUPIED;
+
+    /**
+     * Strings as UTF-8 with a length prefix, null included
+     */
+    public static final Codec<String> STRINGS = new Codec<String>()
+    {
+        public int encodedLength(String element)
+        {
+            if (element == null)
+            {
+                return 4;
+            }
+            int bytes = element.length();
+            for (int i = 0; i < element.length(); i++)
+            {
+                char c = element.charAt(i);
+                if (c >= 0x80)
+                {
+                    return 4 + element.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+            return 4 + bytes;
+        }
+
+        public void encode(String element, ByteBuffer out)
+        {
+            if (element == null)
+            {
+                out.putInt(-1);
+                return;
+            }
+            byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+            out.putInt(bytes.length).put(bytes);
+        }
+
+        public String decode(ByteBuffer in)
+        {
+            int length = in.getInt();
+            if (length < 0)
+            {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    static
+    {
+        try
+        {
+            CHAINED_BUCKET_CLASS = Class.forName(UnifiedSet.class.getName() + "$ChainedBucket");
+            NEW_BUCKET = CHAINED_BUCKET_CLASS.getDeclaredConstructor();
+            NEW_BUCKET.setAccessible(true);
+            BUCKET_FIELDS = new Field[4];
+            String[] names = {"zero", "one", "two", "three"};
+            for (int i = 0; i < names.length; i++)
+            {
+                BUCKET_FIELDS[i] = CHAINED_BUCKET_CLASS.getDeclaredField(names[i]);
+                BUCKET_FIELDS[i].setAccessible(true);
+            }
+            LONG_TABLE = longSetField("table");
+            LONG_OCCUPIED_WITH_DATA = longSetField("occupiedWithData");
+            LONG_OCCUPIED_WITH_SENTINELS = longSetField("occupiedWithSentinels");
+            LONG_ZERO_TO_THIRTY_ONE = longSetField("zeroToThirtyOne");
+            LONG_ZERO_TO_THIRTY_ONE_OCCUPIED = longSetField("zeroToThirtyOneOccupied");
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private SetSnapshots()
+    {
+    }
+
+    /**
+     * Encodes set elements in a snapshot
+     */
+    public interface Codec<T>
+    {
+        /**
+         * @return bytes {@link #encode} writes for the element
+         */
+        int encodedLength(T element);
+
+        /**
+         * Writes the element, which may be null
+         */
+        void encode(T element, ByteBuffer out);
+
+        /**
+         * Reads an element written by {@link #encode}
+         */
+        T decode(ByteBuffer in);
+    }
+
+    /**
+     * Writes the table of a set to a file, replacing it atomically
+     * @return bytes written
+     */
+    public static <T> long write(UnifiedSet<T> set, Codec<? super T> codec, Path file) throws IOException
+    {
+        Object[] table = set.table;
+        return replace(file, channel ->
+        {
+            ByteBuffer out = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(UNIFIED_SET_MAGIC).putInt(table.length).putInt(set.size()).putFloat(set.loadFactor);
+            out.position(HEADER_BYTES);
+            Object[] chain = new Object[4];
+            for (int slot = 0; slot < table.length; slot++)
+            {
+                Object current = table[slot];
+                if (current == null)
+                {
+                    continue;
+                }
+                int count = 0;
+                if (UnifiedSetFootprint.isChainedBucket(current))
+                {
+                    Object bucket = current;
+                    while (bucket != null)
+                    {
+                        Object next = null;
+                        for (int i = 0; i < 4; i++)
+                        {
+                            Object element = get(bucket, i);
+                            if (element == null)
+                            {
+                                break;
+                            }
+                            if (i == 3 && UnifiedSetFootprint.isChainedBucket(element))
+                            {
+                                next = element;
+                                break;
+                            }
+                            if (count == chain.length)
+                            {
+                                chain = Arrays.copyOf(chain, count * 2);
+                            }
+                            chain[count++] = element;
+                        }
+                        bucket = next;
+                    }
+                }
+                else
+                {
+                    chain[count++] = current;
+                }
+                int bytes = 0;
+                for (int i = 0; i < count; i++)
+                {
+                    bytes += codec.encodedLength(SetSnapshots.<T>element(chain[i]));
+                }
+                out = ensure(channel, out, RECORD_HEADER_BYTES + bytes);
+                out.putInt(slot).putInt(count).putInt(bytes);
+                for (int i = 0; i < count; i++)
+                {
+                    codec.encode(SetSnapshots.<T>element(chain[i]), out);
+                }
+            }
+            return flush(channel, out, true);
+        });
+    }
+
+    /**
+     * Restores a set written by {@link #write(UnifiedSet, Codec, Path)} without hashing its elements
+     * @throws IllegalArgumentException if element hash codes do not match the snapshot's slots
+     */
+    public static <T> UnifiedSet<T> readUnifiedSet(Path file, Codec<? extends T> codec) throws IOException
+    {
+        try (MappedInput in = new MappedInput(file))
+        {
+            ByteBuffer header = in.require(HEADER_BYTES);
+            checkMagic(header.getInt(), UNIFIED_SET_MAGIC, file);
+            int capacity = header.getInt();
+            int size = header.getInt();
+            float loadFactor = header.getFloat();
+            header.position(header.position() + HEADER_BYTES - 16);
+            if (capacity <= 0 || (capacity & capacity - 1) != 0 || size < 0)
+            {
+                throw new IOException("set snapshot " + file + " has capacity " + capacity + " and size " + size);
+            }
+
+            UnifiedSet<T> set = new UnifiedSet<T>(0, loadFactor);
+            set.allocate(capacity);
+            Object[] table = set.table;
+            Object[] chain = new Object[4];
+            int records = 0;
+            int restored = 0;
+            while (restored < size)
+            {
+                ByteBuffer record = in.require(RECORD_HEADER_BYTES);
+                int slot = record.getInt();
+                int count = record.getInt();
+                int bytes = record.getInt();
+                if (slot < 0 || slot >= capacity || table[slot] != null || count <= 0 || count > size - restored
+                        || bytes < 0)
+                {
+                    throw new IOException("set snapshot " + file + " has an invalid record " + records + ": slot "
+                            + slot + ", " + count + " elements, " + bytes + " bytes");
+                }
+                record = in.require(bytes);
+                int limit = record.limit();
+                int end = record.position() + bytes;
+                if (count > chain.length)
+                {
+                    chain = new Object[Integer.highestOneBit(count) << 1];
+                }
+                // The codec only sees the record's own bytes, and must consume all of them
+                record.limit(end);
+                try
+                {
+                    for (int i = 0; i < count; i++)
+                    {
+                        T element = codec.decode(record);
+                        if (records < VERIFIED_RECORDS && element != null && set.index(element) != slot)
+                        {
+                            throw new IllegalArgumentException("hash code of " + element + " differs from the one in "
+                                    + file + "; restoring needs value-based hash codes");
+                        }
+                        chain[i] = element == null ? UnifiedSet.NULL_KEY : element;
+                    }
+                }
+                catch (BufferUnderflowException e)
+                {
+                    throw new IOException("set snapshot " + file + " record " + records + " is shorter than its "
+                            + count + " elements", e);
+                }
+                finally
+                {
+                    record.limit(limit);
+                }
+                if (record.position() != end)
+                {
+                    throw new IOException("set snapshot " + file + " record " + records + " has "
+                            + (end - record.position()) + " bytes after its " + count + " elements");
+                }
+                table[slot] = count == 1 ? chain[0] : chainOf(chain, 0, count);
+                restored += count;
+                records++;
+            }
+            set.occupied = size;
+            return set;
+        }
+    }
+
+    /**
+     * Writes the raw table of a LongHashSet to a file, replacing it atomically
+     * @return bytes written
+     */
+    public static long write(LongHashSet set, Path file) throws IOException
+    {
+        long[] table = (long[]) getField(LONG_TABLE, set);
+        return replace(file, channel ->
+        {
+            ByteBuffer out = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(LONG_HASH_SET_MAGIC).putInt(table.length)
+                    .putInt(getInt(LONG_OCCUPIED_WITH_DATA, set))
+                    .putInt(getInt(LONG_OCCUPIED_WITH_SENTINELS, set))
+                    .putInt(getInt(LONG_ZERO_TO_THIRTY_ONE, set))
+                    .putInt(getInt(LONG_ZERO_TO_THIRTY_ONE_OCCUPIED, set));
+            out.position(HEADER_BYTES);
+            int written = 0;
+            while (written < table.length)
+            {
+                int batch = Math.min(out.remaining() >>> 3, table.length - written);
+                out.asLongBuffer().put(table, written, batch);
+                out.position(out.position() + (batch << 3));
+                written += batch;
+                if (out.remaining() < 8)
+                {
+                    flush(channel, out, false);
+                }
+            }
+            return flush(channel, out, true);
+        });
+    }
+
+    /**
+     * Restores a set written by {@link #write(LongHashSet, Path)} by copying its table back
+     */
+    public static LongHashSet readLongHashSet(Path file) throws IOException
+    {
+        try (MappedInput in = new MappedInput(file))
+        {
+            ByteBuffer header = in.require(HEADER_BYTES);
+            checkMagic(header.getInt(), LONG_HASH_SET_MAGIC, file);
+            int length = header.getInt();
+            if (length < 0)
+            {
+                throw new IOException("set snapshot " + file + " has table length " + length);
+            }
+            long[] table = new long[length];
+            LongHashSet set = new LongHashSet();
+            setField(LONG_OCCUPIED_WITH_DATA, set, header.getInt());
+            setField(LONG_OCCUPIED_WITH_SENTINELS, set, header.getInt());
+            setField(LONG_ZERO_TO_THIRTY_ONE, set, header.getInt());
+            setField(LONG_ZERO_TO_THIRTY_ONE_OCCUPIED, set, header.getInt());
+            header.position(header.position() + HEADER_BYTES - 24);
+            int read = 0;
+            while (read < table.length)
+            {
+                int batch = (int) Math.min(table.length - read, WINDOW_BYTES >>> 4);
+                ByteBuffer values = in.require(batch << 3);
+                values.asLongBuffer().get(table, read, batch);
+                values.position(values.position() + (batch << 3));
+                read += batch;
+            }
+            setField(LONG_TABLE, set, table);
+            return set;
+        }
+    }
+
+    private static Object chainOf(Object[] elements, int from, int count)
+    {
+        Object bucket = newBucket();
+        int remaining = count - from;
+        int direct = remaining <= 4 ? remaining : 3;
+        for (int i = 0; i < direct; i++)
+        {
+            set(bucket, i, elements[from + i]);
+        }
+        if (remaining > 4)
+        {
+            set(bucket, 3, chainOf(elements, from + 3, count));
+        }
+        return bucket;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T element(Object slot)
+    {
+        return slot == UnifiedSet.NULL_KEY ? null : (T) slot;
+    }
+
+    /**
+     * Writes a snapshot to a sibling temporary file, forces it and renames it over {@code file}, so
+     * a crash or a failed write never leaves a partial snapshot in place of the previous one
+     */
+    private static long replace(Path file, SnapshotWriter writer) throws IOException
+    {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        boolean written = false;
+        try
+        {
+            long bytes;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                bytes = writer.write(channel);
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            written = true;
+            return bytes;
+        }
+        finally
+        {
+            if (!written)
+            {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Flushes the buffer when fewer than {@code bytes} remain, growing it for an oversized record
+     */
+    private static ByteBuffer ensure(FileChannel channel, ByteBuffer out, int bytes) throws IOException
+    {
+        if (out.remaining() >= bytes)
+        {
+            return out;
+        }
+        flush(channel, out, false);
+        if (out.capacity() < bytes)
+        {
+            return ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return out;
+    }
+
+    private static long flush(FileChannel channel, ByteBuffer out, boolean last) throws IOException
+    {
+        out.flip();
+        while (out.hasRemaining())
+        {
+            channel.write(out);
+        }
+        out.clear();
+        return last ? channel.position() : 0;
+    }
+
+    private static void checkMagic(int magic, int expected, Path file) throws IOException
+    {
+        if (magic != expected)
+        {
+            throw new IOException("not a set snapshot of the expected kind: " + file);
+        }
+    }
+
+    private static Field longSetField(String name) throws NoSuchFieldException
+    {
+        Field field = LongHashSet.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    private static Object newBucket()
+    {
+        try
+        {
+            return NEW_BUCKET.newInstance();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object get(Object bucket, int index)
+    {
+        return getField(BUCKET_FIELDS[index], bucket);
+    }
+
+    private static void set(Object bucket, int index, Object value)
+    {
+        setField(BUCKET_FIELDS[index], bucket, value);
+    }
+
+    private static Object getField(Field field, Object target)
+    {
+        try
+        {
+            return field.get(target);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int getInt(Field field, Object target)
+    {
+        try
+        {
+            return field.getInt(target);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void setField(Field field, Object target, Object value)
+    {
+        try
+        {
+            field.set(target, value);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface SnapshotWriter
+    {
+        /**
+         * @return bytes written
+         */
+        long write(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Sequential reader over a file mapped in windows of up to {@value #WINDOW_BYTES} bytes, since
+     * one mapping is limited to 2GB
+     */
+    private static final class MappedInput implements AutoCloseable
+    {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private ByteBuffer window;
+
+        MappedInput(Path file) throws IOException
+        {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.size = this.channel.size();
+            this.window = ByteBuffer.allocate(0);
+        }
+
+        /**
+         * @return the window, positioned at the next {@code bytes} unread bytes
+         */
+        ByteBuffer require(int bytes) throws IOException
+        {
+            if (this.window.remaining() < bytes)
+            {
+                long position = this.windowStart + this.window.position();
+                if (position + bytes > this.size)
+                {
+                    throw new IOException("set snapshot is truncated at byte " + position);
+                }
+                long length = Math.min(this.size - position, Math.max(WINDOW_BYTES, bytes));
+                this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                this.windowStart = position;
+            }
+            return this.window;
+        }
+
+        public void close() throws IOException
+        {
+            this.channel.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.lang.reflect.Field;
+
+/**
+ * Estimates the heap retained by the internal table of a {@link UnifiedSet}.
+ * Lives in the UnifiedSet package so it can read the table; the private chained bucket class is
+ * followed reflectively.
+ * Sizes assume a 64-bit JVM with compressed oops; the elements themselves are not counted.
+ */
+public final class UnifiedSetFootprint
+{
+    static final int OBJECT_HEADER_BYTES = 12;
+    static final int ARRAY_HEADER_BYTES = 16;
+    static final int REFERENCE_BYTES = 4;
+    static final int CHAINED_BUCKET_BYTES = align(OBJECT_HEADER_BYTES + 4 * REFERENCE_BYTES);
+
+    private static final Class<?> CHAINED_BUCKET_CLASS;
+    private static final Field NEXT_BUCKET_FIELD;
+
+    static
+    {
+        try
+        {
+            CHAINED_BUCKET_CLASS = Class.forName(UnifiedSet.class.getName() + "$ChainedBucket");
+            NEXT_BUCKET_FIELD = CHAINED_BUCKET_CLASS.getDeclaredField("three");
+            NEXT_BUCKET_FIELD.setAccessible(true);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private UnifiedSetFootprint()
+    {
+    }
+
+    /**
+     * @return bytes held by the set object, its table array and chained buckets
+     */
+    public static long estimateBytes(UnifiedSet<?> set)
+    {
+        long bytes = align(OBJECT_HEADER_BYTES + REFERENCE_BYTES + 3 * 4);
+        Object[] table = set.table;
+        bytes += align(ARRAY_HEADER_BYTES + (long) table.length * REFERENCE_BYTES);
+        return bytes + (long) countChainedBuckets(set) * CHAINED_BUCKET_BYTES;
+    }
+
+    /**
+     * @return number of overflow buckets, a measure of how clustered the hash codes are
+     */
+    public static int countChainedBuckets(UnifiedSet<?> set)
+    {
+        int count = 0;
+        for (Object slot : set.table)
+        {
+            while (isChainedBucket(slot))
+            {
+                count++;
+                slot = nextBucket(slot);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return length of the internal table
+     */
+    public static int tableLength(UnifiedSet<?> set)
+    {
+        return set.table.length;
+    }
+
+    static boolean isChainedBucket(Object slot)
+    {
+        return slot != null && slot.getClass() == CHAINED_BUCKET_CLASS;
+    }
+
+    private static Object nextBucket(Object bucket)
+    {
+        try
+        {
+            return NEXT_BUCKET_FIELD.get(bucket);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int align(int bytes)
+    {
+        return (bytes + 7) & ~7;
+    }
+
+    private static long align(long bytes)
+    {
+        return (bytes + 7L) & ~7L;
+    }
+}
@@ -0,0 +1,109 @@
+package com.gs.kafka.processor.batch;
+
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.ColumnVector;
+
+/**
+ * One column of a {@link ColumnarBatch}: values in a primitive array or a dictionary, plus a
+ * validity bitmap with one bit per row, set when the row has a value. Columns without nulls keep
+ * no bitmap. Null rows hold 0, or dictionary code -1, and should be checked with
+ * {@link #isNull(int)} before reading.
+ */
+public abstract class BatchColumn implements ColumnVector {
+
+    private static final int OBJECT_BYTES = 16;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    protected final int size;
+    private final long[] validity;
+    private final int nullCount;
+
+    /**
+     * @param size number of rows
+     * @param validity bitmap of rows with a value, or null when every row has one
+     */
+    protected BatchColumn(int size, long[] validity) {
+        this.size = size;
+        this.validity = validity;
+        int valid = size;
+        if (validity != null) {
+            valid = 0;
+            for (long word : validity) {
+                valid += Long.bitCount(word);
+            }
+        }
+        this.nullCount = size - valid;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        return validity != null && (validity[row >>> 6] & (1L << row)) == 0;
+    }
+
+    public int getNullCount() {
+        return nullCount;
+    }
+
+    public boolean hasNulls() {
+        return nullCount > 0;
+    }
+
+    /**
+     * Shares the validity bitmap with a derived column of the same rows
+     */
+    protected long[] validity() {
+        return validity;
+    }
+
+    @Override
+    public int getInt(int row) {
+        throw wrongType(ColumnType.INT);
+    }
+
+    @Override
+    public long getLong(int row) {
+        throw wrongType(ColumnType.LONG);
+    }
+
+    @Override
+    public double getDouble(int row) {
+        throw wrongType(ColumnType.DOUBLE);
+    }
+
+    @Override
+    public String getString(int row) {
+        throw wrongType(ColumnType.STRING);
+    }
+
+    /**
+     * Reads a value boxed, for generic comparisons
+     * @param row row index
+     * @return the value, or null for a null row
+     */
+    @Override
+    public Comparable<?> getValue(int row) {
+        return isNull(row) ? null : ColumnVector.super.getValue(row);
+    }
+
+    /**
+     * Estimates the heap held by this column
+     * @return footprint in bytes
+     */
+    public long estimatedBytes() {
+        return OBJECT_BYTES + (validity == null ? 0 : ARRAY_HEADER_BYTES + 8L * validity.length) + valueBytes();
+    }
+
+    protected abstract long valueBytes();
+
+    static long arrayBytes(int length, int width) {
+        return (ARRAY_HEADER_BYTES + (long) length * width + 7) & ~7L;
+    }
+
+    private UnsupportedOperationException wrongType(ColumnType expected) {
+        return new UnsupportedOperationException("column is " + getType() + ", not " + expected);
+    }
+}
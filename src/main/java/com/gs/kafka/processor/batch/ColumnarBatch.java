@@ -0,0 +1,80 @@
+package com.gs.kafka.processor.batch;
+
+import com.gs.kafka.processor.sink.Schema;
+
+/**
+ * Rows of a {@link Schema} laid out column by column, as handed from processing to the sink and
+ * the query layer. Built with a {@link ColumnarBatchBuilder}; read through the {@link BatchColumn}s,
+ * which are {@link com.gs.kafka.processor.sink.ColumnVector}s.
+ */
+public final class ColumnarBatch {
+
+    private final Schema schema;
+    private final BatchColumn[] columns;
+    private final int rowCount;
+
+    /**
+     * @param schema schema of the rows
+     * @param columns one column per schema column, each {@code rowCount} rows long
+     * @param rowCount number of rows
+     */
+    public ColumnarBatch(Schema schema, BatchColumn[] columns, int rowCount) {
+        if (columns.length != schema.size()) {
+            throw new IllegalArgumentException("schema has " + schema.size() + " columns, got " + columns.length);
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].getType() != schema.get(i).getType() || columns[i].size() != rowCount) {
+                throw new IllegalArgumentException("column " + schema.get(i) + " does not match "
+                        + columns[i].getType() + " of " + columns[i].size() + " rows");
+            }
+        }
+        this.schema = schema;
+        this.columns = columns.clone();
+        this.rowCount = rowCount;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public BatchColumn column(int index) {
+        return columns[index];
+    }
+
+    public BatchColumn column(String name) {
+        return columns[schema.indexOf(name)];
+    }
+
+    /**
+     * Creates a batch of the same rows with one column replaced, for the output of a kernel
+     * @param index column index
+     * @param column replacement of the same type and size
+     * @return the new batch
+     */
+    public ColumnarBatch withColumn(int index, BatchColumn column) {
+        BatchColumn[] replaced = columns.clone();
+        replaced[index] = column;
+        return new ColumnarBatch(schema, replaced, rowCount);
+    }
+
+    /**
+     * Estimates the heap held by the batch's columns
+     * @return footprint in bytes
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (BatchColumn column : columns) {
+            bytes += column.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarBatch{rows=" + rowCount + ", " + schema + '}';
+    }
+}
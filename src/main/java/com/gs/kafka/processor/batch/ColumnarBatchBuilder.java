@@ -0,0 +1,299 @@
+package com.gs.kafka.processor.batch;
+
+import java.util.Arrays;
+
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+
+/**
+ * Appends rows into the primitive arrays of a {@link ColumnarBatch}.
+ * <p>
+ * As with {@code TableWriter}, the values of the next row are set column by column and added with
+ * {@link #appendRow()}; every column must be set or explicitly {@link #setNull nulled}. Strings are
+ * dictionary encoded as they arrive. A validity bitmap is only allocated for a column once it gets
+ * its first null. {@link #build()} hands the arrays over without copying, so size the builder with
+ * the expected batch size. Not thread-safe.
+ */
+public class ColumnarBatchBuilder {
+
+    public static final int DEFAULT_EXPECTED_ROWS = 1024;
+
+    private static final int[] NO_INTS = new int[0];
+    private static final long[] NO_LONGS = new long[0];
+    private static final double[] NO_DOUBLES = new double[0];
+
+    private final Schema schema;
+    private final ColumnType[] types;
+    private final int expectedRows;
+
+    private int[][] ints;
+    private long[][] longs;
+    private double[][] doubles;
+    private long[][] validity;
+    private ObjectIntHashMap<String>[] codesByValue;
+    private FastList<String>[] dictionaries;
+
+    // Row number + 1 at which each column was last set, so nothing is cleared per row
+    private final int[] assignedAt;
+    private final boolean[] nullInRow;
+    private int assignedCount;
+    private int nullsInRow;
+    private int bitmapCount;
+    private int capacity;
+    private int rowCount;
+
+    public ColumnarBatchBuilder(Schema schema) {
+        this(schema, DEFAULT_EXPECTED_ROWS);
+    }
+
+    /**
+     * @param schema schema of the rows
+     * @param expectedRows initial capacity of every column
+     */
+    public ColumnarBatchBuilder(Schema schema, int expectedRows) {
+        if (expectedRows <= 0) {
+            throw new IllegalArgumentException("expectedRows must be positive: " + expectedRows);
+        }
+        this.schema = schema;
+        this.expectedRows = expectedRows;
+        this.types = new ColumnType[schema.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = schema.get(i).getType();
+        }
+        this.assignedAt = new int[types.length];
+        this.nullInRow = new boolean[types.length];
+        reset();
+    }
+
+    /**
+     * Starts an empty batch; the columns are only allocated when its first row is set
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void reset() {
+        capacity = 0;
+        rowCount = 0;
+        ints = new int[types.length][];
+        longs = new long[types.length][];
+        doubles = new double[types.length][];
+        validity = new long[types.length][];
+        bitmapCount = 0;
+        Arrays.fill(assignedAt, 0);
+        codesByValue = new ObjectIntHashMap[types.length];
+        dictionaries = new FastList[types.length];
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case INT:
+                    ints[i] = NO_INTS;
+                    break;
+                case LONG:
+                    longs[i] = NO_LONGS;
+                    break;
+                case DOUBLE:
+                    doubles[i] = NO_DOUBLES;
+                    break;
+                default:
+                    ints[i] = NO_INTS;
+                    codesByValue[i] = new ObjectIntHashMap<>();
+                    dictionaries[i] = FastList.newList();
+                    break;
+            }
+        }
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public ColumnarBatchBuilder setInt(int column, int value) {
+        checkType(column, ColumnType.INT);
+        int row = row();
+        ints[column][row] = value;
+        return markAssigned(column, false);
+    }
+
+    public ColumnarBatchBuilder setLong(int column, long value) {
+        checkType(column, ColumnType.LONG);
+        int row = row();
+        longs[column][row] = value;
+        return markAssigned(column, false);
+    }
+
+    public ColumnarBatchBuilder setDouble(int column, double value) {
+        checkType(column, ColumnType.DOUBLE);
+        int row = row();
+        doubles[column][row] = value;
+        return markAssigned(column, false);
+    }
+
+    /**
+     * Sets a string value, adding it to the column's dictionary on first use
+     * @param column STRING column index
+     * @param value value, null for a null row
+     * @return this builder
+     */
+    public ColumnarBatchBuilder setString(int column, String value) {
+        checkType(column, ColumnType.STRING);
+        if (value == null) {
+            return setNull(column);
+        }
+        int code = codesByValue[column].getIfAbsent(value, -1);
+        if (code < 0) {
+            code = dictionaries[column].size();
+            codesByValue[column].put(value, code);
+            dictionaries[column].add(value);
+        }
+        int row = row();
+        ints[column][row] = code;
+        return markAssigned(column, false);
+    }
+
+    public ColumnarBatchBuilder setNull(int column) {
+        int row = row();
+        switch (types[column]) {
+            case INT:
+                ints[column][row] = 0;
+                break;
+            case LONG:
+                longs[column][row] = 0;
+                break;
+            case DOUBLE:
+                doubles[column][row] = 0;
+                break;
+            default:
+                ints[column][row] = -1;
+                break;
+        }
+        return markAssigned(column, true);
+    }
+
+    /**
+     * Adds the row assembled by the setters
+     * @throws IllegalStateException if a column was neither set nor nulled
+     */
+    public void appendRow() {
+        if (assignedCount != types.length) {
+            for (int i = 0; i < assignedAt.length; i++) {
+                if (assignedAt[i] != rowCount + 1) {
+                    throw new IllegalStateException("row is missing column " + schema.get(i).getName());
+                }
+            }
+        }
+        if (nullsInRow > 0 || bitmapCount > 0) {
+            updateValidity();
+        }
+        rowCount++;
+        assignedCount = 0;
+    }
+
+    private void updateValidity() {
+        for (int i = 0; i < types.length; i++) {
+            if (nullInRow[i] && validity[i] == null) {
+                validity[i] = allValid(capacity, rowCount);
+                bitmapCount++;
+            }
+            if (validity[i] != null && !nullInRow[i]) {
+                validity[i][rowCount >>> 6] |= 1L << rowCount;
+            }
+        }
+        Arrays.fill(nullInRow, false);
+        nullsInRow = 0;
+    }
+
+    /**
+     * Gets the index the next row is written at, to be called before reading a column array,
+     * growing the columns only once a row past the
+     * capacity is actually set, so a batch of exactly the expected size is allocated once
+     */
+    private int row() {
+        if (rowCount == capacity) {
+            grow();
+        }
+        return rowCount;
+    }
+
+    private static long[] allValid(int capacity, int rows) {
+        long[] bits = new long[(capacity + 63) >>> 6];
+        Arrays.fill(bits, 0, rows >>> 6, -1L);
+        if ((rows & 63) != 0) {
+            bits[rows >>> 6] = (1L << rows) - 1;
+        }
+        return bits;
+    }
+
+    private void grow() {
+        capacity = Math.max(expectedRows, capacity * 2);
+        for (int i = 0; i < types.length; i++) {
+            if (ints[i] != null) {
+                ints[i] = Arrays.copyOf(ints[i], capacity);
+            } else if (longs[i] != null) {
+                longs[i] = Arrays.copyOf(longs[i], capacity);
+            } else {
+                doubles[i] = Arrays.copyOf(doubles[i], capacity);
+            }
+            if (validity[i] != null) {
+                validity[i] = Arrays.copyOf(validity[i], (capacity + 63) >>> 6);
+            }
+        }
+    }
+
+    /**
+     * Gets the rows appended since the last {@link #build()}
+     * @return row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Completes the batch and starts a new, empty one
+     * @return the appended rows
+     * @throws IllegalStateException if a row is partly set
+     */
+    public ColumnarBatch build() {
+        if (assignedCount != 0) {
+            throw new IllegalStateException("row is partly set; call appendRow() first");
+        }
+        BatchColumn[] columns = new BatchColumn[types.length];
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case INT:
+                    columns[i] = new IntBatchColumn(ints[i], rowCount, validity[i]);
+                    break;
+                case LONG:
+                    columns[i] = new LongBatchColumn(longs[i], rowCount, validity[i]);
+                    break;
+                case DOUBLE:
+                    columns[i] = new DoubleBatchColumn(doubles[i], rowCount, validity[i]);
+                    break;
+                default:
+                    columns[i] = new StringBatchColumn(ints[i], dictionaries[i].toArray(new String[0]), rowCount,
+                            validity[i]);
+                    break;
+            }
+        }
+        ColumnarBatch batch = new ColumnarBatch(schema, columns, rowCount);
+        reset();
+        return batch;
+    }
+
+    private void checkType(int column, ColumnType type) {
+        if (types[column] != type) {
+            throw new IllegalArgumentException("column " + schema.get(column).getName() + " is "
+                    + types[column] + ", not " + type);
+        }
+    }
+
+    private ColumnarBatchBuilder markAssigned(int column, boolean isNull) {
+        if (isNull != nullInRow[column]) {
+            nullInRow[column] = isNull;
+            nullsInRow += isNull ? 1 : -1;
+        }
+        if (assignedAt[column] != rowCount + 1) {
+            assignedAt[column] = rowCount + 1;
+            assignedCount++;
+        }
+        return this;
+    }
+}
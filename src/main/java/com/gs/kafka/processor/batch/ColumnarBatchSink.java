@@ -0,0 +1,76 @@
+package com.gs.kafka.processor.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.kafka.processor.pipeline.BatchSink;
+import com.gs.kafka.processor.sink.Schema;
+import com.gs.kafka.processor.sink.TableWriter;
+
+/**
+ * Pipeline sink that appends every row of each {@link ColumnarBatch} to a table through a
+ * {@link TableWriter}. Batch columns are matched to table columns by name, so a batch may order
+ * its columns differently or carry extra ones. Data files have no nulls, so a null in a written
+ * column fails the batch.
+ */
+public class ColumnarBatchSink implements BatchSink<ColumnarBatch>, Closeable {
+
+    private final TableWriter writer;
+
+    public ColumnarBatchSink(TableWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void write(MutableList<ColumnarBatch> batches) {
+        try {
+            for (int i = 0; i < batches.size(); i++) {
+                write(batches.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to write batch to " + writer.getTable().getLocation(), e);
+        }
+    }
+
+    private void write(ColumnarBatch batch) throws IOException {
+        Schema table = writer.getTable().getSchema();
+        BatchColumn[] columns = new BatchColumn[table.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = batch.column(table.get(i).getName());
+            if (columns[i].hasNulls()) {
+                throw new IllegalArgumentException("column " + table.get(i).getName() + " has "
+                        + columns[i].getNullCount() + " nulls");
+            }
+        }
+        for (int row = 0; row < batch.getRowCount(); row++) {
+            for (int i = 0; i < columns.length; i++) {
+                switch (columns[i].getType()) {
+                    case INT:
+                        writer.setInt(i, columns[i].getInt(row));
+                        break;
+                    case LONG:
+                        writer.setLong(i, columns[i].getLong(row));
+                        break;
+                    case DOUBLE:
+                        writer.setDouble(i, columns[i].getDouble(row));
+                        break;
+                    default:
+                        writer.setString(i, columns[i].getString(row));
+                        break;
+                }
+            }
+            writer.appendRow();
+        }
+    }
+
+    public TableWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
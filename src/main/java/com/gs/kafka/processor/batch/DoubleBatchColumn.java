@@ -0,0 +1,39 @@
+package com.gs.kafka.processor.batch;
+
+import com.gs.kafka.processor.sink.ColumnType;
+
+/**
+ * DOUBLE column of a {@link ColumnarBatch} backed by a {@code double[]}.
+ */
+public final class DoubleBatchColumn extends BatchColumn {
+
+    private final double[] values;
+
+    DoubleBatchColumn(double[] values, int size, long[] validity) {
+        super(size, validity);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.DOUBLE;
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    /**
+     * Gets the backing array for bulk kernels; callers must not modify it
+     * @return values by row, possibly longer than {@link #size()}
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    @Override
+    protected long valueBytes() {
+        return arrayBytes(values.length, 8);
+    }
+}
@@ -0,0 +1,56 @@
+package com.gs.kafka.processor.batch;
+
+import com.gs.kafka.processor.sink.ColumnType;
+
+/**
+ * INT column of a {@link ColumnarBatch} backed by an {@code int[]}.
+ */
+public final class IntBatchColumn extends BatchColumn {
+
+    private final int[] values;
+
+    IntBatchColumn(int[] values, int size, long[] validity) {
+        super(size, validity);
+        this.values = values;
+    }
+
+    /**
+     * Creates a column of the same rows and nulls with other values, as produced by a kernel
+     * @param newValues values by row, at least {@link #size()} long
+     * @return the derived column
+     */
+    public IntBatchColumn withValues(int[] newValues) {
+        if (newValues.length < size) {
+            throw new IllegalArgumentException("need " + size + " values, got " + newValues.length);
+        }
+        return new IntBatchColumn(newValues, size, validity());
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.INT;
+    }
+
+    @Override
+    public int getInt(int row) {
+        return values[row];
+    }
+
+    @Override
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    /**
+     * Gets the backing array for bulk kernels; callers must not modify it
+     * @return values by row, possibly longer than {@link #size()}
+     */
+    public int[] getValues() {
+        return values;
+    }
+
+    @Override
+    protected long valueBytes() {
+        return arrayBytes(values.length, 4);
+    }
+}
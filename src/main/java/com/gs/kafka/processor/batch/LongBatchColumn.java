@@ -0,0 +1,39 @@
+package com.gs.kafka.processor.batch;
+
+import com.gs.kafka.processor.sink.ColumnType;
+
+/**
+ * LONG column of a {@link ColumnarBatch} backed by a {@code long[]}.
+ */
+public final class LongBatchColumn extends BatchColumn {
+
+    private final long[] values;
+
+    LongBatchColumn(long[] values, int size, long[] validity) {
+        super(size, validity);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.LONG;
+    }
+
+    @Override
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    /**
+     * Gets the backing array for bulk kernels; callers must not modify it
+     * @return values by row, possibly longer than {@link #size()}
+     */
+    public long[] getValues() {
+        return values;
+    }
+
+    @Override
+    protected long valueBytes() {
+        return arrayBytes(values.length, 8);
+    }
+}
@@ -0,0 +1,67 @@
+package com.gs.kafka.processor.batch;
+
+import com.gs.kafka.processor.sink.ColumnType;
+
+/**
+ * Dictionary encoded STRING column of a {@link ColumnarBatch}: each distinct value is stored once
+ * and every row holds the {@code int} code of its value, so repeated keys, tenants and topics
+ * cost 4 bytes per row and can be compared by code.
+ */
+public final class StringBatchColumn extends BatchColumn {
+
+    private static final int STRING_BYTES = 24;
+
+    private final int[] codes;
+    private final String[] dictionary;
+
+    StringBatchColumn(int[] codes, String[] dictionary, int size, long[] validity) {
+        super(size, validity);
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.STRING;
+    }
+
+    @Override
+    public String getString(int row) {
+        int code = codes[row];
+        return code < 0 ? null : dictionary[code];
+    }
+
+    /**
+     * Gets a row's dictionary code
+     * @param row row index
+     * @return index into {@link #getDictionary()}, -1 for a null row
+     */
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    /**
+     * Gets the backing code array for bulk kernels; callers must not modify it
+     * @return codes by row, possibly longer than {@link #size()}
+     */
+    public int[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * Gets the distinct values in order of first appearance; callers must not modify it
+     * @return values by code
+     */
+    public String[] getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    protected long valueBytes() {
+        long bytes = arrayBytes(codes.length, 4) + arrayBytes(dictionary.length, 4);
+        for (String value : dictionary) {
+            bytes += STRING_BYTES + arrayBytes(value.length(), 1);
+        }
+        return bytes;
+    }
+}
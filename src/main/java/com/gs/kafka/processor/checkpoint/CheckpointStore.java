@@ -0,0 +1,685 @@
+package com.gs.kafka.processor.checkpoint;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.gs.collections.api.list.primitive.MutableLongList;
+import com.gs.collections.api.map.primitive.ImmutableIntLongMap;
+import com.gs.collections.api.set.primitive.ImmutableLongSet;
+import com.gs.collections.impl.list.mutable.primitive.LongArrayList;
+import com.gs.collections.impl.map.mutable.primitive.IntLongHashMap;
+import com.gs.collections.impl.set.mutable.primitive.LongHashSet;
+
+/**
+ * Durable record of committed offsets and dedup-window state in a directory on local disk, so a
+ * restarted processor resumes where it stopped without reprocessing.
+ * <p>
+ * Changes are appended to a log and become durable through {@link #sync}. Syncs are group
+ * committed: the first waiting thread writes every change appended so far, from all partitions,
+ * as one checksummed frame with a single {@code fsync}, while threads arriving meanwhile queue for
+ * the next frame, so the fsync rate stays flat as the number of committing partitions grows.
+ * Once the log passes {@code compactionLogBytes} the state is written to a snapshot and a new log
+ * started; snapshots are published by an atomic rename as in {@code Table}. Opening the store
+ * loads the newest snapshot and replays the logs written after it, dropping a frame torn by a
+ * crash. The dedup state mirrors the two generations of a {@code DedupWindow} of packed long keys.
+ */
+public class CheckpointStore implements Closeable {
+
+    public static final long DEFAULT_COMPACTION_LOG_BYTES = 64L << 20;
+
+    private static final int SNAPSHOT_MAGIC = 0x4B435053;
+    private static final byte OFFSET = 1;
+    private static final byte DEDUP_ADD = 2;
+    private static final byte DEDUP_ROTATE = 3;
+    // Frame: body length, entry count, body, CRC32 of everything before it
+    private static final int FRAME_OVERHEAD = 12;
+    private static final int INITIAL_BUFFER_BYTES = 64 << 10;
+
+    private final Path directory;
+    private final long compactionLogBytes;
+    private final Object lock = new Object();
+
+    private final IntLongHashMap offsets = new IntLongHashMap();
+    private LongHashSet dedupCurrent = new LongHashSet();
+    private LongHashSet dedupPrevious = new LongHashSet();
+
+    private long generation;
+    private FileChannel log;
+    private long logBytes;
+
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES).position(8);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private int pendingEntries;
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean flushing;
+    private IOException failure;
+    private boolean closed;
+
+    private long syncs;
+    private long entriesWritten;
+    private long compactions;
+
+    private CheckpointStore(Path directory, long compactionLogBytes) {
+        this.directory = directory;
+        this.compactionLogBytes = compactionLogBytes;
+    }
+
+    /**
+     * Opens the store in a directory, creating it if needed, and recovers its state
+     * @param directory store directory, used by this store only
+     * @return the open store
+     * @throws IOException if the directory cannot be read or a snapshot or older log is corrupt
+     */
+    public static CheckpointStore open(Path directory) throws IOException {
+        return open(directory, DEFAULT_COMPACTION_LOG_BYTES);
+    }
+
+    /**
+     * @param compactionLogBytes log size that triggers a snapshot, Long.MAX_VALUE to only compact
+     *                           through {@link #compact()}
+     */
+    public static CheckpointStore open(Path directory, long compactionLogBytes) throws IOException {
+        if (compactionLogBytes <= 0) {
+            throw new IllegalArgumentException("compactionLogBytes must be positive: " + compactionLogBytes);
+        }
+        Files.createDirectories(directory);
+        CheckpointStore store = new CheckpointStore(directory, compactionLogBytes);
+        store.recover();
+        return store;
+    }
+
+    private void recover() throws IOException {
+        // A snapshot still being written when the process stopped is incomplete and never renamed
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path temp : files.filter(CheckpointStore::isSnapshotTemp).toList()) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        long[] snapshots = generations(".snap");
+        generation = 0;
+        if (snapshots.length > 0) {
+            generation = snapshots[snapshots.length - 1];
+            readSnapshot(snapshotFile(generation));
+        }
+        long[] logs = generations(".log");
+        for (int i = 0; i < logs.length; i++) {
+            if (logs[i] >= generation) {
+                replay(logFile(logs[i]), i == logs.length - 1);
+                generation = logs[i];
+            }
+        }
+        deleteBefore(generation);
+        log = FileChannel.open(logFile(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        logBytes = log.size();
+        log.position(logBytes);
+    }
+
+    /**
+     * Loads a snapshot. A snapshot is only renamed into place once fsynced, and the logs and
+     * snapshots before it are deleted right after, so a bad one cannot be skipped without
+     * losing state
+     * @throws IOException if the snapshot is corrupt
+     */
+    private void readSnapshot(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < 8 || crc(bytes, 0, bytes.length - 4) != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+            throw new IOException("corrupt checkpoint snapshot " + file);
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes, 0, bytes.length - 4);
+        if (in.getInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("not a checkpoint snapshot: " + file);
+        }
+        try {
+            int partitions = in.getInt();
+            for (int i = 0; i < partitions; i++) {
+                offsets.put(in.getInt(), in.getLong());
+            }
+            dedupCurrent = readKeys(in);
+            dedupPrevious = readKeys(in);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("corrupt checkpoint snapshot " + file, e);
+        }
+        if (in.hasRemaining()) {
+            throw new IOException("corrupt checkpoint snapshot " + file);
+        }
+    }
+
+    private static LongHashSet readKeys(ByteBuffer in) {
+        int count = in.getInt();
+        LongHashSet keys = new LongHashSet(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(in.getLong());
+        }
+        return keys;
+    }
+
+    private void replay(Path file, boolean last) throws IOException {
+        long size = Files.size(file);
+        long valid = 0;
+        // Holds the frame header followed by the body, as the checksum covers both
+        byte[] frame = new byte[INITIAL_BUFFER_BYTES];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > size - valid - FRAME_OVERHEAD) {
+                    break;
+                }
+                if (frame.length < 8 + length) {
+                    frame = new byte[Math.max(8 + length, frame.length * 2)];
+                }
+                int count;
+                try {
+                    count = in.readInt();
+                    in.readFully(frame, 8, length);
+                    ByteBuffer.wrap(frame).putInt(length).putInt(count);
+                    if (in.readInt() != crc(frame, 0, 8 + length)) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                ByteBuffer entries = ByteBuffer.wrap(frame, 8, length);
+                if (!isWellFormed(entries.duplicate(), count)) {
+                    break;
+                }
+                apply(entries, count);
+                valid += FRAME_OVERHEAD + length;
+            }
+        }
+        if (valid < size) {
+            if (!last) {
+                throw new IOException("corrupt checkpoint log " + file + " at byte " + valid);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+            }
+        }
+    }
+
+    /**
+     * Checks that a frame body holds exactly {@code count} entries of known types, before any of
+     * them is applied
+     */
+    private static boolean isWellFormed(ByteBuffer entries, int count) {
+        if (count < 0) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!entries.hasRemaining()) {
+                return false;
+            }
+            int bytes;
+            switch (entries.get()) {
+                case OFFSET:
+                    bytes = 12;
+                    break;
+                case DEDUP_ADD:
+                    bytes = 8;
+                    break;
+                case DEDUP_ROTATE:
+                    bytes = 0;
+                    break;
+                default:
+                    return false;
+            }
+            if (entries.remaining() < bytes) {
+                return false;
+            }
+            entries.position(entries.position() + bytes);
+        }
+        return !entries.hasRemaining();
+    }
+
+    private void apply(ByteBuffer entries, int count) {
+        for (int i = 0; i < count; i++) {
+            byte type = entries.get();
+            switch (type) {
+                case OFFSET:
+                    offsets.put(entries.getInt(), entries.getLong());
+                    break;
+                case DEDUP_ADD:
+                    addKey(entries.getLong());
+                    break;
+                case DEDUP_ROTATE:
+                    rotateKeys();
+                    break;
+                default:
+                    throw new IllegalStateException("unknown checkpoint entry type " + type);
+            }
+        }
+    }
+
+    private void addKey(long key) {
+        if (dedupPrevious.remove(key) || !dedupCurrent.contains(key)) {
+            dedupCurrent.add(key);
+        }
+    }
+
+    private void rotateKeys() {
+        dedupPrevious = dedupCurrent;
+        dedupCurrent = new LongHashSet();
+    }
+
+    /**
+     * Records the next offset to consume for a partition; durable after {@link #sync}
+     * @param partition partition number
+     * @param offset offset to resume from
+     * @return sequence number to pass to {@link #sync(long)}
+     */
+    public long appendOffset(int partition, long offset) {
+        synchronized (lock) {
+            checkOpen();
+            offsets.put(partition, offset);
+            reserve(13).put(OFFSET).putInt(partition).putLong(offset);
+            return appended();
+        }
+    }
+
+    /**
+     * Records a key seen by the dedup window, such as a packed (partition, offset) pair
+     * @param key dedup key
+     * @return sequence number to pass to {@link #sync(long)}
+     */
+    public long appendDedupKey(long key) {
+        synchronized (lock) {
+            checkOpen();
+            addKey(key);
+            reserve(9).put(DEDUP_ADD).putLong(key);
+            return appended();
+        }
+    }
+
+    /**
+     * Records a dedup window generation swap, forgetting keys only seen in the previous one
+     * @return sequence number to pass to {@link #sync(long)}
+     */
+    public long appendDedupRotation() {
+        synchronized (lock) {
+            checkOpen();
+            rotateKeys();
+            reserve(1).put(DEDUP_ROTATE);
+            return appended();
+        }
+    }
+
+    /**
+     * Records an offset and waits until it is durable
+     * @param partition partition number
+     * @param offset offset to resume from
+     * @throws IOException if the log cannot be written
+     */
+    public void commit(int partition, long offset) throws IOException {
+        sync(appendOffset(partition, offset));
+    }
+
+    /**
+     * Waits until everything appended so far is durable
+     * @throws IOException if the log cannot be written
+     */
+    public void sync() throws IOException {
+        long sequence;
+        synchronized (lock) {
+            sequence = appendedSequence;
+        }
+        sync(sequence);
+    }
+
+    /**
+     * Waits until the change with the given sequence number and all before it are durable,
+     * writing them, together with every other pending change, if no other thread is doing so
+     * @param sequence sequence number returned by an append
+     * @throws IOException if the log cannot be written
+     */
+    public void sync(long sequence) throws IOException {
+        while (true) {
+            ByteBuffer frame;
+            int count;
+            long target;
+            synchronized (lock) {
+                while (durableSequence < sequence && flushing && failure == null) {
+                    waitForFlush();
+                }
+                checkFailure();
+                if (durableSequence >= Math.min(sequence, appendedSequence)) {
+                    return;
+                }
+                frame = pending;
+                count = pendingEntries;
+                target = appendedSequence;
+                pending = spare;
+                pending.clear().position(8);
+                pendingEntries = 0;
+                flushing = true;
+            }
+            // Only the thread holding the flushing flag touches the log, so the write and fsync run
+            // unlocked while other threads append into the other buffer
+            IOException error = null;
+            int written = 0;
+            try {
+                written = writeFrame(frame, count);
+            } catch (IOException e) {
+                error = e;
+            }
+            boolean compact;
+            synchronized (lock) {
+                spare = frame;
+                if (error != null) {
+                    failure = error;
+                    flushing = false;
+                    lock.notifyAll();
+                    throw error;
+                }
+                durableSequence = target;
+                logBytes += written;
+                entriesWritten += count;
+                syncs++;
+                compact = logBytes >= compactionLogBytes;
+                if (!compact) {
+                    flushing = false;
+                    lock.notifyAll();
+                }
+            }
+            if (compact) {
+                compactAndRelease();
+            }
+        }
+    }
+
+    private void waitForFlush() throws IOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for a checkpoint sync", e);
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("checkpoint log failed", failure);
+        }
+    }
+
+    /**
+     * Completes a frame in place and writes it with one fsync
+     * @return bytes appended to the log
+     */
+    private int writeFrame(ByteBuffer frame, int count) throws IOException {
+        int length = frame.position() - 8;
+        frame.putInt(0, length).putInt(4, count);
+        frame.putInt(crc(frame.array(), 0, 8 + length));
+        frame.flip();
+        while (frame.hasRemaining()) {
+            log.write(frame);
+        }
+        log.force(false);
+        return FRAME_OVERHEAD + length;
+    }
+
+    /**
+     * Writes the whole state to a snapshot and starts a new log, so recovery no longer replays
+     * the old one
+     * @throws IOException if the snapshot or the new log cannot be written
+     */
+    public void compact() throws IOException {
+        synchronized (lock) {
+            while (flushing && failure == null) {
+                waitForFlush();
+            }
+            checkFailure();
+            flushing = true;
+        }
+        compactAndRelease();
+    }
+
+    /**
+     * Compacts while holding the flushing flag, and clears it. The state is copied and the log
+     * switched under the lock, after writing the changes still pending to the old log so the
+     * snapshot matches its end exactly; the snapshot file itself is written unlocked.
+     */
+    private void compactAndRelease() throws IOException {
+        try {
+            long next;
+            ByteBuffer snapshot;
+            synchronized (lock) {
+                if (pendingEntries > 0) {
+                    ByteBuffer frame = pending;
+                    logBytes += writeFrame(frame, pendingEntries);
+                    entriesWritten += pendingEntries;
+                    syncs++;
+                    frame.clear().position(8);
+                    pendingEntries = 0;
+                    durableSequence = appendedSequence;
+                }
+                snapshot = encodeSnapshot();
+                next = generation + 1;
+                FileChannel previous = log;
+                log = FileChannel.open(logFile(next), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                previous.close();
+                logBytes = 0;
+                generation = next;
+            }
+            Path temp = directory.resolve(snapshotFile(next).getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (snapshot.hasRemaining()) {
+                    out.write(snapshot);
+                }
+                out.force(false);
+            }
+            Files.move(temp, snapshotFile(next), StandardCopyOption.ATOMIC_MOVE);
+            // The rename and the new log must be durable before the files they replace are deleted
+            syncDirectory();
+            deleteBefore(next);
+            synchronized (lock) {
+                compactions++;
+            }
+        } catch (IOException e) {
+            synchronized (lock) {
+                failure = e;
+            }
+            throw e;
+        } finally {
+            synchronized (lock) {
+                flushing = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private ByteBuffer encodeSnapshot() {
+        int bytes = 4 + 4 + 12 * offsets.size() + 4 + 8 * dedupCurrent.size() + 4 + 8 * dedupPrevious.size() + 4;
+        ByteBuffer out = ByteBuffer.allocate(bytes);
+        out.putInt(SNAPSHOT_MAGIC).putInt(offsets.size());
+        offsets.forEachKeyValue((partition, offset) -> out.putInt(partition).putLong(offset));
+        out.putInt(dedupCurrent.size());
+        dedupCurrent.forEach(out::putLong);
+        out.putInt(dedupPrevious.size());
+        dedupPrevious.forEach(out::putLong);
+        out.putInt(crc(out.array(), 0, out.position()));
+        out.flip();
+        return out;
+    }
+
+    private ByteBuffer reserve(int bytes) {
+        if (pending.remaining() < bytes + 4) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes + 4));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        return pending;
+    }
+
+    private long appended() {
+        pendingEntries++;
+        return ++appendedSequence;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("checkpoint store is closed");
+        }
+    }
+
+    /**
+     * Gets the offset recorded for a partition, including changes not yet synced
+     * @param partition partition number
+     * @return offset to resume from, -1 if none was recorded
+     */
+    public long getOffset(int partition) {
+        synchronized (lock) {
+            return offsets.getIfAbsent(partition, -1L);
+        }
+    }
+
+    public ImmutableIntLongMap getOffsets() {
+        synchronized (lock) {
+            return offsets.toImmutable();
+        }
+    }
+
+    /**
+     * Gets the dedup keys of both generations, to seed a window after a restart
+     * @return the remembered keys
+     */
+    public ImmutableLongSet getDedupKeys() {
+        synchronized (lock) {
+            LongHashSet keys = new LongHashSet(dedupCurrent.size() + dedupPrevious.size());
+            keys.addAll(dedupPrevious);
+            keys.addAll(dedupCurrent);
+            return keys.toImmutable();
+        }
+    }
+
+    public boolean containsDedupKey(long key) {
+        synchronized (lock) {
+            return dedupCurrent.contains(key) || dedupPrevious.contains(key);
+        }
+    }
+
+    /**
+     * Gets the number of frames written, each with one fsync
+     * @return sync count
+     */
+    public long getSyncs() {
+        synchronized (lock) {
+            return syncs;
+        }
+    }
+
+    public long getEntriesWritten() {
+        synchronized (lock) {
+            return entriesWritten;
+        }
+    }
+
+    public long getCompactions() {
+        synchronized (lock) {
+            return compactions;
+        }
+    }
+
+    public long getLogBytes() {
+        synchronized (lock) {
+            return logBytes;
+        }
+    }
+
+    /**
+     * Syncs pending changes and closes the log
+     * @throws IOException if the final sync fails
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            sync();
+        } finally {
+            synchronized (lock) {
+                while (flushing) {
+                    waitForFlush();
+                }
+                log.close();
+            }
+        }
+    }
+
+    private long[] generations(String suffix) throws IOException {
+        MutableLongList found = new LongArrayList();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("checkpoint-") && name.endsWith(suffix))
+                    .forEach(name -> found.add(Long.parseLong(name.substring(11, name.length() - suffix.length()))));
+        }
+        return found.sortThis().toArray();
+    }
+
+    private static boolean isSnapshotTemp(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith("checkpoint-") && name.endsWith(".snap.tmp");
+    }
+
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private void deleteBefore(long keep) throws IOException {
+        for (long old : generations(".log")) {
+            if (old < keep) {
+                Files.deleteIfExists(logFile(old));
+            }
+        }
+        for (long old : generations(".snap")) {
+            if (old < keep) {
+                Files.deleteIfExists(snapshotFile(old));
+            }
+        }
+    }
+
+    private Path logFile(long gen) {
+        return directory.resolve(String.format("checkpoint-%010d.log", gen));
+    }
+
+    private Path snapshotFile(long gen) {
+        return directory.resolve(String.format("checkpoint-%010d.snap", gen));
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public String toString() {
+        return "CheckpointStore{" + directory + ", generation=" + generation + ", syncs=" + syncs
+                + ", entriesWritten=" + entriesWritten + ", compactions=" + compactions + '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.gs.kafka.processor.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Little-endian reads and writes at absolute indexes of byte arrays and buffers, independent of
+ * the buffer's own byte order setting, so callers' buffers are never reconfigured.
+ */
+final class ByteOrderAccess {
+
+    private static final VarHandle ARRAY_INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle ARRAY_LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle BUFFER_INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle BUFFER_LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private ByteOrderAccess() {
+    }
+
+    static int getInt(byte[] array, int index) {
+        return (int) ARRAY_INT.get(array, index);
+    }
+
+    static long getLong(byte[] array, int index) {
+        return (long) ARRAY_LONG.get(array, index);
+    }
+
+    static int getInt(ByteBuffer buffer, int index) {
+        return (int) BUFFER_INT.get(buffer, index);
+    }
+
+    static long getLong(ByteBuffer buffer, int index) {
+        return (long) BUFFER_LONG.get(buffer, index);
+    }
+
+    static void putInt(ByteBuffer buffer, int index, int value) {
+        BUFFER_INT.set(buffer, index, value);
+    }
+
+    static void putLong(ByteBuffer buffer, int index, long value) {
+        BUFFER_LONG.set(buffer, index, value);
+    }
+
+    static void putDouble(ByteBuffer buffer, int index, double value) {
+        BUFFER_LONG.set(buffer, index, Double.doubleToRawLongBits(value));
+    }
+}
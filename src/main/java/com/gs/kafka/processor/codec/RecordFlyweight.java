@@ -0,0 +1,223 @@
+package com.gs.kafka.processor.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.gs.kafka.processor.sink.ColumnType;
+
+/**
+ * Reusable view of one record of a {@link RecordLayout}, read in place from a byte array or a heap
+ * or direct {@link ByteBuffer}.
+ * <p>
+ * {@link #wrap} points the view at a frame and every accessor reads its field at the layout's
+ * fixed offset, so walking a buffer of records allocates nothing. Only {@link #getString} creates
+ * an object; {@link #stringEquals} and {@link #copyString} work on the encoded bytes, after checking
+ * that the string lies within the record. A view stays valid only while its source is unchanged.
+ * Not thread-safe.
+ */
+public final class RecordFlyweight {
+
+    private final RecordLayout layout;
+
+    private byte[] array;
+    private ByteBuffer buffer;
+    private int base;
+    private int length;
+
+    public RecordFlyweight(RecordLayout layout) {
+        this.layout = layout;
+    }
+
+    public RecordLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Points the view at a record of a buffer, leaving the buffer's position and limit alone
+     * @param buffer source buffer
+     * @param offset absolute index of the record's first byte
+     * @return this view
+     * @throws IndexOutOfBoundsException if the frame does not fit before the buffer's limit
+     */
+    public RecordFlyweight wrap(ByteBuffer buffer, int offset) {
+        int frame = ByteOrderAccess.getInt(buffer, offset);
+        checkFrame(frame, offset, buffer.limit());
+        this.array = null;
+        this.buffer = buffer;
+        this.base = offset;
+        this.length = frame;
+        return this;
+    }
+
+    /**
+     * Points the view at a record encoded at the start of an array, such as a {@code Record} value
+     * @param array source bytes
+     * @return this view
+     */
+    public RecordFlyweight wrap(byte[] array) {
+        return wrap(array, 0);
+    }
+
+    /**
+     * Points the view at a record of an array
+     * @param array source bytes
+     * @param offset index of the record's first byte
+     * @return this view
+     * @throws IndexOutOfBoundsException if the frame does not fit in the array
+     */
+    public RecordFlyweight wrap(byte[] array, int offset) {
+        int frame = ByteOrderAccess.getInt(array, offset);
+        checkFrame(frame, offset, array.length);
+        this.array = array;
+        this.buffer = null;
+        this.base = offset;
+        this.length = frame;
+        return this;
+    }
+
+    private void checkFrame(int frame, int offset, int limit) {
+        if (frame < layout.getFixedLength() || frame > limit - offset) {
+            throw new IndexOutOfBoundsException("record length " + frame + " at " + offset + " is outside "
+                    + layout.getFixedLength() + ".." + (limit - offset));
+        }
+    }
+
+    /**
+     * Gets the size of the current record, so the next one starts at {@code offset + length()}
+     * @return frame length in bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    public int getInt(int column) {
+        return readInt(slot(column, ColumnType.INT));
+    }
+
+    /**
+     * Reads a LONG column, or an INT column widened
+     * @param column column index
+     * @return the value
+     */
+    public long getLong(int column) {
+        if (layout.type(column) == ColumnType.INT) {
+            return getInt(column);
+        }
+        return readLong(slot(column, ColumnType.LONG));
+    }
+
+    public double getDouble(int column) {
+        return Double.longBitsToDouble(readLong(slot(column, ColumnType.DOUBLE)));
+    }
+
+    /**
+     * Gets the encoded size of a string value
+     * @param column STRING column index
+     * @return number of UTF-8 bytes
+     */
+    public int getStringLength(int column) {
+        return readInt(slot(column, ColumnType.STRING) + 4);
+    }
+
+    /**
+     * Decodes a string value into a new {@code String}
+     * @param column STRING column index
+     * @return the value
+     */
+    public String getString(int column) {
+        int slot = slot(column, ColumnType.STRING);
+        int size = readInt(slot + 4);
+        int start = stringStart(readInt(slot), size);
+        if (array != null) {
+            return new String(array, start, size, StandardCharsets.UTF_8);
+        }
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, size, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[size];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a string value with encoded bytes without decoding it
+     * @param column STRING column index
+     * @param utf8 UTF-8 bytes to compare with
+     * @return true if the value has exactly these bytes
+     */
+    public boolean stringEquals(int column, byte[] utf8) {
+        int slot = slot(column, ColumnType.STRING);
+        int size = readInt(slot + 4);
+        int start = stringStart(readInt(slot), size);
+        if (size != utf8.length) {
+            return false;
+        }
+        if (array != null) {
+            return Arrays.equals(array, start, start + size, utf8, 0, size);
+        }
+        if (buffer.hasArray()) {
+            int from = buffer.arrayOffset() + start;
+            return Arrays.equals(buffer.array(), from, from + size, utf8, 0, size);
+        }
+        for (int i = 0; i < size; i++) {
+            if (buffer.get(start + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the encoded bytes of a string value
+     * @param column STRING column index
+     * @param dest destination array
+     * @param destOffset first index written
+     * @return number of bytes copied
+     */
+    public int copyString(int column, byte[] dest, int destOffset) {
+        int slot = slot(column, ColumnType.STRING);
+        int size = readInt(slot + 4);
+        int start = stringStart(readInt(slot), size);
+        if (array != null) {
+            System.arraycopy(array, start, dest, destOffset, size);
+        } else {
+            buffer.get(start, dest, destOffset, size);
+        }
+        return size;
+    }
+
+    private int slot(int column, ColumnType expected) {
+        if (layout.type(column) != expected) {
+            throw new IllegalArgumentException("column " + layout.getSchema().get(column).getName() + " is "
+                    + layout.type(column) + ", not " + expected);
+        }
+        return base + layout.offset(column);
+    }
+
+    /**
+     * Checks that a string slot points into the variable part of the current record, so a corrupt
+     * frame cannot read the fixed fields or the next record as string bytes
+     * @return absolute index of the string's first byte
+     */
+    private int stringStart(int start, int size) {
+        if (start < layout.getFixedLength() || size < 0 || size > length - start) {
+            throw new IndexOutOfBoundsException("string of " + size + " bytes at " + start + " is outside "
+                    + layout.getFixedLength() + ".." + length + " of the record at " + base);
+        }
+        return base + start;
+    }
+
+    private int readInt(int index) {
+        return array != null ? ByteOrderAccess.getInt(array, index) : ByteOrderAccess.getInt(buffer, index);
+    }
+
+    private long readLong(int index) {
+        return array != null ? ByteOrderAccess.getLong(array, index) : ByteOrderAccess.getLong(buffer, index);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordFlyweight{offset=" + base + ", length=" + length + '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.gs.kafka.processor.codec;
+
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+
+/**
+ * Binary record format for the columns of a {@link Schema}.
+ * <p>
+ * A record is a little-endian frame: a 4-byte total length, then one fixed-width slot per column
+ * in schema order, then the UTF-8 bytes of the string columns. INT slots take 4 bytes, LONG and
+ * DOUBLE slots 8, and a STRING slot holds the 4-byte start of its bytes, relative to the frame,
+ * followed by their 4-byte length. Every field is found at a fixed offset, so a
+ * {@link RecordFlyweight} reads it without decoding the rest of the record.
+ */
+public final class RecordLayout {
+
+    /** Size of the length prefix of every frame */
+    public static final int HEADER_BYTES = 4;
+
+    private static final int STRING_SLOT_BYTES = 8;
+
+    private final Schema schema;
+    private final ColumnType[] types;
+    private final int[] offsets;
+    private final int fixedLength;
+
+    public RecordLayout(Schema schema) {
+        this.schema = schema;
+        this.types = new ColumnType[schema.size()];
+        this.offsets = new int[schema.size()];
+        int offset = HEADER_BYTES;
+        for (int i = 0; i < schema.size(); i++) {
+            types[i] = schema.get(i).getType();
+            offsets[i] = offset;
+            offset += types[i].isFixedWidth() ? types[i].width() : STRING_SLOT_BYTES;
+        }
+        this.fixedLength = offset;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Looks up a column position by name
+     * @param name column name
+     * @return column index
+     * @throws IllegalArgumentException for an unknown column
+     */
+    public int indexOf(String name) {
+        return schema.indexOf(name);
+    }
+
+    public ColumnType type(int column) {
+        return types[column];
+    }
+
+    /**
+     * Gets where a column's slot starts
+     * @param column column index
+     * @return offset from the start of the frame
+     */
+    public int offset(int column) {
+        return offsets[column];
+    }
+
+    /**
+     * Gets the size of a frame without string bytes, which is where string bytes start
+     * @return header and slot bytes
+     */
+    public int getFixedLength() {
+        return fixedLength;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordLayout{" + schema + ", fixedLength=" + fixedLength + '}';
+    }
+}
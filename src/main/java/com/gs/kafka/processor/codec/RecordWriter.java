@@ -0,0 +1,106 @@
+package com.gs.kafka.processor.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.gs.kafka.processor.sink.ColumnType;
+
+/**
+ * Writes records of a {@link RecordLayout} into a heap or direct {@link ByteBuffer}.
+ * <p>
+ * {@link #wrap} starts a record at an offset, the {@code put} methods fill its slots in any order
+ * while string bytes are appended after the fixed part, and {@link #finish} writes the length
+ * prefix. The writer is reusable and does not change the buffer's position or limit. Not
+ * thread-safe.
+ */
+public final class RecordWriter {
+
+    private final RecordLayout layout;
+
+    private ByteBuffer buffer;
+    private int base;
+    private int end;
+
+    public RecordWriter(RecordLayout layout) {
+        this.layout = layout;
+    }
+
+    public RecordLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Starts a record
+     * @param buffer destination buffer
+     * @param offset absolute index of the record's first byte
+     * @return this writer
+     * @throws IndexOutOfBoundsException if the fixed part does not fit before the buffer's limit
+     */
+    public RecordWriter wrap(ByteBuffer buffer, int offset) {
+        if (offset < 0 || offset > buffer.limit() - layout.getFixedLength()) {
+            throw new IndexOutOfBoundsException("record of " + layout.getFixedLength() + " bytes at " + offset
+                    + " exceeds limit " + buffer.limit());
+        }
+        this.buffer = buffer;
+        this.base = offset;
+        this.end = offset + layout.getFixedLength();
+        return this;
+    }
+
+    public RecordWriter putInt(int column, int value) {
+        ByteOrderAccess.putInt(buffer, slot(column, ColumnType.INT), value);
+        return this;
+    }
+
+    public RecordWriter putLong(int column, long value) {
+        ByteOrderAccess.putLong(buffer, slot(column, ColumnType.LONG), value);
+        return this;
+    }
+
+    public RecordWriter putDouble(int column, double value) {
+        ByteOrderAccess.putDouble(buffer, slot(column, ColumnType.DOUBLE), value);
+        return this;
+    }
+
+    public RecordWriter putString(int column, String value) {
+        return putString(column, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Appends already encoded string bytes
+     * @param column STRING column index
+     * @param utf8 UTF-8 bytes of the value
+     * @return this writer
+     * @throws IndexOutOfBoundsException if the bytes do not fit before the buffer's limit
+     */
+    public RecordWriter putString(int column, byte[] utf8) {
+        int slot = slot(column, ColumnType.STRING);
+        if (utf8.length > buffer.limit() - end) {
+            throw new IndexOutOfBoundsException("string of " + utf8.length + " bytes at " + end
+                    + " exceeds limit " + buffer.limit());
+        }
+        buffer.put(end, utf8);
+        ByteOrderAccess.putInt(buffer, slot, end - base);
+        ByteOrderAccess.putInt(buffer, slot + 4, utf8.length);
+        end += utf8.length;
+        return this;
+    }
+
+    /**
+     * Completes the record by writing its length prefix
+     * @return the record length, so the next record starts at {@code offset + length}
+     */
+    public int finish() {
+        int length = end - base;
+        ByteOrderAccess.putInt(buffer, base, length);
+        return length;
+    }
+
+    private int slot(int column, ColumnType expected) {
+        if (layout.type(column) != expected) {
+            throw new IllegalArgumentException("column " + layout.getSchema().get(column).getName() + " is "
+                    + layout.type(column) + ", not " + expected);
+        }
+        return base + layout.offset(column);
+    }
+}
@@ -0,0 +1,48 @@
+package com.gs.kafka.processor.dedup;
+
+import com.gs.collections.api.block.function.Function;
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.Record;
+
+/**
+ * Pipeline stage that drops records whose message ID is still in a {@link DedupWindow}.
+ * Place it in front of the decoder with {@link BatchStage#andThen(BatchStage)}.
+ * @param <K> message ID type
+ */
+public class DedupStage<K> implements BatchStage<Record, Record> {
+
+    private final DedupWindow<K> window;
+    private final Function<? super Record, ? extends K> idFunction;
+
+    public DedupStage(DedupWindow<K> window, Function<? super Record, ? extends K> idFunction) {
+        this.window = window;
+        this.idFunction = idFunction;
+    }
+
+    /**
+     * Creates a stage keyed on {@link Record#getKey()}
+     * @param window window of recently seen keys
+     * @return the stage
+     */
+    public static DedupStage<String> byKey(DedupWindow<String> window) {
+        return new DedupStage<>(window, Record::getKey);
+    }
+
+    @Override
+    public MutableList<Record> apply(MutableList<Record> batch) {
+        MutableList<Record> unique = FastList.newList(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Record record = batch.get(i);
+            if (window.markSeen(idFunction.valueOf(record))) {
+                unique.add(record);
+            }
+        }
+        return unique;
+    }
+
+    public DedupWindow<K> getWindow() {
+        return window;
+    }
+}
@@ -0,0 +1,171 @@
+package com.gs.kafka.processor.dedup;
+
+import java.util.function.LongSupplier;
+
+import com.gs.collections.impl.set.mutable.UnifiedSet;
+import com.gs.collections.impl.set.mutable.UnifiedSetFootprint;
+
+/**
+ * Count and time bounded window of recently seen keys, used to drop redelivered messages.
+ * <p>
+ * Keys live in two {@link UnifiedSet} pools, the current and the previous generation. Once the
+ * current generation holds {@code maxKeysPerGeneration} keys or is older than
+ * {@code generationMillis}, the previous generation is dropped as a whole and the current one
+ * takes its place, so expiry is a reference swap instead of a scan. A key is remembered for at
+ * least one and at most two generations; seeing it again from the previous generation moves it
+ * into the current one.
+ * <p>
+ * The pool methods hand back the first instance stored for a key, so downstream stages can share
+ * one canonical key object instead of one per redelivery. Not thread-safe.
+ * @param <K> key type
+ */
+public class DedupWindow<K> {
+
+    private final int maxKeysPerGeneration;
+    private final long generationMillis;
+    private final LongSupplier clock;
+
+    private UnifiedSet<K> current;
+    private UnifiedSet<K> previous;
+    private long generationStart;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rotations;
+
+    public DedupWindow(int maxKeysPerGeneration, long generationMillis) {
+        this(maxKeysPerGeneration, generationMillis, System::currentTimeMillis);
+    }
+
+    public DedupWindow(int maxKeysPerGeneration, long generationMillis, LongSupplier clock) {
+        if (maxKeysPerGeneration <= 0) {
+            throw new IllegalArgumentException("maxKeysPerGeneration must be positive: " + maxKeysPerGeneration);
+        }
+        if (generationMillis <= 0) {
+            throw new IllegalArgumentException("generationMillis must be positive: " + generationMillis);
+        }
+        this.maxKeysPerGeneration = maxKeysPerGeneration;
+        this.generationMillis = generationMillis;
+        this.clock = clock;
+        this.current = newGeneration();
+        this.previous = newGeneration();
+        this.generationStart = clock.getAsLong();
+    }
+
+    /**
+     * Records a key and reports whether it is new to the window
+     * @param key message key, not null
+     * @return true the first time a key is seen, false for a duplicate
+     */
+    public boolean markSeen(K key) {
+        if (find(key) != null) {
+            return false;
+        }
+        current.put(key);
+        return true;
+    }
+
+    /**
+     * Records a key and returns the instance the window keeps for it
+     * @param key message key, not null
+     * @return the first instance seen for an equal key, or {@code key} itself if it is new
+     */
+    public K canonicalize(K key) {
+        K existing = find(key);
+        return existing != null ? existing : current.put(key);
+    }
+
+    /**
+     * Checks for a key without recording it or touching the counters
+     * @param key message key
+     * @return true if the key is in either generation
+     */
+    public boolean contains(K key) {
+        return current.contains(key) || previous.contains(key);
+    }
+
+    private K find(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key must not be null");
+        }
+        rotateIfNeeded();
+        K existing = current.get(key);
+        if (existing == null) {
+            existing = previous.removeFromPool(key);
+            if (existing != null) {
+                current.put(existing);
+            }
+        }
+        if (existing != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return existing;
+    }
+
+    private void rotateIfNeeded() {
+        if (current.size() >= maxKeysPerGeneration || clock.getAsLong() - generationStart >= generationMillis) {
+            rotate();
+        }
+    }
+
+    /**
+     * Starts a new generation, forgetting every key only seen in the previous one
+     */
+    public void rotate() {
+        evictions += previous.size();
+        rotations++;
+        previous = current;
+        current = newGeneration();
+        generationStart = clock.getAsLong();
+    }
+
+    private UnifiedSet<K> newGeneration() {
+        // Sized so a full generation never rehashes
+        return new UnifiedSet<>(maxKeysPerGeneration);
+    }
+
+    /**
+     * Gets the number of keys currently remembered
+     * @return keys in both generations
+     */
+    public int size() {
+        return current.size() + previous.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of keys forgotten by generation swaps
+     * @return evicted key count
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getRotations() {
+        return rotations;
+    }
+
+    /**
+     * Estimates the heap held by both generations' hash tables, excluding the key objects
+     * @return footprint in bytes
+     */
+    public long footprintBytes() {
+        return UnifiedSetFootprint.estimateBytes(current) + UnifiedSetFootprint.estimateBytes(previous);
+    }
+
+    @Override
+    public String toString() {
+        return "DedupWindow{size=" + size() + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", rotations=" + rotations + ", footprintBytes=" + footprintBytes() + '}';
+    }
+}
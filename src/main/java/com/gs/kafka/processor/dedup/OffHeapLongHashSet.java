@@ -0,0 +1,374 @@
+package com.gs.kafka.processor.dedup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import com.gs.collections.api.block.procedure.primitive.LongProcedure;
+
+/**
+ * Open-addressing set of primitive longs whose table lives in direct memory, for dedup keys
+ * such as packed (partition, offset) pairs.
+ * <p>
+ * Each element costs 8 bytes of off-heap table divided by the load factor instead of a boxed
+ * {@code Long} plus a table reference on the heap, so sets of hundreds of millions of entries add
+ * nothing for the garbage collector to trace. The table is split into pages of at most
+ * {@value #PAGE_SLOTS} slots because a single {@link ByteBuffer} is limited to 2GB. Slots use
+ * linear probing with backward-shift deletion, so removals leave no tombstones. Direct memory is
+ * bounded by {@code -XX:MaxDirectMemorySize} and returned when the set is closed and collected.
+ * {@link #writeTo} saves the table as is, and {@link #map} brings it back by mapping the file as
+ * the pages, so a restart neither copies nor rehashes the keys. Not thread-safe.
+ */
+public class OffHeapLongHashSet implements AutoCloseable {
+
+    public static final float DEFAULT_LOAD_FACTOR = 0.7f;
+
+    private static final int PAGE_SHIFT = 24;
+    private static final int PAGE_SLOTS = 1 << PAGE_SHIFT;
+    private static final long PAGE_MASK = PAGE_SLOTS - 1;
+    private static final long MAX_CAPACITY = 1L << 36;
+    private static final long EMPTY = 0L;
+    private static final int SNAPSHOT_MAGIC = 0x4F484C53;
+    private static final int SNAPSHOT_HEADER_BYTES = 64;
+
+    private final float loadFactor;
+    private ByteBuffer[] pages;
+    private long capacity;
+    private long mask;
+    private long maxSize;
+    private long size;
+    private boolean containsZero;
+
+    public OffHeapLongHashSet() {
+        this(16);
+    }
+
+    public OffHeapLongHashSet(long initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    public OffHeapLongHashSet(long initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initial capacity cannot be less than 0: " + initialCapacity);
+        }
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f)) {
+            throw new IllegalArgumentException("load factor must be between 0 and 1 exclusive: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor((long) Math.ceil(initialCapacity / (double) loadFactor)));
+    }
+
+    private OffHeapLongHashSet(float loadFactor, ByteBuffer[] pages, long capacity, long size, boolean containsZero) {
+        this.loadFactor = loadFactor;
+        this.pages = pages;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxSize = Math.min(capacity - 1, (long) (capacity * (double) loadFactor));
+        this.size = size;
+        this.containsZero = containsZero;
+    }
+
+    /**
+     * Restores a set saved by {@link #writeTo} by mapping the file privately as its table: keys are
+     * paged in by the first lookups that touch them, and changes are never written back to the file
+     * @param file snapshot file
+     * @return the restored set
+     * @throws IOException if the file cannot be read or was written on a platform of another byte order
+     */
+    public static OffHeapLongHashSet map(Path file) throws IOException {
+        // A private mapping needs a writable channel even though the file is never modified
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < SNAPSHOT_HEADER_BYTES) {
+                throw new IOException("snapshot " + file + " is truncated");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SNAPSHOT_HEADER_BYTES)
+                    .order(ByteOrder.nativeOrder());
+            if (header.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("not an OffHeapLongHashSet snapshot, or of another byte order: " + file);
+            }
+            float loadFactor = header.getFloat();
+            long capacity = header.getLong();
+            long size = header.getLong();
+            boolean containsZero = header.get() != 0;
+            if (capacity <= 0 || capacity > MAX_CAPACITY || (capacity & (capacity - 1)) != 0) {
+                throw new IOException("snapshot " + file + " has an invalid capacity: " + capacity);
+            }
+            int pageSlots = (int) Math.min(capacity, PAGE_SLOTS);
+            if (channel.size() != SNAPSHOT_HEADER_BYTES + capacity * 8) {
+                throw new IOException("snapshot " + file + " holds " + channel.size() + " bytes, expected "
+                        + (SNAPSHOT_HEADER_BYTES + capacity * 8));
+            }
+            ByteBuffer[] pages = new ByteBuffer[(int) (capacity / pageSlots)];
+            for (int i = 0; i < pages.length; i++) {
+                pages[i] = channel.map(FileChannel.MapMode.PRIVATE,
+                        SNAPSHOT_HEADER_BYTES + (long) i * pageSlots * 8, (long) pageSlots * 8)
+                        .order(ByteOrder.nativeOrder());
+            }
+            return new OffHeapLongHashSet(loadFactor, pages, capacity, size, containsZero);
+        }
+    }
+
+    /**
+     * Saves the table to a file for {@link #map}, replacing it atomically: the table is written and
+     * forced to a sibling temporary file that is then renamed over the target, so a crash never leaves
+     * a partial snapshot and sets already mapped from the old file keep reading it
+     * @param file snapshot file
+     * @return bytes written
+     * @throws IOException if the file cannot be written
+     */
+    public long writeTo(Path file) throws IOException {
+        ensureOpen();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long written;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES).order(ByteOrder.nativeOrder());
+            header.putInt(SNAPSHOT_MAGIC).putFloat(loadFactor).putLong(capacity).putLong(size)
+                    .put((byte) (containsZero ? 1 : 0));
+            header.clear();
+            write(channel, header);
+            for (ByteBuffer page : pages) {
+                write(channel, page.duplicate().clear());
+            }
+            channel.force(true);
+            written = channel.position();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Packs a Kafka (partition, offset) pair into one key: 16 bits of partition, 48 bits of offset
+     * @param partition partition number, below 65536
+     * @param offset offset, below 2^48
+     * @return the packed key
+     */
+    public static long key(int partition, long offset) {
+        if (partition < 0 || partition > 0xFFFF) {
+            throw new IllegalArgumentException("partition out of range: " + partition);
+        }
+        if (offset < 0 || offset > 0xFFFF_FFFF_FFFFL) {
+            throw new IllegalArgumentException("offset out of range: " + offset);
+        }
+        return ((long) partition << 48) | offset;
+    }
+
+    public boolean add(long value) {
+        ensureOpen();
+        if (value == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        long slot = spread(value) & mask;
+        while (true) {
+            long current = get(slot);
+            if (current == EMPTY) {
+                set(slot, value);
+                if (++size > maxSize) {
+                    rehash(capacity << 1);
+                }
+                return true;
+            }
+            if (current == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean contains(long value) {
+        ensureOpen();
+        if (value == EMPTY) {
+            return containsZero;
+        }
+        return find(value) >= 0;
+    }
+
+    public boolean remove(long value) {
+        ensureOpen();
+        if (value == EMPTY) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        long hole = find(value);
+        if (hole < 0) {
+            return false;
+        }
+        // Backward-shift: pull later entries of the probe run into the hole when their home slot allows it
+        long next = (hole + 1) & mask;
+        long current;
+        while ((current = get(next)) != EMPTY) {
+            long home = spread(current) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                set(hole, current);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        set(hole, EMPTY);
+        size--;
+        return true;
+    }
+
+    private long find(long value) {
+        long slot = spread(value) & mask;
+        while (true) {
+            long current = get(slot);
+            if (current == value) {
+                return slot;
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Visits every element in table order
+     * @param procedure receives each element
+     */
+    public void forEach(LongProcedure procedure) {
+        ensureOpen();
+        if (containsZero) {
+            procedure.value(EMPTY);
+        }
+        for (long slot = 0; slot < capacity; slot++) {
+            long current = get(slot);
+            if (current != EMPTY) {
+                procedure.value(current);
+            }
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element, keeping the current capacity
+     */
+    public void clear() {
+        ensureOpen();
+        allocate(capacity);
+        size = 0;
+        containsZero = false;
+    }
+
+    /**
+     * Gets the number of table slots
+     * @return slot count, a power of two
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the direct memory held by the table
+     * @return bytes allocated off-heap
+     */
+    public long offHeapBytes() {
+        return capacity * 8;
+    }
+
+    /**
+     * Drops the table so its direct memory can be reclaimed; the set is unusable afterwards
+     */
+    @Override
+    public void close() {
+        pages = null;
+        size = 0;
+        containsZero = false;
+    }
+
+    private void rehash(long newCapacity) {
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("capacity would exceed " + MAX_CAPACITY + " slots");
+        }
+        ByteBuffer[] oldPages = pages;
+        long oldCapacity = capacity;
+        allocate(newCapacity);
+        for (long slot = 0; slot < oldCapacity; slot++) {
+            long value = oldPages[(int) (slot >>> PAGE_SHIFT)].getLong((int) (slot & PAGE_MASK) << 3);
+            if (value != EMPTY) {
+                long target = spread(value) & mask;
+                while (get(target) != EMPTY) {
+                    target = (target + 1) & mask;
+                }
+                set(target, value);
+            }
+        }
+    }
+
+    private void allocate(long newCapacity) {
+        int pageSlots = (int) Math.min(newCapacity, PAGE_SLOTS);
+        ByteBuffer[] newPages = new ByteBuffer[(int) (newCapacity / pageSlots)];
+        for (int i = 0; i < newPages.length; i++) {
+            newPages[i] = ByteBuffer.allocateDirect(pageSlots << 3).order(ByteOrder.nativeOrder());
+        }
+        pages = newPages;
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        maxSize = Math.min(newCapacity - 1, (long) (newCapacity * (double) loadFactor));
+    }
+
+    private long get(long slot) {
+        return pages[(int) (slot >>> PAGE_SHIFT)].getLong((int) (slot & PAGE_MASK) << 3);
+    }
+
+    private void set(long slot, long value) {
+        pages[(int) (slot >>> PAGE_SHIFT)].putLong((int) (slot & PAGE_MASK) << 3, value);
+    }
+
+    private void ensureOpen() {
+        if (pages == null) {
+            throw new IllegalStateException("set has been closed");
+        }
+    }
+
+    private static long tableSizeFor(long slots) {
+        if (slots > MAX_CAPACITY) {
+            throw new IllegalArgumentException("initial capacity needs more than " + MAX_CAPACITY + " slots");
+        }
+        return Math.max(2, Long.highestOneBit(Math.max(1, slots - 1)) << 1);
+    }
+
+    /**
+     * MurmurHash3 finalizer, so sequential offsets spread over the whole table
+     */
+    static long spread(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,9 +1,38 @@
 package com.gs.kafka.processor.dummy;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import com.gs.collections.api.list.primitive.IntList;
+import com.gs.collections.api.list.primitive.MutableIntList;
+import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
+import com.gs.kafka.processor.batch.ColumnarBatch;
+import com.gs.kafka.processor.batch.IntBatchColumn;
+import com.gs.kafka.processor.codec.RecordFlyweight;
+import com.gs.kafka.processor.codec.RecordLayout;
+import com.gs.kafka.processor.metrics.Counter;
+import com.gs.kafka.processor.metrics.Instrumentation;
+import com.gs.kafka.processor.metrics.MetricsRegistry;
+import com.gs.kafka.processor.metrics.Stage;
+import com.gs.kafka.processor.pipeline.BatchPipeline;
+import com.gs.kafka.processor.pipeline.BatchSink;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.PipelineResult;
+import com.gs.kafka.processor.pipeline.Record;
+import com.gs.kafka.processor.pipeline.RecordSource;
+import com.gs.kafka.processor.window.WindowAggregationStage;
+import com.gs.kafka.processor.window.WindowResult;
+import com.gs.kafka.processor.window.WindowSpec;
+
 /**
  * Simple service class for testing coverage reporting
  */
 public class DummyService {
+
+    public static final String RECORDS_CALCULATED = "records_calculated_total";
+
+    private static final int BUFFER_CHUNK = 1024;
     
     /**
      * Performs a simple operation
@@ -12,6 +41,119 @@ public class DummyService {
     public boolean performOperation() {
         return true;
     }
+
+    /**
+     * Performs the operation over every record of a source in batches,
+     * decoding int payloads and applying {@link #calculate(int)}
+     * @param source records to process
+     * @param sink receives the calculated values batch by batch
+     * @return counts and throughput of the run
+     */
+    public PipelineResult performOperation(RecordSource source, BatchSink<Integer> sink) {
+        return newPipeline(source, sink, BatchPipeline.DEFAULT_BATCH_SIZE).run();
+    }
+
+    /**
+     * Creates the decode, calculate and sink pipeline used by {@link #performOperation(RecordSource, BatchSink)}
+     * @param source records to process
+     * @param sink receives the calculated values
+     * @param batchSize maximum records per poll
+     * @return the pipeline, not yet started
+     */
+    public BatchPipeline<Integer, Integer> newPipeline(RecordSource source, BatchSink<Integer> sink, int batchSize) {
+        return new BatchPipeline<>(
+                source,
+                BatchStage.perRecord(Record::valueAsInt),
+                BatchStage.perRecord(this::calculate),
+                sink,
+                batchSize,
+                BatchPipeline.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates the pipeline of {@link #newPipeline(RecordSource, BatchSink, int)} for binary record
+     * payloads, reading the calculated int column in place through one reused {@link RecordFlyweight}.
+     * Only the decoding is allocation-free: like the other pipelines the values pass between the
+     * stages as boxed {@code Integer}s. Frames already in one buffer are calculated without boxing by
+     * {@link #calculate(ByteBuffer, RecordLayout, int, int[])}
+     * @param source records whose values are frames of {@code layout}
+     * @param sink receives the calculated values
+     * @param batchSize maximum records per poll
+     * @param layout payload layout
+     * @param column name of the INT column to calculate
+     * @return the pipeline, not yet started
+     */
+    public BatchPipeline<Integer, Integer> newPipeline(RecordSource source, BatchSink<Integer> sink, int batchSize,
+                                                       RecordLayout layout, String column) {
+        RecordFlyweight flyweight = new RecordFlyweight(layout);
+        int index = layout.indexOf(column);
+        return new BatchPipeline<>(
+                source,
+                BatchStage.perRecord(record -> flyweight.wrap(record.getValue()).getInt(index)),
+                BatchStage.perRecord(this::calculate),
+                sink,
+                batchSize,
+                BatchPipeline.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates a stage aggregating {@link #calculate(int)} of int payloads per record key over
+     * event-time windows of the record timestamps
+     * @param spec window shape
+     * @return the stage
+     */
+    public WindowAggregationStage<String> newWindowStage(WindowSpec spec) {
+        return new WindowAggregationStage<>(spec, Record::getKey, record -> calculate(record.valueAsInt()));
+    }
+
+    /**
+     * Creates a pipeline that feeds records through a window stage and hands closed windows to the
+     * sink; the windows still open at the end of the input are drained into the sink too
+     * @param source records to process
+     * @param windows stage from {@link #newWindowStage(WindowSpec)}
+     * @param sink receives the results of every window
+     * @param batchSize maximum records per poll
+     * @return the pipeline, not yet started
+     */
+    public BatchPipeline<Record, WindowResult<String>> newPipeline(RecordSource source,
+                                                                   WindowAggregationStage<String> windows,
+                                                                   BatchSink<WindowResult<String>> sink,
+                                                                   int batchSize) {
+        return new BatchPipeline<>(
+                source,
+                batch -> batch,
+                windows,
+                sink,
+                batchSize,
+                BatchPipeline.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates the pipeline of {@link #newPipeline(RecordSource, BatchSink, int)} with every step
+     * timed into the registry's {@link Stage#POLL}, {@link Stage#DECODE}, {@link Stage#CALCULATE}
+     * and {@link Stage#SINK_FLUSH} histograms, and calculated records counted in
+     * {@value #RECORDS_CALCULATED}
+     * @param source records to process
+     * @param sink receives the calculated values
+     * @param batchSize maximum records per poll
+     * @param metrics registry to record into
+     * @return the pipeline, not yet started
+     */
+    public BatchPipeline<Integer, Integer> newPipeline(RecordSource source, BatchSink<Integer> sink, int batchSize,
+                                                       MetricsRegistry metrics) {
+        Counter calculated = metrics.counter(RECORDS_CALCULATED);
+        BatchStage<Integer, Integer> calculate = BatchStage.perRecord(this::calculate);
+        return new BatchPipeline<>(
+                Instrumentation.timedSource(source, metrics.stage(Stage.POLL)),
+                Instrumentation.timedStage(BatchStage.perRecord(Record::valueAsInt), metrics.stage(Stage.DECODE)),
+                Instrumentation.timedStage(batch -> {
+                    calculated.add(batch.size());
+                    return calculate.apply(batch);
+                }, metrics.stage(Stage.CALCULATE)),
+                Instrumentation.timedSink(sink, metrics.stage(Stage.SINK_FLUSH)),
+                batchSize,
+                BatchPipeline.DEFAULT_QUEUE_CAPACITY);
+    }
     
     /**
      * Gets a message from the service
@@ -33,4 +175,126 @@ public class DummyService {
             return value;
         }
     }
+
+    /**
+     * Calculates every value of an array into a destination array, which may be the source itself
+     * @param src input values
+     * @param dest receives the calculated values at the same indexes
+     */
+    public void calculate(int[] src, int[] dest) {
+        calculate(src, 0, dest, 0, src.length);
+    }
+
+    /**
+     * Calculates a range of values into a destination array without allocating
+     * @param src input values
+     * @param srcOffset first index read from {@code src}
+     * @param dest receives the calculated values
+     * @param destOffset first index written to {@code dest}
+     * @param length number of values
+     */
+    public void calculate(int[] src, int srcOffset, int[] dest, int destOffset, int length) {
+        if (srcOffset < 0 || destOffset < 0 || length < 0
+                || srcOffset > src.length - length || destOffset > dest.length - length) {
+            throw new IndexOutOfBoundsException("srcOffset=" + srcOffset + ", destOffset=" + destOffset
+                    + ", length=" + length + ", src.length=" + src.length + ", dest.length=" + dest.length);
+        }
+        // Plain counted loop over a branch-free body so C2 can unroll and vectorize it
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = calculateBranchFree(src[srcOffset + i]);
+        }
+    }
+
+    /**
+     * Calculates the remaining values of a buffer into another, advancing both positions
+     * @param src input values
+     * @param dest receives the calculated values
+     * @throws BufferOverflowException if {@code dest} has less room than {@code src} has values
+     */
+    public void calculate(IntBuffer src, IntBuffer dest) {
+        int length = src.remaining();
+        if (dest.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (src.hasArray() && dest.hasArray()) {
+            calculate(src.array(), src.arrayOffset() + src.position(), dest.array(), dest.arrayOffset() + dest.position(), length);
+            src.position(src.position() + length);
+            dest.position(dest.position() + length);
+        } else {
+            // Direct buffers: bulk-copy through one scratch chunk so the kernel still runs over an array
+            int[] chunk = new int[Math.min(length, BUFFER_CHUNK)];
+            while (src.hasRemaining()) {
+                int count = Math.min(chunk.length, src.remaining());
+                src.get(chunk, 0, count);
+                calculate(chunk, 0, chunk, 0, count);
+                dest.put(chunk, 0, count);
+            }
+        }
+    }
+
+    /**
+     * Calculates one INT column of the binary records between a buffer's position and limit,
+     * reading each value in place, and advances the position past the records consumed
+     * @param records back-to-back frames of {@code layout}, heap or direct
+     * @param layout record layout
+     * @param column index of an INT column
+     * @param dest receives the calculated values from index 0
+     * @return number of records calculated, less than all when {@code dest} is full
+     */
+    public int calculate(ByteBuffer records, RecordLayout layout, int column, int[] dest) {
+        RecordFlyweight flyweight = new RecordFlyweight(layout);
+        int offset = records.position();
+        int count = 0;
+        while (offset < records.limit() && count < dest.length) {
+            flyweight.wrap(records, offset);
+            dest[count++] = flyweight.getInt(column);
+            offset += flyweight.length();
+        }
+        records.position(offset);
+        calculate(dest, 0, dest, 0, count);
+        return count;
+    }
+
+    /**
+     * Calculates a whole INT column of a batch with the bulk array kernel
+     * @param batch input rows, unchanged
+     * @param column name of an INT column
+     * @return a batch sharing every other column, with the calculated column and the same nulls
+     */
+    public ColumnarBatch calculate(ColumnarBatch batch, String column) {
+        int index = batch.getSchema().indexOf(column);
+        if (!(batch.column(index) instanceof IntBatchColumn)) {
+            throw new IllegalArgumentException("column " + column + " is " + batch.column(index).getType() + ", not INT");
+        }
+        IntBatchColumn values = (IntBatchColumn) batch.column(index);
+        int[] calculated = new int[batch.getRowCount()];
+        calculate(values.getValues(), 0, calculated, 0, calculated.length);
+        return batch.withColumn(index, values.withValues(calculated));
+    }
+
+    /**
+     * Calculates every value of a primitive list, appending the results to {@code dest}
+     * @param src input values
+     * @param dest receives the calculated values in order
+     */
+    public void calculate(IntList src, MutableIntList dest) {
+        int size = src.size();
+        if (dest instanceof IntArrayList) {
+            ((IntArrayList) dest).ensureCapacity(dest.size() + size);
+        }
+        for (int i = 0; i < size; i++) {
+            dest.add(calculateBranchFree(src.get(i)));
+        }
+    }
+
+    /**
+     * Same result as {@link #calculate(int)} using only arithmetic, so the bulk loops have no branch
+     * and C2 can vectorize them. The overflow-safe sign test from Hacker's Delight turns
+     * {@code value > 10} into an all-ones or all-zeros mask, and adding {@code value & mask} doubles.
+     */
+    static int calculateBranchFree(int value) {
+        int diff = 10 - value;
+        int mask = (diff ^ ((10 ^ value) & (diff ^ 10))) >> 31;
+        return value + (value & mask);
+    }
 }
@@ -0,0 +1,259 @@
+package com.gs.kafka.processor.intern;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import com.gs.collections.impl.set.mutable.UnifiedSet;
+import com.gs.collections.impl.set.mutable.UnifiedSetFootprint;
+
+/**
+ * Size bounded pool that hands out one canonical instance per distinct value, so the topic names,
+ * tenant IDs and field names decoded from millions of messages share a few objects instead of
+ * one fresh copy each.
+ * <p>
+ * Canonical instances live in a {@link UnifiedSet} pool and are found with its
+ * {@link UnifiedSet#get} pool lookup. Once {@code maxSize} values are held, each new value evicts
+ * one chosen by the CLOCK policy: a hand sweeps the entries, clearing the referenced bit of those
+ * hit since its last pass and evicting the first one that was not. A value is only counted as
+ * referenced once it is hit again, so values seen once leave before values seen repeatedly.
+ * <p>
+ * With weak values the pool does not keep its instances alive; entries whose value was collected
+ * are dropped on the next call. Not thread-safe.
+ * @param <T> value type, with value based {@code equals} and {@code hashCode}
+ */
+public class Interner<T> {
+
+    // Sizes on a 64-bit JVM with compressed oops, as in UnifiedSetFootprint
+    private static final int ENTRY_BYTES = 32;
+    private static final int VALUE_REFERENCE_BYTES = 32;
+    private static final int INT_ARRAY_HEADER_BYTES = 16;
+
+    private final int maxSize;
+    private final boolean weakValues;
+    private final UnifiedSet<Entry> pool;
+    private final Entry[] ring;
+    private final int[] freeSlots;
+    private final ReferenceQueue<Object> collected;
+    private final Entry probe = new Entry(0, null, -1);
+
+    private int freeCount;
+    private int hand;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public Interner(int maxSize) {
+        this(maxSize, false);
+    }
+
+    /**
+     * @param maxSize number of canonical values kept at most
+     * @param weakValues true to hold values through weak references
+     */
+    public Interner(int maxSize, boolean weakValues) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.weakValues = weakValues;
+        this.pool = new UnifiedSet<>(maxSize);
+        this.ring = new Entry[maxSize];
+        this.freeSlots = new int[maxSize];
+        for (int i = 0; i < maxSize; i++) {
+            freeSlots[i] = maxSize - 1 - i;
+        }
+        this.freeCount = maxSize;
+        this.collected = weakValues ? new ReferenceQueue<>() : null;
+    }
+
+    /**
+     * Gets the canonical instance for a value, making {@code value} canonical if none is held
+     * @param value value to intern, may be null
+     * @return an instance equal to {@code value}, or null for null
+     */
+    @SuppressWarnings("unchecked")
+    public T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        expungeCollected();
+        probe.hash = value.hashCode();
+        probe.referent = value;
+        Entry existing = pool.get(probe);
+        probe.referent = null;
+        // A collected entry equals nothing, so a hit always has its value
+        Object canonical = existing == null ? null : existing.value();
+        if (canonical != null) {
+            existing.referenced = true;
+            hits++;
+            return (T) canonical;
+        }
+        misses++;
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : evict();
+        Entry entry = new Entry(value.hashCode(), weakValues ? new ValueReference(value, collected, slot) : value, slot);
+        ring[slot] = entry;
+        pool.put(entry);
+        return value;
+    }
+
+    private int evict() {
+        while (true) {
+            Entry candidate = ring[hand];
+            int slot = hand;
+            hand = hand + 1 == maxSize ? 0 : hand + 1;
+            boolean live = candidate.value() != null;
+            if (candidate.referenced && live) {
+                candidate.referenced = false;
+            } else {
+                pool.remove(candidate);
+                ring[slot] = null;
+                evictions += live ? 1 : 0;
+                return slot;
+            }
+        }
+    }
+
+    private void expungeCollected() {
+        if (collected == null) {
+            return;
+        }
+        ValueReference reference;
+        while ((reference = (ValueReference) collected.poll()) != null) {
+            Entry entry = ring[reference.slot];
+            if (entry != null && entry.referent == reference) {
+                remove(entry);
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        pool.remove(entry);
+        ring[entry.slot] = null;
+        freeSlots[freeCount++] = entry.slot;
+    }
+
+    /**
+     * Forgets every canonical value; the counters keep running
+     */
+    public void clear() {
+        pool.clear();
+        for (int i = 0; i < maxSize; i++) {
+            ring[i] = null;
+            freeSlots[i] = maxSize - 1 - i;
+        }
+        freeCount = maxSize;
+        hand = 0;
+        if (collected != null) {
+            while (collected.poll() != null) {
+                // Entries are gone already
+            }
+        }
+    }
+
+    /**
+     * Gets the number of canonical values held, including weak ones collected since the last call
+     * @return pool size
+     */
+    public int size() {
+        return pool.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public boolean isWeakValues() {
+        return weakValues;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of values dropped to make room, not counting collected weak values
+     * @return eviction count
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the share of {@link #intern} calls that returned an already held instance
+     * @return hits over lookups, 0 before the first lookup
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Estimates the heap held by the pool's own structures, excluding the canonical values
+     * @return footprint in bytes
+     */
+    public long footprintBytes() {
+        long perEntry = ENTRY_BYTES + (weakValues ? VALUE_REFERENCE_BYTES : 0);
+        long arrays = 2L * (INT_ARRAY_HEADER_BYTES + 4L * maxSize);
+        return UnifiedSetFootprint.estimateBytes(pool) + arrays + perEntry * pool.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Interner{size=" + size() + ", maxSize=" + maxSize + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", footprintBytes=" + footprintBytes() + '}';
+    }
+
+    /**
+     * Pool entry, equal to any entry holding an equal value. The hash is kept so that an entry
+     * whose weak value was collected can still be found and removed.
+     */
+    private static final class Entry {
+
+        private int hash;
+        private Object referent;
+        private final int slot;
+        private boolean referenced;
+
+        private Entry(int hash, Object referent, int slot) {
+            this.hash = hash;
+            this.referent = referent;
+            this.slot = slot;
+        }
+
+        private Object value() {
+            return referent instanceof ValueReference ? ((ValueReference) referent).get() : referent;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Object value = value();
+            return value != null && value.equals(((Entry) o).value());
+        }
+    }
+
+    private static final class ValueReference extends WeakReference<Object> {
+
+        private final int slot;
+
+        private ValueReference(Object value, ReferenceQueue<Object> queue, int slot) {
+            super(value, queue);
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gs.kafka.processor.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic count, striped over cells so concurrent increments do not contend on one cache line.
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("counters only go up: " + delta);
+        }
+        value.add(delta);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    long getAndReset() {
+        return value.sumThenReset();
+    }
+}
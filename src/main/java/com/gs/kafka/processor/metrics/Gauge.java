@@ -0,0 +1,28 @@
+package com.gs.kafka.processor.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Level that goes up and down, such as records in flight or buffered bytes. Updates are striped
+ * like {@link Counter}; reading sums the stripes. Gauges keep their value on reset.
+ */
+public final class Gauge {
+
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void decrement() {
+        value.decrement();
+    }
+
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,74 @@
+package com.gs.kafka.processor.metrics;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.kafka.processor.pipeline.BatchSink;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.Record;
+import com.gs.kafka.processor.pipeline.RecordSource;
+
+/**
+ * Decorators that time the pieces of a pipeline into a {@link LatencyHistogram}. Each call
+ * costs two {@link System#nanoTime()} reads and one {@link LatencyHistogram#record}.
+ */
+public final class Instrumentation {
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Times every {@link RecordSource#poll}, typically into {@link Stage#POLL}
+     */
+    public static RecordSource timedSource(RecordSource source, LatencyHistogram histogram) {
+        return new RecordSource() {
+            @Override
+            public MutableList<Record> poll(int maxRecords) {
+                long start = System.nanoTime();
+                MutableList<Record> batch = source.poll(maxRecords);
+                histogram.recordSince(start);
+                return batch;
+            }
+
+            @Override
+            public boolean isExhausted() {
+                return source.isExhausted();
+            }
+        };
+    }
+
+    /**
+     * Times every batch passed through a stage, including batches that fail; finishing is passed
+     * through untimed
+     */
+    public static <I, O> BatchStage<I, O> timedStage(BatchStage<I, O> stage, LatencyHistogram histogram) {
+        return new BatchStage<I, O>() {
+            @Override
+            public MutableList<O> apply(MutableList<I> batch) {
+                long start = System.nanoTime();
+                try {
+                    return stage.apply(batch);
+                } finally {
+                    histogram.recordSince(start);
+                }
+            }
+
+            @Override
+            public MutableList<O> finish() {
+                return stage.finish();
+            }
+        };
+    }
+
+    /**
+     * Times every batch written to a sink, typically into {@link Stage#SINK_FLUSH}
+     */
+    public static <T> BatchSink<T> timedSink(BatchSink<T> sink, LatencyHistogram histogram) {
+        return batch -> {
+            long start = System.nanoTime();
+            try {
+                sink.write(batch);
+            } finally {
+                histogram.recordSince(start);
+            }
+        };
+    }
+}
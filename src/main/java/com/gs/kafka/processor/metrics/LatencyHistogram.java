@@ -0,0 +1,99 @@
+package com.gs.kafka.processor.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory histogram of non-negative values, typically nanoseconds, in log-linear buckets as
+ * in HdrHistogram: every power of two is split into {@value #SUB_BUCKETS} equal buckets, so a
+ * recorded value is reported with a relative error below 1/{@value #SUB_BUCKETS}. Values below
+ * {@value #SUB_BUCKETS} are exact.
+ * <p>
+ * {@link #record} does not allocate and costs one atomic add on the bucket, a striped add on
+ * the sum and, only for a new maximum, a compare-and-set. It is safe to call from any thread.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] counts = new long[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value; negative values, e.g. from a clock step, count as 0
+     * @param value value to record
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        COUNTS.getAndAdd(counts, bucket(clamped), 1L);
+        sum.add(clamped);
+        long current = max.get();
+        while (clamped > current && !max.compareAndSet(current, clamped)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} reading
+     * @param startNanos reading taken before the timed work
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Copies the current state
+     * @return immutable snapshot
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = (long) COUNTS.getVolatile(counts, i);
+        }
+        return new HistogramSnapshot(copy, sum.sum(), max.get());
+    }
+
+    /**
+     * Copies the current state and clears it. Values recorded concurrently land either in the
+     * returned snapshot or in the next one; the count, sum and maximum of a bucket may straddle
+     * the two.
+     * @return immutable snapshot of everything recorded since the last reset
+     */
+    public HistogramSnapshot snapshotAndReset() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = (long) COUNTS.getAndSet(counts, i, 0L);
+        }
+        return new HistogramSnapshot(copy, sum.sumThenReset(), max.getAndSet(0));
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Gets the largest value that falls into a bucket
+     * @param bucket bucket index
+     * @return inclusive upper bound of the bucket
+     */
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
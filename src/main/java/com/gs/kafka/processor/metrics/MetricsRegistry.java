@@ -0,0 +1,106 @@
+package com.gs.kafka.processor.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import com.gs.collections.api.map.sorted.MutableSortedMap;
+import com.gs.collections.impl.map.sorted.mutable.TreeSortedMap;
+
+/**
+ * Named counters, gauges and latency histograms, plus one histogram per {@link Stage}.
+ * <p>
+ * Look a metric up once and keep the reference on the hot path; the lookup hashes the name, the
+ * returned metric records without allocating. Names follow the Prometheus rules so
+ * {@link MetricsSnapshot#toText()} can be scraped as is.
+ */
+public class MetricsRegistry {
+
+    public static final String STAGE_LATENCY = "stage_latency_nanos";
+
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final LatencyHistogram[] stages = new LatencyHistogram[Stage.values().length];
+
+    public MetricsRegistry() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new LatencyHistogram();
+        }
+    }
+
+    public Counter counter(String name) {
+        return register(counters, name, key -> new Counter());
+    }
+
+    public Gauge gauge(String name) {
+        return register(gauges, name, key -> new Gauge());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return register(histograms, name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Gets the latency histogram of a pipeline stage, exposed as {@value #STAGE_LATENCY}
+     * @param stage pipeline stage
+     * @return the stage's histogram
+     */
+    public LatencyHistogram stage(Stage stage) {
+        return stages[stage.ordinal()];
+    }
+
+    /**
+     * Copies every metric without changing it
+     * @return the snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Copies every metric, then zeroes counters and histograms so the next snapshot covers only
+     * the following interval. Gauges keep their level.
+     * @return the snapshot
+     */
+    public MetricsSnapshot snapshotAndReset() {
+        return snapshot(true);
+    }
+
+    private MetricsSnapshot snapshot(boolean reset) {
+        MutableSortedMap<String, Long> counterValues = TreeSortedMap.newMap();
+        counters.forEach((name, counter) -> counterValues.put(name, reset ? counter.getAndReset() : counter.get()));
+        MutableSortedMap<String, Long> gaugeValues = TreeSortedMap.newMap();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.get()));
+        MutableSortedMap<String, HistogramSnapshot> histogramValues = TreeSortedMap.newMap();
+        histograms.forEach((name, histogram) -> histogramValues.put(name, copy(histogram, reset)));
+        HistogramSnapshot[] stageValues = new HistogramSnapshot[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            stageValues[i] = copy(stages[i], reset);
+        }
+        return new MetricsSnapshot(counterValues, gaugeValues, histogramValues, stageValues);
+    }
+
+    private static HistogramSnapshot copy(LatencyHistogram histogram, boolean reset) {
+        return reset ? histogram.snapshotAndReset() : histogram.snapshot();
+    }
+
+    private <M> M register(ConcurrentMap<String, M> metrics, String name, Function<String, M> factory) {
+        M metric = metrics.get(name);
+        if (metric != null) {
+            return metric;
+        }
+        if (name == null || !NAME.matcher(name).matches() || name.equals(STAGE_LATENCY)) {
+            throw new IllegalArgumentException("invalid metric name: " + name);
+        }
+        if (metrics != counters && counters.containsKey(name)
+                || metrics != gauges && gauges.containsKey(name)
+                || metrics != histograms && histograms.containsKey(name)) {
+            throw new IllegalArgumentException("metric " + name + " is already registered with another type");
+        }
+        return metrics.computeIfAbsent(name, factory);
+    }
+}
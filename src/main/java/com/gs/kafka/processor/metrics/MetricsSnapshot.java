@@ -0,0 +1,110 @@
+package com.gs.kafka.processor.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.gs.collections.api.map.sorted.MutableSortedMap;
+
+/**
+ * Point-in-time copy of a {@link MetricsRegistry}, renderable in the Prometheus text exposition
+ * format.
+ */
+public final class MetricsSnapshot {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final MutableSortedMap<String, Long> counters;
+    private final MutableSortedMap<String, Long> gauges;
+    private final MutableSortedMap<String, HistogramSnapshot> histograms;
+    private final HistogramSnapshot[] stages;
+
+    MetricsSnapshot(MutableSortedMap<String, Long> counters, MutableSortedMap<String, Long> gauges,
+                    MutableSortedMap<String, HistogramSnapshot> histograms, HistogramSnapshot[] stages) {
+        this.counters = counters;
+        this.gauges = gauges;
+        this.histograms = histograms;
+        this.stages = stages;
+    }
+
+    /**
+     * Gets a counter value
+     * @return the value, 0 for an unknown counter
+     */
+    public long getCounter(String name) {
+        Long value = counters.get(name);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Gets a gauge value
+     * @return the value, 0 for an unknown gauge
+     */
+    public long getGauge(String name) {
+        Long value = gauges.get(name);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Gets a named histogram
+     * @return the snapshot, null for an unknown histogram
+     */
+    public HistogramSnapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    public HistogramSnapshot getStage(Stage stage) {
+        return stages[stage.ordinal()];
+    }
+
+    /**
+     * Renders every metric in the Prometheus text format; histograms become summaries with
+     * p50, p90, p99 and p999 plus a {@code _max} gauge
+     * @return the exposition
+     */
+    public String toText() {
+        StringBuilder out = new StringBuilder();
+        writeText(out);
+        return out.toString();
+    }
+
+    /**
+     * Renders every metric in the Prometheus text format into {@code out}
+     * @param out destination, e.g. a writer of an HTTP response
+     */
+    public void writeText(Appendable out) {
+        try {
+            for (String name : counters.keySet()) {
+                out.append("# TYPE ").append(name).append(" counter\n");
+                out.append(name).append(' ').append(Long.toString(counters.get(name))).append('\n');
+            }
+            for (String name : gauges.keySet()) {
+                out.append("# TYPE ").append(name).append(" gauge\n");
+                out.append(name).append(' ').append(Long.toString(gauges.get(name))).append('\n');
+            }
+            for (String name : histograms.keySet()) {
+                out.append("# TYPE ").append(name).append(" summary\n");
+                writeSummary(out, name, "", histograms.get(name));
+            }
+            out.append("# TYPE ").append(MetricsRegistry.STAGE_LATENCY).append(" summary\n");
+            for (Stage stage : Stage.values()) {
+                writeSummary(out, MetricsRegistry.STAGE_LATENCY, "stage=\"" + stage.label() + "\"", getStage(stage));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeSummary(Appendable out, String name, String labels, HistogramSnapshot histogram)
+            throws IOException {
+        String separator = labels.isEmpty() ? "" : ",";
+        for (double quantile : QUANTILES) {
+            out.append(name).append('{').append(labels).append(separator).append("quantile=\"")
+                    .append(Double.toString(quantile)).append("\"} ")
+                    .append(Long.toString(histogram.getValueAtQuantile(quantile))).append('\n');
+        }
+        String suffixLabels = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(suffixLabels).append(' ').append(Long.toString(histogram.getSum())).append('\n');
+        out.append(name).append("_count").append(suffixLabels).append(' ').append(Long.toString(histogram.getCount())).append('\n');
+        out.append(name).append("_max").append(suffixLabels).append(' ').append(Long.toString(histogram.getMax())).append('\n');
+    }
+}
@@ -0,0 +1,23 @@
+package com.gs.kafka.processor.metrics;
+
+import java.util.Locale;
+
+/**
+ * Pipeline steps that get a latency histogram in every {@link MetricsRegistry}.
+ */
+public enum Stage {
+
+    POLL,
+    DECODE,
+    CALCULATE,
+    DEDUP,
+    SINK_FLUSH;
+
+    /**
+     * Gets the label value used in the text exposition
+     * @return lower-case stage name
+     */
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
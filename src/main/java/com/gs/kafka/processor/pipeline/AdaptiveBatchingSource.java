@@ -0,0 +1,228 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+
+/**
+ * {@link RecordSource} decorator that holds polled records back until a batch is worth
+ * processing, sizing batches from the observed arrival rate and a {@link BatchingPolicy}'s latency
+ * budget.
+ * <p>
+ * Half of the budget is spent waiting: the target batch size is the number of records expected
+ * to arrive in that time, between the policy's minimum and maximum. A batch is released once it
+ * reaches the target, once its oldest record has waited half the budget, once its estimated
+ * bytes reach the policy's limit, or when the source is drained. At a low rate batches stay small
+ * and are released on time; at peak they grow so the per-batch cost of the stages behind is paid
+ * less often; and when a backed-up pipeline polls late, everything that arrived meanwhile goes
+ * out at once. The rate is an exponentially smoothed count over windows of a quarter of the wait.
+ * While a batch is filling, {@link #poll} parks until the next rate window or the batch's
+ * deadline, whichever is first, and polls again, so callers are not handed empty batches to spin on.
+ * Put in front of a {@link BatchPipeline} whose batch size is the policy's maximum. Not
+ * thread-safe.
+ */
+public class AdaptiveBatchingSource implements RecordSource {
+
+    private static final double RATE_SMOOTHING = 0.3;
+    private static final long MIN_RATE_WINDOW_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int RECORD_OVERHEAD_BYTES = 64;
+
+    private final RecordSource delegate;
+    private final BatchingPolicy policy;
+    private final LongSupplier nanoClock;
+    private final LongConsumer parker;
+    private final long maxWaitNanos;
+    private final long rateWindowNanos;
+
+    private MutableList<Record> buffer = FastList.newList();
+    private long bufferedBytes;
+    private long oldestNanos;
+
+    private long windowStartNanos = -1;
+    private long windowArrivals;
+    private double ratePerNano;
+    private int targetBatchSize;
+
+    private long sizeFlushes;
+    private long timeFlushes;
+    private long byteFlushes;
+    private long drainFlushes;
+
+    public AdaptiveBatchingSource(RecordSource delegate, BatchingPolicy policy) {
+        this(delegate, policy, System::nanoTime, LockSupport::parkNanos);
+    }
+
+    AdaptiveBatchingSource(RecordSource delegate, BatchingPolicy policy, LongSupplier nanoClock,
+            LongConsumer parker) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.nanoClock = nanoClock;
+        this.parker = parker;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(policy.getLatencyBudgetMicros()) / 2;
+        this.rateWindowNanos = Math.max(MIN_RATE_WINDOW_NANOS, maxWaitNanos / 4);
+        this.targetBatchSize = policy.getMinBatchSize();
+    }
+
+    /**
+     * Polls the wrapped source until a batch is due, parking between polls while one is filling
+     * @param maxRecords upper bound on the released batch
+     * @return the batch, empty only if nothing is buffered and the wrapped source had nothing
+     */
+    @Override
+    public MutableList<Record> poll(int maxRecords) {
+        if (maxRecords <= 0) {
+            throw new IllegalArgumentException("maxRecords must be positive: " + maxRecords);
+        }
+        while (true) {
+            long now = nanoClock.getAsLong();
+            fill(now);
+            updateRate(now);
+            if (buffer.isEmpty()) {
+                return FastList.newList(0);
+            }
+            if (flushDue(now)) {
+                return release(maxRecords);
+            }
+            // Both deadlines lie ahead: the batch is not overdue and updateRate just rolled the window
+            parker.accept(Math.min(oldestNanos + maxWaitNanos, windowStartNanos + rateWindowNanos) - now);
+        }
+    }
+
+    private void fill(long now) {
+        int room = policy.getMaxBatchSize() - buffer.size();
+        if (room <= 0 || delegate.isExhausted()) {
+            return;
+        }
+        MutableList<Record> polled = delegate.poll(room);
+        if (polled.isEmpty()) {
+            return;
+        }
+        if (buffer.isEmpty()) {
+            oldestNanos = now;
+        }
+        for (int i = 0; i < polled.size(); i++) {
+            bufferedBytes += estimateBytes(polled.get(i));
+        }
+        buffer.addAll(polled);
+        windowArrivals += polled.size();
+    }
+
+    private boolean flushDue(long now) {
+        if (buffer.size() >= targetBatchSize) {
+            sizeFlushes++;
+            return true;
+        }
+        if (bufferedBytes >= policy.getMaxBatchBytes()) {
+            byteFlushes++;
+            return true;
+        }
+        if (now - oldestNanos >= maxWaitNanos) {
+            timeFlushes++;
+            return true;
+        }
+        if (delegate.isExhausted()) {
+            drainFlushes++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Hands out the buffered records; leftovers keep the arrival time of the released ones, which
+     * errs on the side of releasing them early
+     */
+    private MutableList<Record> release(int maxRecords) {
+        if (buffer.size() <= maxRecords) {
+            MutableList<Record> batch = buffer;
+            buffer = FastList.newList(Math.max(targetBatchSize, 16));
+            bufferedBytes = 0;
+            return batch;
+        }
+        MutableList<Record> batch = FastList.newList(maxRecords);
+        for (int i = 0; i < maxRecords; i++) {
+            Record record = buffer.get(i);
+            batch.add(record);
+            bufferedBytes -= estimateBytes(record);
+        }
+        MutableList<Record> rest = FastList.newList(buffer.size() - maxRecords);
+        for (int i = maxRecords; i < buffer.size(); i++) {
+            rest.add(buffer.get(i));
+        }
+        buffer = rest;
+        return batch;
+    }
+
+    private void updateRate(long now) {
+        if (windowStartNanos < 0) {
+            windowStartNanos = now;
+            return;
+        }
+        long elapsed = now - windowStartNanos;
+        if (elapsed < rateWindowNanos) {
+            return;
+        }
+        double observed = windowArrivals / (double) elapsed;
+        ratePerNano = ratePerNano == 0 ? observed : ratePerNano + RATE_SMOOTHING * (observed - ratePerNano);
+        windowStartNanos = now;
+        windowArrivals = 0;
+        long expected = Math.round(ratePerNano * maxWaitNanos);
+        targetBatchSize = (int) Math.max(policy.getMinBatchSize(), Math.min(policy.getMaxBatchSize(), expected));
+    }
+
+    static long estimateBytes(Record record) {
+        String key = record.getKey();
+        return RECORD_OVERHEAD_BYTES + record.getValue().length + (key == null ? 0 : 2L * key.length());
+    }
+
+    @Override
+    public boolean isExhausted() {
+        return buffer.isEmpty() && delegate.isExhausted();
+    }
+
+    public BatchingPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the batch size currently aimed for
+     * @return records per batch
+     */
+    public int getTargetBatchSize() {
+        return targetBatchSize;
+    }
+
+    /**
+     * Gets the smoothed arrival rate
+     * @return records per second
+     */
+    public double getArrivalRate() {
+        return ratePerNano * 1e9;
+    }
+
+    public long getSizeFlushes() {
+        return sizeFlushes;
+    }
+
+    public long getTimeFlushes() {
+        return timeFlushes;
+    }
+
+    public long getByteFlushes() {
+        return byteFlushes;
+    }
+
+    public long getDrainFlushes() {
+        return drainFlushes;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveBatchingSource{" + policy + ", targetBatchSize=" + targetBatchSize
+                + ", sizeFlushes=" + sizeFlushes + ", timeFlushes=" + timeFlushes + ", byteFlushes=" + byteFlushes
+                + ", drainFlushes=" + drainFlushes + '}';
+    }
+}
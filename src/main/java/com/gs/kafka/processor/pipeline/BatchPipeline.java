@@ -0,0 +1,187 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.kafka.processor.ring.WaitStrategy;
+
+/**
+ * Batch processing engine that runs decode, transform and sink stages on their own threads.
+ * <p>
+ * The calling thread polls the {@link RecordSource} and every stage hands whole batches to the
+ * next one through a bounded queue, so a slow stage blocks its producer instead of letting
+ * batches pile up in memory. The queues are {@code ArrayBlockingQueue}s unless a
+ * {@link WaitStrategy} is given, in which case every stage boundary is a single-producer
+ * single-consumer {@link com.gs.kafka.processor.ring.RingBuffer} that waits with that strategy.
+ * Once the source is exhausted, the decode and transform stages are {@linkplain BatchStage#finish()
+ * finished} in turn, and whatever they still hold goes downstream ahead of the end of the input.
+ * @param <D> decoded element type
+ * @param <O> transformed element type handed to the sink
+ */
+public class BatchPipeline<D, O> {
+
+    public static final int DEFAULT_BATCH_SIZE = 2048;
+    public static final int DEFAULT_QUEUE_CAPACITY = 4;
+
+    private static final MutableList<Object> END = FastList.newList(0);
+
+    private final RecordSource source;
+    private final BatchStage<Record, D> decoder;
+    private final BatchStage<D, O> transformer;
+    private final BatchSink<O> sink;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final WaitStrategy handoffWaitStrategy;
+
+    public BatchPipeline(RecordSource source, BatchStage<Record, D> decoder, BatchStage<D, O> transformer,
+                         BatchSink<O> sink) {
+        this(source, decoder, transformer, sink, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public BatchPipeline(RecordSource source, BatchStage<Record, D> decoder, BatchStage<D, O> transformer,
+                         BatchSink<O> sink, int batchSize, int queueCapacity) {
+        this(source, decoder, transformer, sink, batchSize, queueCapacity, null);
+    }
+
+    /**
+     * @param handoffWaitStrategy wait strategy of ring buffer handoffs, null for blocking queues
+     */
+    public BatchPipeline(RecordSource source, BatchStage<Record, D> decoder, BatchStage<D, O> transformer,
+                         BatchSink<O> sink, int batchSize, int queueCapacity, WaitStrategy handoffWaitStrategy) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+        this.source = source;
+        this.decoder = decoder;
+        this.transformer = transformer;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.handoffWaitStrategy = handoffWaitStrategy;
+    }
+
+    /**
+     * Drains the source through all stages and waits for the sink to finish
+     * @return counts and timing of the run
+     * @throws PipelineException if a stage throws or the calling thread is interrupted
+     */
+    public PipelineResult run() {
+        Handoff<MutableList<Record>> polled = newHandoff();
+        Handoff<MutableList<D>> decoded = newHandoff();
+        Handoff<MutableList<O>> transformed = newHandoff();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong written = new AtomicLong();
+
+        Thread[] stages = {
+            startStage("decode", polled, decoded, decoder, failure),
+            startStage("transform", decoded, transformed, transformer, failure),
+            startStage("sink", transformed, null, batch -> {
+                sink.write(batch);
+                written.addAndGet(batch.size());
+                return null;
+            }, failure)
+        };
+
+        long records = 0;
+        long batches = 0;
+        long start = System.nanoTime();
+        try {
+            while (!source.isExhausted() && failure.get() == null) {
+                MutableList<Record> batch = source.poll(batchSize);
+                if (batch.isEmpty()) {
+                    Thread.yield();
+                    continue;
+                }
+                records += batch.size();
+                batches++;
+                polled.put(batch);
+            }
+            polled.put(end());
+            for (Thread stage : stages) {
+                stage.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread stage : stages) {
+                stage.interrupt();
+            }
+            Thread.currentThread().interrupt();
+            throw new PipelineException("Interrupted while running pipeline", e);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (failure.get() != null) {
+            throw new PipelineException("Pipeline stage failed", failure.get());
+        }
+        return new PipelineResult(records, batches, written.get(), elapsed);
+    }
+
+    private <T> Handoff<T> newHandoff() {
+        return handoffWaitStrategy == null
+                ? Handoff.blockingQueue(queueCapacity)
+                : Handoff.ringBuffer(queueCapacity, handoffWaitStrategy);
+    }
+
+    private static <I, R> Thread startStage(String name, Handoff<MutableList<I>> input,
+                                            Handoff<MutableList<R>> output, BatchStage<I, R> stage,
+                                            AtomicReference<Throwable> failure) {
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    MutableList<I> batch = input.take();
+                    if (batch == END) {
+                        if (output != null) {
+                            finish(stage, output, failure);
+                            output.put(BatchPipeline.<R>end());
+                        }
+                        return;
+                    }
+                    // After a failure keep draining so upstream never blocks on a full queue
+                    if (failure.get() != null) {
+                        continue;
+                    }
+                    try {
+                        MutableList<R> result = stage.apply(batch);
+                        if (output != null) {
+                            output.put(result);
+                        }
+                    } catch (RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, e);
+            }
+        }, "pipeline-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Hands on what a stage still holds at the end of the input, unless an earlier stage failed
+     */
+    private static <I, R> void finish(BatchStage<I, R> stage, Handoff<MutableList<R>> output,
+                                      AtomicReference<Throwable> failure) throws InterruptedException {
+        if (failure.get() != null) {
+            return;
+        }
+        try {
+            MutableList<R> remaining = stage.finish();
+            if (!remaining.isEmpty()) {
+                output.put(remaining);
+            }
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MutableList<T> end() {
+        return (MutableList<T>) END;
+    }
+}
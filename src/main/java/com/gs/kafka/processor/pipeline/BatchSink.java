@@ -0,0 +1,12 @@
+package com.gs.kafka.processor.pipeline;
+
+import com.gs.collections.api.list.MutableList;
+
+/**
+ * Terminal stage of a {@link BatchPipeline}.
+ * @param <T> element type
+ */
+public interface BatchSink<T> {
+
+    void write(MutableList<T> batch);
+}
@@ -0,0 +1,60 @@
+package com.gs.kafka.processor.pipeline;
+
+import com.gs.collections.api.block.function.Function;
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+
+/**
+ * One step of a {@link BatchPipeline} that turns a whole batch into another batch.
+ * @param <I> input element type
+ * @param <O> output element type
+ */
+public interface BatchStage<I, O> {
+
+    MutableList<O> apply(MutableList<I> batch);
+
+    /**
+     * Called once after the last batch, on the thread that applied the batches, for stages that
+     * hold output back until later input arrives
+     * @return output still held by the stage, empty by default
+     */
+    default MutableList<O> finish() {
+        return FastList.newList(0);
+    }
+
+    /**
+     * Chains another stage after this one on the same thread; finishing the combined stage passes
+     * this stage's remaining output through the next one before finishing it
+     * @param next stage fed with this stage's output
+     * @return the combined stage
+     */
+    default <R> BatchStage<I, R> andThen(BatchStage<O, R> next) {
+        BatchStage<I, O> first = this;
+        return new BatchStage<I, R>() {
+            @Override
+            public MutableList<R> apply(MutableList<I> batch) {
+                return next.apply(first.apply(batch));
+            }
+
+            @Override
+            public MutableList<R> finish() {
+                MutableList<O> remaining = first.finish();
+                MutableList<R> results = FastList.newList();
+                if (!remaining.isEmpty()) {
+                    results.addAll(next.apply(remaining));
+                }
+                results.addAll(next.finish());
+                return results;
+            }
+        };
+    }
+
+    /**
+     * Lifts a per-element function into a batch stage
+     * @param function element function
+     * @return stage applying the function to every element
+     */
+    static <I, O> BatchStage<I, O> perRecord(Function<? super I, ? extends O> function) {
+        return batch -> batch.collect(function);
+    }
+}
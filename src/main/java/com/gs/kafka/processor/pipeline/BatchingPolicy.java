@@ -0,0 +1,101 @@
+package com.gs.kafka.processor.pipeline;
+
+/**
+ * Flush thresholds of an {@link AdaptiveBatchingSource}.
+ */
+public final class BatchingPolicy {
+
+    public static final long DEFAULT_LATENCY_BUDGET_MICROS = 20_000;
+    public static final int DEFAULT_MIN_BATCH_SIZE = 1;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 8192;
+    public static final long DEFAULT_MAX_BATCH_BYTES = 8L << 20;
+
+    private final long latencyBudgetMicros;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+
+    public BatchingPolicy(long latencyBudgetMicros, int minBatchSize, int maxBatchSize, long maxBatchBytes) {
+        if (latencyBudgetMicros <= 0) {
+            throw new IllegalArgumentException("latencyBudgetMicros must be positive: " + latencyBudgetMicros);
+        }
+        if (minBatchSize <= 0) {
+            throw new IllegalArgumentException("minBatchSize must be positive: " + minBatchSize);
+        }
+        if (maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("maxBatchSize " + maxBatchSize + " is below minBatchSize "
+                    + minBatchSize);
+        }
+        if (maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("maxBatchBytes must be positive: " + maxBatchBytes);
+        }
+        this.latencyBudgetMicros = latencyBudgetMicros;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    public static BatchingPolicy defaults() {
+        return new BatchingPolicy(DEFAULT_LATENCY_BUDGET_MICROS, DEFAULT_MIN_BATCH_SIZE, DEFAULT_MAX_BATCH_SIZE,
+                DEFAULT_MAX_BATCH_BYTES);
+    }
+
+    /**
+     * Creates a policy that always waits for {@code batchSize} records, as a static batch size with a
+     * linger time does
+     * @param batchSize records per batch
+     * @param lingerMicros longest time the first record of a batch waits
+     * @return the policy
+     */
+    public static BatchingPolicy fixed(int batchSize, long lingerMicros) {
+        // The budget is split in half between waiting and processing, so double the linger
+        return new BatchingPolicy(lingerMicros * 2, batchSize, batchSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * Gets the time a record may take from arrival until its batch is processed; half of it is
+     * spent waiting for the batch to fill
+     * @return budget in microseconds
+     */
+    public long getLatencyBudgetMicros() {
+        return latencyBudgetMicros;
+    }
+
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Gets the estimated record bytes at which a batch is flushed whatever its size
+     * @return bytes per batch
+     */
+    public long getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    public BatchingPolicy withLatencyBudgetMicros(long micros) {
+        return new BatchingPolicy(micros, minBatchSize, maxBatchSize, maxBatchBytes);
+    }
+
+    public BatchingPolicy withMinBatchSize(int size) {
+        return new BatchingPolicy(latencyBudgetMicros, size, maxBatchSize, maxBatchBytes);
+    }
+
+    public BatchingPolicy withMaxBatchSize(int size) {
+        return new BatchingPolicy(latencyBudgetMicros, minBatchSize, size, maxBatchBytes);
+    }
+
+    public BatchingPolicy withMaxBatchBytes(long bytes) {
+        return new BatchingPolicy(latencyBudgetMicros, minBatchSize, maxBatchSize, bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchingPolicy{latencyBudgetMicros=" + latencyBudgetMicros + ", minBatchSize=" + minBatchSize
+                + ", maxBatchSize=" + maxBatchSize + ", maxBatchBytes=" + maxBatchBytes + '}';
+    }
+}
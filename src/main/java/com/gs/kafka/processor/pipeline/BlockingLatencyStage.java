@@ -0,0 +1,37 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.api.list.MutableList;
+
+/**
+ * Pass-through stage that blocks the calling thread for a fixed time per batch, standing in for a
+ * remote lookup or blocking file write when comparing execution modes locally.
+ * @param <T> element type
+ */
+public class BlockingLatencyStage<T> implements BatchStage<T, T> {
+
+    private final long latencyNanos;
+
+    public BlockingLatencyStage(long latency, TimeUnit unit) {
+        if (latency < 0) {
+            throw new IllegalArgumentException("latency must not be negative: " + latency);
+        }
+        this.latencyNanos = unit.toNanos(latency);
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    @Override
+    public MutableList<T> apply(MutableList<T> batch) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(latencyNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PipelineException("Interrupted during simulated blocking call", e);
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,120 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+
+/**
+ * Local load generator that releases int records on a clock, alternating a burst rate with a
+ * base rate, to exercise batching under traffic that swings between quiet and peak periods.
+ * <p>
+ * Every period starts with a burst lasting {@code burstFraction} of it. The clock starts at the
+ * first poll, and a record only becomes available at its scheduled arrival; its timestamp is that
+ * arrival on the {@link System#nanoTime()} scale, so a sink measures end-to-end latency as
+ * {@code System.nanoTime() - record.getTimestamp()}. Records are spread round-robin over
+ * partitions. Not thread-safe.
+ */
+public class BurstyRecordSource implements RecordSource {
+
+    private final int partitions;
+    private final int records;
+    private final double baseRatePerNano;
+    private final double burstRatePerNano;
+    private final long periodNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final long[] offsets;
+
+    private long startNanos = -1;
+    private double nextArrivalNanos;
+    private int produced;
+
+    /**
+     * @param partitions number of partitions
+     * @param records number of records to release
+     * @param baseRatePerSecond rate outside bursts
+     * @param burstRatePerSecond rate during bursts
+     * @param periodMillis length of one base plus burst cycle
+     * @param burstFraction share of each period spent bursting, between 0 and 1
+     */
+    public BurstyRecordSource(int partitions, int records, double baseRatePerSecond, double burstRatePerSecond,
+                              long periodMillis, double burstFraction) {
+        this(partitions, records, baseRatePerSecond, burstRatePerSecond, periodMillis, burstFraction,
+                System::nanoTime);
+    }
+
+    BurstyRecordSource(int partitions, int records, double baseRatePerSecond, double burstRatePerSecond,
+                       long periodMillis, double burstFraction, LongSupplier nanoClock) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        if (records < 0) {
+            throw new IllegalArgumentException("records must not be negative: " + records);
+        }
+        if (!(baseRatePerSecond > 0) || !(burstRatePerSecond > 0)) {
+            throw new IllegalArgumentException("rates must be positive: " + baseRatePerSecond + ", "
+                    + burstRatePerSecond);
+        }
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("periodMillis must be positive: " + periodMillis);
+        }
+        if (!(burstFraction >= 0 && burstFraction <= 1)) {
+            throw new IllegalArgumentException("burstFraction must be between 0 and 1: " + burstFraction);
+        }
+        this.partitions = partitions;
+        this.records = records;
+        this.baseRatePerNano = baseRatePerSecond / 1e9;
+        this.burstRatePerNano = burstRatePerSecond / 1e9;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        this.burstNanos = (long) (periodNanos * burstFraction);
+        this.nanoClock = nanoClock;
+        this.offsets = new long[partitions];
+    }
+
+    @Override
+    public MutableList<Record> poll(int maxRecords) {
+        if (maxRecords <= 0) {
+            throw new IllegalArgumentException("maxRecords must be positive: " + maxRecords);
+        }
+        long now = nanoClock.getAsLong();
+        if (startNanos < 0) {
+            startNanos = now;
+        }
+        long elapsed = now - startNanos;
+        MutableList<Record> batch = FastList.newList(0);
+        while (produced < records && batch.size() < maxRecords && nextArrivalNanos <= elapsed) {
+            int partition = produced % partitions;
+            long arrival = startNanos + (long) nextArrivalNanos;
+            batch.add(new Record(partition, offsets[partition]++, null,
+                    ByteBuffer.allocate(4).putInt(produced).array(), arrival));
+            produced++;
+            nextArrivalNanos += 1 / rateAt((long) nextArrivalNanos);
+        }
+        return batch;
+    }
+
+    /**
+     * Gets the arrival rate at a point of the schedule
+     * @param elapsedNanos time since the first poll
+     * @return records per nanosecond
+     */
+    double rateAt(long elapsedNanos) {
+        return elapsedNanos % periodNanos < burstNanos ? burstRatePerNano : baseRatePerNano;
+    }
+
+    @Override
+    public boolean isExhausted() {
+        return produced >= records;
+    }
+
+    /**
+     * Gets the number of records released so far
+     * @return record count
+     */
+    public int getProduced() {
+        return produced;
+    }
+}
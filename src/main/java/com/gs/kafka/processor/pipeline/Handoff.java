@@ -0,0 +1,51 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.gs.kafka.processor.ring.RingBuffer;
+import com.gs.kafka.processor.ring.WaitStrategy;
+
+/**
+ * Bounded queue between two {@link BatchPipeline} threads.
+ */
+interface Handoff<T> {
+
+    void put(T element) throws InterruptedException;
+
+    T take() throws InterruptedException;
+
+    static <T> Handoff<T> blockingQueue(int capacity) {
+        BlockingQueue<T> queue = new ArrayBlockingQueue<>(capacity);
+        return new Handoff<T>() {
+            @Override
+            public void put(T element) throws InterruptedException {
+                queue.put(element);
+            }
+
+            @Override
+            public T take() throws InterruptedException {
+                return queue.take();
+            }
+        };
+    }
+
+    /**
+     * Creates a single-producer single-consumer ring, rounding the capacity up to a power of two
+     */
+    static <T> Handoff<T> ringBuffer(int capacity, WaitStrategy waitStrategy) {
+        int slots = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        RingBuffer<T> ring = RingBuffer.spsc(slots, waitStrategy);
+        return new Handoff<T>() {
+            @Override
+            public void put(T element) throws InterruptedException {
+                ring.put(element);
+            }
+
+            @Override
+            public T take() throws InterruptedException {
+                return ring.take();
+            }
+        };
+    }
+}
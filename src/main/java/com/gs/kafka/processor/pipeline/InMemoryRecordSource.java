@@ -0,0 +1,63 @@
+package com.gs.kafka.processor.pipeline;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+
+/**
+ * Local stand-in for a Kafka topic that serves a fixed list of records.
+ */
+public class InMemoryRecordSource implements RecordSource {
+
+    private final MutableList<Record> records;
+    private int position;
+
+    public InMemoryRecordSource(MutableList<Record> records) {
+        this.records = records;
+    }
+
+    /**
+     * Creates a source of {@code count} int records spread round-robin over partitions
+     * @param partitions number of partitions
+     * @param count number of records
+     * @return the source
+     */
+    public static InMemoryRecordSource ofInts(int partitions, int count) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        MutableList<Record> records = FastList.newList(count);
+        long[] offsets = new long[partitions];
+        for (int i = 0; i < count; i++) {
+            int partition = i % partitions;
+            records.add(Record.ofInt(partition, offsets[partition]++, "key-" + (i % 1024), i % 100));
+        }
+        return new InMemoryRecordSource(records);
+    }
+
+    @Override
+    public MutableList<Record> poll(int maxRecords) {
+        if (maxRecords <= 0) {
+            throw new IllegalArgumentException("maxRecords must be positive: " + maxRecords);
+        }
+        int end = Math.min(records.size(), position + maxRecords);
+        MutableList<Record> batch = FastList.newList(end - position);
+        for (int i = position; i < end; i++) {
+            batch.add(records.get(i));
+        }
+        position = end;
+        return batch;
+    }
+
+    @Override
+    public boolean isExhausted() {
+        return position >= records.size();
+    }
+
+    /**
+     * Gets the number of records not yet polled
+     * @return remaining record count
+     */
+    public int remaining() {
+        return records.size() - position;
+    }
+}
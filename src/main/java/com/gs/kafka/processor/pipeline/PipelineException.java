@@ -0,0 +1,11 @@
+package com.gs.kafka.processor.pipeline;
+
+/**
+ * Thrown when a pipeline stage fails or the pipeline is interrupted.
+ */
+public class PipelineException extends RuntimeException {
+
+    public PipelineException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
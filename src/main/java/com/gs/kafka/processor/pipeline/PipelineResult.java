@@ -0,0 +1,54 @@
+package com.gs.kafka.processor.pipeline;
+
+/**
+ * Outcome of one {@link BatchPipeline#run()}.
+ */
+public class PipelineResult {
+
+    private final long records;
+    private final long batches;
+    private final long written;
+    private final long elapsedNanos;
+
+    public PipelineResult(long records, long batches, long written, long elapsedNanos) {
+        this.records = records;
+        this.batches = batches;
+        this.written = written;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Gets the number of elements that reached the sink, which is lower than
+     * {@link #getRecords()} when a stage filters
+     * @return elements written
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Calculates end to end throughput
+     * @return records per second, 0 if nothing was timed
+     */
+    public double recordsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : records * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineResult{records=" + records + ", batches=" + batches
+                + ", written=" + written + ", elapsedNanos=" + elapsedNanos + ", recordsPerSecond=" + (long) recordsPerSecond() + '}';
+    }
+}
@@ -0,0 +1,105 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable message as delivered by a {@link RecordSource}.
+ */
+public final class Record {
+
+    private final int partition;
+    private final long offset;
+    private final String key;
+    private final byte[] value;
+    private final long timestamp;
+
+    public Record(int partition, long offset, String key, byte[] value, long timestamp) {
+        if (partition < 0) {
+            throw new IllegalArgumentException("partition must be non-negative: " + partition);
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+        this.partition = partition;
+        this.offset = offset;
+        this.key = key;
+        this.value = value;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Creates a record whose value is a single big-endian int
+     * @param partition partition the record belongs to
+     * @param offset offset within the partition
+     * @param key message key, may be null
+     * @param value int payload
+     * @return the record
+     */
+    public static Record ofInt(int partition, long offset, String key, int value) {
+        return new Record(partition, offset, key, ByteBuffer.allocate(4).putInt(value).array(), offset);
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the raw payload; callers must not modify the returned array
+     * @return the payload bytes
+     */
+    public byte[] getValue() {
+        return value;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Decodes the payload written by {@link #ofInt}
+     * @return the int payload
+     */
+    public int valueAsInt() {
+        if (value.length < 4) {
+            throw new IllegalStateException("payload is " + value.length + " bytes, expected at least 4");
+        }
+        return ((value[0] & 0xFF) << 24) | ((value[1] & 0xFF) << 16) | ((value[2] & 0xFF) << 8) | (value[3] & 0xFF);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Record)) {
+            return false;
+        }
+        Record other = (Record) o;
+        return partition == other.partition
+                && offset == other.offset
+                && timestamp == other.timestamp
+                && (key == null ? other.key == null : key.equals(other.key))
+                && Arrays.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * partition + (int) (offset ^ (offset >>> 32));
+        result = 31 * result + (key == null ? 0 : key.hashCode());
+        return 31 * result + Arrays.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "Record{partition=" + partition + ", offset=" + offset + ", key=" + key + '}';
+    }
+}
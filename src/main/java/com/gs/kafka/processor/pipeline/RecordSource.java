@@ -0,0 +1,22 @@
+package com.gs.kafka.processor.pipeline;
+
+import com.gs.collections.api.list.MutableList;
+
+/**
+ * Source of records polled in batches, modelled on a Kafka consumer poll loop.
+ */
+public interface RecordSource {
+
+    /**
+     * Polls the next batch of records
+     * @param maxRecords upper bound on the batch size
+     * @return the records, empty if nothing is currently available
+     */
+    MutableList<Record> poll(int maxRecords);
+
+    /**
+     * Whether the source will never return another record
+     * @return true once the source is drained
+     */
+    boolean isExhausted();
+}
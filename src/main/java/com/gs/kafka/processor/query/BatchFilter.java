@@ -0,0 +1,215 @@
+package com.gs.kafka.processor.query;
+
+import com.gs.kafka.processor.batch.BatchColumn;
+import com.gs.kafka.processor.batch.ColumnarBatch;
+import com.gs.kafka.processor.batch.DoubleBatchColumn;
+import com.gs.kafka.processor.batch.IntBatchColumn;
+import com.gs.kafka.processor.batch.LongBatchColumn;
+import com.gs.kafka.processor.batch.StringBatchColumn;
+
+/**
+ * Evaluates {@link Filter}s over whole columns of a {@link ColumnarBatch} into a selection vector
+ * of matching row indexes.
+ * <p>
+ * The first filter scans its column and every further one only re-checks the rows still
+ * selected. INT and LONG comparisons become an inclusive range test written without branches, so
+ * the scan loops are plain counted loops over the primitive array. String filters are decided
+ * once per dictionary entry; an equality filter turns into a range test on the dictionary codes.
+ * Null values never match.
+ */
+public final class BatchFilter {
+
+    private BatchFilter() {
+    }
+
+    /**
+     * Selects the rows that pass every filter
+     * @param batch rows to filter
+     * @param selection receives the matching row indexes in ascending order, at least
+     *                  {@link ColumnarBatch#getRowCount()} long
+     * @param filters filters, combined with AND; no filter selects every row
+     * @return number of matching rows
+     */
+    public static int select(ColumnarBatch batch, int[] selection, Filter... filters) {
+        int rows = batch.getRowCount();
+        if (selection.length < rows) {
+            throw new IllegalArgumentException("selection holds " + selection.length + " rows, batch has " + rows);
+        }
+        if (filters.length == 0) {
+            for (int row = 0; row < rows; row++) {
+                selection[row] = row;
+            }
+            return rows;
+        }
+        int count = rows;
+        for (int i = 0; i < filters.length && count > 0; i++) {
+            BoundFilter filter = new BoundFilter(filters[i], batch.getSchema());
+            count = apply(filter, batch.column(filter.getColumn()), selection, count, i == 0);
+        }
+        return count;
+    }
+
+    private static int apply(BoundFilter filter, BatchColumn column, int[] selection, int count, boolean first) {
+        int selected;
+        switch (filter.getType()) {
+            case INT:
+                if (emptyRange(filter)) {
+                    return 0;
+                }
+                selected = selectInts(((IntBatchColumn) column).getValues(), column.size(),
+                        lowerBound(filter), upperBound(filter), selection, count, first);
+                break;
+            case LONG:
+                if (emptyRange(filter)) {
+                    return 0;
+                }
+                selected = selectLongs(((LongBatchColumn) column).getValues(), column.size(),
+                        lowerBound(filter), upperBound(filter), selection, count, first);
+                break;
+            case DOUBLE:
+                selected = selectDoubles((DoubleBatchColumn) column, filter, selection, count, first);
+                break;
+            default:
+                return selectStrings((StringBatchColumn) column, filter, selection, count, first);
+        }
+        return column.hasNulls() ? dropNulls(column, selection, selected) : selected;
+    }
+
+    private static long lowerBound(BoundFilter filter) {
+        long value = filter.getLongValue();
+        switch (filter.getOp()) {
+            case EQ:
+            case GTE:
+                return value;
+            case GT:
+                return value + 1;
+            default:
+                return Long.MIN_VALUE;
+        }
+    }
+
+    private static long upperBound(BoundFilter filter) {
+        long value = filter.getLongValue();
+        switch (filter.getOp()) {
+            case EQ:
+            case LTE:
+                return value;
+            case LT:
+                return value - 1;
+            default:
+                return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Checks for the comparisons whose bound would overflow, which no value satisfies
+     */
+    private static boolean emptyRange(BoundFilter filter) {
+        Filter.Op op = filter.getOp();
+        return op == Filter.Op.GT && filter.getLongValue() == Long.MAX_VALUE
+                || op == Filter.Op.LT && filter.getLongValue() == Long.MIN_VALUE;
+    }
+
+    private static int selectInts(int[] values, int size, long lower, long upper, int[] selection, int count,
+                                  boolean first) {
+        if (lower > upper || lower > Integer.MAX_VALUE || upper < Integer.MIN_VALUE) {
+            return 0;
+        }
+        int lo = (int) Math.max(lower, Integer.MIN_VALUE);
+        int hi = (int) Math.min(upper, Integer.MAX_VALUE);
+        int selected = 0;
+        if (first) {
+            for (int row = 0; row < size; row++) {
+                int value = values[row];
+                selection[selected] = row;
+                selected += (value >= lo & value <= hi) ? 1 : 0;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                int value = values[row];
+                selection[selected] = row;
+                selected += (value >= lo & value <= hi) ? 1 : 0;
+            }
+        }
+        return selected;
+    }
+
+    private static int selectLongs(long[] values, int size, long lo, long hi, int[] selection, int count,
+                                   boolean first) {
+        if (lo > hi) {
+            return 0;
+        }
+        int selected = 0;
+        if (first) {
+            for (int row = 0; row < size; row++) {
+                long value = values[row];
+                selection[selected] = row;
+                selected += (value >= lo & value <= hi) ? 1 : 0;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                long value = values[row];
+                selection[selected] = row;
+                selected += (value >= lo & value <= hi) ? 1 : 0;
+            }
+        }
+        return selected;
+    }
+
+    private static int selectDoubles(DoubleBatchColumn column, BoundFilter filter, int[] selection, int count,
+                                     boolean first) {
+        double[] values = column.getValues();
+        double literal = filter.getDoubleValue();
+        Filter.Op op = filter.getOp();
+        int size = first ? column.size() : count;
+        int selected = 0;
+        for (int i = 0; i < size; i++) {
+            int row = first ? i : selection[i];
+            if (op.test(Double.compare(values[row], literal))) {
+                selection[selected++] = row;
+            }
+        }
+        return selected;
+    }
+
+    private static int selectStrings(StringBatchColumn column, BoundFilter filter, int[] selection, int count,
+                                     boolean first) {
+        String[] dictionary = column.getDictionary();
+        int[] codes = column.getCodes();
+        if (filter.getOp() == Filter.Op.EQ) {
+            for (int code = 0; code < dictionary.length; code++) {
+                if (dictionary[code].equals(filter.getStringValue())) {
+                    return selectInts(codes, column.size(), code, code, selection, count, first);
+                }
+            }
+            return 0;
+        }
+        boolean[] matching = new boolean[dictionary.length];
+        for (int code = 0; code < dictionary.length; code++) {
+            matching[code] = filter.getOp().test(dictionary[code].compareTo(filter.getStringValue()));
+        }
+        int size = first ? column.size() : count;
+        int selected = 0;
+        for (int i = 0; i < size; i++) {
+            int row = first ? i : selection[i];
+            int code = codes[row];
+            if (code >= 0 && matching[code]) {
+                selection[selected++] = row;
+            }
+        }
+        return selected;
+    }
+
+    private static int dropNulls(BatchColumn column, int[] selection, int count) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = selection[i];
+            if (!column.isNull(row)) {
+                selection[kept++] = row;
+            }
+        }
+        return kept;
+    }
+}
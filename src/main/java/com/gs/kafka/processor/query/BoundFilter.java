@@ -0,0 +1,133 @@
+package com.gs.kafka.processor.query;
+
+import com.gs.kafka.processor.sink.ColumnStats;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.ColumnVector;
+import com.gs.kafka.processor.sink.Schema;
+
+/**
+ * {@link Filter} resolved against a schema, with the literal converted to the column type so
+ * rows are compared without boxing.
+ */
+final class BoundFilter {
+
+    private final int column;
+    private final ColumnType type;
+    private final Filter.Op op;
+    private final long longValue;
+    private final double doubleValue;
+    private final String stringValue;
+
+    BoundFilter(Filter filter, Schema schema) {
+        this.column = schema.indexOf(filter.getColumn());
+        this.type = schema.get(column).getType();
+        this.op = filter.getOp();
+        Object value = filter.getValue();
+        if (type == ColumnType.STRING) {
+            if (!(value instanceof String)) {
+                throw new IllegalArgumentException("column " + filter.getColumn() + " needs a String literal: " + filter);
+            }
+            this.stringValue = (String) value;
+            this.longValue = 0;
+            this.doubleValue = 0;
+        } else {
+            if (!(value instanceof Number)) {
+                throw new IllegalArgumentException("column " + filter.getColumn() + " needs a numeric literal: " + filter);
+            }
+            this.stringValue = null;
+            this.longValue = ((Number) value).longValue();
+            this.doubleValue = ((Number) value).doubleValue();
+            if (type != ColumnType.DOUBLE && longValue != doubleValue) {
+                throw new IllegalArgumentException("column " + filter.getColumn() + " needs an integral literal: " + filter);
+            }
+        }
+    }
+
+    int getColumn() {
+        return column;
+    }
+
+    ColumnType getType() {
+        return type;
+    }
+
+    Filter.Op getOp() {
+        return op;
+    }
+
+    long getLongValue() {
+        return longValue;
+    }
+
+    double getDoubleValue() {
+        return doubleValue;
+    }
+
+    String getStringValue() {
+        return stringValue;
+    }
+
+    boolean matches(ColumnVector vector, int row) {
+        switch (type) {
+            case INT:
+            case LONG:
+                return op.test(Long.compare(vector.getLong(row), longValue));
+            case DOUBLE:
+                return op.test(Double.compare(vector.getDouble(row), doubleValue));
+            default:
+                return op.test(vector.getString(row).compareTo(stringValue));
+        }
+    }
+
+    /**
+     * Checks whether any value in {@code [min, max]} can satisfy the filter
+     * @return false only if no row of a file with these bounds can match
+     */
+    boolean mightMatch(Comparable<?> min, Comparable<?> max) {
+        int minComparison = compareToLiteral(min);
+        int maxComparison = compareToLiteral(max);
+        switch (op) {
+            case EQ:
+                return minComparison <= 0 && maxComparison >= 0;
+            case LT:
+                return minComparison < 0;
+            case LTE:
+                return minComparison <= 0;
+            case GT:
+                return maxComparison > 0;
+            default:
+                return maxComparison >= 0;
+        }
+    }
+
+    /**
+     * Checks whether a file with these stats can hold a matching row; NaN bounds, as written for
+     * a column holding NaN or by writers that let NaN into both bounds, never prune
+     * @return false only if no row of the file can match
+     */
+    boolean mightMatch(ColumnStats stats) {
+        if (stats.isEmpty()) {
+            return false;
+        }
+        if (type == ColumnType.DOUBLE && (isNaN(stats.getMin()) || isNaN(stats.getMax()))) {
+            return true;
+        }
+        return mightMatch(stats.getMin(), stats.getMax());
+    }
+
+    private static boolean isNaN(Comparable<?> value) {
+        return Double.isNaN(((Number) value).doubleValue());
+    }
+
+    private int compareToLiteral(Comparable<?> value) {
+        switch (type) {
+            case INT:
+            case LONG:
+                return Long.compare(((Number) value).longValue(), longValue);
+            case DOUBLE:
+                return Double.compare(((Number) value).doubleValue(), doubleValue);
+            default:
+                return ((String) value).compareTo(stringValue);
+        }
+    }
+}
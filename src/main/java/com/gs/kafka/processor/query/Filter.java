@@ -0,0 +1,90 @@
+package com.gs.kafka.processor.query;
+
+/**
+ * Comparison of one column against a literal. Filters passed to a {@link TableScan} are
+ * combined with AND.
+ */
+public final class Filter {
+
+    /**
+     * Comparison operator.
+     */
+    public enum Op {
+        EQ("="),
+        LT("<"),
+        LTE("<="),
+        GT(">"),
+        GTE(">=");
+
+        private final String symbol;
+
+        Op(String symbol) {
+            this.symbol = symbol;
+        }
+
+        boolean test(int comparison) {
+            switch (this) {
+                case EQ:
+                    return comparison == 0;
+                case LT:
+                    return comparison < 0;
+                case LTE:
+                    return comparison <= 0;
+                case GT:
+                    return comparison > 0;
+                default:
+                    return comparison >= 0;
+            }
+        }
+    }
+
+    private final String column;
+    private final Op op;
+    private final Comparable<?> value;
+
+    private Filter(String column, Op op, Comparable<?> value) {
+        if (column == null || value == null) {
+            throw new IllegalArgumentException("filter column and value must not be null");
+        }
+        this.column = column;
+        this.op = op;
+        this.value = value;
+    }
+
+    public static Filter eq(String column, Comparable<?> value) {
+        return new Filter(column, Op.EQ, value);
+    }
+
+    public static Filter lt(String column, Comparable<?> value) {
+        return new Filter(column, Op.LT, value);
+    }
+
+    public static Filter lte(String column, Comparable<?> value) {
+        return new Filter(column, Op.LTE, value);
+    }
+
+    public static Filter gt(String column, Comparable<?> value) {
+        return new Filter(column, Op.GT, value);
+    }
+
+    public static Filter gte(String column, Comparable<?> value) {
+        return new Filter(column, Op.GTE, value);
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    public Comparable<?> getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return column + ' ' + op.symbol + ' ' + value;
+    }
+}
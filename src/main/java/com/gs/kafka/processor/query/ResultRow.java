@@ -0,0 +1,59 @@
+package com.gs.kafka.processor.query;
+
+import com.gs.kafka.processor.sink.ColumnVector;
+
+/**
+ * Cursor over one matching row of a scan. Columns are addressed by their position in the
+ * projection. The same instance is reused for every row, so values must be copied out if they
+ * are kept beyond {@link RowConsumer#accept}.
+ */
+public final class ResultRow {
+
+    private final ColumnVector[] columns;
+    private int row;
+
+    ResultRow(ColumnVector[] columns) {
+        this.columns = columns;
+    }
+
+    ResultRow at(int newRow) {
+        row = newRow;
+        return this;
+    }
+
+    public int size() {
+        return columns.length;
+    }
+
+    public int getInt(int column) {
+        return columns[column].getInt(row);
+    }
+
+    public long getLong(int column) {
+        return columns[column].getLong(row);
+    }
+
+    public double getDouble(int column) {
+        return columns[column].getDouble(row);
+    }
+
+    public String getString(int column) {
+        return columns[column].getString(row);
+    }
+
+    public Comparable<?> getValue(int column) {
+        return columns[column].getValue(row);
+    }
+
+    /**
+     * Copies the row out of the cursor
+     * @return boxed values in projection order
+     */
+    public Object[] toArray() {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getValue(i);
+        }
+        return values;
+    }
+}
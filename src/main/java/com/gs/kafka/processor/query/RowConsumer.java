@@ -0,0 +1,9 @@
+package com.gs.kafka.processor.query;
+
+/**
+ * Receives the rows that pass a {@link TableScan}.
+ */
+public interface RowConsumer {
+
+    void accept(ResultRow row);
+}
@@ -0,0 +1,94 @@
+package com.gs.kafka.processor.query;
+
+/**
+ * Work done by one {@link TableScan}, to verify that pruning skips files.
+ */
+public final class ScanMetrics {
+
+    private long filesTotal;
+    private long filesPrunedByPartition;
+    private long filesPrunedByStats;
+    private long filesScanned;
+    private long columnsDecoded;
+    private long bytesRead;
+    private long rowsScanned;
+    private long rowsMatched;
+
+    void fileConsidered() {
+        filesTotal++;
+    }
+
+    void prunedByPartition() {
+        filesPrunedByPartition++;
+    }
+
+    void prunedByStats() {
+        filesPrunedByStats++;
+    }
+
+    void fileScanned(int rows) {
+        filesScanned++;
+        rowsScanned += rows;
+    }
+
+    void columnDecoded(long bytes) {
+        columnsDecoded++;
+        bytesRead += bytes;
+    }
+
+    void rowMatched() {
+        rowsMatched++;
+    }
+
+    public long getFilesTotal() {
+        return filesTotal;
+    }
+
+    public long getFilesPrunedByPartition() {
+        return filesPrunedByPartition;
+    }
+
+    public long getFilesPrunedByStats() {
+        return filesPrunedByStats;
+    }
+
+    public long getFilesPruned() {
+        return filesPrunedByPartition + filesPrunedByStats;
+    }
+
+    public long getFilesScanned() {
+        return filesScanned;
+    }
+
+    /**
+     * Gets the number of column chunks read, across all scanned files
+     * @return decoded chunk count
+     */
+    public long getColumnsDecoded() {
+        return columnsDecoded;
+    }
+
+    /**
+     * Gets the stored (compressed) size of all decoded column chunks
+     * @return bytes read from data files
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getRowsScanned() {
+        return rowsScanned;
+    }
+
+    public long getRowsMatched() {
+        return rowsMatched;
+    }
+
+    @Override
+    public String toString() {
+        return "ScanMetrics{filesTotal=" + filesTotal + ", filesScanned=" + filesScanned
+                + ", prunedByPartition=" + filesPrunedByPartition + ", prunedByStats=" + filesPrunedByStats
+                + ", columnsDecoded=" + columnsDecoded + ", bytesRead=" + bytesRead
+                + ", rowsScanned=" + rowsScanned + ", rowsMatched=" + rowsMatched + '}';
+    }
+}
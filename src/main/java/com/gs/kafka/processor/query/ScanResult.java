@@ -0,0 +1,29 @@
+package com.gs.kafka.processor.query;
+
+import com.gs.collections.api.list.MutableList;
+
+/**
+ * Materialized rows of a {@link TableScan#collect()} together with its metrics.
+ */
+public final class ScanResult {
+
+    private final MutableList<Object[]> rows;
+    private final ScanMetrics metrics;
+
+    ScanResult(MutableList<Object[]> rows, ScanMetrics metrics) {
+        this.rows = rows;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the matching rows, each holding the projected columns in order
+     * @return result rows
+     */
+    public MutableList<Object[]> getRows() {
+        return rows;
+    }
+
+    public ScanMetrics getMetrics() {
+        return metrics;
+    }
+}
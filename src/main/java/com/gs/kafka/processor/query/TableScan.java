@@ -0,0 +1,210 @@
+package com.gs.kafka.processor.query;
+
+import java.io.IOException;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.kafka.processor.sink.ColumnChunkReader;
+import com.gs.kafka.processor.sink.ColumnVector;
+import com.gs.kafka.processor.sink.DataFileMeta;
+import com.gs.kafka.processor.sink.DataFileReader;
+import com.gs.kafka.processor.sink.MappedDataFileReader;
+import com.gs.kafka.processor.sink.Schema;
+import com.gs.kafka.processor.sink.Snapshot;
+import com.gs.kafka.processor.sink.Table;
+
+/**
+ * Read path over a committed snapshot of a {@link Table}.
+ * <p>
+ * Files are skipped without being opened when a filter on the partition column excludes their
+ * partition value, or when a filter cannot match anything between the file's min and max for the
+ * filtered column. In the remaining files the filter columns are decoded first and the other
+ * projected columns only if at least one row matches.
+ */
+public class TableScan {
+
+    private final Table table;
+    private final MutableList<Filter> filters = FastList.newList();
+    private String[] projection;
+    private long snapshotId = -1;
+    private boolean memoryMapped = true;
+
+    public TableScan(Table table) {
+        this.table = table;
+    }
+
+    /**
+     * Restricts the output to the given columns; all columns are returned by default
+     * @param columns column names in output order
+     * @return this scan
+     */
+    public TableScan select(String... columns) {
+        this.projection = columns.clone();
+        return this;
+    }
+
+    /**
+     * Adds a filter, ANDed with the filters already added
+     * @param filter row filter
+     * @return this scan
+     */
+    public TableScan filter(Filter filter) {
+        filters.add(filter);
+        return this;
+    }
+
+    /**
+     * Reads an older snapshot instead of the current one
+     * @param id snapshot id
+     * @return this scan
+     */
+    public TableScan useSnapshot(long id) {
+        this.snapshotId = id;
+        return this;
+    }
+
+    /**
+     * Chooses between {@link MappedDataFileReader}, the default, and the stream based
+     * {@link DataFileReader}
+     * @param mapped whether data files are memory-mapped
+     * @return this scan
+     */
+    public TableScan useMemoryMapping(boolean mapped) {
+        this.memoryMapped = mapped;
+        return this;
+    }
+
+    /**
+     * Runs the scan and materializes the matching rows
+     * @return rows and metrics
+     * @throws IOException if metadata or data files cannot be read
+     */
+    public ScanResult collect() throws IOException {
+        MutableList<Object[]> rows = FastList.newList();
+        ScanMetrics metrics = forEach(row -> rows.add(row.toArray()));
+        return new ScanResult(rows, metrics);
+    }
+
+    /**
+     * Runs the scan, handing every matching row to the consumer
+     * @param consumer receives a reused cursor per row
+     * @return what the scan read and skipped
+     * @throws IOException if metadata or data files cannot be read
+     */
+    public ScanMetrics forEach(RowConsumer consumer) throws IOException {
+        Schema schema = table.getSchema();
+        int[] projected = projectedColumns(schema);
+        MutableList<BoundFilter> bound = filters.collect(filter -> new BoundFilter(filter, schema));
+        Snapshot snapshot = snapshotId < 0 ? table.currentSnapshot() : table.snapshot(snapshotId);
+        ScanMetrics metrics = new ScanMetrics();
+
+        for (DataFileMeta file : table.dataFiles(snapshot)) {
+            metrics.fileConsidered();
+            if (prunedByPartition(schema, file, bound)) {
+                metrics.prunedByPartition();
+                continue;
+            }
+            if (prunedByStats(file, bound)) {
+                metrics.prunedByStats();
+                continue;
+            }
+            scanFile(file, projected, bound, consumer, metrics);
+        }
+        return metrics;
+    }
+
+    private void scanFile(DataFileMeta file, int[] projected, MutableList<BoundFilter> bound, RowConsumer consumer,
+                          ScanMetrics metrics) throws IOException {
+        try (ColumnChunkReader reader = open(file)) {
+            int rowCount = reader.getRowCount();
+            metrics.fileScanned(rowCount);
+            ColumnVector[] decoded = new ColumnVector[table.getSchema().size()];
+            for (BoundFilter filter : bound) {
+                decode(reader, decoded, filter.getColumn(), metrics);
+            }
+
+            int[] selected = new int[rowCount];
+            int matches = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (allMatch(bound, decoded, row)) {
+                    selected[matches++] = row;
+                }
+            }
+            if (matches == 0) {
+                return;
+            }
+
+            ColumnVector[] output = new ColumnVector[projected.length];
+            for (int i = 0; i < projected.length; i++) {
+                output[i] = decode(reader, decoded, projected[i], metrics);
+            }
+            ResultRow cursor = new ResultRow(output);
+            for (int i = 0; i < matches; i++) {
+                metrics.rowMatched();
+                consumer.accept(cursor.at(selected[i]));
+            }
+        }
+    }
+
+    private static boolean allMatch(MutableList<BoundFilter> bound, ColumnVector[] decoded, int row) {
+        for (int i = 0; i < bound.size(); i++) {
+            BoundFilter filter = bound.get(i);
+            if (!filter.matches(decoded[filter.getColumn()], row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ColumnChunkReader open(DataFileMeta file) throws IOException {
+        return memoryMapped
+                ? new MappedDataFileReader(table.resolve(file.getPath()))
+                : new DataFileReader(table.resolve(file.getPath()));
+    }
+
+    private static ColumnVector decode(ColumnChunkReader reader, ColumnVector[] decoded, int column, ScanMetrics metrics)
+            throws IOException {
+        if (decoded[column] == null) {
+            decoded[column] = reader.readColumn(column);
+            metrics.columnDecoded(reader.getFooter().getChunk(column).getCompressedLength());
+        }
+        return decoded[column];
+    }
+
+    private static boolean prunedByPartition(Schema schema, DataFileMeta file, MutableList<BoundFilter> bound) {
+        if (!schema.isPartitioned()) {
+            return false;
+        }
+        for (BoundFilter filter : bound) {
+            if (filter.getColumn() == schema.getPartitionColumn()
+                    && !filter.mightMatch(file.getPartitionValue(), file.getPartitionValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean prunedByStats(DataFileMeta file, MutableList<BoundFilter> bound) {
+        for (BoundFilter filter : bound) {
+            if (!filter.mightMatch(file.getStats(filter.getColumn()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] projectedColumns(Schema schema) {
+        if (projection == null) {
+            int[] all = new int[schema.size()];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] indexes = new int[projection.length];
+        for (int i = 0; i < projection.length; i++) {
+            indexes[i] = schema.indexOf(projection[i]);
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,65 @@
+package com.gs.kafka.processor.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * {@link RingBuffer} for any number of producer threads and one consumer thread. Producers claim
+ * runs of slots with a compare-and-set on a shared sequence and publish each slot by stamping it
+ * with the lap number of its sequence, so producers that claimed later can publish first without
+ * exposing the slots of a slower one.
+ * @param <E> element type
+ */
+public final class MpscRingBuffer<E> extends RingBuffer<E> {
+
+    private static final VarHandle LAPS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Sequence claimed = new Sequence(0);
+    /** Lap number of the sequence last published into each slot */
+    private final int[] laps;
+    private final int lapShift;
+
+    MpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        this.laps = new int[capacity];
+        Arrays.fill(laps, -1);
+        this.lapShift = Integer.numberOfTrailingZeros(capacity);
+    }
+
+    @Override
+    public long tryClaim(int n) {
+        checkBatch(n);
+        while (true) {
+            long first = claimed.get();
+            long end = first + n;
+            if (end - consumer.getAcquire() > entries.length) {
+                return -1;
+            }
+            if (claimed.compareAndSet(first, end)) {
+                return first;
+            }
+        }
+    }
+
+    @Override
+    public void publish(long first, int n) {
+        for (long sequence = first; sequence < first + n; sequence++) {
+            LAPS.setRelease(laps, (int) sequence & mask, (int) (sequence >>> lapShift));
+        }
+    }
+
+    @Override
+    long availableUpTo(long next, long limit) {
+        long sequence = next;
+        while (sequence < limit && (int) LAPS.getAcquire(laps, (int) sequence & mask) == (int) (sequence >>> lapShift)) {
+            sequence++;
+        }
+        return sequence;
+    }
+
+    @Override
+    long producerPosition() {
+        return claimed.get();
+    }
+}
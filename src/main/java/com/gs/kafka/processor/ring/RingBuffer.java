@@ -0,0 +1,254 @@
+package com.gs.kafka.processor.ring;
+
+import com.gs.collections.api.block.procedure.Procedure;
+import com.gs.collections.api.list.MutableList;
+
+/**
+ * Bounded, pre-allocated handoff between threads over a power-of-two array of slots.
+ * <p>
+ * Producers claim a run of slots, fill them with {@link #set} and make them visible with
+ * {@link #publish}; {@link #offer}, {@link #put} and {@link #putAll} wrap those steps. A single
+ * consumer thread takes elements with {@link #poll}, {@link #take} or, for a whole run of
+ * published slots at once, {@link #drain}. Nothing is allocated per element, and the producer and
+ * consumer positions live on separate cache lines. Null elements are not allowed.
+ * @param <E> element type
+ */
+public abstract class RingBuffer<E> {
+
+    final Object[] entries;
+    final int mask;
+    final WaitStrategy waitStrategy;
+    /** Next sequence the consumer will read; producers must not lap it */
+    final Sequence consumer = new Sequence(0);
+
+    RingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a positive power of two: " + capacity);
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("waitStrategy must not be null");
+        }
+        this.entries = new Object[capacity];
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Creates a ring for exactly one producer thread and one consumer thread
+     * @param capacity number of slots, a power of two
+     * @param waitStrategy how blocked calls wait
+     * @return the ring
+     */
+    public static <E> SpscRingBuffer<E> spsc(int capacity, WaitStrategy waitStrategy) {
+        return new SpscRingBuffer<>(capacity, waitStrategy);
+    }
+
+    /**
+     * Creates a ring for any number of producer threads and one consumer thread
+     * @param capacity number of slots, a power of two
+     * @param waitStrategy how blocked calls wait
+     * @return the ring
+     */
+    public static <E> MpscRingBuffer<E> mpsc(int capacity, WaitStrategy waitStrategy) {
+        return new MpscRingBuffer<>(capacity, waitStrategy);
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Estimates the number of elements claimed but not yet consumed
+     * @return approximate size, exact only while no other thread is active
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(entries.length, producerPosition() - consumer.get()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Claims {@code n} consecutive slots if they are free
+     * @param n number of slots, at most the capacity
+     * @return first claimed sequence, or -1 if the ring has fewer free slots
+     */
+    public abstract long tryClaim(int n);
+
+    /**
+     * Makes the claimed slots {@code [first, first + n)} visible to the consumer
+     * @param first first sequence returned by the claim
+     * @param n number of slots claimed
+     */
+    public abstract void publish(long first, int n);
+
+    /**
+     * Gets the end of the run of consecutively published sequences starting at {@code next}
+     * @param next consumer position
+     * @param limit upper bound of the result
+     * @return exclusive end of the readable run, {@code next} if nothing is readable
+     */
+    abstract long availableUpTo(long next, long limit);
+
+    /**
+     * Gets how far producers have claimed, for {@link #size()}
+     * @return claimed or published position
+     */
+    abstract long producerPosition();
+
+    /**
+     * Claims {@code n} consecutive slots, waiting with the wait strategy until they are free
+     * @param n number of slots, at most the capacity
+     * @return first claimed sequence
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public long claim(int n) throws InterruptedException {
+        int attempt = 0;
+        while (true) {
+            long first = tryClaim(n);
+            if (first >= 0) {
+                return first;
+            }
+            idle(attempt++);
+        }
+    }
+
+    /**
+     * Fills a claimed slot; the element becomes visible on {@link #publish}
+     * @param sequence claimed sequence
+     * @param element element to hand off
+     */
+    public void set(long sequence, E element) {
+        if (element == null) {
+            throw new NullPointerException("ring elements must not be null");
+        }
+        entries[(int) sequence & mask] = element;
+    }
+
+    /**
+     * Hands off one element if a slot is free
+     * @param element element to hand off
+     * @return false if the ring is full
+     */
+    public boolean offer(E element) {
+        long sequence = tryClaim(1);
+        if (sequence < 0) {
+            return false;
+        }
+        set(sequence, element);
+        publish(sequence, 1);
+        return true;
+    }
+
+    /**
+     * Hands off one element, waiting for a free slot
+     * @param element element to hand off
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void put(E element) throws InterruptedException {
+        long sequence = claim(1);
+        set(sequence, element);
+        publish(sequence, 1);
+    }
+
+    /**
+     * Hands off all elements in order, claiming and publishing them in runs of up to the capacity
+     * @param elements elements to hand off
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void putAll(MutableList<? extends E> elements) throws InterruptedException {
+        int index = 0;
+        while (index < elements.size()) {
+            int n = Math.min(elements.size() - index, entries.length);
+            long first = claim(n);
+            for (int i = 0; i < n; i++) {
+                set(first + i, elements.get(index + i));
+            }
+            publish(first, n);
+            index += n;
+        }
+    }
+
+    /**
+     * Takes the next element if one is published
+     * @return the element, null if the ring is empty
+     */
+    public E poll() {
+        long next = consumer.get();
+        if (availableUpTo(next, next + 1) == next) {
+            return null;
+        }
+        E element = consume(next);
+        consumer.setRelease(next + 1);
+        return element;
+    }
+
+    /**
+     * Takes the next element, waiting with the wait strategy until one is published
+     * @return the element
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public E take() throws InterruptedException {
+        int attempt = 0;
+        while (true) {
+            E element = poll();
+            if (element != null) {
+                return element;
+            }
+            idle(attempt++);
+        }
+    }
+
+    /**
+     * Hands every published element, up to {@code max}, to the procedure and frees their slots
+     * with a single update of the consumer position
+     * @param procedure receives the elements in order
+     * @param max largest number of elements to take
+     * @return number of elements taken
+     */
+    public int drain(Procedure<? super E> procedure, int max) {
+        long next = consumer.get();
+        long end = availableUpTo(next, next + max);
+        for (long sequence = next; sequence < end; sequence++) {
+            procedure.value(consume(sequence));
+        }
+        if (end > next) {
+            consumer.setRelease(end);
+        }
+        return (int) (end - next);
+    }
+
+    /**
+     * Moves published elements, up to {@code max}, into the target list
+     * @return number of elements moved
+     */
+    public int drainTo(MutableList<? super E> target, int max) {
+        return drain(target::add, max);
+    }
+
+    void checkBatch(int n) {
+        if (n <= 0 || n > entries.length) {
+            throw new IllegalArgumentException("cannot claim " + n + " slots of a ring of " + entries.length);
+        }
+    }
+
+    private void idle(int attempt) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        waitStrategy.idle(attempt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E consume(long sequence) {
+        int index = (int) sequence & mask;
+        E element = (E) entries[index];
+        entries[index] = null;
+        return element;
+    }
+}
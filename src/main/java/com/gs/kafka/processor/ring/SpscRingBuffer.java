@@ -0,0 +1,64 @@
+package com.gs.kafka.processor.ring;
+
+/**
+ * {@link RingBuffer} for one producer thread and one consumer thread. Claims need no atomic
+ * instruction, and each side caches the other's last seen position so the shared cache line is
+ * only read when the cached value says the ring is full or empty.
+ * @param <E> element type
+ */
+public final class SpscRingBuffer<E> extends RingBuffer<E> {
+
+    /** Sequences published to the consumer */
+    private final Sequence published = new Sequence(0);
+    /** Producer only: next sequence to claim */
+    private final Sequence claimed = new Sequence(0);
+    /** Producer only: consumer position seen last */
+    private final Sequence consumerCache = new Sequence(0);
+    /** Consumer only: published position seen last */
+    private final Sequence publishedCache = new Sequence(0);
+
+    SpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    @Override
+    public long tryClaim(int n) {
+        checkBatch(n);
+        long first = claimed.get();
+        long end = first + n;
+        if (end - consumerCache.get() > entries.length) {
+            long current = consumer.getAcquire();
+            consumerCache.setRelease(current);
+            if (end - current > entries.length) {
+                return -1;
+            }
+        }
+        claimed.setRelease(end);
+        return first;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Claims must be published in the order they were made.
+     */
+    @Override
+    public void publish(long first, int n) {
+        published.setRelease(first + n);
+    }
+
+    @Override
+    long availableUpTo(long next, long limit) {
+        long available = publishedCache.get();
+        if (available <= next) {
+            available = published.getAcquire();
+            publishedCache.setRelease(available);
+        }
+        return Math.min(available, limit);
+    }
+
+    @Override
+    long producerPosition() {
+        return published.get();
+    }
+}
@@ -0,0 +1,64 @@
+package com.gs.kafka.processor.ring;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * What a producer facing a full ring, or a consumer facing an empty one, does between retries.
+ * Strategies trade CPU burned while idle against wake-up latency.
+ */
+public enum WaitStrategy {
+
+    /**
+     * Spins on the CPU. Lowest latency, but occupies a core while idle and starves the other
+     * side if both share one.
+     */
+    BUSY_SPIN {
+        @Override
+        public void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /**
+     * Spins briefly, then yields the core to other runnable threads.
+     */
+    YIELD {
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * Spins, yields, then parks for growing intervals capped at {@link #MAX_PARK_NANOS}.
+     * Cheapest while idle, slowest to react.
+     */
+    PARK {
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                int shift = Math.min(attempt - SPIN_TRIES - YIELD_TRIES, 10);
+                LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << shift, MAX_PARK_NANOS));
+            }
+        }
+    };
+
+    static final int SPIN_TRIES = 100;
+    static final int YIELD_TRIES = 100;
+    static final long MIN_PARK_NANOS = 1_000;
+    static final long MAX_PARK_NANOS = 1_000_000;
+
+    /**
+     * Waits once before the caller retries
+     * @param attempt number of consecutive failed attempts so far, starting at 0
+     */
+    public abstract void idle(int attempt);
+}
@@ -0,0 +1,20 @@
+package com.gs.kafka.processor.runtime;
+
+/**
+ * How a {@link PartitionedRuntime} maps partitions onto threads.
+ */
+public enum ExecutionMode {
+
+    /**
+     * A fixed pool of {@link RuntimeConfig#getWorkers()} platform threads, each owning the
+     * partitions with {@code partition % workers == worker}. Suits CPU-bound stages.
+     */
+    FIXED_POOL,
+
+    /**
+     * One virtual thread per partition. A stage that blocks on I/O parks its virtual thread and
+     * frees the carrier for other partitions, so blocking stages overlap without a platform
+     * thread per partition. The worker count is ignored.
+     */
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,170 @@
+package com.gs.kafka.processor.runtime;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.kafka.processor.pipeline.Record;
+
+/**
+ * In-process stand-in for a Kafka topic: every partition is an append-only in-memory log and
+ * committed offsets are kept per consumer group. All methods are thread-safe.
+ */
+public class FakeBroker {
+
+    private final PartitionLog[] logs;
+    private final ConcurrentMap<String, AtomicLongArray> committed = new ConcurrentHashMap<>();
+
+    public FakeBroker(int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        this.logs = new PartitionLog[partitions];
+        for (int i = 0; i < partitions; i++) {
+            logs[i] = new PartitionLog();
+        }
+    }
+
+    /**
+     * Creates a broker holding {@code recordsPerPartition} int records in every partition
+     * @param partitions number of partitions
+     * @param recordsPerPartition records appended to each partition
+     * @return the broker
+     */
+    public static FakeBroker ofInts(int partitions, int recordsPerPartition) {
+        FakeBroker broker = new FakeBroker(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            for (int i = 0; i < recordsPerPartition; i++) {
+                broker.appendInt(partition, "key-" + (i % 1024), i % 100);
+            }
+        }
+        return broker;
+    }
+
+    public int getPartitionCount() {
+        return logs.length;
+    }
+
+    /**
+     * Appends a record to the end of a partition
+     * @param partition target partition
+     * @param key message key, may be null
+     * @param value payload
+     * @return offset assigned to the record
+     */
+    public long append(int partition, String key, byte[] value) {
+        return log(partition).append(partition, key, value);
+    }
+
+    /**
+     * Appends a record whose payload is a single int, see {@link Record#ofInt}
+     * @return offset assigned to the record
+     */
+    public long appendInt(int partition, String key, int value) {
+        return log(partition).appendInt(partition, key, value);
+    }
+
+    /**
+     * Reads records in offset order
+     * @param partition partition to read
+     * @param offset first offset to return
+     * @param maxRecords upper bound on the batch size
+     * @return up to {@code maxRecords} records, empty at the end of the log
+     */
+    public MutableList<Record> fetch(int partition, long offset, int maxRecords) {
+        if (maxRecords <= 0) {
+            throw new IllegalArgumentException("maxRecords must be positive: " + maxRecords);
+        }
+        return log(partition).fetch(offset, maxRecords);
+    }
+
+    /**
+     * Gets the offset the next appended record will get
+     * @param partition partition to inspect
+     * @return log end offset
+     */
+    public long getEndOffset(int partition) {
+        return log(partition).size();
+    }
+
+    /**
+     * Records the position of a consumer group
+     * @param group consumer group
+     * @param partition partition the offset belongs to
+     * @param offset next offset the group has to process
+     */
+    public void commit(String group, int partition, long offset) {
+        log(partition);
+        offsets(group).set(partition, offset);
+    }
+
+    /**
+     * Gets the position committed by a consumer group
+     * @return next offset to process, 0 if the group never committed
+     */
+    public long getCommittedOffset(String group, int partition) {
+        log(partition);
+        return offsets(group).get(partition);
+    }
+
+    /**
+     * Sums how far a consumer group trails the end of every partition
+     * @param group consumer group
+     * @return uncommitted records
+     */
+    public long getLag(String group) {
+        AtomicLongArray offsets = offsets(group);
+        long lag = 0;
+        for (int partition = 0; partition < logs.length; partition++) {
+            lag += getEndOffset(partition) - offsets.get(partition);
+        }
+        return lag;
+    }
+
+    private AtomicLongArray offsets(String group) {
+        return committed.computeIfAbsent(group, name -> new AtomicLongArray(logs.length));
+    }
+
+    private PartitionLog log(int partition) {
+        if (partition < 0 || partition >= logs.length) {
+            throw new IllegalArgumentException("no partition " + partition + " in a topic of " + logs.length);
+        }
+        return logs[partition];
+    }
+
+    private static final class PartitionLog {
+
+        private final MutableList<Record> records = FastList.newList();
+
+        synchronized long append(int partition, String key, byte[] value) {
+            long offset = records.size();
+            records.add(new Record(partition, offset, key, value, System.currentTimeMillis()));
+            return offset;
+        }
+
+        synchronized long appendInt(int partition, String key, int value) {
+            long offset = records.size();
+            records.add(Record.ofInt(partition, offset, key, value));
+            return offset;
+        }
+
+        synchronized MutableList<Record> fetch(long offset, int maxRecords) {
+            if (offset < 0 || offset > records.size()) {
+                throw new IllegalArgumentException("offset " + offset + " outside log of " + records.size());
+            }
+            int start = (int) offset;
+            int end = Math.min(records.size(), start + maxRecords);
+            MutableList<Record> batch = FastList.newList(end - start);
+            for (int i = start; i < end; i++) {
+                batch.add(records.get(i));
+            }
+            return batch;
+        }
+
+        synchronized int size() {
+            return records.size();
+        }
+    }
+}
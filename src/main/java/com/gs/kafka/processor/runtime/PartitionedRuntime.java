@@ -0,0 +1,166 @@
+package com.gs.kafka.processor.runtime;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.collections.impl.list.primitive.IntInterval;
+import com.gs.kafka.processor.pipeline.BatchSink;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.PipelineException;
+import com.gs.kafka.processor.pipeline.Record;
+
+/**
+ * Consumes every partition of a {@link FakeBroker} topic on a pool of worker threads or, in
+ * {@link ExecutionMode#VIRTUAL_THREADS}, on one virtual thread per partition.
+ * <p>
+ * Each partition is owned by exactly one worker, so its records are processed and handed to the
+ * sink in offset order. A batch's offsets are committed for the consumer group only after
+ * {@link BatchSink#write} returns, which makes delivery at-least-once: after a failure the next
+ * run resumes from the first unacknowledged batch. The processor and the sink are called from
+ * several workers concurrently, with batches of different partitions, and must be thread-safe; a
+ * stateful stage such as a {@code WindowAggregationStage} cannot be shared between partitions.
+ * @param <O> element type handed to the sink
+ */
+public class PartitionedRuntime<O> {
+
+    private final FakeBroker broker;
+    private final String group;
+    private final BatchStage<Record, O> processor;
+    private final BatchSink<O> sink;
+    private final RuntimeConfig config;
+
+    /**
+     * @param broker broker holding the topic
+     * @param group consumer group whose committed offsets are resumed from and advanced
+     * @param processor stage applied to each fetched batch, from several partition threads at once
+     * @param sink receives each processed batch, from several partition threads at once
+     */
+    public PartitionedRuntime(FakeBroker broker, String group, BatchStage<Record, O> processor, BatchSink<O> sink) {
+        this(broker, group, processor, sink, RuntimeConfig.defaults());
+    }
+
+    /**
+     * @param processor stage applied to each fetched batch, from several partition threads at once,
+     *                  so it must be thread-safe
+     * @param config execution mode, worker count and batch size
+     */
+    public PartitionedRuntime(FakeBroker broker, String group, BatchStage<Record, O> processor, BatchSink<O> sink,
+                              RuntimeConfig config) {
+        this.broker = broker;
+        this.group = group;
+        this.processor = processor;
+        this.sink = sink;
+        this.config = config;
+    }
+
+    /**
+     * Processes every partition from the group's committed offset up to the log end offset seen
+     * when the run starts, and waits for all workers to finish
+     * @return counts, timing and thread usage of the run
+     * @throws PipelineException if processing or the sink throws, or the calling thread is interrupted
+     */
+    public RuntimeResult run() {
+        int partitions = broker.getPartitionCount();
+        long[] endOffsets = new long[partitions];
+        for (int partition = 0; partition < partitions; partition++) {
+            endOffsets[partition] = broker.getEndOffset(partition);
+        }
+        boolean virtual = config.getExecutionMode() == ExecutionMode.VIRTUAL_THREADS;
+        int workers = virtual ? partitions : Math.min(config.getWorkers(), partitions);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Counters counters = new Counters();
+        ThreadFactory factory = virtual
+                ? Thread.ofVirtual().name("partition-", 0).factory()
+                : Thread.ofPlatform().name("partition-worker-", 0).daemon().factory();
+        ExecutorService executor = virtual
+                ? Executors.newThreadPerTaskExecutor(counting(factory, counters))
+                : Executors.newFixedThreadPool(workers, counting(factory, counters));
+        long start = System.nanoTime();
+        try {
+            MutableList<Future<?>> futures = FastList.newList(workers);
+            for (int worker = 0; worker < workers; worker++) {
+                int[] owned = IntInterval.fromToBy(worker, partitions - 1, workers).toArray();
+                futures.add(executor.submit(() -> consume(owned, endOffsets, failure, counters)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PipelineException("Interrupted while running partitions", e);
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (failure.get() != null) {
+            throw new PipelineException("Partition worker failed", failure.get());
+        }
+        return new RuntimeResult(counters.records.get(), counters.batches.get(), counters.written.get(), elapsed,
+                config.getExecutionMode(), workers, counters.peakLiveThreads.get());
+    }
+
+    /**
+     * Wraps a thread factory so the threads it creates are counted while they run
+     */
+    private static ThreadFactory counting(ThreadFactory factory, Counters counters) {
+        return task -> factory.newThread(() -> {
+            counters.peakLiveThreads.accumulateAndGet(counters.liveThreads.incrementAndGet(), Math::max);
+            try {
+                task.run();
+            } finally {
+                counters.liveThreads.decrementAndGet();
+            }
+        });
+    }
+
+    private void consume(int[] partitions, long[] endOffsets, AtomicReference<Throwable> failure, Counters counters) {
+        long[] positions = new long[partitions.length];
+        for (int i = 0; i < partitions.length; i++) {
+            positions[i] = broker.getCommittedOffset(group, partitions[i]);
+        }
+        try {
+            boolean pending = true;
+            // One batch per partition per round keeps the owned partitions progressing evenly
+            while (pending && failure.get() == null) {
+                pending = false;
+                for (int i = 0; i < partitions.length; i++) {
+                    int partition = partitions[i];
+                    if (positions[i] >= endOffsets[partition]) {
+                        continue;
+                    }
+                    int max = (int) Math.min(config.getBatchSize(), endOffsets[partition] - positions[i]);
+                    MutableList<Record> batch = broker.fetch(partition, positions[i], max);
+                    MutableList<O> output = processor.apply(batch);
+                    sink.write(output);
+                    positions[i] = batch.getLast().getOffset() + 1;
+                    broker.commit(group, partition, positions[i]);
+                    counters.records.addAndGet(batch.size());
+                    counters.batches.incrementAndGet();
+                    counters.written.addAndGet(output.size());
+                    pending |= positions[i] < endOffsets[partition];
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private static final class Counters {
+        final AtomicLong records = new AtomicLong();
+        final AtomicLong batches = new AtomicLong();
+        final AtomicLong written = new AtomicLong();
+        final AtomicInteger liveThreads = new AtomicInteger();
+        final AtomicInteger peakLiveThreads = new AtomicInteger();
+    }
+}
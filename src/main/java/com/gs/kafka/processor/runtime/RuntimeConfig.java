@@ -0,0 +1,78 @@
+package com.gs.kafka.processor.runtime;
+
+/**
+ * Threading and batching settings of a {@link PartitionedRuntime}.
+ */
+public final class RuntimeConfig {
+
+    public static final int DEFAULT_BATCH_SIZE = 2048;
+
+    private final int workers;
+    private final int batchSize;
+    private final ExecutionMode executionMode;
+
+    public RuntimeConfig(int workers, int batchSize) {
+        this(workers, batchSize, ExecutionMode.FIXED_POOL);
+    }
+
+    public RuntimeConfig(int workers, int batchSize, ExecutionMode executionMode) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (executionMode == null) {
+            throw new IllegalArgumentException("executionMode must not be null");
+        }
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * Creates a configuration with one worker per available processor
+     * @return default settings
+     */
+    public static RuntimeConfig defaults() {
+        return new RuntimeConfig(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Gets the number of worker threads; partitions are assigned to workers by
+     * {@code partition % workers}
+     * @return worker count
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Gets the largest number of records fetched and processed as one batch
+     * @return records per batch
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public RuntimeConfig withWorkers(int count) {
+        return new RuntimeConfig(count, batchSize, executionMode);
+    }
+
+    public RuntimeConfig withBatchSize(int size) {
+        return new RuntimeConfig(workers, size, executionMode);
+    }
+
+    public RuntimeConfig withExecutionMode(ExecutionMode mode) {
+        return new RuntimeConfig(workers, batchSize, mode);
+    }
+
+    @Override
+    public String toString() {
+        return "RuntimeConfig{workers=" + workers + ", batchSize=" + batchSize + ", executionMode=" + executionMode + '}';
+    }
+}
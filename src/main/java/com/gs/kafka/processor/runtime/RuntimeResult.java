@@ -0,0 +1,54 @@
+package com.gs.kafka.processor.runtime;
+
+import com.gs.kafka.processor.pipeline.PipelineResult;
+
+/**
+ * Outcome of one {@link PartitionedRuntime#run()}, with the thread usage of the run next to the
+ * throughput figures.
+ */
+public final class RuntimeResult extends PipelineResult {
+
+    private final ExecutionMode executionMode;
+    private final int threadsStarted;
+    private final int peakLiveThreads;
+
+    public RuntimeResult(long records, long batches, long written, long elapsedNanos, ExecutionMode executionMode,
+                         int threadsStarted, int peakLiveThreads) {
+        super(records, batches, written, elapsedNanos);
+        this.executionMode = executionMode;
+        this.threadsStarted = threadsStarted;
+        this.peakLiveThreads = peakLiveThreads;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Gets the number of threads the run started: platform threads in
+     * {@link ExecutionMode#FIXED_POOL}, virtual threads in {@link ExecutionMode#VIRTUAL_THREADS}
+     * @return threads started
+     */
+    public int getThreadsStarted() {
+        return threadsStarted;
+    }
+
+    /**
+     * Gets the highest number of threads started by the run that were running at once, counted by
+     * the thread factory of its executor: platform threads in {@link ExecutionMode#FIXED_POOL},
+     * virtual threads in {@link ExecutionMode#VIRTUAL_THREADS}. The carrier threads virtual threads
+     * run on belong to the JDK and are not counted
+     * @return peak live thread count
+     */
+    public int getPeakLiveThreads() {
+        return peakLiveThreads;
+    }
+
+    @Override
+    public String toString() {
+        return "RuntimeResult{records=" + getRecords() + ", batches=" + getBatches() + ", written=" + getWritten()
+                + ", elapsedNanos=" + getElapsedNanos() + ", recordsPerSecond=" + (long) recordsPerSecond()
+                + ", executionMode=" + executionMode + ", threadsStarted=" + threadsStarted
+                + ", peakLiveThreads=" + peakLiveThreads + '}';
+    }
+}
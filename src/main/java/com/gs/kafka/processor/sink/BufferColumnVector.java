@@ -0,0 +1,82 @@
+package com.gs.kafka.processor.sink;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link ColumnVector} over an uncompressed column chunk held in a {@link ByteBuffer},
+ * which may be a heap copy or a region of a mapped file.
+ */
+public final class BufferColumnVector implements ColumnVector {
+
+    private final ColumnType type;
+    private final ByteBuffer chunk;
+    private final int size;
+    private final int dataStart;
+
+    /**
+     * @param type column type
+     * @param chunk chunk bytes from position 0 to limit; the buffer is not copied
+     * @param size number of values
+     */
+    public BufferColumnVector(ColumnType type, ByteBuffer chunk, int size) {
+        this.type = type;
+        this.chunk = chunk.order(ByteOrder.LITTLE_ENDIAN);
+        this.size = size;
+        this.dataStart = type == ColumnType.STRING ? 4 * (size + 1) : 0;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return type;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getInt(int row) {
+        checkType(ColumnType.INT);
+        return chunk.getInt(4 * row);
+    }
+
+    @Override
+    public long getLong(int row) {
+        if (type == ColumnType.INT) {
+            return chunk.getInt(4 * row);
+        }
+        checkType(ColumnType.LONG);
+        return chunk.getLong(8 * row);
+    }
+
+    @Override
+    public double getDouble(int row) {
+        checkType(ColumnType.DOUBLE);
+        return chunk.getDouble(8 * row);
+    }
+
+    @Override
+    public String getString(int row) {
+        checkType(ColumnType.STRING);
+        int start = chunk.getInt(4 * row);
+        int end = chunk.getInt(4 * row + 4);
+        int length = end - start;
+        if (chunk.hasArray()) {
+            return new String(chunk.array(), chunk.arrayOffset() + dataStart + start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = chunk.duplicate();
+        view.position(dataStart + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void checkType(ColumnType expected) {
+        if (type != expected) {
+            throw new UnsupportedOperationException("column is " + type + ", not " + expected);
+        }
+    }
+}
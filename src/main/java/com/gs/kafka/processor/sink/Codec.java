@@ -0,0 +1,87 @@
+package com.gs.kafka.processor.sink;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression applied to each column chunk of a data file.
+ */
+public enum Codec {
+    NONE {
+        @Override
+        public byte[] compress(byte[] data, int length) {
+            return length == data.length ? data : Arrays.copyOf(data, length);
+        }
+
+        @Override
+        public byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) {
+            return Arrays.copyOfRange(data, offset, offset + length);
+        }
+    },
+    DEFLATE {
+        @Override
+        public byte[] compress(byte[] data, int length) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(data, 0, length);
+                deflater.finish();
+                byte[] out = new byte[Math.max(64, length + length / 1000 + 64)];
+                int written = 0;
+                while (!deflater.finished()) {
+                    if (written == out.length) {
+                        out = Arrays.copyOf(out, out.length * 2);
+                    }
+                    written += deflater.deflate(out, written, out.length - written);
+                }
+                return Arrays.copyOf(out, written);
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data, offset, length);
+                byte[] out = new byte[uncompressedLength];
+                int read = 0;
+                while (read < uncompressedLength) {
+                    int n = inflater.inflate(out, read, uncompressedLength - read);
+                    if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                        break;
+                    }
+                    read += n;
+                }
+                if (read != uncompressedLength) {
+                    throw new IllegalStateException("column chunk inflated to " + read + " bytes, expected " + uncompressedLength);
+                }
+                return out;
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("corrupt column chunk", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    /**
+     * Compresses the first {@code length} bytes of {@code data}
+     * @param data input buffer
+     * @param length number of bytes to compress
+     * @return compressed bytes
+     */
+    public abstract byte[] compress(byte[] data, int length);
+
+    /**
+     * Restores a chunk produced by {@link #compress}
+     * @param data buffer holding the chunk
+     * @param offset chunk start
+     * @param length compressed length
+     * @param uncompressedLength expected output length
+     * @return uncompressed bytes
+     */
+    public abstract byte[] decompress(byte[] data, int offset, int length, int uncompressedLength);
+}
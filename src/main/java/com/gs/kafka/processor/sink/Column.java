@@ -0,0 +1,51 @@
+package com.gs.kafka.processor.sink;
+
+/**
+ * Named, typed column of a {@link Schema}.
+ */
+public final class Column {
+
+    private final String name;
+    private final ColumnType type;
+
+    public Column(String name, ColumnType type) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("column name must not be empty");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("column type must not be null");
+        }
+        this.name = name;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Column)) {
+            return false;
+        }
+        Column other = (Column) o;
+        return name.equals(other.name) && type == other.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + type.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name + ' ' + type;
+    }
+}
@@ -0,0 +1,219 @@
+package com.gs.kafka.processor.sink;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable in-memory column that accumulates one partition's values before they are written
+ * as a column chunk. Tracks min/max as values arrive.
+ */
+abstract class ColumnBuffer {
+
+    protected int size;
+
+    static ColumnBuffer create(ColumnType type) {
+        switch (type) {
+            case INT:
+                return new IntColumn();
+            case LONG:
+                return new LongColumn();
+            case DOUBLE:
+                return new DoubleColumn();
+            case STRING:
+                return new StringColumn();
+            default:
+                throw new IllegalArgumentException("unsupported type: " + type);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void appendLong(long value) {
+        throw new UnsupportedOperationException(getClass().getSimpleName());
+    }
+
+    void appendDouble(double value) {
+        throw new UnsupportedOperationException(getClass().getSimpleName());
+    }
+
+    void appendString(String value) {
+        throw new UnsupportedOperationException(getClass().getSimpleName());
+    }
+
+    /**
+     * @return approximate bytes the encoded chunk will take before compression
+     */
+    abstract long encodedBytes();
+
+    /**
+     * @return the chunk in the little-endian layout described by {@link DataFileFooter}
+     */
+    abstract byte[] encode();
+
+    abstract ColumnStats stats();
+
+    static final class IntColumn extends ColumnBuffer {
+        private int[] values = new int[64];
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+
+        @Override
+        void appendLong(long value) {
+            int v = (int) value;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = v;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+
+        @Override
+        long encodedBytes() {
+            return 4L * size;
+        }
+
+        @Override
+        byte[] encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(4 * size).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asIntBuffer().put(values, 0, size);
+            return buffer.array();
+        }
+
+        @Override
+        ColumnStats stats() {
+            return size == 0 ? new ColumnStats(ColumnType.INT, null, null) : new ColumnStats(ColumnType.INT, min, max);
+        }
+    }
+
+    static final class LongColumn extends ColumnBuffer {
+        private long[] values = new long[64];
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        @Override
+        void appendLong(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        @Override
+        long encodedBytes() {
+            return 8L * size;
+        }
+
+        @Override
+        byte[] encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(8 * size).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asLongBuffer().put(values, 0, size);
+            return buffer.array();
+        }
+
+        @Override
+        ColumnStats stats() {
+            return size == 0 ? new ColumnStats(ColumnType.LONG, null, null) : new ColumnStats(ColumnType.LONG, min, max);
+        }
+    }
+
+    static final class DoubleColumn extends ColumnBuffer {
+        private double[] values = new double[64];
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        @Override
+        void appendDouble(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            // Same total order as Double.compare, which the scan uses for rows: NaN sorts above
+            // +Infinity, so a NaN value becomes the max instead of poisoning both bounds
+            if (Double.compare(value, min) < 0) {
+                min = value;
+            }
+            if (Double.compare(value, max) > 0) {
+                max = value;
+            }
+        }
+
+        @Override
+        long encodedBytes() {
+            return 8L * size;
+        }
+
+        @Override
+        byte[] encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(8 * size).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asDoubleBuffer().put(values, 0, size);
+            return buffer.array();
+        }
+
+        @Override
+        ColumnStats stats() {
+            return size == 0 ? new ColumnStats(ColumnType.DOUBLE, null, null) : new ColumnStats(ColumnType.DOUBLE, min, max);
+        }
+    }
+
+    /**
+     * Stores UTF-8 bytes back to back with an end offset per value.
+     */
+    static final class StringColumn extends ColumnBuffer {
+        private byte[] bytes = new byte[1024];
+        private int[] ends = new int[64];
+        private int byteCount;
+        private String min;
+        private String max;
+
+        @Override
+        void appendString(String value) {
+            if (value == null) {
+                throw new IllegalArgumentException("null strings are not supported");
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            if (byteCount + utf8.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + utf8.length));
+            }
+            System.arraycopy(utf8, 0, bytes, byteCount, utf8.length);
+            byteCount += utf8.length;
+            if (size == ends.length) {
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            ends[size++] = byteCount;
+            if (min == null || value.compareTo(min) < 0) {
+                min = value;
+            }
+            if (max == null || value.compareTo(max) > 0) {
+                max = value;
+            }
+        }
+
+        @Override
+        long encodedBytes() {
+            return 4L * (size + 1) + byteCount;
+        }
+
+        @Override
+        byte[] encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(4 * (size + 1) + byteCount).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0);
+            for (int i = 0; i < size; i++) {
+                buffer.putInt(ends[i]);
+            }
+            buffer.put(bytes, 0, byteCount);
+            return buffer.array();
+        }
+
+        @Override
+        ColumnStats stats() {
+            return new ColumnStats(ColumnType.STRING, min, max);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.gs.kafka.processor.sink;
+
+/**
+ * Location and encoding of one column's values inside a data file.
+ */
+public final class ColumnChunk {
+
+    private final long offset;
+    private final int compressedLength;
+    private final int uncompressedLength;
+    private final Codec codec;
+    private final ColumnStats stats;
+
+    public ColumnChunk(long offset, int compressedLength, int uncompressedLength, Codec codec, ColumnStats stats) {
+        this.offset = offset;
+        this.compressedLength = compressedLength;
+        this.uncompressedLength = uncompressedLength;
+        this.codec = codec;
+        this.stats = stats;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getCompressedLength() {
+        return compressedLength;
+    }
+
+    public int getUncompressedLength() {
+        return uncompressedLength;
+    }
+
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public ColumnStats getStats() {
+        return stats;
+    }
+}
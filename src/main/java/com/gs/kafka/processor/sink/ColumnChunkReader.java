@@ -0,0 +1,24 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Random access to the column chunks of one data file.
+ */
+public interface ColumnChunkReader extends Closeable {
+
+    DataFileFooter getFooter();
+
+    default int getRowCount() {
+        return getFooter().getRowCount();
+    }
+
+    /**
+     * Reads one column
+     * @param column schema index of the column
+     * @return the column values
+     * @throws IOException if the file cannot be read
+     */
+    ColumnVector readColumn(int column) throws IOException;
+}
@@ -0,0 +1,99 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Minimum and maximum of one column within one data file, used to skip files at query time.
+ */
+public final class ColumnStats {
+
+    private final ColumnType type;
+    private final Comparable<?> min;
+    private final Comparable<?> max;
+
+    /**
+     * @param type column type
+     * @param min smallest value, null when the file has no rows
+     * @param max largest value, null when the file has no rows
+     */
+    public ColumnStats(ColumnType type, Comparable<?> min, Comparable<?> max) {
+        this.type = type;
+        this.min = min;
+        this.max = max;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    public Comparable<?> getMin() {
+        return min;
+    }
+
+    public Comparable<?> getMax() {
+        return max;
+    }
+
+    public boolean isEmpty() {
+        return min == null;
+    }
+
+    /**
+     * Combines the ranges of two files of the same column
+     * @param other stats to merge
+     * @return stats covering both ranges
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ColumnStats merge(ColumnStats other) {
+        if (isEmpty()) {
+            return other;
+        }
+        if (other.isEmpty()) {
+            return this;
+        }
+        Comparable newMin = ((Comparable) min).compareTo(other.min) <= 0 ? min : other.min;
+        Comparable newMax = ((Comparable) max).compareTo(other.max) >= 0 ? max : other.max;
+        return new ColumnStats(type, newMin, newMax);
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeBoolean(!isEmpty());
+        if (!isEmpty()) {
+            Values.write(out, type, min);
+            Values.write(out, type, max);
+        }
+    }
+
+    static ColumnStats read(DataInput in, ColumnType type) throws IOException {
+        if (!in.readBoolean()) {
+            return new ColumnStats(type, null, null);
+        }
+        return new ColumnStats(type, Values.read(in, type), Values.read(in, type));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ColumnStats)) {
+            return false;
+        }
+        ColumnStats other = (ColumnStats) o;
+        return type == other.type
+                && (min == null ? other.min == null : min.equals(other.min))
+                && (max == null ? other.max == null : max.equals(other.max));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * type.hashCode() + (min == null ? 0 : min.hashCode())) + (max == null ? 0 : max.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "[" + min + ", " + max + ']';
+    }
+}
@@ -0,0 +1,29 @@
+package com.gs.kafka.processor.sink;
+
+/**
+ * Physical type of a table column.
+ */
+public enum ColumnType {
+    INT(4),
+    LONG(8),
+    DOUBLE(8),
+    STRING(-1);
+
+    private final int width;
+
+    ColumnType(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Gets the encoded size of one value
+     * @return bytes per value, -1 for variable width
+     */
+    public int width() {
+        return width;
+    }
+
+    public boolean isFixedWidth() {
+        return width > 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.gs.kafka.processor.sink;
+
+/**
+ * Read access to the values of one column chunk. Only the accessor matching
+ * {@link #getType()} is supported; INT columns may also be read with {@link #getLong(int)}.
+ */
+public interface ColumnVector {
+
+    ColumnType getType();
+
+    int size();
+
+    int getInt(int row);
+
+    long getLong(int row);
+
+    double getDouble(int row);
+
+    String getString(int row);
+
+    /**
+     * Reads a value boxed, for generic comparisons
+     * @param row row index
+     * @return the value as Integer, Long, Double or String
+     */
+    default Comparable<?> getValue(int row) {
+        switch (getType()) {
+            case INT:
+                return getInt(row);
+            case LONG:
+                return getLong(row);
+            case DOUBLE:
+                return getDouble(row);
+            default:
+                return getString(row);
+        }
+    }
+}
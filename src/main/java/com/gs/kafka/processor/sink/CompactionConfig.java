@@ -0,0 +1,125 @@
+package com.gs.kafka.processor.sink;
+
+/**
+ * File selection and output settings of a {@link TableCompactor}.
+ */
+public final class CompactionConfig {
+
+    public static final long DEFAULT_TARGET_FILE_BYTES = SinkConfig.DEFAULT_TARGET_FILE_BYTES;
+    public static final int DEFAULT_MIN_INPUT_FILES = 4;
+
+    private final long targetFileBytes;
+    private final long smallFileBytes;
+    private final int minInputFiles;
+    private final long maxInputBytes;
+    private final String sortColumn;
+    private final Codec codec;
+
+    /**
+     * @param targetFileBytes size of the rewritten files
+     * @param smallFileBytes files below this size are compacted
+     * @param minInputFiles fewest small files of a partition worth rewriting together
+     * @param maxInputBytes most bytes of input files read into memory for one rewrite
+     * @param sortColumn column the rewritten rows are sorted by, null to keep their order
+     * @param codec compression of the rewritten files
+     */
+    public CompactionConfig(long targetFileBytes, long smallFileBytes, int minInputFiles, long maxInputBytes,
+                            String sortColumn, Codec codec) {
+        if (targetFileBytes <= 0) {
+            throw new IllegalArgumentException("targetFileBytes must be positive: " + targetFileBytes);
+        }
+        if (smallFileBytes <= 0) {
+            throw new IllegalArgumentException("smallFileBytes must be positive: " + smallFileBytes);
+        }
+        if (minInputFiles < 2) {
+            throw new IllegalArgumentException("minInputFiles must be at least 2: " + minInputFiles);
+        }
+        if (maxInputBytes < smallFileBytes) {
+            throw new IllegalArgumentException("maxInputBytes " + maxInputBytes + " is below smallFileBytes "
+                    + smallFileBytes);
+        }
+        if (codec == null) {
+            throw new IllegalArgumentException("codec must not be null");
+        }
+        this.targetFileBytes = targetFileBytes;
+        this.smallFileBytes = smallFileBytes;
+        this.minInputFiles = minInputFiles;
+        this.maxInputBytes = maxInputBytes;
+        this.sortColumn = sortColumn;
+        this.codec = codec;
+    }
+
+    /**
+     * Compacts files below three quarters of the sink's default target size, four at a time or
+     * more, reading up to four target sizes at once, without sorting
+     */
+    public static CompactionConfig defaults() {
+        return new CompactionConfig(DEFAULT_TARGET_FILE_BYTES, DEFAULT_TARGET_FILE_BYTES / 4 * 3,
+                DEFAULT_MIN_INPUT_FILES, DEFAULT_TARGET_FILE_BYTES * 4, null, Codec.DEFLATE);
+    }
+
+    /**
+     * Gets the uncompressed size at which a rewritten file is closed
+     * @return bytes per output file before compression
+     */
+    public long getTargetFileBytes() {
+        return targetFileBytes;
+    }
+
+    public long getSmallFileBytes() {
+        return smallFileBytes;
+    }
+
+    public int getMinInputFiles() {
+        return minInputFiles;
+    }
+
+    public long getMaxInputBytes() {
+        return maxInputBytes;
+    }
+
+    /**
+     * Gets the column rewritten rows are ordered by, which tightens its per-file min and max so
+     * scans filtering on it skip more files
+     * @return column name, null to keep the input order
+     */
+    public String getSortColumn() {
+        return sortColumn;
+    }
+
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public CompactionConfig withTargetFileBytes(long bytes) {
+        return new CompactionConfig(bytes, smallFileBytes, minInputFiles, maxInputBytes, sortColumn, codec);
+    }
+
+    public CompactionConfig withSmallFileBytes(long bytes) {
+        return new CompactionConfig(targetFileBytes, bytes, minInputFiles, maxInputBytes, sortColumn, codec);
+    }
+
+    public CompactionConfig withMinInputFiles(int files) {
+        return new CompactionConfig(targetFileBytes, smallFileBytes, files, maxInputBytes, sortColumn, codec);
+    }
+
+    public CompactionConfig withMaxInputBytes(long bytes) {
+        return new CompactionConfig(targetFileBytes, smallFileBytes, minInputFiles, bytes, sortColumn, codec);
+    }
+
+    public CompactionConfig withSortColumn(String column) {
+        return new CompactionConfig(targetFileBytes, smallFileBytes, minInputFiles, maxInputBytes, column, codec);
+    }
+
+    public CompactionConfig withCodec(Codec newCodec) {
+        return new CompactionConfig(targetFileBytes, smallFileBytes, minInputFiles, maxInputBytes, sortColumn,
+                newCodec);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactionConfig{targetFileBytes=" + targetFileBytes + ", smallFileBytes=" + smallFileBytes
+                + ", minInputFiles=" + minInputFiles + ", maxInputBytes=" + maxInputBytes + ", sortColumn="
+                + sortColumn + ", codec=" + codec + '}';
+    }
+}
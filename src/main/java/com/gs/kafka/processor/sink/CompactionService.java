@@ -0,0 +1,102 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link TableCompactor} on a background daemon thread at a fixed delay between passes.
+ * <p>
+ * Writers keep appending through {@link TableWriter}s of the same {@link Table} instance, whose
+ * commits are serialized with the compactor's. A failed pass is recorded and retried on the next
+ * schedule; the files it wrote are deleted by the compactor.
+ */
+public class CompactionService implements Closeable {
+
+    private final TableCompactor compactor;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+
+    private volatile long passes;
+    private volatile long failures;
+    private volatile Exception lastFailure;
+
+    /**
+     * Starts compacting
+     * @param compactor compactor to run
+     * @param intervalMillis delay between the end of a pass and the start of the next
+     */
+    public CompactionService(TableCompactor compactor, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis must be positive: " + intervalMillis);
+        }
+        this.compactor = compactor;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("table-compactor").daemon().factory());
+        executor.scheduleWithFixedDelay(this::runPass, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void runPass() {
+        try {
+            compactor.compact();
+        } catch (IOException | RuntimeException e) {
+            // Throwing would cancel the schedule
+            failures++;
+            lastFailure = e;
+        }
+        passes++;
+    }
+
+    public TableCompactor getCompactor() {
+        return compactor;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Gets the number of finished passes, including those that found nothing to compact
+     * @return pass count
+     */
+    public long getPasses() {
+        return passes;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Gets the exception of the most recent failed pass
+     * @return the failure, or null if no pass failed
+     */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Stops scheduling passes and waits for a running one to commit
+     * @throws IOException if interrupted while waiting
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for compaction to finish");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompactionService{" + compactor + ", intervalMillis=" + intervalMillis + ", passes=" + passes
+                + ", failures=" + failures + '}';
+    }
+}
@@ -0,0 +1,116 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Footer of a data file, which describes where each column chunk lives.
+ * <p>
+ * File layout: the 4 byte magic {@code KIPD}, the column chunks back to back, the footer, the
+ * footer length as a little-endian int and the magic again. Chunk payloads are little-endian:
+ * INT, LONG and DOUBLE chunks are plain value arrays; STRING chunks are {@code rowCount + 1}
+ * int offsets followed by the UTF-8 bytes. Chunks may be compressed as a whole by their
+ * {@link Codec}. The footer itself is written with {@link DataOutputStream}.
+ */
+public final class DataFileFooter {
+
+    static final int MAGIC = 0x4B495044;
+    static final int VERSION = 1;
+    static final int TAIL_BYTES = 8;
+
+    private final Schema schema;
+    private final int rowCount;
+    private final ColumnChunk[] chunks;
+
+    public DataFileFooter(Schema schema, int rowCount, ColumnChunk[] chunks) {
+        this.schema = schema;
+        this.rowCount = rowCount;
+        this.chunks = chunks;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public ColumnChunk getChunk(int column) {
+        return chunks[column];
+    }
+
+    byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(VERSION);
+        schema.write(out);
+        out.writeInt(rowCount);
+        for (ColumnChunk chunk : chunks) {
+            out.writeLong(chunk.getOffset());
+            out.writeInt(chunk.getCompressedLength());
+            out.writeInt(chunk.getUncompressedLength());
+            out.writeByte(chunk.getCodec().ordinal());
+            chunk.getStats().write(out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static DataFileFooter fromBytes(byte[] footer) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer));
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported data file version " + version);
+        }
+        Schema schema = Schema.read(in);
+        int rowCount = in.readInt();
+        ColumnChunk[] chunks = new ColumnChunk[schema.size()];
+        for (int i = 0; i < chunks.length; i++) {
+            long offset = in.readLong();
+            int compressed = in.readInt();
+            int uncompressed = in.readInt();
+            Codec codec = Codec.values()[in.readByte()];
+            chunks[i] = new ColumnChunk(offset, compressed, uncompressed, codec,
+                    ColumnStats.read(in, schema.get(i).getType()));
+        }
+        return new DataFileFooter(schema, rowCount, chunks);
+    }
+
+    /**
+     * Reads the footer from the end of a data file
+     * @param channel open file
+     * @return the footer
+     * @throws IOException if the file is not a data file
+     */
+    public static DataFileFooter read(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < 4 + TAIL_BYTES) {
+            throw new IOException("file too short for a data file: " + size + " bytes");
+        }
+        ByteBuffer tail = ByteBuffer.allocate(TAIL_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, tail, size - TAIL_BYTES);
+        int footerLength = tail.getInt(0);
+        if (tail.getInt(4) != MAGIC || footerLength <= 0 || footerLength > size - 4 - TAIL_BYTES) {
+            throw new IOException("not a data file or corrupt footer");
+        }
+        ByteBuffer footer = ByteBuffer.allocate(footerLength);
+        readFully(channel, footer, size - TAIL_BYTES - footerLength);
+        return fromBytes(footer.array());
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("unexpected end of file");
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Manifest entry for one immutable data file: where it is, which partition it holds and
+ * the per-column statistics needed to prune it without opening it.
+ */
+public final class DataFileMeta {
+
+    private final String path;
+    private final Comparable<?> partitionValue;
+    private final int rowCount;
+    private final long sizeBytes;
+    private final ColumnStats[] stats;
+
+    /**
+     * @param path location relative to the table directory
+     * @param partitionValue identity partition value, null for unpartitioned tables
+     * @param rowCount rows in the file
+     * @param sizeBytes file length
+     * @param stats statistics per schema column
+     */
+    public DataFileMeta(String path, Comparable<?> partitionValue, int rowCount, long sizeBytes, ColumnStats[] stats) {
+        this.path = path;
+        this.partitionValue = partitionValue;
+        this.rowCount = rowCount;
+        this.sizeBytes = sizeBytes;
+        this.stats = stats;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Comparable<?> getPartitionValue() {
+        return partitionValue;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public ColumnStats getStats(int column) {
+        return stats[column];
+    }
+
+    void write(DataOutput out, Schema schema) throws IOException {
+        out.writeUTF(path);
+        out.writeBoolean(partitionValue != null);
+        if (partitionValue != null) {
+            Values.write(out, schema.get(schema.getPartitionColumn()).getType(), partitionValue);
+        }
+        out.writeInt(rowCount);
+        out.writeLong(sizeBytes);
+        for (ColumnStats each : stats) {
+            each.write(out);
+        }
+    }
+
+    static DataFileMeta read(DataInput in, Schema schema) throws IOException {
+        String path = in.readUTF();
+        Comparable<?> partitionValue = in.readBoolean()
+                ? Values.read(in, schema.get(schema.getPartitionColumn()).getType())
+                : null;
+        int rowCount = in.readInt();
+        long sizeBytes = in.readLong();
+        ColumnStats[] stats = new ColumnStats[schema.size()];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = ColumnStats.read(in, schema.get(i).getType());
+        }
+        return new DataFileMeta(path, partitionValue, rowCount, sizeBytes, stats);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof DataFileMeta && path.equals(((DataFileMeta) o).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DataFileMeta{path=" + path + ", partition=" + partitionValue + ", rows=" + rowCount
+                + ", bytes=" + sizeBytes + '}';
+    }
+}
@@ -0,0 +1,64 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads column chunks of a data file through an {@link InputStream}, copying each requested
+ * chunk onto the heap. Columns that are not requested are skipped without being read.
+ */
+public class DataFileReader implements ColumnChunkReader {
+
+    private final Path file;
+    private final DataFileFooter footer;
+
+    public DataFileReader(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.footer = DataFileFooter.read(channel);
+        }
+    }
+
+    @Override
+    public DataFileFooter getFooter() {
+        return footer;
+    }
+
+    @Override
+    public ColumnVector readColumn(int column) throws IOException {
+        ColumnChunk chunk = footer.getChunk(column);
+        byte[] stored = new byte[chunk.getCompressedLength()];
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            long toSkip = chunk.getOffset();
+            while (toSkip > 0) {
+                long skipped = in.skip(toSkip);
+                if (skipped <= 0) {
+                    throw new EOFException("column chunk starts past end of " + file);
+                }
+                toSkip -= skipped;
+            }
+            int read = 0;
+            while (read < stored.length) {
+                int n = in.read(stored, read, stored.length - read);
+                if (n < 0) {
+                    throw new EOFException("column chunk truncated in " + file);
+                }
+                read += n;
+            }
+        }
+        byte[] decoded = chunk.getCodec().decompress(stored, 0, stored.length, chunk.getUncompressedLength());
+        return new BufferColumnVector(footer.getSchema().get(column).getType(), ByteBuffer.wrap(decoded), footer.getRowCount());
+    }
+
+    @Override
+    public void close() {
+        // Streams are opened per column
+    }
+}
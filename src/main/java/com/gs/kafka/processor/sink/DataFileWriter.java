@@ -0,0 +1,49 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes one {@link PartitionBuffer} as an immutable data file in a single sequential pass.
+ */
+final class DataFileWriter {
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private DataFileWriter() {
+    }
+
+    static DataFileMeta write(Path tableDir, String relativePath, Schema schema, PartitionBuffer buffer, Codec codec)
+            throws IOException {
+        Path file = tableDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        ColumnBuffer[] columns = buffer.columns();
+        ColumnChunk[] chunks = new ColumnChunk[columns.length];
+        ColumnStats[] stats = new ColumnStats[columns.length];
+        long position = 0;
+        try (OutputStream stream = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, WRITE_BUFFER_BYTES))) {
+            out.writeInt(DataFileFooter.MAGIC);
+            position += 4;
+            for (int i = 0; i < columns.length; i++) {
+                byte[] encoded = columns[i].encode();
+                byte[] compressed = codec.compress(encoded, encoded.length);
+                out.write(compressed);
+                stats[i] = columns[i].stats();
+                chunks[i] = new ColumnChunk(position, compressed.length, encoded.length, codec, stats[i]);
+                position += compressed.length;
+            }
+            byte[] footer = new DataFileFooter(schema, buffer.getRowCount(), chunks).toBytes();
+            out.write(footer);
+            out.writeInt(Integer.reverseBytes(footer.length));
+            out.writeInt(Integer.reverseBytes(DataFileFooter.MAGIC));
+            position += footer.length + DataFileFooter.TAIL_BYTES;
+        }
+        return new DataFileMeta(relativePath, buffer.getPartitionValue(), buffer.getRowCount(), position, stats);
+    }
+}
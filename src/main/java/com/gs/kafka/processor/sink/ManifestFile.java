@@ -0,0 +1,50 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+
+/**
+ * Immutable list of {@link DataFileMeta} entries written by one commit.
+ */
+final class ManifestFile {
+
+    static final int MAGIC = 0x4B49504D;
+
+    private ManifestFile() {
+    }
+
+    static void write(Path file, Schema schema, Iterable<DataFileMeta> entries) throws IOException {
+        MutableList<DataFileMeta> list = FastList.newList(entries);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE_NEW)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(list.size());
+            for (DataFileMeta entry : list) {
+                entry.write(out, schema);
+            }
+        }
+    }
+
+    static MutableList<DataFileMeta> read(Path file, Schema schema) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a manifest file: " + file);
+            }
+            int count = in.readInt();
+            MutableList<DataFileMeta> entries = FastList.newList(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(DataFileMeta.read(in, schema));
+            }
+            return entries;
+        }
+    }
+}
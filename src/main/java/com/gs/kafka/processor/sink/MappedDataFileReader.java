@@ -0,0 +1,69 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads column chunks straight out of a memory-mapped data file. Uncompressed chunks are handed
+ * out as {@link BufferColumnVector} views over the mapping, so no column bytes are copied onto the
+ * heap; compressed chunks are inflated from the mapping into a heap buffer.
+ * <p>
+ * The mapping stays valid after {@link #close()} and is released when the vectors that reference
+ * it become unreachable.
+ */
+public class MappedDataFileReader implements ColumnChunkReader {
+
+    private final Path file;
+    private final DataFileFooter footer;
+    private final MappedByteBuffer mapped;
+
+    public MappedDataFileReader(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("data file too large to map: " + file + " (" + size + " bytes)");
+            }
+            this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            this.footer = DataFileFooter.read(channel);
+        }
+    }
+
+    @Override
+    public DataFileFooter getFooter() {
+        return footer;
+    }
+
+    @Override
+    public ColumnVector readColumn(int column) throws IOException {
+        ColumnChunk chunk = footer.getChunk(column);
+        ByteBuffer region = region(chunk.getOffset(), chunk.getCompressedLength());
+        ColumnType type = footer.getSchema().get(column).getType();
+        if (chunk.getCodec() == Codec.NONE) {
+            return new BufferColumnVector(type, region, footer.getRowCount());
+        }
+        byte[] stored = new byte[region.remaining()];
+        region.get(stored);
+        byte[] decoded = chunk.getCodec().decompress(stored, 0, stored.length, chunk.getUncompressedLength());
+        return new BufferColumnVector(type, ByteBuffer.wrap(decoded), footer.getRowCount());
+    }
+
+    private ByteBuffer region(long offset, int length) throws IOException {
+        if (offset < 0 || offset + length > mapped.capacity()) {
+            throw new IOException("column chunk [" + offset + ", " + (offset + length) + ") outside " + file);
+        }
+        ByteBuffer region = mapped.duplicate();
+        region.position((int) offset);
+        region.limit((int) offset + length);
+        return region.slice();
+    }
+
+    @Override
+    public void close() {
+        // The channel is closed once mapped; see the class comment for the mapping's lifetime
+    }
+}
@@ -0,0 +1,53 @@
+package com.gs.kafka.processor.sink;
+
+/**
+ * Rows of one partition waiting to be written as a data file, held column by column.
+ */
+final class PartitionBuffer {
+
+    private final Comparable<?> partitionValue;
+    private final ColumnBuffer[] columns;
+    private final long createdMillis;
+    private int rowCount;
+
+    PartitionBuffer(Schema schema, Comparable<?> partitionValue, long createdMillis) {
+        this.partitionValue = partitionValue;
+        this.createdMillis = createdMillis;
+        this.columns = new ColumnBuffer[schema.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = ColumnBuffer.create(schema.get(i).getType());
+        }
+    }
+
+    Comparable<?> getPartitionValue() {
+        return partitionValue;
+    }
+
+    ColumnBuffer column(int index) {
+        return columns[index];
+    }
+
+    ColumnBuffer[] columns() {
+        return columns;
+    }
+
+    long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    void rowAppended() {
+        rowCount++;
+    }
+
+    long encodedBytes() {
+        long bytes = 0;
+        for (ColumnBuffer column : columns) {
+            bytes += column.encodedBytes();
+        }
+        return bytes;
+    }
+}
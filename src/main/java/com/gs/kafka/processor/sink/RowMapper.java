@@ -0,0 +1,10 @@
+package com.gs.kafka.processor.sink;
+
+/**
+ * Copies the fields of a processed element into the next row of a {@link TableWriter}.
+ * @param <T> element type
+ */
+public interface RowMapper<T> {
+
+    void map(T element, TableWriter row);
+}
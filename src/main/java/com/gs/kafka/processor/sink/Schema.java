@@ -0,0 +1,128 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.gs.collections.api.list.ImmutableList;
+import com.gs.collections.api.map.primitive.MutableObjectIntMap;
+import com.gs.collections.impl.factory.Lists;
+import com.gs.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+/**
+ * Ordered columns of a table, optionally identity-partitioned by one INT, LONG or STRING column.
+ */
+public final class Schema {
+
+    private final ImmutableList<Column> columns;
+    private final int partitionColumn;
+    private final MutableObjectIntMap<String> indexes = new ObjectIntHashMap<>();
+
+    /**
+     * @param columns table columns, names unique
+     * @param partitionColumn name of the partition column, or null for an unpartitioned table
+     */
+    public Schema(Iterable<Column> columns, String partitionColumn) {
+        this.columns = Lists.immutable.withAll(columns);
+        if (this.columns.isEmpty()) {
+            throw new IllegalArgumentException("schema needs at least one column");
+        }
+        for (int i = 0; i < this.columns.size(); i++) {
+            String name = this.columns.get(i).getName();
+            if (indexes.containsKey(name)) {
+                throw new IllegalArgumentException("duplicate column: " + name);
+            }
+            indexes.put(name, i);
+        }
+        if (partitionColumn == null) {
+            this.partitionColumn = -1;
+        } else {
+            this.partitionColumn = indexOf(partitionColumn);
+            if (this.columns.get(this.partitionColumn).getType() == ColumnType.DOUBLE) {
+                throw new IllegalArgumentException("cannot partition by DOUBLE column: " + partitionColumn);
+            }
+        }
+    }
+
+    public static Schema of(String partitionColumn, Column... columns) {
+        return new Schema(Lists.fixedSize.of(columns), partitionColumn);
+    }
+
+    public ImmutableList<Column> getColumns() {
+        return columns;
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    public Column get(int index) {
+        return columns.get(index);
+    }
+
+    /**
+     * Looks up a column position by name
+     * @param name column name
+     * @return column index
+     * @throws IllegalArgumentException for an unknown column
+     */
+    public int indexOf(String name) {
+        if (!indexes.containsKey(name)) {
+            throw new IllegalArgumentException("unknown column: " + name);
+        }
+        return indexes.get(name);
+    }
+
+    /**
+     * Gets the partition column position
+     * @return column index, -1 when the table is unpartitioned
+     */
+    public int getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    public boolean isPartitioned() {
+        return partitionColumn >= 0;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(columns.size());
+        for (Column column : columns) {
+            out.writeUTF(column.getName());
+            out.writeByte(column.getType().ordinal());
+        }
+        out.writeInt(partitionColumn);
+    }
+
+    static Schema read(DataInput in) throws IOException {
+        int count = in.readInt();
+        Column[] columns = new Column[count];
+        for (int i = 0; i < count; i++) {
+            columns[i] = new Column(in.readUTF(), ColumnType.values()[in.readByte()]);
+        }
+        int partition = in.readInt();
+        return Schema.of(partition < 0 ? null : columns[partition].getName(), columns);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Schema)) {
+            return false;
+        }
+        Schema other = (Schema) o;
+        return partitionColumn == other.partitionColumn && columns.equals(other.columns);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * columns.hashCode() + partitionColumn;
+    }
+
+    @Override
+    public String toString() {
+        return "Schema" + columns + (isPartitioned() ? " partitioned by " + columns.get(partitionColumn).getName() : "");
+    }
+}
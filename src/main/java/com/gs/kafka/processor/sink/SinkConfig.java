@@ -0,0 +1,71 @@
+package com.gs.kafka.processor.sink;
+
+/**
+ * Rolling and compression settings of a {@link TableWriter}.
+ */
+public final class SinkConfig {
+
+    public static final long DEFAULT_TARGET_FILE_BYTES = 128L << 20;
+    public static final long DEFAULT_ROLL_INTERVAL_MILLIS = 60_000;
+
+    private final long targetFileBytes;
+    private final long rollIntervalMillis;
+    private final Codec codec;
+
+    public SinkConfig(long targetFileBytes, long rollIntervalMillis, Codec codec) {
+        if (targetFileBytes <= 0) {
+            throw new IllegalArgumentException("targetFileBytes must be positive: " + targetFileBytes);
+        }
+        if (rollIntervalMillis <= 0) {
+            throw new IllegalArgumentException("rollIntervalMillis must be positive: " + rollIntervalMillis);
+        }
+        if (codec == null) {
+            throw new IllegalArgumentException("codec must not be null");
+        }
+        this.targetFileBytes = targetFileBytes;
+        this.rollIntervalMillis = rollIntervalMillis;
+        this.codec = codec;
+    }
+
+    public static SinkConfig defaults() {
+        return new SinkConfig(DEFAULT_TARGET_FILE_BYTES, DEFAULT_ROLL_INTERVAL_MILLIS, Codec.DEFLATE);
+    }
+
+    /**
+     * Gets the uncompressed size at which a partition's buffer is written out
+     * @return bytes per data file before compression
+     */
+    public long getTargetFileBytes() {
+        return targetFileBytes;
+    }
+
+    /**
+     * Gets the longest time rows stay buffered before everything is committed
+     * @return interval in milliseconds
+     */
+    public long getRollIntervalMillis() {
+        return rollIntervalMillis;
+    }
+
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public SinkConfig withTargetFileBytes(long bytes) {
+        return new SinkConfig(bytes, rollIntervalMillis, codec);
+    }
+
+    public SinkConfig withRollIntervalMillis(long millis) {
+        return new SinkConfig(targetFileBytes, millis, codec);
+    }
+
+    public SinkConfig withCodec(Codec newCodec) {
+        return new SinkConfig(targetFileBytes, rollIntervalMillis, newCodec);
+    }
+
+    @Override
+    public String toString() {
+        return "SinkConfig{targetFileBytes=" + targetFileBytes + ", rollIntervalMillis=" + rollIntervalMillis
+                + ", codec=" + codec + '}';
+    }
+}
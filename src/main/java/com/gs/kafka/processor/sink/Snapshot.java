@@ -0,0 +1,106 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.gs.collections.api.list.ImmutableList;
+import com.gs.collections.impl.factory.Lists;
+
+/**
+ * Committed state of a table: the manifests whose data files together make up the table.
+ * Snapshots are immutable; every commit writes a new one pointing at its parent.
+ */
+public final class Snapshot {
+
+    static final int MAGIC = 0x4B495053;
+
+    private final long id;
+    private final long parentId;
+    private final long timestampMillis;
+    private final String operation;
+    private final Schema schema;
+    private final ImmutableList<String> manifests;
+
+    public Snapshot(long id, long parentId, long timestampMillis, String operation, Schema schema,
+                    ImmutableList<String> manifests) {
+        this.id = id;
+        this.parentId = parentId;
+        this.timestampMillis = timestampMillis;
+        this.operation = operation;
+        this.schema = schema;
+        this.manifests = manifests;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the snapshot this one was committed on top of
+     * @return parent id, -1 for the first snapshot
+     */
+    public long getParentId() {
+        return parentId;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Gets the kind of commit that produced the snapshot, such as {@code append} or {@code replace}
+     * @return operation name
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Gets the manifest files, relative to the table directory
+     * @return manifest paths
+     */
+    public ImmutableList<String> getManifests() {
+        return manifests;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeLong(id);
+        out.writeLong(parentId);
+        out.writeLong(timestampMillis);
+        out.writeUTF(operation);
+        schema.write(out);
+        out.writeInt(manifests.size());
+        for (String manifest : manifests) {
+            out.writeUTF(manifest);
+        }
+    }
+
+    static Snapshot read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a snapshot file");
+        }
+        long id = in.readLong();
+        long parentId = in.readLong();
+        long timestamp = in.readLong();
+        String operation = in.readUTF();
+        Schema schema = Schema.read(in);
+        int count = in.readInt();
+        String[] manifests = new String[count];
+        for (int i = 0; i < count; i++) {
+            manifests[i] = in.readUTF();
+        }
+        return new Snapshot(id, parentId, timestamp, operation, schema, Lists.immutable.with(manifests));
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot{id=" + id + ", parentId=" + parentId + ", operation=" + operation
+                + ", manifests=" + manifests.size() + '}';
+    }
+}
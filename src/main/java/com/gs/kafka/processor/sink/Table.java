@@ -0,0 +1,259 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.collections.impl.set.mutable.UnifiedSet;
+
+/**
+ * Iceberg-style table on the local filesystem: immutable data files under {@code data/},
+ * manifests and snapshots under {@code metadata/}, and a version hint naming the current
+ * snapshot. A commit forces the new data and metadata files to disk and then atomically replaces
+ * the version hint, so readers always see either the old or the new snapshot, also after a crash. Commits through one {@code Table}
+ * instance are serialized; a single process is expected to own the table directory.
+ */
+public class Table {
+
+    static final String DATA_DIR = "data";
+    static final String METADATA_DIR = "metadata";
+    static final String VERSION_HINT = "version-hint.text";
+
+    private final Path location;
+    private final Schema schema;
+    private final LongSupplier clock;
+
+    private Table(Path location, Schema schema, LongSupplier clock) {
+        this.location = location;
+        this.schema = schema;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates an empty table
+     * @param location table directory, created if missing
+     * @param schema table schema
+     * @return the table
+     * @throws IOException if a table already exists at the location or it cannot be written
+     */
+    public static Table create(Path location, Schema schema) throws IOException {
+        return create(location, schema, System::currentTimeMillis);
+    }
+
+    public static Table create(Path location, Schema schema, LongSupplier clock) throws IOException {
+        if (Files.exists(location.resolve(METADATA_DIR).resolve(VERSION_HINT))) {
+            throw new IOException("table already exists at " + location);
+        }
+        Files.createDirectories(location.resolve(DATA_DIR));
+        Files.createDirectories(location.resolve(METADATA_DIR));
+        Table table = new Table(location, schema, clock);
+        Snapshot first = new Snapshot(0, -1, clock.getAsLong(), "create", schema, FastList.<String>newList().toImmutable());
+        table.publish(first);
+        return table;
+    }
+
+    /**
+     * Opens an existing table, reading its schema from the current snapshot
+     * @param location table directory
+     * @return the table
+     * @throws IOException if no table exists at the location
+     */
+    public static Table open(Path location) throws IOException {
+        return open(location, System::currentTimeMillis);
+    }
+
+    public static Table open(Path location, LongSupplier clock) throws IOException {
+        Snapshot current = readSnapshot(location, readVersionHint(location));
+        return new Table(location, current.getSchema(), clock);
+    }
+
+    public Path getLocation() {
+        return location;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Resolves a path stored in table metadata
+     * @param relativePath path relative to the table directory
+     * @return absolute file path
+     */
+    public Path resolve(String relativePath) {
+        return location.resolve(relativePath);
+    }
+
+    /**
+     * Reads the snapshot named by the version hint
+     * @return the latest committed snapshot
+     * @throws IOException if the metadata cannot be read
+     */
+    public Snapshot currentSnapshot() throws IOException {
+        return readSnapshot(location, readVersionHint(location));
+    }
+
+    public Snapshot snapshot(long id) throws IOException {
+        return readSnapshot(location, id);
+    }
+
+    /**
+     * Lists the live data files of a snapshot
+     * @param snapshot snapshot to read
+     * @return data files from all of its manifests
+     * @throws IOException if a manifest cannot be read
+     */
+    public MutableList<DataFileMeta> dataFiles(Snapshot snapshot) throws IOException {
+        MutableList<DataFileMeta> files = FastList.newList();
+        for (String manifest : snapshot.getManifests()) {
+            files.addAll(ManifestFile.read(resolve(manifest), schema));
+        }
+        return files;
+    }
+
+    /**
+     * Opens a writer that buffers rows and commits them as data files
+     * @param config rolling and compression settings
+     * @return the writer
+     */
+    public TableWriter newWriter(SinkConfig config) {
+        return new TableWriter(this, config, clock);
+    }
+
+    /**
+     * Atomically adds and removes data files on top of the current snapshot
+     * @param operation name recorded in the snapshot
+     * @param added files already written under the table directory
+     * @param removed live files to drop from the table
+     * @return the new snapshot
+     * @throws IOException if metadata cannot be written
+     * @throws IllegalStateException if a file to remove is not live
+     */
+    public synchronized Snapshot commit(String operation, Iterable<DataFileMeta> added, Iterable<DataFileMeta> removed)
+            throws IOException {
+        Snapshot current = currentSnapshot();
+        long id = current.getId() + 1;
+        Set<DataFileMeta> toRemove = UnifiedSet.newSet(removed);
+        MutableList<String> manifests = FastList.newList();
+        int removedFound = 0;
+        int written = 0;
+        for (String manifest : current.getManifests()) {
+            if (toRemove.isEmpty()) {
+                manifests.add(manifest);
+                continue;
+            }
+            MutableList<DataFileMeta> entries = ManifestFile.read(resolve(manifest), schema);
+            MutableList<DataFileMeta> kept = entries.reject(toRemove::contains);
+            removedFound += entries.size() - kept.size();
+            if (kept.size() == entries.size()) {
+                manifests.add(manifest);
+            } else if (kept.notEmpty()) {
+                manifests.add(writeManifest(id, written++, kept));
+            }
+        }
+        if (removedFound != toRemove.size()) {
+            throw new IllegalStateException("only " + removedFound + " of " + toRemove.size()
+                    + " files to remove are live in snapshot " + current.getId());
+        }
+        MutableList<DataFileMeta> addedList = FastList.newList(added);
+        for (DataFileMeta file : addedList) {
+            sync(resolve(file.getPath()));
+        }
+        if (addedList.notEmpty()) {
+            manifests.add(writeManifest(id, written, addedList));
+        }
+        Snapshot next = new Snapshot(id, current.getId(), clock.getAsLong(), operation, schema, manifests.toImmutable());
+        publish(next);
+        return next;
+    }
+
+    String newDataFilePath(Comparable<?> partitionValue) {
+        String name = "part-" + UUID.randomUUID() + ".kdf";
+        if (!schema.isPartitioned()) {
+            return DATA_DIR + '/' + name;
+        }
+        return DATA_DIR + '/' + schema.get(schema.getPartitionColumn()).getName() + '='
+                + encode(String.valueOf(partitionValue)) + '/' + name;
+    }
+
+    private String writeManifest(long snapshotId, int sequence, Iterable<DataFileMeta> entries) throws IOException {
+        String relative = METADATA_DIR + "/manifest-" + snapshotId + '-' + sequence + ".kmf";
+        ManifestFile.write(resolve(relative), schema, entries);
+        sync(resolve(relative));
+        return relative;
+    }
+
+    /**
+     * Forces a written file to disk, so the version hint never names a snapshot whose files could
+     * be lost or torn by a crash
+     */
+    private static void sync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private void publish(Snapshot snapshot) throws IOException {
+        Path metadata = location.resolve(METADATA_DIR);
+        Path snapshotFile = metadata.resolve(snapshotFileName(snapshot.getId()));
+        Path snapshotTemp = metadata.resolve(snapshotFileName(snapshot.getId()) + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(snapshotTemp)))) {
+            snapshot.write(out);
+        }
+        sync(snapshotTemp);
+        Files.move(snapshotTemp, snapshotFile, StandardCopyOption.ATOMIC_MOVE);
+
+        Path hintTemp = metadata.resolve(VERSION_HINT + ".tmp");
+        Files.write(hintTemp, Long.toString(snapshot.getId()).getBytes(StandardCharsets.UTF_8));
+        sync(hintTemp);
+        Files.move(hintTemp, metadata.resolve(VERSION_HINT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long readVersionHint(Path location) throws IOException {
+        Path hint = location.resolve(METADATA_DIR).resolve(VERSION_HINT);
+        if (!Files.exists(hint)) {
+            throw new IOException("no table at " + location);
+        }
+        return Long.parseLong(new String(Files.readAllBytes(hint), StandardCharsets.UTF_8).trim());
+    }
+
+    private static Snapshot readSnapshot(Path location, long id) throws IOException {
+        Path file = location.resolve(METADATA_DIR).resolve(snapshotFileName(id));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return Snapshot.read(in);
+        }
+    }
+
+    private static String snapshotFileName(long id) {
+        return String.format("snap-%08d.ksn", id);
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Table{" + location + ", " + schema + '}';
+    }
+}
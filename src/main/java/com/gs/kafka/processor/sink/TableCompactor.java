@@ -0,0 +1,323 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.function.LongSupplier;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.collections.impl.map.mutable.UnifiedMap;
+
+/**
+ * Merges the small data files of each partition into files of the target size.
+ * <p>
+ * A pass lists the live files of the current snapshot, groups those below the small file size by
+ * partition and packs each partition's files into rewrites of at most the input byte limit. A
+ * rewrite with enough files reads them, orders their rows by the sort column with a stable sort
+ * (so rows with equal keys keep their commit order) and writes them out in target-size files.
+ * Everything is written before the table is touched; the new files then replace the old ones in
+ * a single {@link Table#commit} on top of whatever snapshot is current, so rows appended
+ * meanwhile stay live and writers sharing the {@code Table} only wait for that metadata commit.
+ * Replaced files are not deleted, as older snapshots still reference them. Compacting the same
+ * table from two compactors is not supported: the slower commit fails and its output is deleted.
+ */
+public class TableCompactor {
+
+    private final Table table;
+    private final Schema schema;
+    private final CompactionConfig config;
+    private final LongSupplier clock;
+    private final int sortColumn;
+
+    private volatile long compactions;
+    private volatile long filesRewritten;
+    private volatile long filesWritten;
+    private volatile long rowsRewritten;
+    private volatile long bytesRewritten;
+    private volatile long bytesWritten;
+
+    public TableCompactor(Table table, CompactionConfig config) {
+        this(table, config, System::currentTimeMillis);
+    }
+
+    TableCompactor(Table table, CompactionConfig config, LongSupplier clock) {
+        this.table = table;
+        this.schema = table.getSchema();
+        this.config = config;
+        this.clock = clock;
+        if (config.getSortColumn() == null) {
+            this.sortColumn = -1;
+        } else {
+            this.sortColumn = schema.indexOf(config.getSortColumn());
+            if (sortColumn < 0) {
+                throw new IllegalArgumentException("no column " + config.getSortColumn() + " in " + schema);
+            }
+        }
+    }
+
+    /**
+     * Rewrites the small files of the current snapshot and commits the swap
+     * @return the new snapshot, or null if no partition had enough small files
+     * @throws IOException if a file cannot be read or written, or the metadata cannot be committed
+     * @throws IllegalStateException if an input file was removed by a concurrent commit
+     */
+    public synchronized Snapshot compact() throws IOException {
+        MutableList<MutableList<DataFileMeta>> groups = plan(table.dataFiles(table.currentSnapshot()));
+        if (groups.isEmpty()) {
+            return null;
+        }
+        MutableList<DataFileMeta> removed = FastList.newList();
+        MutableList<DataFileMeta> added = FastList.newList();
+        long rows = 0;
+        try {
+            for (MutableList<DataFileMeta> group : groups) {
+                rows += rewrite(group, added);
+                removed.addAll(group);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(added);
+            throw e;
+        }
+
+        Snapshot snapshot;
+        try {
+            snapshot = table.commit("compact", added, removed);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(added);
+            throw e;
+        }
+        // Only the compacting thread writes the counters; volatile lets monitors read them mid-pass
+        compactions++;
+        filesRewritten += removed.size();
+        filesWritten += added.size();
+        rowsRewritten += rows;
+        bytesRewritten += bytes(removed);
+        bytesWritten += bytes(added);
+        return snapshot;
+    }
+
+    /**
+     * Picks the files to rewrite together
+     * @param files live files of a snapshot
+     * @return groups of small files of one partition each, every group worth a rewrite
+     */
+    MutableList<MutableList<DataFileMeta>> plan(Iterable<DataFileMeta> files) {
+        UnifiedMap<Comparable<?>, MutableList<MutableList<DataFileMeta>>> byPartition = UnifiedMap.newMap();
+        for (DataFileMeta file : files) {
+            if (file.getSizeBytes() >= config.getSmallFileBytes()) {
+                continue;
+            }
+            MutableList<MutableList<DataFileMeta>> bins = byPartition.get(file.getPartitionValue());
+            if (bins == null) {
+                bins = FastList.newList();
+                bins.add(FastList.<DataFileMeta>newList());
+                byPartition.put(file.getPartitionValue(), bins);
+            }
+            MutableList<DataFileMeta> bin = bins.getLast();
+            if (bin.notEmpty() && bytes(bin) + file.getSizeBytes() > config.getMaxInputBytes()) {
+                bin = FastList.newList();
+                bins.add(bin);
+            }
+            bin.add(file);
+        }
+        MutableList<MutableList<DataFileMeta>> groups = FastList.newList();
+        for (MutableList<MutableList<DataFileMeta>> bins : byPartition.values()) {
+            for (MutableList<DataFileMeta> bin : bins) {
+                if (bin.size() >= config.getMinInputFiles()) {
+                    groups.add(bin);
+                }
+            }
+        }
+        return groups;
+    }
+
+    private static long bytes(MutableList<DataFileMeta> files) {
+        long bytes = 0;
+        for (int i = 0; i < files.size(); i++) {
+            bytes += files.get(i).getSizeBytes();
+        }
+        return bytes;
+    }
+
+    private long rewrite(MutableList<DataFileMeta> group, MutableList<DataFileMeta> added) throws IOException {
+        ColumnVector[][] vectors = new ColumnVector[group.size()][];
+        int rowCount = 0;
+        for (int f = 0; f < group.size(); f++) {
+            try (ColumnChunkReader reader = new MappedDataFileReader(table.resolve(group.get(f).getPath()))) {
+                vectors[f] = new ColumnVector[schema.size()];
+                for (int c = 0; c < schema.size(); c++) {
+                    vectors[f][c] = reader.readColumn(c);
+                }
+                rowCount += reader.getRowCount();
+            }
+        }
+        int[] fileOfRow = new int[rowCount];
+        int[] rowInFile = new int[rowCount];
+        int next = 0;
+        for (int f = 0; f < vectors.length; f++) {
+            int size = vectors[f][0].size();
+            for (int r = 0; r < size; r++) {
+                fileOfRow[next] = f;
+                rowInFile[next] = r;
+                next++;
+            }
+        }
+        int[] order = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            order[i] = i;
+        }
+        if (sortColumn >= 0) {
+            sort(order, comparator(vectors, fileOfRow, rowInFile));
+        }
+
+        Comparable<?> partitionValue = group.getFirst().getPartitionValue();
+        PartitionBuffer buffer = new PartitionBuffer(schema, partitionValue, clock.getAsLong());
+        for (int i = 0; i < rowCount; i++) {
+            ColumnVector[] row = vectors[fileOfRow[order[i]]];
+            int index = rowInFile[order[i]];
+            for (int c = 0; c < row.length; c++) {
+                switch (schema.get(c).getType()) {
+                    case INT:
+                    case LONG:
+                        buffer.column(c).appendLong(row[c].getLong(index));
+                        break;
+                    case DOUBLE:
+                        buffer.column(c).appendDouble(row[c].getDouble(index));
+                        break;
+                    default:
+                        buffer.column(c).appendString(row[c].getString(index));
+                        break;
+                }
+            }
+            buffer.rowAppended();
+            if (buffer.encodedBytes() >= config.getTargetFileBytes()) {
+                added.add(write(buffer));
+                buffer = new PartitionBuffer(schema, partitionValue, clock.getAsLong());
+            }
+        }
+        if (buffer.getRowCount() > 0) {
+            added.add(write(buffer));
+        }
+        return rowCount;
+    }
+
+    private DataFileMeta write(PartitionBuffer buffer) throws IOException {
+        String path = table.newDataFilePath(buffer.getPartitionValue());
+        return DataFileWriter.write(table.getLocation(), path, schema, buffer, config.getCodec());
+    }
+
+    /**
+     * Copies the sort column into one primitive array so comparisons do not go through the vectors
+     */
+    private RowComparator comparator(ColumnVector[][] vectors, int[] fileOfRow, int[] rowInFile) {
+        int rowCount = fileOfRow.length;
+        switch (schema.get(sortColumn).getType()) {
+            case INT:
+            case LONG:
+                long[] longs = new long[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    longs[i] = vectors[fileOfRow[i]][sortColumn].getLong(rowInFile[i]);
+                }
+                return (a, b) -> Long.compare(longs[a], longs[b]);
+            case DOUBLE:
+                double[] doubles = new double[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    doubles[i] = vectors[fileOfRow[i]][sortColumn].getDouble(rowInFile[i]);
+                }
+                return (a, b) -> Double.compare(doubles[a], doubles[b]);
+            default:
+                String[] strings = new String[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    strings[i] = vectors[fileOfRow[i]][sortColumn].getString(rowInFile[i]);
+                }
+                return (a, b) -> strings[a].compareTo(strings[b]);
+        }
+    }
+
+    /**
+     * Comparison of two rows by their position in the rewrite.
+     */
+    interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Stable bottom-up merge sort of row indices, avoiding boxed comparators over millions of rows
+     */
+    static void sort(int[] order, RowComparator comparator) {
+        int[] source = order;
+        int[] target = new int[order.length];
+        for (int width = 1; width < order.length; width *= 2) {
+            for (int low = 0; low < order.length; low += 2 * width) {
+                int middle = Math.min(low + width, order.length);
+                int high = Math.min(low + 2 * width, order.length);
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; i++) {
+                    if (left < middle && (right >= high || comparator.compare(source[left], source[right]) <= 0)) {
+                        target[i] = source[left++];
+                    } else {
+                        target[i] = source[right++];
+                    }
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != order) {
+            System.arraycopy(source, 0, order, 0, order.length);
+        }
+    }
+
+    private void deleteQuietly(MutableList<DataFileMeta> files) {
+        for (DataFileMeta file : files) {
+            try {
+                Files.deleteIfExists(table.resolve(file.getPath()));
+            } catch (IOException e) {
+                // An orphaned file is harmless; no snapshot references it
+            }
+        }
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public CompactionConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Gets the number of committed compactions
+     * @return compaction count
+     */
+    public long getCompactions() {
+        return compactions;
+    }
+
+    public long getFilesRewritten() {
+        return filesRewritten;
+    }
+
+    public long getFilesWritten() {
+        return filesWritten;
+    }
+
+    public long getRowsRewritten() {
+        return rowsRewritten;
+    }
+
+    public long getBytesRewritten() {
+        return bytesRewritten;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public String toString() {
+        return "TableCompactor{" + table + ", " + config + '}';
+    }
+}
@@ -0,0 +1,55 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.kafka.processor.pipeline.BatchSink;
+
+/**
+ * Pipeline sink that appends every element of a batch to a table through a {@link TableWriter}.
+ * Files are rolled by the writer's size and time thresholds as rows arrive, {@link #flushIfDue()}
+ * applies the time threshold while no rows arrive, and {@link #close()} commits the rest.
+ * @param <T> element type
+ */
+public class TableSink<T> implements BatchSink<T>, Closeable {
+
+    private final TableWriter writer;
+    private final RowMapper<? super T> mapper;
+
+    public TableSink(TableWriter writer, RowMapper<? super T> mapper) {
+        this.writer = writer;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void write(MutableList<T> batch) {
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                mapper.map(batch.get(i), writer);
+                writer.appendRow();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to write batch to " + writer.getTable().getLocation(), e);
+        }
+    }
+
+    /**
+     * Commits the buffered rows if the roll interval has passed, for callers whose input went idle
+     * @throws IOException if a file or the metadata cannot be written
+     * @see TableWriter#flushIfDue()
+     */
+    public void flushIfDue() throws IOException {
+        writer.flushIfDue();
+    }
+
+    public TableWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,275 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.collections.impl.map.mutable.UnifiedMap;
+
+/**
+ * Buffers rows per partition in columnar form and turns them into data files and snapshots.
+ * <p>
+ * Values of the next row are set column by column and added with {@link #appendRow()}; nothing
+ * is allocated per row apart from string encoding. A partition whose buffer reaches the target
+ * file size is written out and committed on its own; once the oldest buffered row is older than
+ * the roll interval, every buffer is written and committed together. Not thread-safe.
+ */
+public class TableWriter implements Closeable {
+
+    private final Table table;
+    private final Schema schema;
+    private final SinkConfig config;
+    private final LongSupplier clock;
+
+    private final long[] longValues;
+    private final double[] doubleValues;
+    private final String[] stringValues;
+    private final boolean[] assigned;
+    private int assignedCount;
+
+    private final UnifiedMap<Comparable<?>, PartitionBuffer> buffers = UnifiedMap.newMap();
+    private final MutableList<DataFileMeta> pending = FastList.newList();
+    private PartitionBuffer lastBuffer;
+    private long oldestBufferMillis = Long.MAX_VALUE;
+
+    private long bufferedRows;
+    private long rowsWritten;
+    private long filesWritten;
+    private long bytesWritten;
+    private long commits;
+
+    TableWriter(Table table, SinkConfig config, LongSupplier clock) {
+        this.table = table;
+        this.schema = table.getSchema();
+        this.config = config;
+        this.clock = clock;
+        this.longValues = new long[schema.size()];
+        this.doubleValues = new double[schema.size()];
+        this.stringValues = new String[schema.size()];
+        this.assigned = new boolean[schema.size()];
+    }
+
+    public TableWriter setInt(int column, int value) {
+        checkType(column, ColumnType.INT);
+        longValues[column] = value;
+        return markAssigned(column);
+    }
+
+    public TableWriter setLong(int column, long value) {
+        checkType(column, ColumnType.LONG);
+        longValues[column] = value;
+        return markAssigned(column);
+    }
+
+    public TableWriter setDouble(int column, double value) {
+        checkType(column, ColumnType.DOUBLE);
+        doubleValues[column] = value;
+        return markAssigned(column);
+    }
+
+    public TableWriter setString(int column, String value) {
+        checkType(column, ColumnType.STRING);
+        if (value == null) {
+            throw new IllegalArgumentException("null strings are not supported, column " + schema.get(column).getName());
+        }
+        stringValues[column] = value;
+        return markAssigned(column);
+    }
+
+    /**
+     * Adds the row assembled by the setters to its partition's buffer, rolling files if needed
+     * @throws IllegalStateException if a column was not set
+     * @throws IOException if rolling fails to write a file or commit
+     */
+    public void appendRow() throws IOException {
+        if (assignedCount != schema.size()) {
+            for (int i = 0; i < assigned.length; i++) {
+                if (!assigned[i]) {
+                    throw new IllegalStateException("row is missing column " + schema.get(i).getName());
+                }
+            }
+        }
+        PartitionBuffer buffer = bufferForRow();
+        for (int i = 0; i < assigned.length; i++) {
+            switch (schema.get(i).getType()) {
+                case INT:
+                case LONG:
+                    buffer.column(i).appendLong(longValues[i]);
+                    break;
+                case DOUBLE:
+                    buffer.column(i).appendDouble(doubleValues[i]);
+                    break;
+                default:
+                    buffer.column(i).appendString(stringValues[i]);
+                    stringValues[i] = null;
+                    break;
+            }
+        }
+        buffer.rowAppended();
+        bufferedRows++;
+        Arrays.fill(assigned, false);
+        assignedCount = 0;
+
+        if (buffer.encodedBytes() >= config.getTargetFileBytes()) {
+            flush(buffer);
+            commitPending();
+        } else {
+            flushIfDue();
+        }
+    }
+
+    /**
+     * Commits every buffer once the oldest buffered row is older than the roll interval. Rows are
+     * only checked as they are appended, so a caller whose input can go idle calls this
+     * periodically from the writing thread to bound how long buffered rows stay invisible
+     * @return the new snapshot, or null if nothing was due
+     * @throws IOException if a file or the metadata cannot be written
+     */
+    public Snapshot flushIfDue() throws IOException {
+        if (clock.getAsLong() - oldestBufferMillis >= config.getRollIntervalMillis()) {
+            return commit();
+        }
+        return null;
+    }
+
+    /**
+     * Writes every buffered partition and commits all files written since the last commit
+     * @return the new snapshot, or null if there was nothing to commit
+     * @throws IOException if a file or the metadata cannot be written
+     */
+    public Snapshot commit() throws IOException {
+        for (PartitionBuffer buffer : FastList.newList(buffers.values())) {
+            flush(buffer);
+        }
+        return commitPending();
+    }
+
+    private Snapshot commitPending() throws IOException {
+        if (pending.isEmpty()) {
+            return null;
+        }
+        Snapshot snapshot = table.commit("append", pending, FastList.<DataFileMeta>newList());
+        pending.clear();
+        commits++;
+        return snapshot;
+    }
+
+    private void flush(PartitionBuffer buffer) throws IOException {
+        String path = table.newDataFilePath(buffer.getPartitionValue());
+        DataFileMeta file = DataFileWriter.write(table.getLocation(), path, schema, buffer, config.getCodec());
+        pending.add(file);
+        buffers.remove(buffer.getPartitionValue());
+        if (lastBuffer == buffer) {
+            lastBuffer = null;
+        }
+        bufferedRows -= buffer.getRowCount();
+        rowsWritten += buffer.getRowCount();
+        filesWritten++;
+        bytesWritten += file.getSizeBytes();
+        oldestBufferMillis = Long.MAX_VALUE;
+        for (PartitionBuffer each : buffers.values()) {
+            oldestBufferMillis = Math.min(oldestBufferMillis, each.getCreatedMillis());
+        }
+    }
+
+    private PartitionBuffer bufferForRow() {
+        if (lastBuffer != null && rowInPartition(lastBuffer.getPartitionValue())) {
+            return lastBuffer;
+        }
+        Comparable<?> value = partitionValueOfRow();
+        PartitionBuffer buffer = buffers.get(value);
+        if (buffer == null) {
+            long now = clock.getAsLong();
+            buffer = new PartitionBuffer(schema, value, now);
+            buffers.put(value, buffer);
+            oldestBufferMillis = Math.min(oldestBufferMillis, now);
+        }
+        lastBuffer = buffer;
+        return buffer;
+    }
+
+    private boolean rowInPartition(Comparable<?> value) {
+        int column = schema.getPartitionColumn();
+        if (column < 0) {
+            return true;
+        }
+        switch (schema.get(column).getType()) {
+            case INT:
+                return (Integer) value == (int) longValues[column];
+            case LONG:
+                return (Long) value == longValues[column];
+            default:
+                return value.equals(stringValues[column]);
+        }
+    }
+
+    private Comparable<?> partitionValueOfRow() {
+        int column = schema.getPartitionColumn();
+        if (column < 0) {
+            return null;
+        }
+        switch (schema.get(column).getType()) {
+            case INT:
+                return (int) longValues[column];
+            case LONG:
+                return longValues[column];
+            default:
+                return stringValues[column];
+        }
+    }
+
+    private void checkType(int column, ColumnType type) {
+        if (schema.get(column).getType() != type) {
+            throw new IllegalArgumentException("column " + schema.get(column).getName() + " is "
+                    + schema.get(column).getType() + ", not " + type);
+        }
+    }
+
+    private TableWriter markAssigned(int column) {
+        if (!assigned[column]) {
+            assigned[column] = true;
+            assignedCount++;
+        }
+        return this;
+    }
+
+    /**
+     * Gets the rows waiting in memory
+     * @return buffered row count
+     */
+    public long getBufferedRows() {
+        return bufferedRows;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getFilesWritten() {
+        return filesWritten;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * Commits everything still buffered
+     * @throws IOException if the final commit fails
+     */
+    @Override
+    public void close() throws IOException {
+        commit();
+    }
+}
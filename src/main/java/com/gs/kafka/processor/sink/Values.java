@@ -0,0 +1,48 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encoding of single typed values in metadata: partition values and column statistics.
+ */
+final class Values {
+
+    private Values() {
+    }
+
+    static void write(DataOutput out, ColumnType type, Object value) throws IOException {
+        switch (type) {
+            case INT:
+                out.writeInt((Integer) value);
+                break;
+            case LONG:
+                out.writeLong((Long) value);
+                break;
+            case DOUBLE:
+                out.writeDouble((Double) value);
+                break;
+            case STRING:
+                out.writeUTF((String) value);
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported type: " + type);
+        }
+    }
+
+    static Comparable<?> read(DataInput in, ColumnType type) throws IOException {
+        switch (type) {
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case STRING:
+                return in.readUTF();
+            default:
+                throw new IllegalArgumentException("unsupported type: " + type);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.gs.kafka.processor.window;
+
+import com.gs.collections.api.block.function.Function;
+import com.gs.collections.api.block.function.primitive.IntFunction;
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.collections.impl.map.mutable.UnifiedMap;
+import com.gs.collections.impl.map.mutable.primitive.IntIntHashMap;
+import com.gs.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import com.gs.collections.impl.map.mutable.primitive.ObjectLongHashMap;
+import com.gs.collections.impl.set.mutable.primitive.IntHashSet;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.Record;
+
+/**
+ * Pipeline stage that maintains count, sum and optionally distinct-value aggregates per key over
+ * event-time windows, and emits each window once the watermark passes its end.
+ * <p>
+ * Records are folded into panes of {@link WindowSpec#getPaneMillis()} as they arrive, so each
+ * record is touched once however many sliding windows cover it. The aggregates of the window
+ * due next are kept running: moving to the following window adds the panes that slide in and
+ * subtracts the panes that slide out, instead of recomputing from raw records. Counts and sums
+ * are {@link ObjectLongHashMap}s per key; distinct values are an {@link IntHashSet} per key in a
+ * pane and an {@link IntIntHashMap} of value to pane count per key in the running window.
+ * <p>
+ * The watermark advances after every batch to the highest timestamp seen minus the allowed
+ * lateness. Records older than the end of the last emitted window are dropped and counted as
+ * late. Windows without records are not emitted. At the end of the input {@link #finish()}, which
+ * a {@link com.gs.kafka.processor.pipeline.BatchPipeline} calls, or {@link #drain()} emits what is
+ * still open. Not thread-safe.
+ * @param <K> key type
+ */
+public class WindowAggregationStage<K> implements BatchStage<Record, WindowResult<K>> {
+
+    private final WindowSpec spec;
+    private final Function<? super Record, ? extends K> keyFunction;
+    private final IntFunction<? super Record> valueFunction;
+    private final long paneMillis;
+
+    private final LongObjectHashMap<Pane<K>> panes = new LongObjectHashMap<>();
+    private final ObjectLongHashMap<K> windowCounts = new ObjectLongHashMap<>();
+    private final ObjectLongHashMap<K> windowSums = new ObjectLongHashMap<>();
+    private final UnifiedMap<K, IntIntHashMap> windowValues = UnifiedMap.newMap();
+
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long watermark = Long.MIN_VALUE;
+    private long nextWindowEnd = Long.MIN_VALUE;
+    private long addedUpTo = Long.MIN_VALUE;
+    private long removedUpTo = Long.MIN_VALUE;
+
+    private long records;
+    private long lateRecords;
+    private long windowsEmitted;
+    private long resultsEmitted;
+
+    /**
+     * @param spec window shape
+     * @param keyFunction extracts the key records are grouped by
+     * @param valueFunction extracts the value summed and counted distinct
+     */
+    public WindowAggregationStage(WindowSpec spec, Function<? super Record, ? extends K> keyFunction,
+                                  IntFunction<? super Record> valueFunction) {
+        this.spec = spec;
+        this.keyFunction = keyFunction;
+        this.valueFunction = valueFunction;
+        this.paneMillis = spec.getPaneMillis();
+    }
+
+    /**
+     * Adds a batch and advances the watermark past it
+     * @param batch records with event-time timestamps in milliseconds
+     * @return results of the windows closed by the new watermark, in window order
+     */
+    @Override
+    public MutableList<WindowResult<K>> apply(MutableList<Record> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            add(batch.get(i));
+        }
+        if (maxTimestamp == Long.MIN_VALUE) {
+            return FastList.newList(0);
+        }
+        return advanceWatermark(maxTimestamp - spec.getAllowedLatenessMillis());
+    }
+
+    private void add(Record record) {
+        long timestamp = record.getTimestamp();
+        records++;
+        if (timestamp < addedUpTo) {
+            lateRecords++;
+            return;
+        }
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        long index = Math.floorDiv(timestamp, paneMillis);
+        Pane<K> pane = panes.get(index);
+        if (pane == null) {
+            pane = new Pane<>(spec.isDistinctValues());
+            panes.put(index, pane);
+        }
+        pane.add(keyFunction.valueOf(record), valueFunction.intValueOf(record));
+    }
+
+    /**
+     * Moves the watermark forward, for punctuation or idle inputs; a lower watermark is ignored
+     * @param newWatermark event time up to which input is taken as complete
+     * @return results of the windows ending at or before the watermark, in window order
+     */
+    public MutableList<WindowResult<K>> advanceWatermark(long newWatermark) {
+        watermark = Math.max(watermark, newWatermark);
+        MutableList<WindowResult<K>> results = FastList.newList(0);
+        while (true) {
+            if (windowCounts.isEmpty()) {
+                if (panes.isEmpty()) {
+                    break;
+                }
+                // Skip the windows no pane falls into
+                long firstEnd = (Math.floorDiv(panes.keysView().min() * paneMillis, spec.getSlideMillis()) + 1)
+                        * spec.getSlideMillis();
+                long end = Math.max(nextWindowEnd, firstEnd);
+                if (end > watermark) {
+                    break;
+                }
+                nextWindowEnd = end;
+                addedUpTo = Math.max(addedUpTo, end - spec.getSizeMillis());
+                removedUpTo = addedUpTo;
+            } else if (nextWindowEnd > watermark) {
+                break;
+            }
+            slideTo(nextWindowEnd);
+            emit(results, nextWindowEnd);
+            nextWindowEnd += spec.getSlideMillis();
+        }
+        return results;
+    }
+
+    /**
+     * Emits every open window regardless of the watermark
+     * @return results of the remaining windows, in window order
+     */
+    public MutableList<WindowResult<K>> drain() {
+        return advanceWatermark(Long.MAX_VALUE - spec.getSizeMillis());
+    }
+
+    /**
+     * Drains the open windows at the end of the input
+     */
+    @Override
+    public MutableList<WindowResult<K>> finish() {
+        return drain();
+    }
+
+    private void slideTo(long end) {
+        for (long start = addedUpTo; start < end; start += paneMillis) {
+            Pane<K> pane = panes.get(Math.floorDiv(start, paneMillis));
+            if (pane != null) {
+                addPane(pane);
+            }
+        }
+        addedUpTo = end;
+        for (long start = removedUpTo; start < end - spec.getSizeMillis(); start += paneMillis) {
+            Pane<K> pane = panes.remove(Math.floorDiv(start, paneMillis));
+            if (pane != null) {
+                subtractPane(pane);
+            }
+        }
+        removedUpTo = end - spec.getSizeMillis();
+    }
+
+    private void addPane(Pane<K> pane) {
+        pane.counts.forEachKeyValue((key, count) -> {
+            windowCounts.addToValue(key, count);
+            windowSums.addToValue(key, pane.sums.get(key));
+        });
+        if (pane.values != null) {
+            pane.values.forEachKeyValue((key, values) -> {
+                IntIntHashMap running = windowValues.get(key);
+                if (running == null) {
+                    running = new IntIntHashMap(values.size());
+                    windowValues.put(key, running);
+                }
+                IntIntHashMap target = running;
+                values.forEach(value -> target.addToValue(value, 1));
+            });
+        }
+    }
+
+    private void subtractPane(Pane<K> pane) {
+        pane.counts.forEachKeyValue((key, count) -> {
+            if (windowCounts.addToValue(key, -count) == 0) {
+                windowCounts.removeKey(key);
+                windowSums.removeKey(key);
+            } else {
+                windowSums.addToValue(key, -pane.sums.get(key));
+            }
+        });
+        if (pane.values != null) {
+            pane.values.forEachKeyValue((key, values) -> {
+                IntIntHashMap running = windowValues.get(key);
+                values.forEach(value -> {
+                    if (running.addToValue(value, -1) == 0) {
+                        running.removeKey(value);
+                    }
+                });
+                if (running.isEmpty()) {
+                    windowValues.remove(key);
+                }
+            });
+        }
+    }
+
+    private void emit(MutableList<WindowResult<K>> results, long end) {
+        if (windowCounts.isEmpty()) {
+            return;
+        }
+        long start = end - spec.getSizeMillis();
+        windowCounts.forEachKeyValue((key, count) -> {
+            IntIntHashMap values = windowValues.get(key);
+            results.add(new WindowResult<>(key, start, end, count, windowSums.get(key),
+                    values == null ? 0 : values.size()));
+        });
+        windowsEmitted++;
+        resultsEmitted += windowCounts.size();
+    }
+
+    public WindowSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Gets the event time up to which windows have been emitted
+     * @return watermark in milliseconds, {@link Long#MIN_VALUE} before the first record
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Gets the number of panes holding records not yet subtracted from the running window
+     * @return open pane count
+     */
+    public int getOpenPanes() {
+        return panes.size();
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Gets the records dropped because their window had already been emitted
+     * @return late record count
+     */
+    public long getLateRecords() {
+        return lateRecords;
+    }
+
+    public long getWindowsEmitted() {
+        return windowsEmitted;
+    }
+
+    public long getResultsEmitted() {
+        return resultsEmitted;
+    }
+
+    @Override
+    public String toString() {
+        return "WindowAggregationStage{" + spec + ", watermark=" + watermark + ", openPanes=" + panes.size()
+                + ", records=" + records + ", lateRecords=" + lateRecords + ", windowsEmitted=" + windowsEmitted + '}';
+    }
+
+    /**
+     * Per-key aggregates of the records in one pane.
+     */
+    private static final class Pane<K> {
+
+        private final ObjectLongHashMap<K> counts = new ObjectLongHashMap<>();
+        private final ObjectLongHashMap<K> sums = new ObjectLongHashMap<>();
+        private final UnifiedMap<K, IntHashSet> values;
+
+        Pane(boolean distinctValues) {
+            this.values = distinctValues ? UnifiedMap.<K, IntHashSet>newMap() : null;
+        }
+
+        void add(K key, int value) {
+            counts.addToValue(key, 1);
+            sums.addToValue(key, value);
+            if (values != null) {
+                IntHashSet set = values.get(key);
+                if (set == null) {
+                    set = new IntHashSet();
+                    values.put(key, set);
+                }
+                set.add(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.gs.kafka.processor.window;
+
+/**
+ * Aggregates of one key over one closed window.
+ * @param <K> key type
+ */
+public final class WindowResult<K> {
+
+    private final K key;
+    private final long windowStart;
+    private final long windowEnd;
+    private final long count;
+    private final long sum;
+    private final int distinctValues;
+
+    public WindowResult(K key, long windowStart, long windowEnd, long count, long sum, int distinctValues) {
+        this.key = key;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.count = count;
+        this.sum = sum;
+        this.distinctValues = distinctValues;
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the first timestamp covered by the window
+     * @return inclusive start in milliseconds
+     */
+    public long getWindowStart() {
+        return windowStart;
+    }
+
+    /**
+     * Gets the timestamp the window ends before
+     * @return exclusive end in milliseconds
+     */
+    public long getWindowEnd() {
+        return windowEnd;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the number of different values seen for the key
+     * @return distinct count, 0 unless the {@link WindowSpec} asks for distinct values
+     */
+    public int getDistinctValues() {
+        return distinctValues;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WindowResult)) {
+            return false;
+        }
+        WindowResult<?> other = (WindowResult<?>) o;
+        return windowStart == other.windowStart
+                && windowEnd == other.windowEnd
+                && count == other.count
+                && sum == other.sum
+                && distinctValues == other.distinctValues
+                && (key == null ? other.key == null : key.equals(other.key));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = key == null ? 0 : key.hashCode();
+        result = 31 * result + (int) (windowStart ^ (windowStart >>> 32));
+        result = 31 * result + (int) (count ^ (count >>> 32));
+        return 31 * result + (int) (sum ^ (sum >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "WindowResult{key=" + key + ", window=[" + windowStart + ", " + windowEnd + "), count=" + count
+                + ", sum=" + sum + ", distinctValues=" + distinctValues + '}';
+    }
+}
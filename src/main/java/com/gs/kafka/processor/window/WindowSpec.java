@@ -0,0 +1,95 @@
+package com.gs.kafka.processor.window;
+
+/**
+ * Shape of the event-time windows aggregated by a {@link WindowAggregationStage}.
+ * <p>
+ * Windows are {@code sizeMillis} long and start every {@code slideMillis}, aligned to the epoch;
+ * a tumbling window slides by its own size. The watermark trails the highest timestamp seen by
+ * {@code allowedLatenessMillis}, so records up to that much out of order still count.
+ */
+public final class WindowSpec {
+
+    public static final long DEFAULT_ALLOWED_LATENESS_MILLIS = 0;
+
+    private final long sizeMillis;
+    private final long slideMillis;
+    private final long allowedLatenessMillis;
+    private final boolean distinctValues;
+
+    /**
+     * @param sizeMillis window length
+     * @param slideMillis distance between window starts, at most the window length
+     * @param allowedLatenessMillis how far behind the highest timestamp the watermark trails
+     * @param distinctValues whether to count distinct values per key, which keeps a value set per key and pane
+     */
+    public WindowSpec(long sizeMillis, long slideMillis, long allowedLatenessMillis, boolean distinctValues) {
+        if (sizeMillis <= 0) {
+            throw new IllegalArgumentException("sizeMillis must be positive: " + sizeMillis);
+        }
+        if (slideMillis <= 0 || slideMillis > sizeMillis) {
+            throw new IllegalArgumentException("slideMillis must be between 1 and sizeMillis " + sizeMillis + ": "
+                    + slideMillis);
+        }
+        if (allowedLatenessMillis < 0) {
+            throw new IllegalArgumentException("allowedLatenessMillis must not be negative: " + allowedLatenessMillis);
+        }
+        this.sizeMillis = sizeMillis;
+        this.slideMillis = slideMillis;
+        this.allowedLatenessMillis = allowedLatenessMillis;
+        this.distinctValues = distinctValues;
+    }
+
+    public static WindowSpec tumbling(long sizeMillis) {
+        return new WindowSpec(sizeMillis, sizeMillis, DEFAULT_ALLOWED_LATENESS_MILLIS, false);
+    }
+
+    public static WindowSpec sliding(long sizeMillis, long slideMillis) {
+        return new WindowSpec(sizeMillis, slideMillis, DEFAULT_ALLOWED_LATENESS_MILLIS, false);
+    }
+
+    public long getSizeMillis() {
+        return sizeMillis;
+    }
+
+    public long getSlideMillis() {
+        return slideMillis;
+    }
+
+    /**
+     * Gets the length of the panes that overlapping windows share: the greatest common divisor of
+     * size and slide, so every window is a whole number of panes
+     * @return pane length in milliseconds
+     */
+    public long getPaneMillis() {
+        long a = sizeMillis;
+        long b = slideMillis;
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    public long getAllowedLatenessMillis() {
+        return allowedLatenessMillis;
+    }
+
+    public boolean isDistinctValues() {
+        return distinctValues;
+    }
+
+    public WindowSpec withAllowedLatenessMillis(long millis) {
+        return new WindowSpec(sizeMillis, slideMillis, millis, distinctValues);
+    }
+
+    public WindowSpec withDistinctValues(boolean distinct) {
+        return new WindowSpec(sizeMillis, slideMillis, allowedLatenessMillis, distinct);
+    }
+
+    @Override
+    public String toString() {
+        return "WindowSpec{sizeMillis=" + sizeMillis + ", slideMillis=" + slideMillis + ", allowedLatenessMillis="
+                + allowedLatenessMillis + ", distinctValues=" + distinctValues + '}';
+    }
+}
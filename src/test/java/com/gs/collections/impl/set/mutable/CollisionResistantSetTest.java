@@ -0,0 +1,248 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+import com.gs.collections.impl.list.Interval;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CollisionResistantSet}.
+ */
+public class CollisionResistantSetTest
+{
+    private static final int COLLISION_HASH = 31;
+
+    @Test
+    public void testBasicOperations()
+    {
+        CollisionResistantSet<Integer> set = CollisionResistantSet.newSetWith(1, 2, 3);
+        Assert.assertEquals(3, set.size());
+        Assert.assertFalse(set.add(2));
+        Assert.assertTrue(set.add(null));
+        Assert.assertTrue(set.contains(null));
+        Assert.assertTrue(set.remove(null));
+        Assert.assertFalse(set.remove(null));
+        Assert.assertTrue(set.remove(1));
+        Assert.assertFalse(set.remove(1));
+        Assert.assertEquals(UnifiedSet.newSetWith(2, 3), set);
+        Assert.assertEquals(UnifiedSet.newSetWith(2, 3).hashCode(), set.hashCode());
+        Assert.assertEquals(UnifiedSet.newSetWith(4, 6), set.collect(each -> each * 2));
+        set.clear();
+        Assert.assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testComparableCollisionsAreTreeified()
+    {
+        CollisionResistantSet<CollidingKey> set = CollisionResistantSet.newSet();
+        for (int i = 0; i < 5000; i++)
+        {
+            Assert.assertTrue(set.add(new CollidingKey(i)));
+        }
+        Assert.assertEquals(5000, set.size());
+        Assert.assertEquals(1, set.getTreeBinCount());
+        Assert.assertFalse(set.add(new CollidingKey(42)));
+        Assert.assertTrue(set.contains(new CollidingKey(4999)));
+        Assert.assertFalse(set.contains(new CollidingKey(5000)));
+
+        for (int i = 0; i < 4995; i++)
+        {
+            Assert.assertTrue(set.remove(new CollidingKey(i)));
+        }
+        Assert.assertEquals(5, set.size());
+        Assert.assertEquals(0, set.getTreeBinCount());
+        Assert.assertTrue(set.contains(new CollidingKey(4997)));
+    }
+
+    @Test
+    public void testUnorderedCollisionsStayChained()
+    {
+        CollisionResistantSet<Object> set = CollisionResistantSet.newSet();
+        Object[] keys = new Object[20];
+        for (int i = 0; i < keys.length; i++)
+        {
+            keys[i] = new Object()
+            {
+                @Override
+                public int hashCode()
+                {
+                    return COLLISION_HASH;
+                }
+            };
+            Assert.assertTrue(set.add(keys[i]));
+        }
+        Assert.assertEquals(0, set.getTreeBinCount());
+        Assert.assertEquals(20, set.size());
+        for (Object key : keys)
+        {
+            Assert.assertTrue(set.contains(key));
+        }
+        Assert.assertTrue(set.remove(keys[7]));
+        Assert.assertFalse(set.contains(keys[7]));
+    }
+
+    @Test
+    public void testComparatorOrdersUnrelatedKeys()
+    {
+        Comparator<Object> byId = (left, right) -> Integer.compare(idOf(left), idOf(right));
+        CollisionResistantSet<Object> set = CollisionResistantSet.newSet(byId);
+        for (int i = 0; i < 10; i++)
+        {
+            set.add(new CollidingKey(i));
+        }
+        Assert.assertEquals(1, set.getTreeBinCount());
+        Assert.assertTrue(set.contains(new CollidingKey(3)));
+        Assert.assertFalse(set.contains("not a key"));
+    }
+
+    @Test
+    public void testForeignKeysInTreeBin()
+    {
+        CollisionResistantSet<Object> set = CollisionResistantSet.newSet();
+        for (int i = 0; i < 10; i++)
+        {
+            set.add(new CollidingKey(i));
+        }
+        Object foreign = new Object()
+        {
+            @Override
+            public int hashCode()
+            {
+                return COLLISION_HASH;
+            }
+        };
+        Assert.assertTrue(set.add(foreign));
+        Assert.assertTrue(set.contains(foreign));
+        Assert.assertEquals(11, set.size());
+        Assert.assertTrue(set.remove(foreign));
+        Assert.assertEquals(10, set.size());
+    }
+
+    @Test
+    public void testDeleteDownThroughTreeBinWithForeignKeys()
+    {
+        CollisionResistantSet<Object> set = CollisionResistantSet.newSet();
+        for (int i = 0; i < 9; i++)
+        {
+            set.add(new CollidingKey(i));
+        }
+        Assert.assertEquals(1, set.getTreeBinCount());
+        Object[] foreign = new Object[6];
+        for (int i = 0; i < foreign.length; i++)
+        {
+            foreign[i] = new Object()
+            {
+                @Override
+                public int hashCode()
+                {
+                    return COLLISION_HASH;
+                }
+            };
+            set.add(foreign[i]);
+        }
+
+        // Emptying the tree first leaves only the unordered keys when the bin is untreeified
+        for (int i = 0; i < 9; i++)
+        {
+            Assert.assertTrue(set.remove(new CollidingKey(i)));
+            Assert.assertEquals(14 - i, set.size());
+        }
+        Assert.assertEquals(0, set.getTreeBinCount());
+        for (int i = 0; i < foreign.length; i++)
+        {
+            Assert.assertTrue(set.contains(foreign[i]));
+            Assert.assertTrue(set.remove(foreign[i]));
+            Assert.assertFalse(set.contains(foreign[i]));
+            Assert.assertEquals(foreign.length - i - 1, set.size());
+        }
+        Assert.assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testPoolMethodsKeepFirstInstance()
+    {
+        CollisionResistantSet<CollidingKey> pool = CollisionResistantSet.newSet();
+        for (int i = 0; i < 20; i++)
+        {
+            pool.put(new CollidingKey(i));
+        }
+        CollidingKey first = pool.get(new CollidingKey(5));
+        Assert.assertSame(first, pool.put(new CollidingKey(5)));
+        Assert.assertSame(first, pool.removeFromPool(new CollidingKey(5)));
+        Assert.assertNull(pool.get(new CollidingKey(5)));
+    }
+
+    @Test
+    public void testIteratorRemove()
+    {
+        CollisionResistantSet<Integer> set = CollisionResistantSet.newSet(Interval.oneTo(100));
+        Iterator<Integer> iterator = set.iterator();
+        while (iterator.hasNext())
+        {
+            if (iterator.next() % 2 == 0)
+            {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(50, set.size());
+        Assert.assertTrue(set.allSatisfy(each -> each % 2 == 1));
+        Assert.assertEquals(set, set.clone());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCapacity()
+    {
+        new CollisionResistantSet<Object>(-1, null);
+    }
+
+    private static int idOf(Object key)
+    {
+        return ((CollidingKey) key).id;
+    }
+
+    private static final class CollidingKey implements Comparable<CollidingKey>
+    {
+        private final int id;
+
+        private CollidingKey(int id)
+        {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return COLLISION_HASH;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == this.id;
+        }
+
+        @Override
+        public int compareTo(CollidingKey other)
+        {
+            return Integer.compare(this.id, other.id);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.gs.collections.api.set.MutableSet;
+import com.gs.collections.impl.list.Interval;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ConcurrentUnifiedSet}.
+ */
+public class ConcurrentUnifiedSetTest
+{
+    @Test
+    public void testBasicOperations()
+    {
+        ConcurrentUnifiedSet<Integer> set = ConcurrentUnifiedSet.newSetWith(1, 2, 3);
+        Assert.assertEquals(3, set.size());
+        Assert.assertTrue(set.contains(2));
+        Assert.assertFalse(set.add(2));
+        Assert.assertTrue(set.add(null));
+        Assert.assertTrue(set.contains(null));
+        Assert.assertTrue(set.remove(null));
+        Assert.assertTrue(set.remove(1));
+        Assert.assertFalse(set.contains(1));
+        Assert.assertEquals(UnifiedSet.newSetWith(2, 3), set);
+        Assert.assertEquals(UnifiedSet.newSetWith(2, 3).hashCode(), set.hashCode());
+        set.clear();
+        Assert.assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testConcurrencyLevelRoundsUpToPowerOfTwo()
+    {
+        Assert.assertEquals(1, new ConcurrentUnifiedSet<Integer>(0, 1).getConcurrencyLevel());
+        Assert.assertEquals(8, new ConcurrentUnifiedSet<Integer>(0, 5).getConcurrencyLevel());
+        Assert.assertEquals(64, ConcurrentUnifiedSet.newSet().getConcurrencyLevel());
+    }
+
+    @Test
+    public void testFunctionalOperations()
+    {
+        ConcurrentUnifiedSet<Integer> set = ConcurrentUnifiedSet.newSet(Interval.oneTo(100));
+        MutableSet<Integer> evens = set.select(each -> each % 2 == 0);
+        Assert.assertEquals(50, evens.size());
+        Assert.assertTrue(evens instanceof UnifiedSet);
+        Assert.assertEquals(UnifiedSet.newSetWith(0, 1, 2), set.collect(each -> each % 3));
+        Assert.assertEquals(50, set.reject(each -> each % 2 == 0).size());
+        Assert.assertEquals(5050L, set.injectInto(0L, (long sum, Integer each) -> sum + each));
+        Assert.assertEquals(Integer.valueOf(100), set.max());
+        Assert.assertTrue(set.anySatisfy(each -> each == 42));
+        Assert.assertEquals(100, set.toList().size());
+        Assert.assertEquals(100, set.toImmutable().size());
+        ConcurrentUnifiedSet<Integer> copy = set.clone();
+        copy.remove(1);
+        Assert.assertTrue(set.contains(1));
+    }
+
+    @Test
+    public void testPoolMethodsKeepFirstInstance()
+    {
+        ConcurrentUnifiedSet<String> pool = ConcurrentUnifiedSet.newSet();
+        String first = new String("tenant-a");
+        String second = new String("tenant-a");
+
+        Assert.assertSame(first, pool.put(first));
+        Assert.assertSame(first, pool.put(second));
+        Assert.assertSame(first, pool.get(second));
+        Assert.assertNull(pool.get("tenant-b"));
+        Assert.assertSame(first, pool.removeFromPool(second));
+        Assert.assertTrue(pool.isEmpty());
+    }
+
+    @Test
+    public void testIteratorIsWeaklyConsistent()
+    {
+        ConcurrentUnifiedSet<Integer> set = ConcurrentUnifiedSet.newSet(Interval.oneTo(1000));
+        int seen = 0;
+        for (Integer each : set)
+        {
+            set.remove(each + 1);
+            set.add(each + 10_000);
+            seen++;
+        }
+        Assert.assertTrue(seen > 0);
+
+        Iterator<Integer> iterator = set.iterator();
+        while (iterator.hasNext())
+        {
+            iterator.next();
+            iterator.remove();
+        }
+        Assert.assertTrue(set.isEmpty());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorExhausted()
+    {
+        ConcurrentUnifiedSet.<Integer>newSet().iterator().next();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveWithoutNext()
+    {
+        ConcurrentUnifiedSet.newSetWith(1).iterator().remove();
+    }
+
+    @Test
+    public void testConcurrentAddRemoveAndLookup() throws InterruptedException
+    {
+        ConcurrentUnifiedSet<Integer> set = new ConcurrentUnifiedSet<Integer>(0, 8);
+        int threads = 8;
+        int perThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger lookupMisses = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++)
+        {
+            int base = t * perThread;
+            workers[t] = new Thread(() -> {
+                try
+                {
+                    start.await();
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+                for (int i = base; i < base + perThread; i++)
+                {
+                    set.add(i);
+                    if (!set.contains(i))
+                    {
+                        lookupMisses.incrementAndGet();
+                    }
+                    if (i % 2 == 1)
+                    {
+                        set.remove(i);
+                    }
+                }
+                set.each(each -> { });
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers)
+        {
+            worker.join();
+        }
+        Assert.assertEquals(0, lookupMisses.get());
+        Assert.assertEquals(threads * perThread / 2, set.size());
+        Assert.assertTrue(set.allSatisfy(each -> each % 2 == 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConcurrencyLevel()
+    {
+        new ConcurrentUnifiedSet<Integer>(0, 0);
+    }
+}
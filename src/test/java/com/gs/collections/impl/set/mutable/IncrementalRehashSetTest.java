@@ -0,0 +1,298 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.gs.collections.impl.list.Interval;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link IncrementalRehashSet}.
+ */
+public class IncrementalRehashSetTest
+{
+    @Test
+    public void testBasicOperations()
+    {
+        IncrementalRehashSet<Integer> set = IncrementalRehashSet.newSetWith(1, 2, 3);
+        Assert.assertEquals(3, set.size());
+        Assert.assertFalse(set.add(2));
+        Assert.assertTrue(set.add(null));
+        Assert.assertTrue(set.contains(null));
+        Assert.assertTrue(set.remove(null));
+        Assert.assertTrue(set.remove(1));
+        Assert.assertFalse(set.remove(1));
+        Assert.assertEquals(UnifiedSet.newSetWith(2, 3), set);
+        Assert.assertEquals(UnifiedSet.newSetWith(2, 3).hashCode(), set.hashCode());
+        Assert.assertEquals(UnifiedSet.newSetWith(4, 6), set.collect(each -> each * 2));
+        set.clear();
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertEquals(16, set.capacity());
+    }
+
+    @Test
+    public void testLookupsStayCorrectDuringMigration()
+    {
+        IncrementalRehashSet<Integer> set = new IncrementalRehashSet<Integer>(0, 1);
+        int rehashingChecks = 0;
+        for (int i = 0; i < 100_000; i++)
+        {
+            Assert.assertTrue(set.add(i));
+            if (set.isRehashing())
+            {
+                rehashingChecks++;
+                Assert.assertTrue(set.contains(i / 2));
+                Assert.assertFalse(set.contains(-i - 1));
+            }
+            if (i % 1000 == 0)
+            {
+                Assert.assertEquals(i + 1, set.count(each -> true));
+            }
+            if (i % 3 == 0)
+            {
+                Assert.assertTrue(set.remove(i));
+                Assert.assertTrue(set.add(i));
+            }
+        }
+        Assert.assertTrue(rehashingChecks > 0);
+        Assert.assertEquals(100_000, set.size());
+        Assert.assertEquals(Interval.zeroTo(99_999).toSet(), set);
+    }
+
+    @Test
+    public void testTableDoublesOnGrowth()
+    {
+        IncrementalRehashSet<Integer> set = IncrementalRehashSet.newSet();
+        Assert.assertEquals(16, set.capacity());
+        for (int i = 0; i < 13; i++)
+        {
+            set.add(i);
+        }
+        Assert.assertEquals(32, set.capacity());
+        Assert.assertEquals(64, IncrementalRehashSet.newSet(40).capacity());
+    }
+
+    @Test
+    public void testPoolMethodsKeepFirstInstance()
+    {
+        IncrementalRehashSet<String> pool = IncrementalRehashSet.newSet();
+        String first = new String("tenant-a");
+        Assert.assertSame(first, pool.put(first));
+        Assert.assertSame(first, pool.put(new String("tenant-a")));
+        Assert.assertSame(first, pool.get(new String("tenant-a")));
+        Assert.assertSame(first, pool.removeFromPool(new String("tenant-a")));
+        Assert.assertNull(pool.get("tenant-a"));
+    }
+
+    @Test
+    public void testIteratorRemove()
+    {
+        IncrementalRehashSet<Integer> set = IncrementalRehashSet.newSet(Interval.oneTo(100));
+        Iterator<Integer> iterator = set.iterator();
+        while (iterator.hasNext())
+        {
+            if (iterator.next() % 2 == 0)
+            {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(50, set.size());
+        Assert.assertTrue(set.allSatisfy(each -> each % 2 == 1));
+        Assert.assertEquals(set, set.clone());
+    }
+
+    @Test
+    public void testCollidingKeysChainThroughMigration()
+    {
+        IncrementalRehashSet<CollidingKey> set = new IncrementalRehashSet<CollidingKey>(0, 1);
+        for (int i = 0; i < 40; i++)
+        {
+            Assert.assertTrue(set.add(new CollidingKey(i)));
+            if (set.isRehashing() && i > 1)
+            {
+                Assert.assertTrue(set.remove(new CollidingKey(i - 1)));
+                Assert.assertTrue(set.add(new CollidingKey(i - 1)));
+            }
+        }
+        Assert.assertEquals(40, set.size());
+        Assert.assertEquals(40, set.count(each -> true));
+        for (int i = 0; i < 39; i++)
+        {
+            Assert.assertNotNull(set.get(new CollidingKey(i)));
+            Assert.assertTrue(set.remove(new CollidingKey(i)));
+        }
+        Assert.assertFalse(set.remove(new CollidingKey(0)));
+        Assert.assertEquals(1, set.size());
+        Assert.assertTrue(set.contains(new CollidingKey(39)));
+    }
+
+    @Test
+    public void testRemoveDuringMigrationFindsOldTable()
+    {
+        IncrementalRehashSet<Integer> set = new IncrementalRehashSet<Integer>(0, 1);
+        for (int i = 0; i < 13; i++)
+        {
+            set.add(i);
+        }
+        Assert.assertTrue(set.isRehashing());
+        for (int i = 0; i < 13; i++)
+        {
+            Assert.assertTrue(set.remove(i));
+        }
+        Assert.assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testIteratesBothTablesInPlaceWhileRehashing()
+    {
+        IncrementalRehashSet<Object> set = new IncrementalRehashSet<Object>(0, 1);
+        for (int i = 0; i < 13; i++)
+        {
+            set.add(i);
+            set.add(new CollidingKey(i));
+        }
+        set.add(null);
+        Assert.assertTrue(set.isRehashing());
+        UnifiedSet<Object> expected = UnifiedSet.newSet(set);
+        Assert.assertEquals(27, expected.size());
+
+        UnifiedSet<Object> seen = UnifiedSet.newSet();
+        Iterator<Object> iterator = set.iterator();
+        while (iterator.hasNext())
+        {
+            Object each = iterator.next();
+            Assert.assertTrue(seen.add(each));
+            if (each == null || each instanceof CollidingKey && ((CollidingKey) each).id % 2 == 0)
+            {
+                // Looking ahead may move the iterator to the next bucket before the removal
+                iterator.hasNext();
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(expected, seen);
+        Assert.assertEquals(13 + 6, set.size());
+        Assert.assertFalse(set.contains(null));
+        Assert.assertTrue(set.contains(new CollidingKey(1)));
+        Assert.assertFalse(set.contains(new CollidingKey(2)));
+    }
+
+    @Test
+    public void testLookupsDoNotMigrate()
+    {
+        IncrementalRehashSet<Integer> set = new IncrementalRehashSet<Integer>(0, 1);
+        for (int i = 0; i < 13; i++)
+        {
+            set.add(i);
+        }
+        Assert.assertTrue(set.isRehashing());
+        for (int round = 0; round < 100; round++)
+        {
+            for (int i = 0; i < 13; i++)
+            {
+                Assert.assertTrue(set.contains(i));
+                Assert.assertEquals(Integer.valueOf(i), set.get(i));
+            }
+        }
+        Assert.assertTrue(set.isRehashing());
+    }
+
+    @Test
+    public void testNullInPool()
+    {
+        IncrementalRehashSet<String> pool = IncrementalRehashSet.newSet();
+        Assert.assertNull(pool.get(null));
+        Assert.assertNull(pool.put(null));
+        Assert.assertFalse(pool.add(null));
+        Assert.assertEquals(1, pool.size());
+        Assert.assertNull(pool.removeFromPool(null));
+        Assert.assertTrue(pool.isEmpty());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testFluentAndIterationMethods()
+    {
+        IncrementalRehashSet<Integer> set = IncrementalRehashSet.newSet();
+        Assert.assertNull(set.getFirst());
+        Assert.assertNull(set.getLast());
+        Assert.assertSame(set, set.with(1).without(1).withAll(Interval.oneTo(4)).withoutAll(Interval.oneTo(2)));
+        Assert.assertEquals(UnifiedSet.newSetWith(3, 4), set);
+        Assert.assertTrue(set.contains(set.getFirst()));
+        Assert.assertTrue(set.contains(set.getLast()));
+
+        int[] sums = new int[2];
+        set.forEachWith((each, parameter) -> sums[0] += each * parameter, 10);
+        set.forEachWithIndex((each, index) -> sums[1] += index);
+        Assert.assertEquals(70, sums[0]);
+        Assert.assertEquals(1, sums[1]);
+
+        set.add(null);
+        Assert.assertEquals(UnifiedSet.newSetWith(3, 4, null), set);
+        Assert.assertEquals(set, set);
+        Assert.assertNotEquals(set, Interval.fromTo(3, 4));
+        Assert.assertNotEquals(set, UnifiedSet.newSetWith(3, 4, 5));
+        set.remove(null);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Assert.assertEquals(UnifiedSet.newSetWith(4), set.asParallel(executor, 1).select(each -> each > 3).toSet());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCapacity()
+    {
+        new IncrementalRehashSet<Object>(-1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMigrationStep()
+    {
+        new IncrementalRehashSet<Object>(0, 0);
+    }
+
+    private static final class CollidingKey
+    {
+        private final int id;
+
+        private CollidingKey(int id)
+        {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == this.id;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.gs.collections.impl.list.Interval;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ParallelUnifiedSets}.
+ */
+public class ParallelUnifiedSetsTest
+{
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown()
+    {
+        this.pool.shutdownNow();
+    }
+
+    @Test
+    public void testSelectMatchesSequential()
+    {
+        UnifiedSet<Integer> set = UnifiedSet.newSet(Interval.oneTo(100_000));
+        set.add(null);
+        UnifiedSet<Integer> selected = ParallelUnifiedSets.select(set, each -> each == null || each % 7 == 0, 64, this.pool);
+        Assert.assertEquals(set.select(each -> each == null || each % 7 == 0), selected);
+        Assert.assertTrue(selected.contains(null));
+    }
+
+    @Test
+    public void testCollectMatchesSequential()
+    {
+        UnifiedSet<Integer> set = UnifiedSet.newSet(Interval.oneTo(100_000));
+        UnifiedSet<Integer> collected = ParallelUnifiedSets.collect(set, each -> each % 1000, 64, this.pool);
+        Assert.assertEquals(1000, collected.size());
+        Assert.assertEquals(set.collect(each -> each % 1000), collected);
+    }
+
+    @Test
+    public void testRetainAllMatchesSequential()
+    {
+        UnifiedSet<Integer> set = UnifiedSet.newSet(Interval.oneTo(100_000));
+        UnifiedSet<Integer> expected = UnifiedSet.newSet(set);
+        UnifiedSet<Integer> retained = UnifiedSet.newSet(Interval.fromToBy(0, 200_000, 3));
+        expected.retainAll(retained);
+
+        Assert.assertTrue(ParallelUnifiedSets.retainAll(set, retained, 64, this.pool));
+        Assert.assertEquals(expected, set);
+        Assert.assertFalse(ParallelUnifiedSets.retainAll(set, retained, 64, this.pool));
+    }
+
+    @Test
+    public void testSmallSetRunsInOneSection()
+    {
+        UnifiedSet<Integer> set = UnifiedSet.newSetWith(1, 2, 3, 4);
+        Assert.assertEquals(UnifiedSet.newSetWith(2, 4), ParallelUnifiedSets.select(set, each -> each % 2 == 0));
+        Assert.assertEquals(UnifiedSet.newSetWith("1", "2", "3", "4"), ParallelUnifiedSets.collect(set, String::valueOf));
+        Assert.assertTrue(ParallelUnifiedSets.select(UnifiedSet.<Integer>newSet(), each -> true).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize()
+    {
+        ParallelUnifiedSets.select(UnifiedSet.newSetWith(1), each -> true, 0, this.pool);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.gs.collections.impl.factory.Sets;
+import com.gs.collections.impl.list.Interval;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SetAlgebra}.
+ */
+public class SetAlgebraTest
+{
+    private final UnifiedSet<Integer> small = UnifiedSet.newSetWith(3, 4, 5, 6, 2000);
+    private final UnifiedSet<Integer> large = UnifiedSet.newSet(Interval.oneTo(1000));
+
+    @Test
+    public void testMatchesSetsFactoryInBothOrders()
+    {
+        Assert.assertEquals(Sets.union(this.small, this.large), SetAlgebra.union(this.small, this.large));
+        Assert.assertEquals(Sets.union(this.large, this.small), SetAlgebra.union(this.large, this.small));
+        Assert.assertEquals(Sets.intersect(this.small, this.large), SetAlgebra.intersect(this.small, this.large));
+        Assert.assertEquals(Sets.intersect(this.large, this.small), SetAlgebra.intersect(this.large, this.small));
+        Assert.assertEquals(Sets.difference(this.small, this.large), SetAlgebra.difference(this.small, this.large));
+        Assert.assertEquals(Sets.difference(this.large, this.small), SetAlgebra.difference(this.large, this.small));
+        Assert.assertEquals(UnifiedSet.newSetWith(2000), SetAlgebra.difference(this.small, this.large));
+    }
+
+    @Test
+    public void testInPlace()
+    {
+        UnifiedSet<Integer> target = UnifiedSet.newSet(this.large);
+        Assert.assertTrue(SetAlgebra.intersectInPlace(target, this.small));
+        Assert.assertEquals(UnifiedSet.newSetWith(3, 4, 5, 6), target);
+        Assert.assertFalse(SetAlgebra.intersectInPlace(target, this.large));
+
+        target = UnifiedSet.newSet(this.small);
+        Assert.assertTrue(SetAlgebra.intersectInPlace(target, this.large));
+        Assert.assertEquals(UnifiedSet.newSetWith(3, 4, 5, 6), target);
+
+        target = UnifiedSet.newSet(this.large);
+        Assert.assertTrue(SetAlgebra.differenceInPlace(target, this.small));
+        Assert.assertEquals(996, target.size());
+        target = UnifiedSet.newSet(this.small);
+        Assert.assertTrue(SetAlgebra.differenceInPlace(target, this.large));
+        Assert.assertEquals(UnifiedSet.newSetWith(2000), target);
+        Assert.assertFalse(SetAlgebra.differenceInPlace(target, this.large));
+
+        Assert.assertTrue(SetAlgebra.unionInPlace(target, this.small));
+        Assert.assertEquals(this.small, target);
+    }
+
+    @Test
+    public void testIntersectInPlaceKeepsTargetInstances()
+    {
+        String a = new String("a");
+        String b = new String("b");
+        UnifiedSet<String> target = UnifiedSet.newSetWith(a, b, "c", "d", "e");
+        Assert.assertTrue(SetAlgebra.intersectInPlace(target, UnifiedSet.newSetWith(new String("a"), new String("b"))));
+        Assert.assertEquals(UnifiedSet.newSetWith("a", "b"), target);
+        Assert.assertSame(a, target.get("a"));
+        Assert.assertSame(b, target.get("b"));
+        Assert.assertTrue(SetAlgebra.intersectInPlace(target, UnifiedSet.newSet()));
+        Assert.assertTrue(target.isEmpty());
+    }
+
+    @Test
+    public void testViewsAreLive()
+    {
+        Set<Integer> left = new HashSet<>(this.small);
+        Set<Integer> union = SetAlgebra.unionView(left, this.large);
+        Set<Integer> intersect = SetAlgebra.intersectView(left, this.large);
+        Set<Integer> difference = SetAlgebra.differenceView(left, this.large);
+
+        Assert.assertEquals(Sets.union(this.small, this.large), union);
+        Assert.assertEquals(1001, union.size());
+        Assert.assertEquals(UnifiedSet.newSetWith(3, 4, 5, 6), intersect);
+        Assert.assertEquals(UnifiedSet.newSetWith(2000), difference);
+        Assert.assertTrue(intersect.contains(3));
+        Assert.assertFalse(difference.contains(3));
+
+        left.remove(2000);
+        left.add(3000);
+        Assert.assertTrue(union.contains(3000));
+        Assert.assertFalse(union.contains(2000));
+        Assert.assertEquals(UnifiedSet.newSetWith(3000), difference);
+        Assert.assertFalse(SetAlgebra.intersectView(left, UnifiedSet.newSetWith(-1)).iterator().hasNext());
+        Assert.assertTrue(SetAlgebra.intersectView(left, UnifiedSet.newSetWith(-1)).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewsAreReadOnly()
+    {
+        SetAlgebra.unionView(this.small, this.large).add(5000);
+    }
+
+    @Test
+    public void testSortedLongArrays()
+    {
+        long[] evens = {0, 2, 4, 6, 8, 10};
+        long[] small = {4, 5, 10, 12};
+        Assert.assertArrayEquals(new long[]{0, 2, 4, 5, 6, 8, 10, 12}, SetAlgebra.union(evens, small));
+        Assert.assertArrayEquals(new long[]{4, 10}, SetAlgebra.intersect(evens, small));
+        Assert.assertArrayEquals(new long[]{0, 2, 6, 8}, SetAlgebra.difference(evens, small));
+        Assert.assertArrayEquals(new long[]{5, 12}, SetAlgebra.difference(small, evens));
+        Assert.assertArrayEquals(new long[0], SetAlgebra.intersect(new long[0], evens));
+    }
+
+    @Test
+    public void testSortedLongArrayIntersectionGallops()
+    {
+        long[] large = new long[10_000];
+        for (int i = 0; i < large.length; i++)
+        {
+            large[i] = i * 3L;
+        }
+        long[] small = {-1, 3, 4, 9_999, 29_997, 40_000};
+        Assert.assertArrayEquals(new long[]{3, 9_999, 29_997}, SetAlgebra.intersect(small, large));
+        Assert.assertArrayEquals(new long[]{3, 9_999, 29_997}, SetAlgebra.intersect(large, small));
+
+        long[] union = SetAlgebra.union(small, large);
+        Assert.assertEquals(10_003, union.length);
+        Assert.assertEquals(-1, union[0]);
+        Assert.assertEquals(4, union[3]);
+        Assert.assertEquals(40_000, union[union.length - 1]);
+        Assert.assertArrayEquals(union, SetAlgebra.union(large, small));
+
+        Assert.assertArrayEquals(new long[]{-1, 4, 40_000}, SetAlgebra.difference(small, large));
+        long[] difference = SetAlgebra.difference(large, small);
+        Assert.assertEquals(9_997, difference.length);
+        Assert.assertEquals(0, difference[0]);
+        Assert.assertEquals(6, difference[1]);
+        Assert.assertEquals(29_994, difference[difference.length - 1]);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.gs.collections.impl.set.mutable.primitive.LongHashSet;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link SetSnapshots}.
+ */
+public class SetSnapshotsTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRestoresStringsIntoSameSlots() throws IOException
+    {
+        UnifiedSet<String> set = UnifiedSet.newSet();
+        for (int i = 0; i < 50_000; i++)
+        {
+            set.add("key-" + i);
+        }
+        set.add(null);
+        set.add("clé");
+        Path file = this.folder.getRoot().toPath().resolve("strings.snap");
+        SetSnapshots.write(set, SetSnapshots.STRINGS, file);
+
+        UnifiedSet<String> restored = SetSnapshots.readUnifiedSet(file, SetSnapshots.STRINGS);
+        Assert.assertEquals(set, restored);
+        Assert.assertTrue(restored.contains(null));
+        Assert.assertTrue(restored.contains("clé"));
+        Assert.assertEquals(UnifiedSetFootprint.tableLength(set), UnifiedSetFootprint.tableLength(restored));
+        Assert.assertEquals(UnifiedSetFootprint.countChainedBuckets(set), UnifiedSetFootprint.countChainedBuckets(restored));
+        Assert.assertTrue(restored.remove("key-7"));
+        Assert.assertTrue(restored.add("key-50000"));
+        Assert.assertEquals(set.size(), restored.size());
+    }
+
+    @Test
+    public void testRestoresLongChains() throws IOException
+    {
+        // Equal hash codes put every element into one chain of nested buckets
+        UnifiedSet<CollidingKey> set = UnifiedSet.newSet();
+        for (int i = 0; i < 11; i++)
+        {
+            set.add(new CollidingKey(i));
+        }
+        Path file = this.folder.getRoot().toPath().resolve("chain.snap");
+        SetSnapshots.write(set, CollidingKey.CODEC, file);
+        UnifiedSet<CollidingKey> restored = SetSnapshots.readUnifiedSet(file, CollidingKey.CODEC);
+        Assert.assertEquals(set, restored);
+        Assert.assertEquals(UnifiedSetFootprint.countChainedBuckets(set), UnifiedSetFootprint.countChainedBuckets(restored));
+        Assert.assertTrue(restored.remove(new CollidingKey(5)));
+        Assert.assertEquals(10, restored.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsIdentityHashCodes() throws IOException
+    {
+        UnifiedSet<Object> set = UnifiedSet.newSet();
+        for (int i = 0; i < 100; i++)
+        {
+            set.add(new Object());
+        }
+        SetSnapshots.Codec<Object> codec = new SetSnapshots.Codec<Object>()
+        {
+            public int encodedLength(Object element)
+            {
+                return 0;
+            }
+
+            public void encode(Object element, ByteBuffer out)
+            {
+            }
+
+            public Object decode(ByteBuffer in)
+            {
+                return new Object();
+            }
+        };
+        Path file = this.folder.getRoot().toPath().resolve("objects.snap");
+        SetSnapshots.write(set, codec, file);
+        SetSnapshots.readUnifiedSet(file, codec);
+    }
+
+    @Test
+    public void testRestoresLongHashSetTable() throws IOException
+    {
+        LongHashSet set = new LongHashSet();
+        for (long i = -10; i < 100_000; i++)
+        {
+            set.add(i * 3);
+        }
+        set.remove(30);
+        set.remove(3000);
+        Path file = this.folder.getRoot().toPath().resolve("longs.snap");
+        SetSnapshots.write(set, file);
+
+        LongHashSet restored = SetSnapshots.readLongHashSet(file);
+        Assert.assertEquals(set, restored);
+        Assert.assertFalse(restored.contains(30));
+        Assert.assertFalse(restored.contains(3000));
+        Assert.assertTrue(restored.contains(0));
+        Assert.assertTrue(restored.add(30));
+        Assert.assertTrue(restored.remove(-30));
+        Assert.assertEquals(set.size(), restored.size());
+    }
+
+    @Test
+    public void testRejectsInvalidRecords() throws IOException
+    {
+        UnifiedSet<String> set = UnifiedSet.newSetWith("a", "b", "c");
+        Path file = this.folder.getRoot().toPath().resolve("strings.snap");
+        SetSnapshots.write(set, SetSnapshots.STRINGS, file);
+        byte[] valid = Files.readAllBytes(file);
+        ByteBuffer snapshot = ByteBuffer.wrap(valid).order(ByteOrder.LITTLE_ENDIAN);
+        int capacity = snapshot.getInt(4);
+        int firstSlot = snapshot.getInt(32);
+        int firstBytes = snapshot.getInt(40);
+        int second = 32 + 12 + firstBytes;
+
+        // Each case overwrites one int of a record header: slot, count or byte length
+        int[][] corruptions = {
+                {32, -1}, {32, capacity}, {second, firstSlot},
+                {36, 0}, {36, 4}, {40, -1}, {40, 1}, {40, firstBytes + 1}};
+        for (int[] corruption : corruptions)
+        {
+            ByteBuffer corrupt = ByteBuffer.wrap(valid.clone()).order(ByteOrder.LITTLE_ENDIAN);
+            corrupt.putInt(corruption[0], corruption[1]);
+            Files.write(file, corrupt.array());
+            try
+            {
+                SetSnapshots.readUnifiedSet(file, SetSnapshots.STRINGS);
+                Assert.fail("Should reject " + Arrays.toString(corruption));
+            }
+            catch (IOException e)
+            {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testFailedWriteKeepsPreviousSnapshot() throws IOException
+    {
+        Path file = this.folder.getRoot().toPath().resolve("strings.snap");
+        SetSnapshots.write(UnifiedSet.newSetWith("a", "b"), SetSnapshots.STRINGS, file);
+        SetSnapshots.Codec<String> failing = new SetSnapshots.Codec<String>()
+        {
+            public int encodedLength(String element)
+            {
+                throw new IllegalStateException("cannot encode " + element);
+            }
+
+            public void encode(String element, ByteBuffer out)
+            {
+            }
+
+            public String decode(ByteBuffer in)
+            {
+                return null;
+            }
+        };
+        try
+        {
+            SetSnapshots.write(UnifiedSet.newSetWith("c"), failing, file);
+            Assert.fail("Should propagate the codec failure");
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+        Assert.assertEquals(UnifiedSet.newSetWith("a", "b"), SetSnapshots.readUnifiedSet(file, SetSnapshots.STRINGS));
+        Assert.assertFalse(Files.exists(file.resolveSibling("strings.snap.tmp")));
+    }
+
+    private static final class CollidingKey
+    {
+        static final SetSnapshots.Codec<CollidingKey> CODEC = new SetSnapshots.Codec<CollidingKey>()
+        {
+            public int encodedLength(CollidingKey element)
+            {
+                return 4;
+            }
+
+            public void encode(CollidingKey element, ByteBuffer out)
+            {
+                out.putInt(element.value);
+            }
+
+            public CollidingKey decode(ByteBuffer in)
+            {
+                return new CollidingKey(in.getInt());
+            }
+        };
+
+        private final int value;
+
+        CollidingKey(int value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            return other instanceof CollidingKey && ((CollidingKey) other).value == this.value;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 42;
+        }
+    }
+}
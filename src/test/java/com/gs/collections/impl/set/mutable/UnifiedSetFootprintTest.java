@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Goldman Sachs.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gs.collections.impl.set.mutable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link UnifiedSetFootprint}.
+ */
+public class UnifiedSetFootprintTest
+{
+    @Test
+    public void testEmptySet()
+    {
+        UnifiedSet<Integer> set = UnifiedSet.newSet(8);
+        Assert.assertEquals(0, UnifiedSetFootprint.countChainedBuckets(set));
+        int tableLength = UnifiedSetFootprint.tableLength(set);
+        Assert.assertTrue(tableLength >= 8);
+        Assert.assertTrue(UnifiedSetFootprint.estimateBytes(set) >= 16 + 4L * tableLength);
+    }
+
+    @Test
+    public void testCollisionsAllocateChainedBuckets()
+    {
+        UnifiedSet<Object> set = UnifiedSet.newSet();
+        long before = UnifiedSetFootprint.estimateBytes(set);
+        for (int i = 0; i < 10; i++)
+        {
+            set.add(new CollidingKey(i));
+        }
+        // Ten keys in one slot need three linked buckets of up to four entries
+        Assert.assertEquals(3, UnifiedSetFootprint.countChainedBuckets(set));
+        Assert.assertEquals(before + 3 * UnifiedSetFootprint.CHAINED_BUCKET_BYTES, UnifiedSetFootprint.estimateBytes(set));
+    }
+
+    private static final class CollidingKey
+    {
+        private final int id;
+
+        private CollidingKey(int id)
+        {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == this.id;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.gs.kafka.processor.batch;
+
+import com.gs.kafka.processor.sink.Column;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for ColumnarBatchBuilder
+ */
+public class ColumnarBatchBuilderTest {
+
+    private static final Schema SCHEMA = Schema.of(null,
+            new Column("partition", ColumnType.INT),
+            new Column("offset", ColumnType.LONG),
+            new Column("tenant", ColumnType.STRING),
+            new Column("price", ColumnType.DOUBLE));
+
+    @Test
+    public void testBuildsColumnsAndDictionary() {
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(SCHEMA, 4);
+        for (int i = 0; i < 10; i++) {
+            builder.setInt(0, i % 3).setLong(1, i).setString(2, "tenant-" + (i % 2)).setDouble(3, i / 4.0).appendRow();
+        }
+        ColumnarBatch batch = builder.build();
+
+        assertEquals(10, batch.getRowCount());
+        assertEquals(0, builder.getRowCount());
+        assertEquals(2, batch.column(0).getInt(5));
+        assertEquals(7L, batch.column("offset").getLong(7));
+        assertEquals(2.25, batch.column(3).getDouble(9), 0.0);
+        StringBatchColumn tenants = (StringBatchColumn) batch.column(2);
+        assertArrayEquals(new String[] {"tenant-0", "tenant-1"}, tenants.getDictionary());
+        assertEquals(1, tenants.getCode(3));
+        assertEquals("tenant-1", tenants.getString(3));
+        for (int i = 0; i < 4; i++) {
+            assertFalse(batch.column(i).hasNulls());
+        }
+        assertTrue(batch.estimatedBytes() > 0);
+    }
+
+    @Test
+    public void testValidityBitmap() {
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(SCHEMA, 16);
+        for (int i = 0; i < 200; i++) {
+            builder.setInt(0, i).setLong(1, i).setDouble(3, i);
+            if (i % 7 == 3) {
+                builder.setString(2, null);
+            } else {
+                builder.setString(2, "t");
+            }
+            if (i >= 100) {
+                builder.setNull(0);
+            }
+            builder.appendRow();
+        }
+        ColumnarBatch batch = builder.build();
+
+        BatchColumn partitions = batch.column(0);
+        assertEquals(100, partitions.getNullCount());
+        assertFalse(partitions.isNull(99));
+        assertTrue(partitions.isNull(100));
+        assertNull(partitions.getValue(150));
+        assertEquals(99, partitions.getValue(99));
+
+        BatchColumn tenants = batch.column(2);
+        assertEquals(29, tenants.getNullCount());
+        assertTrue(tenants.isNull(3));
+        assertNull(tenants.getString(3));
+        assertEquals(-1, ((StringBatchColumn) tenants).getCode(3));
+        assertEquals("t", tenants.getString(4));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingColumn() {
+        new ColumnarBatchBuilder(SCHEMA).setInt(0, 1).setLong(1, 1).setDouble(3, 1).appendRow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        new ColumnarBatchBuilder(SCHEMA).setLong(0, 1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testWrongReader() {
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(SCHEMA);
+        builder.setInt(0, 1).setLong(1, 1).setString(2, "a").setDouble(3, 1).appendRow();
+        builder.build().column(3).getString(0);
+    }
+}
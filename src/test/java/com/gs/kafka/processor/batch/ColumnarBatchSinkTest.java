@@ -0,0 +1,60 @@
+package com.gs.kafka.processor.batch;
+
+import java.io.IOException;
+
+import com.gs.collections.impl.factory.Lists;
+import com.gs.kafka.processor.query.Filter;
+import com.gs.kafka.processor.query.ScanResult;
+import com.gs.kafka.processor.query.TableScan;
+import com.gs.kafka.processor.sink.Column;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+import com.gs.kafka.processor.sink.SinkConfig;
+import com.gs.kafka.processor.sink.Table;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for ColumnarBatchSink
+ */
+public class ColumnarBatchSinkTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWritesBatchesByColumnName() throws IOException {
+        Table table = Table.create(folder.getRoot().toPath(), Schema.of("partition",
+                new Column("partition", ColumnType.INT),
+                new Column("key", ColumnType.STRING)));
+        Schema batchSchema = Schema.of(null,
+                new Column("key", ColumnType.STRING),
+                new Column("extra", ColumnType.DOUBLE),
+                new Column("partition", ColumnType.INT));
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(batchSchema);
+        ColumnarBatchSink sink = new ColumnarBatchSink(table.newWriter(SinkConfig.defaults()));
+        for (int batch = 0; batch < 3; batch++) {
+            for (int i = 0; i < 100; i++) {
+                builder.setString(0, "key-" + i).setDouble(1, i).setInt(2, i % 2).appendRow();
+            }
+            sink.write(Lists.mutable.with(builder.build()));
+        }
+        sink.close();
+
+        assertEquals(300, sink.getWriter().getRowsWritten());
+        ScanResult result = new TableScan(table).filter(Filter.eq("key", "key-3")).collect();
+        assertEquals(3, result.getRows().size());
+        assertEquals(1, result.getRows().get(0)[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNulls() throws IOException {
+        Schema schema = Schema.of(null, new Column("key", ColumnType.STRING));
+        Table table = Table.create(folder.getRoot().toPath(), schema);
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(schema);
+        builder.setNull(0).appendRow();
+        new ColumnarBatchSink(table.newWriter(SinkConfig.defaults())).write(Lists.mutable.with(builder.build()));
+    }
+}
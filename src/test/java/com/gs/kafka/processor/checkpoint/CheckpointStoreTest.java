@@ -0,0 +1,252 @@
+package com.gs.kafka.processor.checkpoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for CheckpointStore
+ */
+public class CheckpointStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecoversOffsetsAndDedupKeys() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            store.commit(0, 10);
+            store.commit(1, 20);
+            store.commit(0, 11);
+            store.appendDedupKey(1);
+            store.appendDedupRotation();
+            store.appendDedupKey(2);
+            store.appendDedupRotation();
+            store.appendDedupKey(3);
+            store.sync();
+        }
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            assertEquals(11, store.getOffset(0));
+            assertEquals(20, store.getOffset(1));
+            assertEquals(-1, store.getOffset(2));
+            assertFalse(store.containsDedupKey(1));
+            assertTrue(store.containsDedupKey(2));
+            assertTrue(store.containsDedupKey(3));
+            assertEquals(2, store.getDedupKeys().size());
+        }
+    }
+
+    @Test
+    public void testOneSyncWritesEveryPendingChange() throws IOException {
+        try (CheckpointStore store = CheckpointStore.open(folder.getRoot().toPath())) {
+            long first = store.appendOffset(0, 1);
+            for (int partition = 1; partition < 100; partition++) {
+                store.appendOffset(partition, partition);
+            }
+            store.sync(first);
+            assertEquals(1, store.getSyncs());
+            assertEquals(100, store.getEntriesWritten());
+            store.sync();
+            assertEquals(1, store.getSyncs());
+        }
+    }
+
+    @Test
+    public void testConcurrentCommitsAreDurable() throws Exception {
+        Path dir = folder.getRoot().toPath();
+        int threads = 8;
+        int commits = 200;
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        long syncs;
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int partition = t;
+                workers[t] = new Thread(() -> {
+                    try {
+                        for (int offset = 1; offset <= commits; offset++) {
+                            store.commit(partition, offset);
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assertNull(error.get());
+            syncs = store.getSyncs();
+            assertEquals(threads * commits, store.getEntriesWritten());
+        }
+        assertTrue("syncs " + syncs, syncs <= threads * commits);
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            for (int partition = 0; partition < threads; partition++) {
+                assertEquals(commits, store.getOffset(partition));
+            }
+        }
+    }
+
+    @Test
+    public void testCompactsIntoSnapshot() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (CheckpointStore store = CheckpointStore.open(dir, 4096)) {
+            for (int i = 0; i < 2000; i++) {
+                store.appendOffset(i % 16, i);
+                store.appendDedupKey(i);
+                if (i == 1000) {
+                    store.appendDedupRotation();
+                }
+                if (i % 50 == 0) {
+                    store.sync();
+                }
+            }
+            store.sync();
+            assertTrue(store.getCompactions() > 0);
+            assertTrue(store.getLogBytes() < 4096 + 50 * 22);
+        }
+        assertEquals(2, fileCount(dir));
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            assertEquals(1999, store.getOffset(15));
+            assertEquals(1984, store.getOffset(0));
+            assertEquals(2000, store.getDedupKeys().size());
+            store.appendDedupRotation();
+            store.appendDedupRotation();
+            store.compact();
+            assertEquals(0, store.getLogBytes());
+        }
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            assertTrue(store.getDedupKeys().isEmpty());
+            assertEquals(1999, store.getOffset(15));
+        }
+    }
+
+    @Test
+    public void testTruncatesTornFrame() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            store.commit(0, 1);
+            store.commit(0, 2);
+        }
+        Path log;
+        try (Stream<Path> files = Files.list(dir)) {
+            log = files.filter(path -> path.toString().endsWith(".log")).findFirst().get();
+        }
+        long size = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            assertEquals(1, store.getOffset(0));
+            assertEquals(size - 25, store.getLogBytes());
+            store.commit(0, 3);
+        }
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            assertEquals(3, store.getOffset(0));
+        }
+    }
+
+    @Test
+    public void testChecksumCoversFrameHeader() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            store.commit(0, 1);
+            store.commit(0, 2);
+        }
+        Path log = onlyFile(dir, ".log");
+        byte[] bytes = Files.readAllBytes(log);
+        // Entry count of the second frame
+        bytes[25 + 7] ^= 2;
+        Files.write(log, bytes);
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            assertEquals(1, store.getOffset(0));
+            assertEquals(25, store.getLogBytes());
+        }
+    }
+
+    @Test
+    public void testTruncatesMalformedFrame() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            store.commit(0, 1);
+        }
+        Path log = onlyFile(dir, ".log");
+        // A frame with a valid checksum but an unknown entry type
+        ByteBuffer frame = ByteBuffer.allocate(13);
+        frame.putInt(1).putInt(1).put((byte) 99);
+        CRC32 crc = new CRC32();
+        crc.update(frame.array(), 0, 9);
+        frame.putInt((int) crc.getValue());
+        Files.write(log, frame.array(), StandardOpenOption.APPEND);
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            assertEquals(1, store.getOffset(0));
+            assertEquals(25, store.getLogBytes());
+        }
+    }
+
+    @Test
+    public void testCorruptSnapshotFailsClosed() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            store.commit(0, 42);
+            store.compact();
+            store.commit(1, 7);
+        }
+        Path snapshot = onlyFile(dir, ".snap");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[8] ^= 1;
+        Files.write(snapshot, bytes);
+        try {
+            CheckpointStore.open(dir).close();
+            fail("Recovering without the snapshot would lose the offset of partition 0");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testDeletesUnfinishedSnapshot() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            store.commit(0, 10);
+        }
+        Path temp = dir.resolve("checkpoint-0000000001.snap.tmp");
+        Files.write(temp, new byte[] {1, 2, 3});
+        try (CheckpointStore store = CheckpointStore.open(dir)) {
+            assertEquals(10, store.getOffset(0));
+        }
+        assertFalse(Files.exists(temp));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectsAppendAfterClose() throws IOException {
+        CheckpointStore store = CheckpointStore.open(folder.getRoot().toPath());
+        store.close();
+        store.appendOffset(0, 1);
+    }
+
+    private static Path onlyFile(Path dir, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.toString().endsWith(suffix)).findFirst().get();
+        }
+    }
+
+    private static long fileCount(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.gs.kafka.processor.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.gs.kafka.processor.sink.Column;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for RecordFlyweight
+ */
+public class RecordFlyweightTest {
+
+    private static final RecordLayout LAYOUT = new RecordLayout(Schema.of(null,
+            new Column("quantity", ColumnType.INT),
+            new Column("tenant", ColumnType.STRING),
+            new Column("offset", ColumnType.LONG),
+            new Column("price", ColumnType.DOUBLE)));
+
+    @Test
+    public void testLayoutOffsets() {
+        assertEquals(4, LAYOUT.offset(0));
+        assertEquals(8, LAYOUT.offset(1));
+        assertEquals(16, LAYOUT.offset(2));
+        assertEquals(24, LAYOUT.offset(3));
+        assertEquals(32, LAYOUT.getFixedLength());
+        assertEquals(1, LAYOUT.indexOf("tenant"));
+    }
+
+    @Test
+    public void testRoundTripHeapAndDirect() {
+        for (ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256)}) {
+            int length = write(buffer, 0, 17, "tenant-é", 1L << 40, 12.5);
+            assertEquals(32 + 9, length);
+
+            RecordFlyweight record = new RecordFlyweight(LAYOUT).wrap(buffer, 0);
+            assertEquals(length, record.length());
+            assertEquals(17, record.getInt(0));
+            assertEquals(17L, record.getLong(0));
+            assertEquals(1L << 40, record.getLong(2));
+            assertEquals(12.5, record.getDouble(3), 0.0);
+            assertEquals(9, record.getStringLength(1));
+            assertEquals("tenant-é", record.getString(1));
+            assertTrue(record.stringEquals(1, "tenant-é".getBytes(StandardCharsets.UTF_8)));
+            assertFalse(record.stringEquals(1, "tenant-e!".getBytes(StandardCharsets.UTF_8)));
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    public void testIgnoresBufferByteOrder() {
+        ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.BIG_ENDIAN);
+        write(buffer, 0, 0x01020304, "", 7L, 0.0);
+        assertEquals(0x04, buffer.get(4));
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        assertEquals(0x01020304, new RecordFlyweight(LAYOUT).wrap(buffer, 0).getInt(0));
+    }
+
+    @Test
+    public void testWalksConsecutiveRecordsOfAnArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        int offset = 0;
+        for (int i = 0; i < 10; i++) {
+            offset += write(buffer, offset, i, "tenant-" + i, i * 10L, i / 2.0);
+        }
+        byte[] bytes = Arrays.copyOf(buffer.array(), offset);
+        RecordFlyweight record = new RecordFlyweight(LAYOUT);
+        byte[] copy = new byte[16];
+        int count = 0;
+        for (int position = 0; position < bytes.length; position += record.length()) {
+            record.wrap(bytes, position);
+            assertEquals(count, record.getInt(0));
+            assertEquals(count * 10L, record.getLong(2));
+            int size = record.copyString(1, copy, 0);
+            assertEquals("tenant-" + count, new String(copy, 0, size, StandardCharsets.UTF_8));
+            count++;
+        }
+        assertEquals(10, count);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongColumnType() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        write(buffer, 0, 1, "a", 1L, 1.0);
+        new RecordFlyweight(LAYOUT).wrap(buffer, 0).getDouble(0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTruncatedRecord() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        int length = write(buffer, 0, 1, "abcdef", 1L, 1.0);
+        buffer.limit(length - 1);
+        new RecordFlyweight(LAYOUT).wrap(buffer, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriterChecksColumnType() {
+        new RecordWriter(LAYOUT).wrap(ByteBuffer.allocate(64), 0).putLong(0, 1L);
+    }
+
+    @Test
+    public void testStringSlotMustStayInRecord() {
+        byte[] utf8 = "abcdef".getBytes(StandardCharsets.UTF_8);
+        // Start inside the fixed fields, size past the frame and a negative size
+        for (int[] slot : new int[][] {{4, 6}, {32, 7}, {32, -1}}) {
+            ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+            write(buffer, 0, 1, "abcdef", 1L, 1.0);
+            buffer.putInt(8, slot[0]).putInt(12, slot[1]);
+            RecordFlyweight record = new RecordFlyweight(LAYOUT).wrap(buffer.array());
+            try {
+                record.getString(1);
+                fail("Should reject slot " + Arrays.toString(slot));
+            } catch (IndexOutOfBoundsException e) {
+                // Expected
+            }
+            try {
+                record.stringEquals(1, utf8);
+                fail("Should reject slot " + Arrays.toString(slot));
+            } catch (IndexOutOfBoundsException e) {
+                // Expected
+            }
+            try {
+                record.copyString(1, new byte[64], 0);
+                fail("Should reject slot " + Arrays.toString(slot));
+            } catch (IndexOutOfBoundsException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testWriterChecksLimit() {
+        new RecordWriter(LAYOUT).wrap(ByteBuffer.allocate(40), 0).putString(1, "too long for the buffer");
+    }
+
+    private static int write(ByteBuffer buffer, int offset, int quantity, String tenant, long position, double price) {
+        return new RecordWriter(LAYOUT).wrap(buffer, offset)
+                .putInt(0, quantity)
+                .putString(1, tenant)
+                .putLong(2, position)
+                .putDouble(3, price)
+                .finish();
+    }
+}
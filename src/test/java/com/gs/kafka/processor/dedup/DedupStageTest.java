@@ -0,0 +1,42 @@
+package com.gs.kafka.processor.dedup;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.kafka.processor.pipeline.BatchPipeline;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.InMemoryRecordSource;
+import com.gs.kafka.processor.pipeline.PipelineResult;
+import com.gs.kafka.processor.pipeline.Record;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for DedupStage
+ */
+public class DedupStageTest {
+
+    @Test
+    public void testDropsRedeliveredRecords() {
+        DedupStage<String> stage = DedupStage.byKey(new DedupWindow<>(1000, 60_000));
+        MutableList<Record> first = FastList.newListWith(
+                Record.ofInt(0, 0, "a", 1), Record.ofInt(0, 1, "b", 2), Record.ofInt(0, 2, "a", 1));
+        assertEquals(FastList.newListWith(first.get(0), first.get(1)), stage.apply(first));
+        assertTrue(stage.apply(FastList.newListWith(Record.ofInt(0, 1, "b", 2))).isEmpty());
+        assertEquals(2, stage.getWindow().getHits());
+    }
+
+    @Test
+    public void testInFrontOfPipelineDecoder() {
+        // ofInts cycles through 1024 distinct keys
+        DedupStage<String> dedup = DedupStage.byKey(new DedupWindow<>(10_000, 60_000));
+        MutableList<Integer> written = FastList.newList();
+        PipelineResult result = new BatchPipeline<>(
+                InMemoryRecordSource.ofInts(2, 5000),
+                dedup.andThen(BatchStage.perRecord(Record::valueAsInt)),
+                BatchStage.perRecord(value -> value),
+                written::addAll).run();
+        assertEquals(5000, result.getRecords());
+        assertEquals(1024, result.getWritten());
+        assertEquals(1024, written.size());
+    }
+}
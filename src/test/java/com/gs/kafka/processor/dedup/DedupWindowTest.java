@@ -0,0 +1,109 @@
+package com.gs.kafka.processor.dedup;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for DedupWindow
+ */
+public class DedupWindowTest {
+
+    @Test
+    public void testMarkSeenDetectsDuplicates() {
+        DedupWindow<String> window = new DedupWindow<>(100, 60_000);
+        assertTrue(window.markSeen("a"));
+        assertTrue(window.markSeen("b"));
+        assertFalse(window.markSeen("a"));
+        assertFalse(window.markSeen(new String("b")));
+        assertEquals(2, window.size());
+        assertEquals(2, window.getHits());
+        assertEquals(2, window.getMisses());
+    }
+
+    @Test
+    public void testCanonicalizeReturnsFirstInstance() {
+        DedupWindow<String> window = new DedupWindow<>(100, 60_000);
+        String first = new String("id-1");
+        String second = new String("id-1");
+        assertSame(first, window.canonicalize(first));
+        assertSame(first, window.canonicalize(second));
+        assertEquals(1, window.getHits());
+    }
+
+    @Test
+    public void testCountBoundRotatesGenerations() {
+        DedupWindow<Integer> window = new DedupWindow<>(2, 60_000);
+        window.markSeen(1);
+        window.markSeen(2);
+        // Generation full: 1 and 2 move to the previous generation
+        window.markSeen(3);
+        assertEquals(1, window.getRotations());
+        assertTrue(window.contains(1));
+        window.markSeen(4);
+        // Second rotation forgets the untouched keys 1 and 2
+        window.markSeen(5);
+        assertEquals(2, window.getRotations());
+        assertEquals(2, window.getEvictions());
+        assertFalse(window.contains(1));
+        assertFalse(window.contains(2));
+        assertTrue(window.contains(3));
+        assertTrue(window.markSeen(1));
+    }
+
+    @Test
+    public void testDuplicateFromPreviousGenerationIsPromoted() {
+        DedupWindow<Integer> window = new DedupWindow<>(2, 60_000);
+        window.markSeen(1);
+        window.markSeen(2);
+        window.markSeen(3);
+        assertFalse("1 is still remembered by the previous generation", window.markSeen(1));
+        window.rotate();
+        assertTrue("Promotion kept 1 alive across the rotation", window.contains(1));
+        assertFalse(window.contains(2));
+    }
+
+    @Test
+    public void testTimeBoundRotatesGenerations() {
+        AtomicLong now = new AtomicLong(1_000);
+        DedupWindow<String> window = new DedupWindow<>(1000, 100, now::get);
+        window.markSeen("a");
+        now.addAndGet(100);
+        window.markSeen("b");
+        assertEquals(1, window.getRotations());
+        now.addAndGet(100);
+        window.markSeen("c");
+        assertEquals(2, window.getRotations());
+        assertFalse(window.contains("a"));
+        assertTrue(window.contains("b"));
+    }
+
+    @Test
+    public void testFootprintIsBoundedByPresizedGenerations() {
+        DedupWindow<Integer> window = new DedupWindow<>(1000, 60_000);
+        long empty = window.footprintBytes();
+        assertTrue("Tables for two full generations are allocated up front", empty > 2 * 4 * 1000);
+        for (int i = 0; i < 5500; i++) {
+            window.markSeen(i);
+        }
+        assertEquals(5, window.getRotations());
+        assertTrue(window.footprintBytes() < 2 * empty);
+        assertTrue(window.toString().contains("rotations=5"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullKey() {
+        new DedupWindow<String>(10, 10).markSeen(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxKeys() {
+        new DedupWindow<String>(0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidGenerationMillis() {
+        new DedupWindow<String>(10, 0);
+    }
+}
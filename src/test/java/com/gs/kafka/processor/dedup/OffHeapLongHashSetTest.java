@@ -0,0 +1,237 @@
+package com.gs.kafka.processor.dedup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import com.gs.collections.impl.set.mutable.primitive.LongHashSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for OffHeapLongHashSet, following the scenarios UnifiedSetFunctionalTest covers for UnifiedSet
+ */
+public class OffHeapLongHashSetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testBasicOperations() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet();
+        assertTrue(set.add(1));
+        assertTrue(set.add(2));
+        assertTrue(set.add(3));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(1));
+        assertFalse(set.contains(4));
+
+        assertTrue(set.add(4));
+        assertFalse(set.add(1));
+        assertEquals(4, set.size());
+
+        assertTrue(set.remove(1));
+        assertFalse(set.remove(5));
+        assertEquals(3, set.size());
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    public void testZeroAndNegativeValues() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.remove(0));
+        assertFalse(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    public void testCapacityAndRehashing() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(2, 0.75f);
+        long initialCapacity = set.capacity();
+        for (int i = 1; i <= 10; i++) {
+            assertTrue(set.add(i));
+            assertEquals(i, set.size());
+        }
+        assertTrue(set.capacity() > initialCapacity);
+        assertEquals(set.capacity() * 8, set.offHeapBytes());
+        for (int i = 1; i <= 10; i++) {
+            assertTrue(set.contains(i));
+        }
+
+        OffHeapLongHashSet zeroCapacitySet = new OffHeapLongHashSet(0);
+        for (int i = 1; i <= 10; i++) {
+            zeroCapacitySet.add(i);
+        }
+        assertEquals(10, zeroCapacitySet.size());
+    }
+
+    @Test
+    public void testLargeCapacity() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(10000);
+        for (int i = 0; i < 10000; i++) {
+            set.add(OffHeapLongHashSet.key(i % 16, i));
+        }
+        assertEquals(10000, set.size());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(set.contains(OffHeapLongHashSet.key(i % 16, i)));
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            assertTrue(set.remove(OffHeapLongHashSet.key(i % 16, i)));
+        }
+        assertEquals(7500, set.size());
+
+        long[] count = new long[1];
+        set.forEach(each -> count[0]++);
+        assertEquals(7500, count[0]);
+    }
+
+    @Test
+    public void testRandomOperationsMatchLongHashSet() {
+        // Small key range forces long probe runs and many backward shifts on removal
+        Random random = new Random(11);
+        OffHeapLongHashSet set = new OffHeapLongHashSet(4);
+        LongHashSet expected = new LongHashSet();
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(5000) - 100;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        LongHashSet actual = new LongHashSet();
+        set.forEach(actual::add);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testClear() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i);
+        }
+        long capacity = set.capacity();
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(500));
+        assertEquals(capacity, set.capacity());
+    }
+
+    @Test
+    public void testKeyPacking() {
+        assertEquals(0L, OffHeapLongHashSet.key(0, 0));
+        assertEquals((3L << 48) | 42, OffHeapLongHashSet.key(3, 42));
+        assertNotEquals(OffHeapLongHashSet.key(1, 0), OffHeapLongHashSet.key(0, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyPartitionOutOfRange() {
+        OffHeapLongHashSet.key(70000, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyOffsetOutOfRange() {
+        OffHeapLongHashSet.key(0, 1L << 48);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosed() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet();
+        set.close();
+        set.contains(1);
+    }
+
+    @Test
+    public void testInvalidConstructorParameters() {
+        try {
+            new OffHeapLongHashSet(-1, 0.5f);
+            fail("Should throw IllegalArgumentException for negative capacity");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            new OffHeapLongHashSet(10, 1.0f);
+            fail("Should throw IllegalArgumentException for load factor 1");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testMapsSnapshotWithoutRehash() throws IOException {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(100_000);
+        for (long i = 0; i < 100_000; i++) {
+            set.add(i * 7);
+        }
+        Path file = folder.getRoot().toPath().resolve("keys.snap");
+        assertEquals(64 + set.capacity() * 8, set.writeTo(file));
+
+        OffHeapLongHashSet restored = OffHeapLongHashSet.map(file);
+        assertEquals(set.size(), restored.size());
+        assertEquals(set.capacity(), restored.capacity());
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(restored.contains(i * 7));
+        }
+        assertTrue(restored.contains(0));
+        assertFalse(restored.contains(1));
+
+        // Changes stay private to the restored set and it still grows
+        assertTrue(restored.remove(7));
+        for (long i = 0; i < 200_000; i++) {
+            restored.add(-i - 1);
+        }
+        assertEquals(299_999, restored.size());
+        assertEquals(100_000, OffHeapLongHashSet.map(file).size());
+        assertTrue(OffHeapLongHashSet.map(file).contains(7));
+    }
+
+    @Test
+    public void testRewritesSnapshotItWasMappedFrom() throws IOException {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(1000);
+        for (long i = 1; i <= 1000; i++) {
+            set.add(i);
+        }
+        Path file = folder.getRoot().toPath().resolve("keys.snap");
+        set.writeTo(file);
+
+        OffHeapLongHashSet restored = OffHeapLongHashSet.map(file);
+        restored.add(5000);
+        restored.writeTo(file);
+        assertTrue(restored.contains(1000));
+        assertEquals(1001, restored.size());
+        assertTrue(OffHeapLongHashSet.map(file).contains(5000));
+        assertFalse(Files.exists(file.resolveSibling("keys.snap.tmp")));
+    }
+
+    @Test
+    public void testRejectsSnapshotWithInvalidCapacity() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("bad.snap");
+        for (long capacity : new long[] {0, 3, -16}) {
+            ByteBuffer snapshot = ByteBuffer.allocate(64 + 8 * 3).order(ByteOrder.nativeOrder());
+            snapshot.putInt(0x4F484C53).putFloat(0.7f).putLong(capacity).putLong(0);
+            Files.write(file, snapshot.array());
+            try {
+                OffHeapLongHashSet.map(file);
+                fail("Should reject capacity " + capacity);
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+    }
+}
@@ -1,5 +1,30 @@
 package com.gs.kafka.processor.dummy;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.api.list.primitive.MutableIntList;
+import com.gs.collections.impl.list.mutable.primitive.IntArrayList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.kafka.processor.batch.ColumnarBatch;
+import com.gs.kafka.processor.batch.ColumnarBatchBuilder;
+import com.gs.kafka.processor.codec.RecordLayout;
+import com.gs.kafka.processor.codec.RecordWriter;
+import com.gs.kafka.processor.metrics.MetricsRegistry;
+import com.gs.kafka.processor.metrics.MetricsSnapshot;
+import com.gs.kafka.processor.metrics.Stage;
+import com.gs.kafka.processor.pipeline.InMemoryRecordSource;
+import com.gs.kafka.processor.pipeline.PipelineResult;
+import com.gs.kafka.processor.pipeline.Record;
+import com.gs.kafka.processor.sink.Column;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+import com.gs.kafka.processor.window.WindowAggregationStage;
+import com.gs.kafka.processor.window.WindowResult;
+import com.gs.kafka.processor.window.WindowSpec;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -32,4 +57,210 @@ public class DummyServiceTest {
         DummyService service = new DummyService();
         assertEquals("Should return same value for values 10 or less", 5, service.calculate(5));
     }
+
+    @Test
+    public void testPerformOperationOverBatches() {
+        DummyService service = new DummyService();
+        MutableList<Integer> results = FastList.newList();
+        PipelineResult result = service.performOperation(InMemoryRecordSource.ofInts(4, 5000), results::addAll);
+        assertEquals(5000, result.getRecords());
+        assertEquals(5000, results.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(service.calculate(i % 100), results.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testInstrumentedPipelineRecordsEveryStage() {
+        DummyService service = new DummyService();
+        MetricsRegistry metrics = new MetricsRegistry();
+        MutableList<Integer> results = FastList.newList();
+        PipelineResult result = service.newPipeline(InMemoryRecordSource.ofInts(2, 1000), results::addAll, 100, metrics).run();
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1000, results.size());
+        assertEquals(1000, snapshot.getCounter(DummyService.RECORDS_CALCULATED));
+        assertEquals(result.getBatches(), snapshot.getStage(Stage.DECODE).getCount());
+        assertEquals(result.getBatches(), snapshot.getStage(Stage.CALCULATE).getCount());
+        assertEquals(result.getBatches(), snapshot.getStage(Stage.SINK_FLUSH).getCount());
+        assertTrue(snapshot.getStage(Stage.POLL).getCount() >= result.getBatches());
+        assertEquals(0, snapshot.getStage(Stage.DEDUP).getCount());
+    }
+
+    @Test
+    public void testBranchFreeMatchesScalar() {
+        DummyService service = new DummyService();
+        int[] edges = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MIN_VALUE + 10, -2147483638,
+                -11, -1, 0, 9, 10, 11, 12, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        for (int value : edges) {
+            assertEquals("value " + value, service.calculate(value), DummyService.calculateBranchFree(value));
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt();
+            assertEquals("value " + value, service.calculate(value), DummyService.calculateBranchFree(value));
+        }
+    }
+
+    @Test
+    public void testCalculateArray() {
+        DummyService service = new DummyService();
+        int[] src = {5, 10, 11, 15, -3};
+        int[] dest = new int[5];
+        service.calculate(src, dest);
+        assertArrayEquals(new int[]{5, 10, 22, 30, -3}, dest);
+
+        int[] range = new int[7];
+        service.calculate(src, 2, range, 4, 3);
+        assertArrayEquals(new int[]{0, 0, 0, 0, 22, 30, -3}, range);
+
+        service.calculate(src, src);
+        assertArrayEquals("Source may double as destination", new int[]{5, 10, 22, 30, -3}, src);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCalculateArrayOutOfBounds() {
+        new DummyService().calculate(new int[4], 2, new int[4], 0, 3);
+    }
+
+    @Test
+    public void testCalculateHeapIntBuffer() {
+        DummyService service = new DummyService();
+        IntBuffer src = IntBuffer.wrap(new int[]{1, 12, 20, 3});
+        src.position(1);
+        IntBuffer dest = IntBuffer.allocate(4);
+        service.calculate(src, dest);
+        assertEquals(4, src.position());
+        assertEquals(3, dest.position());
+        assertArrayEquals(new int[]{24, 40, 3, 0}, dest.array());
+    }
+
+    @Test
+    public void testCalculateDirectIntBuffer() {
+        DummyService service = new DummyService();
+        IntBuffer src = ByteBuffer.allocateDirect(16).asIntBuffer().put(new int[]{1, 12, 20, 3});
+        src.flip();
+        IntBuffer dest = ByteBuffer.allocateDirect(16).asIntBuffer();
+        service.calculate(src, dest);
+        assertFalse(src.hasRemaining());
+        assertEquals(1, dest.get(0));
+        assertEquals(24, dest.get(1));
+        assertEquals(40, dest.get(2));
+        assertEquals(3, dest.get(3));
+
+        // Larger than one scratch chunk
+        IntBuffer large = ByteBuffer.allocateDirect(4 * 3000).asIntBuffer();
+        for (int i = 0; i < 3000; i++) {
+            large.put(i, i);
+        }
+        IntBuffer largeDest = ByteBuffer.allocateDirect(4 * 3000).asIntBuffer();
+        service.calculate(large, largeDest);
+        assertEquals(3000, largeDest.position());
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(service.calculate(i), largeDest.get(i));
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testCalculateIntBufferOverflow() {
+        new DummyService().calculate(IntBuffer.allocate(4), IntBuffer.allocate(3));
+    }
+
+    @Test
+    public void testCalculateIntList() {
+        DummyService service = new DummyService();
+        MutableIntList dest = IntArrayList.newListWith(-1);
+        service.calculate(IntArrayList.newListWith(5, 11, 100), dest);
+        assertEquals(IntArrayList.newListWith(-1, 5, 22, 200), dest);
+    }
+
+    @Test
+    public void testCalculateBinaryRecords() {
+        DummyService service = new DummyService();
+        RecordLayout layout = new RecordLayout(Schema.of(null,
+                new Column("tenant", ColumnType.STRING), new Column("quantity", ColumnType.INT)));
+        ByteBuffer records = ByteBuffer.allocateDirect(4096);
+        RecordWriter writer = new RecordWriter(layout);
+        int offset = 0;
+        for (int i = 0; i < 50; i++) {
+            offset += writer.wrap(records, offset).putString(0, "tenant-" + i).putInt(1, i).finish();
+        }
+        records.limit(offset);
+
+        int[] dest = new int[30];
+        assertEquals(30, service.calculate(records, layout, 1, dest));
+        assertEquals(service.calculate(29), dest[29]);
+        assertEquals(20, service.calculate(records, layout, 1, dest));
+        assertEquals(service.calculate(49), dest[19]);
+        assertFalse(records.hasRemaining());
+    }
+
+    @Test
+    public void testBinaryRecordPipeline() {
+        DummyService service = new DummyService();
+        RecordLayout layout = new RecordLayout(Schema.of(null,
+                new Column("offset", ColumnType.LONG), new Column("quantity", ColumnType.INT)));
+        RecordWriter writer = new RecordWriter(layout);
+        MutableList<Record> records = FastList.newList();
+        for (int i = 0; i < 1000; i++) {
+            ByteBuffer value = ByteBuffer.allocate(layout.getFixedLength());
+            writer.wrap(value, 0).putLong(0, i).putInt(1, i % 100).finish();
+            records.add(new Record(0, i, null, value.array(), i));
+        }
+        MutableList<Integer> results = FastList.newList();
+        service.newPipeline(new InMemoryRecordSource(records), results::addAll, 64, layout, "quantity").run();
+        assertEquals(1000, results.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(service.calculate(i % 100), results.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testWindowPipeline() {
+        DummyService service = new DummyService();
+        MutableList<Record> records = FastList.newList();
+        for (int i = 0; i < 1000; i++) {
+            records.add(Record.ofInt(0, i, "key-" + i % 4, i % 20));
+        }
+        WindowAggregationStage<String> windows = service.newWindowStage(WindowSpec.tumbling(100));
+        MutableList<WindowResult<String>> results = FastList.newList();
+        service.newPipeline(new InMemoryRecordSource(records), windows, results::addAll, 64).run();
+
+        assertTrue("Open windows should be drained into the sink", windows.drain().isEmpty());
+
+        assertEquals(40, results.size());
+        long expectedSum = 0;
+        for (int i = 0; i < 1000; i++) {
+            expectedSum += service.calculate(i % 20);
+        }
+        assertEquals(expectedSum, results.sumOfLong(WindowResult::getSum));
+        assertTrue(results.allSatisfy(result -> result.getCount() == 25));
+    }
+
+    @Test
+    public void testCalculateColumnarBatch() {
+        DummyService service = new DummyService();
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(Schema.of(null,
+                new Column("key", ColumnType.STRING), new Column("quantity", ColumnType.INT)));
+        for (int i = 0; i < 100; i++) {
+            builder.setString(0, "key-" + i);
+            if (i == 50) {
+                builder.setNull(1);
+            } else {
+                builder.setInt(1, i);
+            }
+            builder.appendRow();
+        }
+        ColumnarBatch batch = builder.build();
+        ColumnarBatch calculated = service.calculate(batch, "quantity");
+
+        assertSame(batch.column(0), calculated.column(0));
+        assertEquals(49, batch.column(1).getInt(49));
+        for (int i = 0; i < 100; i++) {
+            if (i != 50) {
+                assertEquals(service.calculate(i), calculated.column(1).getInt(i));
+            }
+        }
+        assertTrue(calculated.column(1).isNull(50));
+    }
 }
@@ -0,0 +1,98 @@
+package com.gs.kafka.processor.intern;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for Interner
+ */
+public class InternerTest {
+
+    @Test
+    public void testReturnsFirstInstance() {
+        Interner<String> interner = new Interner<>(16);
+        String first = new String("tenant-42");
+        String second = new String("tenant-42");
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertNull(interner.intern(null));
+        assertEquals(1, interner.size());
+        assertEquals(1, interner.getHits());
+        assertEquals(1, interner.getMisses());
+        assertEquals(0.5, interner.hitRatio(), 0.0);
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        Interner<String> interner = new Interner<>(100);
+        for (int i = 0; i < 1000; i++) {
+            interner.intern("key-" + i);
+        }
+        assertEquals(100, interner.size());
+        assertEquals(900, interner.getEvictions());
+        assertEquals(0, interner.getHits());
+    }
+
+    @Test
+    public void testFootprintGrowsWithEntries() {
+        Interner<String> strong = new Interner<>(1000);
+        Interner<String> weak = new Interner<>(1000, true);
+        long empty = strong.footprintBytes();
+        assertEquals(empty, weak.footprintBytes());
+        for (int i = 0; i < 100; i++) {
+            strong.intern("key-" + i);
+            weak.intern("key-" + i);
+        }
+        assertTrue(strong.footprintBytes() > empty);
+        assertTrue(weak.footprintBytes() > strong.footprintBytes());
+    }
+
+    @Test
+    public void testClockKeepsReferencedValues() {
+        Interner<String> interner = new Interner<>(4);
+        String hot = new String("topic-orders");
+        interner.intern(hot);
+        for (int i = 0; i < 50; i++) {
+            assertSame(hot, interner.intern(new String("topic-orders")));
+            interner.intern("cold-" + i);
+        }
+        assertEquals(50, interner.getHits());
+        assertEquals(4, interner.size());
+    }
+
+    @Test
+    public void testClearKeepsCounters() {
+        Interner<String> interner = new Interner<>(4);
+        interner.intern("a");
+        interner.intern("a");
+        interner.clear();
+        assertEquals(0, interner.size());
+        assertEquals(1, interner.getHits());
+        String fresh = new String("a");
+        assertSame(fresh, interner.intern(fresh));
+    }
+
+    @Test
+    public void testWeakValuesAreCollected() throws InterruptedException {
+        Interner<String> interner = new Interner<>(1000, true);
+        assertTrue(interner.isWeakValues());
+        for (int i = 0; i < 500; i++) {
+            interner.intern(new String("field-" + i));
+        }
+        String kept = interner.intern(new String("kept"));
+        for (int attempt = 0; attempt < 50 && interner.size() > 1; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+            interner.intern(kept);
+        }
+        assertEquals(1, interner.size());
+        assertSame(kept, interner.intern(new String("kept")));
+        assertEquals(0, interner.getEvictions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxSize() {
+        new Interner<String>(0);
+    }
+}
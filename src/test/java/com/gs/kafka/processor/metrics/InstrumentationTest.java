@@ -0,0 +1,70 @@
+package com.gs.kafka.processor.metrics;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.factory.Lists;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.InMemoryRecordSource;
+import com.gs.kafka.processor.pipeline.RecordSource;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for Instrumentation
+ */
+public class InstrumentationTest {
+
+    @Test
+    public void testTimedSourceDelegates() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        RecordSource source = Instrumentation.timedSource(InMemoryRecordSource.ofInts(2, 10), histogram);
+
+        assertEquals(8, source.poll(8).size());
+        assertEquals(2, source.poll(8).size());
+        assertTrue(source.isExhausted());
+        assertEquals(2, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void testTimedStageRecordsFailures() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        BatchStage<Integer, Integer> stage = Instrumentation.timedStage(batch -> {
+            throw new IllegalStateException("boom");
+        }, histogram);
+
+        try {
+            stage.apply(Lists.mutable.of(1));
+            fail("expected the stage failure");
+        } catch (IllegalStateException expected) {
+            assertEquals(1, histogram.snapshot().getCount());
+        }
+    }
+
+    @Test
+    public void testTimedStageForwardsFinish() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        BatchStage<Integer, Integer> stage = Instrumentation.timedStage(new BatchStage<Integer, Integer>() {
+            @Override
+            public MutableList<Integer> apply(MutableList<Integer> batch) {
+                return batch;
+            }
+
+            @Override
+            public MutableList<Integer> finish() {
+                return Lists.mutable.of(42);
+            }
+        }, histogram);
+
+        assertEquals(Lists.mutable.of(42), stage.finish());
+        assertEquals(0, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void testTimedSink() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int[] written = new int[1];
+        Instrumentation.<Integer>timedSink(batch -> written[0] += batch.size(), histogram).write(Lists.mutable.of(1, 2));
+
+        assertEquals(2, written[0]);
+        assertEquals(1, histogram.snapshot().getCount());
+    }
+}
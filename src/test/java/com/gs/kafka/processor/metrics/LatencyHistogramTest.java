@@ -0,0 +1,93 @@
+package com.gs.kafka.processor.metrics;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LatencyHistogram and HistogramSnapshot
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBoundsCoverEveryValue() {
+        long[] samples = {0, 1, 31, 32, 33, 63, 64, 65, 1000, 123_456_789L, Long.MAX_VALUE};
+        for (long value : samples) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(bucket < LatencyHistogram.BUCKETS);
+            assertTrue(value <= LatencyHistogram.highestValue(bucket));
+            if (bucket > 0) {
+                assertTrue(value > LatencyHistogram.highestValue(bucket - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        for (int value = 0; value < LatencyHistogram.SUB_BUCKETS; value++) {
+            assertEquals(value, LatencyHistogram.highestValue(LatencyHistogram.bucket(value)));
+        }
+    }
+
+    @Test
+    public void testQuantilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i * 10L);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMax());
+        assertEquals(500_005.0, snapshot.getMean(), 0.001);
+        assertWithin(500_000, snapshot.getValueAtQuantile(0.5));
+        assertWithin(990_000, snapshot.getValueAtQuantile(0.99));
+        assertWithin(999_000, snapshot.getValueAtQuantile(0.999));
+        assertEquals(1_000_000, snapshot.getValueAtQuantile(1.0));
+    }
+
+    @Test
+    public void testSnapshotAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(-5);
+
+        HistogramSnapshot first = histogram.snapshotAndReset();
+        assertEquals(2, first.getCount());
+        assertEquals(100, first.getSum());
+        assertEquals(0, first.getValueAtQuantile(0.5));
+
+        HistogramSnapshot second = histogram.snapshot();
+        assertEquals(0, second.getCount());
+        assertEquals(0, second.getMax());
+        assertEquals(0, second.getValueAtQuantile(0.99));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200_000, histogram.snapshot().getCount());
+        assertEquals(49_999, histogram.snapshot().getMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() {
+        new LatencyHistogram().snapshot().getValueAtQuantile(1.5);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " not within 1/32 of " + expected,
+                Math.abs(actual - expected) <= expected / LatencyHistogram.SUB_BUCKETS);
+    }
+}
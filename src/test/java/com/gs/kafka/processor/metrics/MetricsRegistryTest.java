@@ -0,0 +1,76 @@
+package com.gs.kafka.processor.metrics;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for MetricsRegistry and MetricsSnapshot
+ */
+public class MetricsRegistryTest {
+
+    @Test
+    public void testSameNameReturnsSameMetric() {
+        MetricsRegistry registry = new MetricsRegistry();
+        assertSame(registry.counter("records_total"), registry.counter("records_total"));
+        assertSame(registry.gauge("in_flight"), registry.gauge("in_flight"));
+        assertSame(registry.histogram("lookup_nanos"), registry.histogram("lookup_nanos"));
+        assertSame(registry.stage(Stage.DEDUP), registry.stage(Stage.DEDUP));
+    }
+
+    @Test
+    public void testSnapshotAndResetKeepsGauges() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("records_total").add(5);
+        registry.gauge("in_flight").add(3);
+        registry.gauge("in_flight").decrement();
+        registry.stage(Stage.POLL).record(1000);
+
+        MetricsSnapshot first = registry.snapshotAndReset();
+        assertEquals(5, first.getCounter("records_total"));
+        assertEquals(2, first.getGauge("in_flight"));
+        assertEquals(1, first.getStage(Stage.POLL).getCount());
+
+        MetricsSnapshot second = registry.snapshot();
+        assertEquals(0, second.getCounter("records_total"));
+        assertEquals(2, second.getGauge("in_flight"));
+        assertEquals(0, second.getStage(Stage.POLL).getCount());
+        assertEquals(0, second.getCounter("unknown"));
+        assertNull(second.getHistogram("unknown"));
+    }
+
+    @Test
+    public void testTextExposition() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("records_total").add(42);
+        registry.gauge("in_flight").increment();
+        registry.histogram("lookup_nanos").record(7);
+        registry.stage(Stage.SINK_FLUSH).record(20);
+
+        String text = registry.snapshot().toText();
+
+        assertTrue(text, text.contains("# TYPE records_total counter\nrecords_total 42\n"));
+        assertTrue(text, text.contains("# TYPE in_flight gauge\nin_flight 1\n"));
+        assertTrue(text, text.contains("lookup_nanos{quantile=\"0.99\"} 7\n"));
+        assertTrue(text, text.contains("lookup_nanos_count 1\n"));
+        assertTrue(text, text.contains("stage_latency_nanos{stage=\"sink_flush\",quantile=\"0.5\"} 20\n"));
+        assertTrue(text, text.contains("stage_latency_nanos_sum{stage=\"sink_flush\"} 20\n"));
+        assertTrue(text, text.contains("stage_latency_nanos_count{stage=\"poll\"} 0\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidName() {
+        new MetricsRegistry().counter("records-total");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNameReusedWithAnotherType() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("records_total");
+        registry.gauge("records_total");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCounterRejectsNegativeDelta() {
+        new MetricsRegistry().counter("records_total").add(-1);
+    }
+}
@@ -0,0 +1,176 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for AdaptiveBatchingSource, BatchingPolicy and BurstyRecordSource
+ */
+public class AdaptiveBatchingSourceTest {
+
+    private final long[] now = {0};
+    private final long[] parked = {0};
+    // Parking moves the fake clock on instead of blocking
+    private final LongConsumer park = nanos -> {
+        assertTrue(nanos > 0);
+        parked[0] += nanos;
+        now[0] += nanos;
+    };
+
+    @Test
+    public void testReleasesOnTimeAtLowRate() {
+        // One record per millisecond against a 10ms budget, so 5ms of waiting
+        BurstyRecordSource load = new BurstyRecordSource(1, 100, 1000, 1000, 1000, 0, () -> now[0]);
+        AdaptiveBatchingSource source = new AdaptiveBatchingSource(load, BatchingPolicy.defaults()
+                .withLatencyBudgetMicros(10_000).withMinBatchSize(100), () -> now[0], park);
+        long expectedOffset = 0;
+        while (!source.isExhausted()) {
+            MutableList<Record> batch = source.poll(8192);
+            for (Record record : batch) {
+                assertEquals(expectedOffset++, record.getOffset());
+                assertTrue(now[0] - record.getTimestamp() <= TimeUnit.MILLISECONDS.toNanos(5));
+            }
+            now[0] += TimeUnit.MILLISECONDS.toNanos(1);
+        }
+        assertEquals(100, expectedOffset);
+        assertTrue(source.getTimeFlushes() >= 15);
+        assertEquals(0, source.getSizeFlushes());
+    }
+
+    @Test
+    public void testGrowsBatchesWithArrivalRate() {
+        // A million records per second fill the 5ms wait with 5000 records, capped at 2048
+        BurstyRecordSource load = new BurstyRecordSource(4, 100_000, 1_000_000, 1_000_000, 1000, 0, () -> now[0]);
+        AdaptiveBatchingSource source = new AdaptiveBatchingSource(load, BatchingPolicy.defaults()
+                .withLatencyBudgetMicros(10_000).withMaxBatchSize(2048), () -> now[0], park);
+        int largest = 0;
+        int released = 0;
+        while (!source.isExhausted()) {
+            MutableList<Record> batch = source.poll(2048);
+            largest = Math.max(largest, batch.size());
+            released += batch.size();
+            now[0] += TimeUnit.MICROSECONDS.toNanos(100);
+        }
+        assertEquals(100_000, released);
+        assertEquals(2048, source.getTargetBatchSize());
+        assertEquals(2048, largest);
+        // Polled once per rate window while a batch fills, so each window's count comes in whole polls
+        assertEquals(1_000_000, source.getArrivalRate(), 150_000);
+        assertEquals(1_000_000, released * 1e9 / now[0], 50_000);
+        assertTrue(source.getSizeFlushes() > 40);
+    }
+
+    @Test
+    public void testReleasesOnBytes() {
+        InMemoryRecordSource records = InMemoryRecordSource.ofInts(1, 100);
+        // 64 bytes of overhead, a 4 byte value and a 5 char key make 78 bytes per record
+        BatchingPolicy policy = BatchingPolicy.fixed(1000, 1_000_000).withMaxBatchBytes(10 * 78);
+        AdaptiveBatchingSource source = new AdaptiveBatchingSource(new LimitedSource(records, 5), policy,
+                () -> now[0], park);
+        // The first five records are held back and the source polled again after one rate window
+        assertEquals(10, source.poll(1000).size());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250), parked[0]);
+        assertEquals(1, source.getByteFlushes());
+    }
+
+    @Test
+    public void testDrainsWhenSourceIsExhausted() {
+        AdaptiveBatchingSource source = new AdaptiveBatchingSource(InMemoryRecordSource.ofInts(2, 10),
+                BatchingPolicy.fixed(100, 1_000_000), () -> now[0], park);
+        MutableList<Record> batch = source.poll(4);
+        assertEquals(4, batch.size());
+        assertEquals(6, source.poll(100).size());
+        assertTrue(source.isExhausted());
+        assertEquals(2, source.getDrainFlushes());
+    }
+
+    @Test
+    public void testParksUntilTheBatchIsDue() {
+        // Nothing arrives after the first record, so the wait ends at half the 10ms budget
+        AdaptiveBatchingSource source = new AdaptiveBatchingSource(new QuietSource(1), BatchingPolicy.defaults()
+                .withLatencyBudgetMicros(10_000).withMinBatchSize(100), () -> now[0], park);
+        assertEquals(1, source.poll(100).size());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), parked[0]);
+        assertEquals(1, source.getTimeFlushes());
+    }
+
+    @Test
+    public void testReturnsEmptyWhenNothingIsBuffered() {
+        AdaptiveBatchingSource source = new AdaptiveBatchingSource(new QuietSource(0), BatchingPolicy.defaults(),
+                () -> now[0], park);
+        assertTrue(source.poll(100).isEmpty());
+        assertEquals(0, parked[0]);
+    }
+
+    @Test
+    public void testBurstySchedule() {
+        // 10ms at 100k/s, then 90ms at 1k/s
+        BurstyRecordSource load = new BurstyRecordSource(2, 5000, 1000, 100_000, 100, 0.1, () -> now[0]);
+        assertEquals(1, load.poll(10_000).size());
+        now[0] = TimeUnit.MILLISECONDS.toNanos(10);
+        int burst = load.poll(10_000).size();
+        assertEquals(1000, burst, 2);
+        now[0] = TimeUnit.MILLISECONDS.toNanos(100);
+        MutableList<Record> quiet = load.poll(10_000);
+        assertEquals(90, quiet.size(), 2);
+        assertTrue(quiet.getLast().getTimestamp() <= now[0]);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), quiet.get(1).getTimestamp() - quiet.get(0).getTimestamp(), 1);
+        assertFalse(load.isExhausted());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsMaxBelowMin() {
+        BatchingPolicy.defaults().withMinBatchSize(100).withMaxBatchSize(10);
+    }
+
+    /**
+     * Source that hands out at most a few records per poll
+     */
+    private static final class LimitedSource implements RecordSource {
+
+        private final RecordSource delegate;
+        private final int perPoll;
+
+        LimitedSource(RecordSource delegate, int perPoll) {
+            this.delegate = delegate;
+            this.perPoll = perPoll;
+        }
+
+        @Override
+        public MutableList<Record> poll(int maxRecords) {
+            return delegate.poll(Math.min(maxRecords, perPoll));
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return delegate.isExhausted();
+        }
+    }
+
+    /**
+     * Source that hands out a few records and then stays open without producing more
+     */
+    private static final class QuietSource implements RecordSource {
+
+        private final RecordSource records;
+
+        QuietSource(int count) {
+            this.records = InMemoryRecordSource.ofInts(1, count);
+        }
+
+        @Override
+        public MutableList<Record> poll(int maxRecords) {
+            return records.isExhausted() ? FastList.newList(0) : records.poll(maxRecords);
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return false;
+        }
+    }
+}
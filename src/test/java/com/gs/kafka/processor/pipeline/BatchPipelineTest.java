@@ -0,0 +1,298 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.Interval;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.kafka.processor.ring.WaitStrategy;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for BatchPipeline
+ */
+public class BatchPipelineTest {
+
+    @Test
+    public void testRunProcessesAllRecordsInOrder() {
+        MutableList<Integer> written = FastList.newList();
+        BatchPipeline<Integer, Integer> pipeline = new BatchPipeline<>(
+                InMemoryRecordSource.ofInts(1, 1000),
+                BatchStage.perRecord(Record::valueAsInt),
+                BatchStage.perRecord(value -> value + 1),
+                written::addAll,
+                64,
+                2);
+
+        PipelineResult result = pipeline.run();
+
+        assertEquals(1000, result.getRecords());
+        assertEquals(1000, result.getWritten());
+        assertEquals(16, result.getBatches());
+        assertEquals(1000, written.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("Batches should reach the sink in poll order", i % 100 + 1, written.get(i).intValue());
+        }
+        assertTrue(result.recordsPerSecond() > 0);
+    }
+
+    @Test
+    public void testRingBufferHandoffsKeepOrder() {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            MutableList<Integer> written = FastList.newList();
+            PipelineResult result = new BatchPipeline<>(
+                    InMemoryRecordSource.ofInts(1, 1000),
+                    BatchStage.perRecord(Record::valueAsInt),
+                    BatchStage.perRecord(value -> value + 1),
+                    written::addAll,
+                    64,
+                    3,
+                    strategy).run();
+
+            assertEquals(1000, result.getWritten());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(strategy.name(), i % 100 + 1, written.get(i).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void testFilteringStageReducesWrittenCount() {
+        AtomicInteger sunk = new AtomicInteger();
+        BatchPipeline<Integer, Integer> pipeline = new BatchPipeline<>(
+                InMemoryRecordSource.ofInts(3, 500),
+                BatchStage.perRecord(Record::valueAsInt),
+                batch -> batch.select(value -> value % 2 == 0),
+                batch -> sunk.addAndGet(batch.size()));
+
+        PipelineResult result = pipeline.run();
+
+        assertEquals(500, result.getRecords());
+        assertEquals(250, result.getWritten());
+        assertEquals(250, sunk.get());
+    }
+
+    @Test
+    public void testSlowSinkAppliesBackPressure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryRecordSource source = InMemoryRecordSource.ofInts(1, 100);
+        BatchPipeline<Integer, Integer> pipeline = new BatchPipeline<>(
+                source,
+                BatchStage.perRecord(Record::valueAsInt),
+                BatchStage.perRecord(value -> value),
+                batch -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                },
+                1,
+                1);
+
+        Thread runner = new Thread(pipeline::run);
+        runner.start();
+        TimeUnit.MILLISECONDS.sleep(200);
+        // One batch in each of the three queues plus one inside each stage thread
+        assertTrue("Poller should be blocked by full queues", source.remaining() > 90);
+        release.countDown();
+        runner.join(10_000);
+        assertFalse(runner.isAlive());
+        assertEquals(0, source.remaining());
+    }
+
+    @Test
+    public void testHeldOutputIsFlushedAtEndOfInput() {
+        MutableList<Integer> written = FastList.newList();
+        // The decoder keeps every record until the end; the transformer keeps the first 10 values
+        PipelineResult result = new BatchPipeline<>(
+                InMemoryRecordSource.ofInts(1, 100),
+                new HoldingStage<Record>(Integer.MAX_VALUE).andThen(BatchStage.perRecord(Record::valueAsInt)),
+                new HoldingStage<Integer>(10).andThen(BatchStage.perRecord(value -> value + 1)),
+                written::addAll,
+                16,
+                1).run();
+
+        assertEquals(100, result.getWritten());
+        assertEquals(FastList.newList(Interval.fromTo(11, 100)).with(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), written);
+    }
+
+    @Test
+    public void testFinishFailureIsRethrown() {
+        BatchStage<Integer, Integer> failing = new BatchStage<Integer, Integer>() {
+            @Override
+            public MutableList<Integer> apply(MutableList<Integer> batch) {
+                return batch;
+            }
+
+            @Override
+            public MutableList<Integer> finish() {
+                throw new IllegalStateException("boom");
+            }
+        };
+        try {
+            new BatchPipeline<>(InMemoryRecordSource.ofInts(1, 10), BatchStage.perRecord(Record::valueAsInt), failing,
+                    batch -> { }, 4, 1).run();
+            fail("Should throw PipelineException");
+        } catch (PipelineException e) {
+            assertEquals("boom", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testStageFailureIsRethrown() {
+        BatchPipeline<Integer, Integer> pipeline = new BatchPipeline<>(
+                InMemoryRecordSource.ofInts(1, 10_000),
+                BatchStage.perRecord(Record::valueAsInt),
+                batch -> {
+                    throw new IllegalStateException("boom");
+                },
+                batch -> { },
+                16,
+                1);
+        try {
+            pipeline.run();
+            fail("Should throw PipelineException");
+        } catch (PipelineException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals("boom", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testSinkFailureStopsPolling() {
+        InMemoryRecordSource source = InMemoryRecordSource.ofInts(1, 100_000);
+        BatchPipeline<Integer, Integer> pipeline = new BatchPipeline<>(
+                source,
+                BatchStage.perRecord(Record::valueAsInt),
+                BatchStage.perRecord(value -> value),
+                batch -> {
+                    throw new AssertionError("sink down");
+                },
+                16,
+                1);
+        try {
+            pipeline.run();
+            fail("Should throw PipelineException");
+        } catch (PipelineException e) {
+            assertTrue(e.getCause() instanceof AssertionError);
+            assertEquals("Pipeline stage failed", e.getMessage());
+        }
+        assertTrue("Polling should stop once a stage failed", source.remaining() > 0);
+    }
+
+    @Test
+    public void testInterruptStopsRun() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        BatchPipeline<Integer, Integer> pipeline = new BatchPipeline<>(
+                InMemoryRecordSource.ofInts(1, 1000),
+                BatchStage.perRecord(Record::valueAsInt),
+                BatchStage.perRecord(value -> value),
+                batch -> {
+                    blocked.countDown();
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                },
+                1,
+                1);
+        AtomicReference<RuntimeException> thrown = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread runner = new Thread(() -> {
+            try {
+                pipeline.run();
+            } catch (RuntimeException e) {
+                thrown.set(e);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        runner.start();
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        runner.interrupt();
+        runner.join(10_000);
+        assertFalse(runner.isAlive());
+        assertTrue(thrown.get() instanceof PipelineException);
+        assertTrue(thrown.get().getCause() instanceof InterruptedException);
+        assertTrue("The interrupt status should be restored", interrupted.get());
+    }
+
+    @Test
+    public void testEmptyPollsAreRetried() {
+        InMemoryRecordSource records = InMemoryRecordSource.ofInts(1, 10);
+        AtomicInteger polls = new AtomicInteger();
+        RecordSource source = new RecordSource() {
+            @Override
+            public MutableList<Record> poll(int maxRecords) {
+                return polls.incrementAndGet() % 2 == 0 ? FastList.<Record>newList() : records.poll(maxRecords);
+            }
+
+            @Override
+            public boolean isExhausted() {
+                return records.isExhausted();
+            }
+        };
+        PipelineResult result = new BatchPipeline<>(source, BatchStage.perRecord(Record::valueAsInt),
+                BatchStage.perRecord(value -> value), batch -> { }, 4, 1).run();
+
+        assertEquals(10, result.getRecords());
+        assertEquals(3, result.getBatches());
+        assertEquals(5, polls.get());
+    }
+
+    @Test
+    public void testResult() {
+        PipelineResult result = new PipelineResult(10, 2, 5, 0);
+        assertEquals(0.0, result.recordsPerSecond(), 0.0);
+        assertEquals(2_000.0, new PipelineResult(10, 2, 5, 5_000_000).recordsPerSecond(), 1e-9);
+        assertEquals("PipelineResult{records=10, batches=2, written=5, elapsedNanos=0, recordsPerSecond=0}",
+                result.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        new BatchPipeline<>(InMemoryRecordSource.ofInts(1, 1), BatchStage.perRecord(Record::valueAsInt),
+                BatchStage.perRecord(value -> value), batch -> { }, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQueueCapacity() {
+        new BatchPipeline<>(InMemoryRecordSource.ofInts(1, 1), BatchStage.perRecord(Record::valueAsInt),
+                BatchStage.perRecord(value -> value), batch -> { }, 1, 0);
+    }
+
+    /**
+     * Stage that holds back the first elements it sees until it is finished
+     */
+    private static final class HoldingStage<T> implements BatchStage<T, T> {
+
+        private final int limit;
+        private final MutableList<T> held = FastList.newList();
+
+        HoldingStage(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public MutableList<T> apply(MutableList<T> batch) {
+            MutableList<T> passed = FastList.newList();
+            for (T each : batch) {
+                (held.size() < limit ? held : passed).add(each);
+            }
+            return passed;
+        }
+
+        @Override
+        public MutableList<T> finish() {
+            MutableList<T> remaining = FastList.newList(held);
+            held.clear();
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.gs.kafka.processor.pipeline;
+
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.factory.Lists;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for BlockingLatencyStage
+ */
+public class BlockingLatencyStageTest {
+
+    @Test
+    public void testBlocksAndPassesBatchThrough() {
+        BlockingLatencyStage<Integer> stage = new BlockingLatencyStage<>(20, TimeUnit.MILLISECONDS);
+        MutableList<Integer> batch = Lists.mutable.of(1, 2, 3);
+
+        long start = System.nanoTime();
+        assertSame(batch, stage.apply(batch));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void testInterruptSurfacesAsPipelineException() {
+        Thread.currentThread().interrupt();
+        try {
+            new BlockingLatencyStage<Integer>(1, TimeUnit.SECONDS).apply(Lists.mutable.of(1));
+            fail("expected interrupt to surface");
+        } catch (PipelineException e) {
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLatency() {
+        new BlockingLatencyStage<Integer>(-1, TimeUnit.MILLISECONDS);
+    }
+}
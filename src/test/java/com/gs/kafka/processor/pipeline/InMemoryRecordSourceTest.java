@@ -0,0 +1,88 @@
+package com.gs.kafka.processor.pipeline;
+
+import com.gs.collections.api.list.MutableList;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for InMemoryRecordSource and Record
+ */
+public class InMemoryRecordSourceTest {
+
+    @Test
+    public void testPollInBatches() {
+        InMemoryRecordSource source = InMemoryRecordSource.ofInts(2, 5);
+        assertFalse(source.isExhausted());
+
+        MutableList<Record> first = source.poll(3);
+        assertEquals(3, first.size());
+        assertEquals(2, source.remaining());
+
+        MutableList<Record> second = source.poll(3);
+        assertEquals(2, second.size());
+        assertTrue(source.isExhausted());
+        assertTrue(source.poll(3).isEmpty());
+    }
+
+    @Test
+    public void testRoundRobinPartitionsAndOffsets() {
+        MutableList<Record> records = InMemoryRecordSource.ofInts(2, 4).poll(4);
+        assertEquals(0, records.get(0).getPartition());
+        assertEquals(1, records.get(1).getPartition());
+        assertEquals(0, records.get(0).getOffset());
+        assertEquals(1, records.get(2).getOffset());
+        assertEquals(3, records.get(3).valueAsInt());
+    }
+
+    @Test
+    public void testRecordIntRoundTrip() {
+        Record record = Record.ofInt(0, 7, "k", -123456);
+        assertEquals(-123456, record.valueAsInt());
+        assertEquals(Record.ofInt(0, 7, "k", -123456), record);
+        assertEquals(Record.ofInt(0, 7, "k", -123456).hashCode(), record.hashCode());
+        assertNotEquals(Record.ofInt(0, 8, "k", -123456), record);
+    }
+
+    @Test
+    public void testRecordEquality() {
+        Record record = new Record(1, 2, null, new byte[] {1, 2}, 3);
+        assertEquals(record, record);
+        assertEquals(new Record(1, 2, null, new byte[] {1, 2}, 3), record);
+        assertEquals(new Record(1, 2, null, new byte[] {1, 2}, 3).hashCode(), record.hashCode());
+        assertNotEquals(new Record(0, 2, null, new byte[] {1, 2}, 3), record);
+        assertNotEquals(new Record(1, 2, null, new byte[] {1, 2}, 4), record);
+        assertNotEquals(new Record(1, 2, "k", new byte[] {1, 2}, 3), record);
+        assertNotEquals(record, new Record(1, 2, "k", new byte[] {1, 2}, 3));
+        assertNotEquals(new Record(1, 2, null, new byte[] {1, 3}, 3), record);
+        assertNotEquals(record, "Record");
+        assertEquals(3, record.getTimestamp());
+        assertArrayEquals(new byte[] {1, 2}, record.getValue());
+        assertNull(record.getKey());
+        assertEquals("Record{partition=1, offset=2, key=null}", record.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativePartition() {
+        new Record(-1, 0, null, new byte[4], 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullValue() {
+        new Record(0, 0, null, null, 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testShortPayload() {
+        new Record(0, 0, null, new byte[2], 0).valueAsInt();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPartitions() {
+        InMemoryRecordSource.ofInts(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPollSize() {
+        InMemoryRecordSource.ofInts(1, 1).poll(0);
+    }
+}
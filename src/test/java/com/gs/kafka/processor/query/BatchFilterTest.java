@@ -0,0 +1,94 @@
+package com.gs.kafka.processor.query;
+
+import com.gs.kafka.processor.batch.ColumnarBatch;
+import com.gs.kafka.processor.batch.ColumnarBatchBuilder;
+import com.gs.kafka.processor.sink.Column;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for BatchFilter
+ */
+public class BatchFilterTest {
+
+    private static final int ROWS = 1000;
+
+    private ColumnarBatch batch;
+    private int[] selection;
+
+    @Before
+    public void setUp() {
+        Schema schema = Schema.of(null,
+                new Column("quantity", ColumnType.INT),
+                new Column("offset", ColumnType.LONG),
+                new Column("tenant", ColumnType.STRING),
+                new Column("price", ColumnType.DOUBLE));
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(schema, 64);
+        for (int i = 0; i < ROWS; i++) {
+            builder.setLong(1, i).setString(2, "tenant-" + (i % 10)).setDouble(3, i / 10.0);
+            if (i % 100 == 99) {
+                builder.setNull(0);
+            } else {
+                builder.setInt(0, i % 20);
+            }
+            builder.appendRow();
+        }
+        batch = builder.build();
+        selection = new int[ROWS];
+    }
+
+    @Test
+    public void testNoFilterSelectsAll() {
+        assertEquals(ROWS, BatchFilter.select(batch, selection));
+        assertEquals(ROWS - 1, selection[ROWS - 1]);
+    }
+
+    @Test
+    public void testMatchesRowByRowEvaluation() {
+        Filter[][] cases = {
+                {Filter.gt("quantity", 10)},
+                {Filter.lte("quantity", 0)},
+                {Filter.eq("tenant", "tenant-3"), Filter.lt("offset", 500)},
+                {Filter.gte("tenant", "tenant-7"), Filter.gt("price", 50.0)},
+                {Filter.lt("quantity", Long.MIN_VALUE)},
+                {Filter.gt("offset", Long.MAX_VALUE)},
+                {Filter.lt("quantity", 5_000_000_000L)},
+                {Filter.eq("tenant", "tenant-x")},
+                {Filter.gte("offset", 100), Filter.eq("quantity", 19)},
+        };
+        for (Filter[] filters : cases) {
+            int count = BatchFilter.select(batch, selection, filters);
+            int expected = 0;
+            for (int row = 0; row < ROWS; row++) {
+                if (matchesAll(filters, row)) {
+                    assertEquals(row, selection[expected++]);
+                }
+            }
+            assertEquals(filters[0].toString(), expected, count);
+        }
+    }
+
+    @Test
+    public void testNullsNeverMatch() {
+        int count = BatchFilter.select(batch, selection, Filter.gte("quantity", 0));
+        assertEquals(ROWS - 10, count);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectionTooSmall() {
+        BatchFilter.select(batch, new int[10], Filter.gt("quantity", 1));
+    }
+
+    private boolean matchesAll(Filter[] filters, int row) {
+        for (Filter filter : filters) {
+            BoundFilter bound = new BoundFilter(filter, batch.getSchema());
+            if (batch.column(bound.getColumn()).isNull(row) || !bound.matches(batch.column(bound.getColumn()), row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,193 @@
+package com.gs.kafka.processor.query;
+
+import java.io.IOException;
+
+import com.gs.kafka.processor.sink.Column;
+import com.gs.kafka.processor.sink.ColumnStats;
+import com.gs.kafka.processor.sink.ColumnType;
+import com.gs.kafka.processor.sink.Schema;
+import com.gs.kafka.processor.sink.SinkConfig;
+import com.gs.kafka.processor.sink.Table;
+import com.gs.kafka.processor.sink.TableWriter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for TableScan
+ */
+public class TableScanTest {
+
+    private static final int PARTITIONS = 4;
+    private static final int COMMITS = 5;
+    private static final int ROWS_PER_COMMIT = 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Table table;
+
+    @Before
+    public void setUp() throws IOException {
+        Schema schema = Schema.of("partition",
+                new Column("partition", ColumnType.INT),
+                new Column("offset", ColumnType.LONG),
+                new Column("key", ColumnType.STRING),
+                new Column("value", ColumnType.INT));
+        table = Table.create(folder.getRoot().toPath(), schema);
+        // Every commit adds one file per partition covering the next ROWS_PER_COMMIT offsets
+        try (TableWriter writer = table.newWriter(SinkConfig.defaults())) {
+            long offset = 0;
+            for (int commit = 0; commit < COMMITS; commit++) {
+                for (int i = 0; i < ROWS_PER_COMMIT; i++, offset++) {
+                    for (int partition = 0; partition < PARTITIONS; partition++) {
+                        writer.setInt(0, partition)
+                                .setLong(1, offset)
+                                .setString(2, "key-" + offset % 10)
+                                .setInt(3, (int) (offset % 7))
+                                .appendRow();
+                    }
+                }
+                writer.commit();
+            }
+        }
+    }
+
+    @Test
+    public void testFullScan() throws IOException {
+        ScanResult result = new TableScan(table).collect();
+
+        assertEquals(PARTITIONS * COMMITS * ROWS_PER_COMMIT, result.getRows().size());
+        ScanMetrics metrics = result.getMetrics();
+        assertEquals(PARTITIONS * COMMITS, metrics.getFilesTotal());
+        assertEquals(0, metrics.getFilesPruned());
+        assertEquals(PARTITIONS * COMMITS, metrics.getFilesScanned());
+        assertEquals(PARTITIONS * COMMITS * 4, metrics.getColumnsDecoded());
+    }
+
+    @Test
+    public void testPartitionPruning() throws IOException {
+        ScanResult result = new TableScan(table)
+                .select("offset")
+                .filter(Filter.eq("partition", 2))
+                .collect();
+
+        assertEquals(COMMITS * ROWS_PER_COMMIT, result.getRows().size());
+        ScanMetrics metrics = result.getMetrics();
+        assertEquals((PARTITIONS - 1) * COMMITS, metrics.getFilesPrunedByPartition());
+        assertEquals(0, metrics.getFilesPrunedByStats());
+        assertEquals(COMMITS, metrics.getFilesScanned());
+        // The filter column plus the projected column
+        assertEquals(COMMITS * 2, metrics.getColumnsDecoded());
+    }
+
+    @Test
+    public void testMinMaxPruning() throws IOException {
+        ScanResult result = new TableScan(table)
+                .select("partition", "offset")
+                .filter(Filter.gte("offset", 150L))
+                .filter(Filter.lt("offset", 160L))
+                .collect();
+
+        assertEquals(PARTITIONS * 10, result.getRows().size());
+        for (Object[] row : result.getRows()) {
+            long offset = (Long) row[1];
+            assertTrue(offset >= 150 && offset < 160);
+        }
+        ScanMetrics metrics = result.getMetrics();
+        assertEquals((COMMITS - 1) * PARTITIONS, metrics.getFilesPrunedByStats());
+        assertEquals(PARTITIONS, metrics.getFilesScanned());
+        assertEquals(PARTITIONS * ROWS_PER_COMMIT, metrics.getRowsScanned());
+        assertEquals(PARTITIONS * 10, metrics.getRowsMatched());
+    }
+
+    @Test
+    public void testProjectionSkipsColumnsWhenNothingMatches() throws IOException {
+        ScanResult result = new TableScan(table)
+                .select("key", "value")
+                .filter(Filter.eq("value", 3))
+                .filter(Filter.eq("key", "key-4"))
+                .collect();
+
+        // value == offset % 7 and key == offset % 10, so offsets 24, 94, 164, ... match
+        assertEquals(PARTITIONS * 7, result.getRows().size());
+        assertArrayEquals(new Object[] {"key-4", 3}, result.getRows().getFirst());
+        ScanMetrics metrics = result.getMetrics();
+        assertEquals(PARTITIONS * COMMITS, metrics.getFilesScanned());
+        assertEquals(PARTITIONS * COMMITS * 2, metrics.getColumnsDecoded());
+    }
+
+    @Test
+    public void testStreamReaderGivesSameRows() throws IOException {
+        ScanResult mapped = new TableScan(table).filter(Filter.eq("value", 6)).collect();
+        ScanResult streamed = new TableScan(table).filter(Filter.eq("value", 6)).useMemoryMapping(false).collect();
+
+        assertEquals(mapped.getRows().size(), streamed.getRows().size());
+        for (int i = 0; i < mapped.getRows().size(); i++) {
+            assertArrayEquals(mapped.getRows().get(i), streamed.getRows().get(i));
+        }
+        assertEquals(mapped.getMetrics().getBytesRead(), streamed.getMetrics().getBytesRead());
+    }
+
+    @Test
+    public void testOlderSnapshot() throws IOException {
+        long first = table.currentSnapshot().getId() - (COMMITS - 1);
+        ScanMetrics metrics = new TableScan(table).useSnapshot(first).select("offset").forEach(row -> {
+            assertTrue(row.getLong(0) < ROWS_PER_COMMIT);
+        });
+
+        assertEquals(PARTITIONS, metrics.getFilesTotal());
+        assertEquals(PARTITIONS * ROWS_PER_COMMIT, metrics.getRowsMatched());
+    }
+
+    @Test
+    public void testNaNDoesNotPruneMatchingFiles() throws IOException {
+        Schema schema = Schema.of(null, new Column("x", ColumnType.DOUBLE));
+        Table doubles = Table.create(folder.getRoot().toPath().resolve("doubles"), schema);
+        try (TableWriter writer = doubles.newWriter(SinkConfig.defaults())) {
+            for (double value : new double[] {1.0, Double.NaN, 2.0}) {
+                writer.setDouble(0, value).appendRow();
+            }
+        }
+
+        ScanResult below = new TableScan(doubles).filter(Filter.lt("x", 5.0)).collect();
+        assertEquals(2, below.getRows().size());
+        assertEquals(0, below.getMetrics().getFilesPrunedByStats());
+        // Rows compare with Double.compare, where NaN sorts above every number
+        ScanResult above = new TableScan(doubles).filter(Filter.gt("x", 5.0)).collect();
+        assertEquals(1, above.getRows().size());
+        assertTrue(Double.isNaN((Double) above.getRows().get(0)[0]));
+        assertEquals(3, new TableScan(doubles).collect().getRows().size());
+
+        // Stats whose bounds both became NaN are never used to prune
+        BoundFilter filter = new BoundFilter(Filter.lt("x", 5.0), schema);
+        assertTrue(filter.mightMatch(new ColumnStats(ColumnType.DOUBLE, Double.NaN, Double.NaN)));
+        assertFalse(filter.mightMatch(new ColumnStats(ColumnType.DOUBLE, 6.0, 7.0)));
+    }
+
+    @Test
+    public void testLongStatsKeepFullPrecision() throws IOException {
+        // Above 2^53 neighbouring longs round to the same double
+        long big = 1_700_000_000_000_000_001L;
+        Schema schema = Schema.of(null, new Column("ts", ColumnType.LONG));
+        Table longs = Table.create(folder.getRoot().toPath().resolve("longs"), schema);
+        try (TableWriter writer = longs.newWriter(SinkConfig.defaults())) {
+            writer.setLong(0, big).appendRow();
+            writer.setLong(0, big + 1).appendRow();
+        }
+        assertEquals(new ColumnStats(ColumnType.LONG, big, big + 1),
+                longs.dataFiles(longs.currentSnapshot()).get(0).getStats(0));
+
+        ScanResult result = new TableScan(longs).filter(Filter.eq("ts", big + 1)).collect();
+        assertEquals(1, result.getRows().size());
+        assertEquals(big + 1, result.getRows().get(0)[0]);
+        assertEquals(0, result.getMetrics().getFilesPrunedByStats());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFilterLiteralMustMatchColumnType() throws IOException {
+        new TableScan(table).filter(Filter.eq("key", 1)).collect();
+    }
+}
@@ -0,0 +1,81 @@
+package com.gs.kafka.processor.ring;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for MpscRingBuffer
+ */
+public class MpscRingBufferTest {
+
+    @Test
+    public void testOutOfOrderPublishIsHiddenUntilGapFilled() {
+        MpscRingBuffer<String> ring = RingBuffer.mpsc(8, WaitStrategy.YIELD);
+        long slow = ring.tryClaim(2);
+        long fast = ring.tryClaim(1);
+        ring.set(fast, "fast");
+        ring.publish(fast, 1);
+        assertNull(ring.poll());
+
+        ring.set(slow, "a");
+        ring.set(slow + 1, "b");
+        ring.publish(slow, 2);
+        assertEquals("a", ring.poll());
+        assertEquals("b", ring.poll());
+        assertEquals("fast", ring.poll());
+        assertNull(ring.poll());
+    }
+
+    @Test
+    public void testWrapsAround() {
+        MpscRingBuffer<Integer> ring = RingBuffer.mpsc(4, WaitStrategy.BUSY_SPIN);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(ring.offer(i));
+            assertTrue(ring.offer(-i));
+            assertEquals(Integer.valueOf(i), ring.poll());
+            assertEquals(Integer.valueOf(-i), ring.poll());
+        }
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+    }
+
+    @Test
+    public void testConcurrentProducersKeepPerProducerOrder() throws InterruptedException {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            if (strategy == WaitStrategy.BUSY_SPIN && Runtime.getRuntime().availableProcessors() < 2) {
+                // A spinning thread holds the only CPU until its time slice ends
+                continue;
+            }
+            MpscRingBuffer<long[]> ring = RingBuffer.mpsc(128, strategy);
+            int producers = 4;
+            int perProducer = 25_000;
+            Thread[] threads = new Thread[producers];
+            for (int p = 0; p < producers; p++) {
+                int id = p;
+                threads[p] = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < perProducer; i++) {
+                            ring.put(new long[] {id, i});
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                threads[p].start();
+            }
+            long[] next = new long[producers];
+            for (int i = 0; i < producers * perProducer; i++) {
+                long[] element = ring.take();
+                assertEquals(strategy.name(), next[(int) element[0]]++, element[1]);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (long count : next) {
+                assertEquals(perProducer, count);
+            }
+        }
+    }
+}
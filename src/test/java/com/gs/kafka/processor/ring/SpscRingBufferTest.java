@@ -0,0 +1,101 @@
+package com.gs.kafka.processor.ring;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for SpscRingBuffer
+ */
+public class SpscRingBufferTest {
+
+    @Test
+    public void testOfferPollUntilFull() {
+        SpscRingBuffer<Integer> ring = RingBuffer.spsc(4, WaitStrategy.YIELD);
+        assertTrue(ring.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+
+        assertEquals(Integer.valueOf(0), ring.poll());
+        assertTrue(ring.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(Integer.valueOf(i), ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    public void testBatchClaimAndDrain() {
+        SpscRingBuffer<String> ring = RingBuffer.spsc(8, WaitStrategy.BUSY_SPIN);
+        long first = ring.tryClaim(5);
+        assertEquals(0, first);
+        for (int i = 0; i < 5; i++) {
+            ring.set(first + i, "e" + i);
+        }
+        assertNull("claimed slots are invisible until published", ring.poll());
+        assertEquals(-1, ring.tryClaim(4));
+        ring.publish(first, 5);
+
+        MutableList<String> drained = FastList.newList();
+        assertEquals(3, ring.drainTo(drained, 3));
+        assertEquals(FastList.newListWith("e0", "e1", "e2"), drained);
+        assertEquals(6, ring.tryClaim(4) + 1);
+    }
+
+    @Test
+    public void testConcurrentHandoffKeepsOrder() throws InterruptedException {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            if (strategy == WaitStrategy.BUSY_SPIN && Runtime.getRuntime().availableProcessors() < 2) {
+                // A spinning thread holds the only CPU until its time slice ends
+                continue;
+            }
+            SpscRingBuffer<Integer> ring = RingBuffer.spsc(64, strategy);
+            int count = 100_000;
+            Thread producer = new Thread(() -> {
+                try {
+                    MutableList<Integer> batch = FastList.newList();
+                    for (int i = 0; i < count; i++) {
+                        batch.add(i);
+                        if (batch.size() == 100) {
+                            ring.putAll(batch);
+                            batch.clear();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+            for (int i = 0; i < count; i++) {
+                assertEquals(strategy.name(), i, ring.take().intValue());
+            }
+            producer.join();
+            assertTrue(ring.isEmpty());
+        }
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void testTakeIsInterruptible() throws InterruptedException {
+        Thread.currentThread().interrupt();
+        RingBuffer.<Integer>spsc(2, WaitStrategy.BUSY_SPIN).take();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePowerOfTwo() {
+        RingBuffer.spsc(6, WaitStrategy.PARK);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testClaimLargerThanCapacity() {
+        RingBuffer.spsc(4, WaitStrategy.PARK).tryClaim(5);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullElement() {
+        RingBuffer.<Integer>spsc(4, WaitStrategy.PARK).offer(null);
+    }
+}
@@ -0,0 +1,52 @@
+package com.gs.kafka.processor.runtime;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.kafka.processor.pipeline.Record;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for FakeBroker
+ */
+public class FakeBrokerTest {
+
+    @Test
+    public void testAppendAndFetch() {
+        FakeBroker broker = new FakeBroker(2);
+        assertEquals(0, broker.appendInt(1, "a", 10));
+        assertEquals(1, broker.appendInt(1, "b", 11));
+        assertEquals(0, broker.append(0, "c", new byte[] {1}));
+
+        assertEquals(2, broker.getEndOffset(1));
+        MutableList<Record> batch = broker.fetch(1, 1, 10);
+        assertEquals(1, batch.size());
+        assertEquals(1, batch.getFirst().getPartition());
+        assertEquals(1, batch.getFirst().getOffset());
+        assertEquals(11, batch.getFirst().valueAsInt());
+        assertTrue(broker.fetch(1, 2, 10).isEmpty());
+    }
+
+    @Test
+    public void testCommittedOffsetsArePerGroup() {
+        FakeBroker broker = FakeBroker.ofInts(3, 100);
+        assertEquals(300, broker.getLag("g1"));
+
+        broker.commit("g1", 0, 40);
+        broker.commit("g1", 2, 100);
+
+        assertEquals(40, broker.getCommittedOffset("g1", 0));
+        assertEquals(0, broker.getCommittedOffset("g2", 0));
+        assertEquals(160, broker.getLag("g1"));
+        assertEquals(300, broker.getLag("g2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownPartition() {
+        new FakeBroker(2).fetch(2, 0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFetchPastEnd() {
+        FakeBroker.ofInts(1, 5).fetch(0, 6, 10);
+    }
+}
@@ -0,0 +1,132 @@
+package com.gs.kafka.processor.runtime;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.kafka.processor.dummy.DummyService;
+import com.gs.kafka.processor.pipeline.BlockingLatencyStage;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.PipelineException;
+import com.gs.kafka.processor.pipeline.PipelineResult;
+import com.gs.kafka.processor.pipeline.Record;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for PartitionedRuntime
+ */
+public class PartitionedRuntimeTest {
+
+    @Test
+    public void testProcessesEveryPartitionInOrder() {
+        assertProcessesEveryPartitionInOrder(ExecutionMode.FIXED_POOL);
+    }
+
+    @Test
+    public void testVirtualThreadsProcessEveryPartitionInOrder() {
+        assertProcessesEveryPartitionInOrder(ExecutionMode.VIRTUAL_THREADS);
+    }
+
+    private void assertProcessesEveryPartitionInOrder(ExecutionMode mode) {
+        FakeBroker broker = FakeBroker.ofInts(8, 1000);
+        ConcurrentMap<Integer, MutableList<Long>> seen = new ConcurrentHashMap<>();
+        PartitionedRuntime<Record> runtime = new PartitionedRuntime<>(broker, "test",
+                BatchStage.perRecord(record -> record),
+                batch -> batch.each(record -> seen
+                        .computeIfAbsent(record.getPartition(), p -> FastList.<Long>newList().asSynchronized())
+                        .add(record.getOffset())),
+                new RuntimeConfig(3, 64, mode));
+
+        RuntimeResult result = runtime.run();
+
+        assertEquals(8000, result.getRecords());
+        assertEquals(8000, result.getWritten());
+        assertEquals(8 * 16, result.getBatches());
+        assertEquals(8, seen.size());
+        for (MutableList<Long> offsets : seen.values()) {
+            assertEquals(1000, offsets.size());
+            for (int i = 0; i < offsets.size(); i++) {
+                assertEquals(Long.valueOf(i), offsets.get(i));
+            }
+        }
+        assertEquals(0, broker.getLag("test"));
+        assertEquals(mode, result.getExecutionMode());
+        assertEquals(mode == ExecutionMode.FIXED_POOL ? 3 : 8, result.getThreadsStarted());
+        assertTrue(result.toString(), result.getPeakLiveThreads() >= 1);
+        assertTrue(result.toString(), result.getPeakLiveThreads() <= result.getThreadsStarted());
+    }
+
+    @Test
+    public void testVirtualThreadsOverlapBlockingStages() {
+        // 32 partitions of two batches each, every batch blocking for 10ms
+        RuntimeConfig config = new RuntimeConfig(2, 50);
+        RuntimeResult pooled = runBlocking(config);
+        RuntimeResult virtual = runBlocking(config.withExecutionMode(ExecutionMode.VIRTUAL_THREADS));
+
+        assertEquals(pooled.getRecords(), virtual.getRecords());
+        assertTrue(pooled.getElapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(32 * 2 * 10 / 2));
+        assertTrue(pooled + " vs " + virtual, virtual.getElapsedNanos() * 4 < pooled.getElapsedNanos());
+        assertEquals(2, pooled.getThreadsStarted());
+        assertEquals(32, virtual.getThreadsStarted());
+        // Pool workers live until the run ends; blocked virtual threads overlap
+        assertEquals(2, pooled.getPeakLiveThreads());
+        assertTrue(virtual.toString(), virtual.getPeakLiveThreads() > 2);
+    }
+
+    private static RuntimeResult runBlocking(RuntimeConfig config) {
+        FakeBroker broker = FakeBroker.ofInts(32, 100);
+        return new PartitionedRuntime<>(broker, "test", new BlockingLatencyStage<>(10, TimeUnit.MILLISECONDS),
+                batch -> { }, config).run();
+    }
+
+    @Test
+    public void testResumesFromCommittedOffsets() {
+        FakeBroker broker = FakeBroker.ofInts(2, 100);
+        broker.commit("test", 0, 60);
+        DummyService service = new DummyService();
+
+        PipelineResult result = new PartitionedRuntime<>(broker, "test",
+                BatchStage.perRecord(record -> service.calculate(record.valueAsInt())),
+                batch -> { }, new RuntimeConfig(2, 32)).run();
+
+        assertEquals(140, result.getRecords());
+        assertEquals(0, broker.getLag("test"));
+    }
+
+    @Test
+    public void testOffsetsAreNotCommittedWithoutAck() {
+        FakeBroker broker = FakeBroker.ofInts(1, 100);
+        PartitionedRuntime<Record> runtime = new PartitionedRuntime<>(broker, "test",
+                BatchStage.perRecord(record -> record),
+                batch -> {
+                    if (batch.getFirst().getOffset() >= 50) {
+                        throw new IllegalStateException("sink unavailable");
+                    }
+                }, new RuntimeConfig(1, 25));
+
+        try {
+            runtime.run();
+            fail("expected the sink failure to surface");
+        } catch (PipelineException e) {
+            assertEquals("sink unavailable", e.getCause().getMessage());
+        }
+        assertEquals(50, broker.getCommittedOffset("test", 0));
+    }
+
+    @Test
+    public void testMoreWorkersThanPartitions() {
+        FakeBroker broker = FakeBroker.ofInts(2, 10);
+        PipelineResult result = new PartitionedRuntime<>(broker, "test", BatchStage.perRecord(record -> record),
+                batch -> { }, new RuntimeConfig(16, 4)).run();
+
+        assertEquals(20, result.getRecords());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConfig() {
+        RuntimeConfig.defaults().withWorkers(0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for DataFileWriter and DataFileReader
+ */
+public class DataFileReaderTest {
+
+    private static final Schema SCHEMA = Schema.of(null,
+            new Column("id", ColumnType.INT),
+            new Column("offset", ColumnType.LONG),
+            new Column("score", ColumnType.DOUBLE),
+            new Column("name", ColumnType.STRING));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTripUncompressed() throws IOException {
+        assertRoundTrip(Codec.NONE);
+    }
+
+    @Test
+    public void testRoundTripDeflate() throws IOException {
+        assertRoundTrip(Codec.DEFLATE);
+    }
+
+    private void assertRoundTrip(Codec codec) throws IOException {
+        Path dir = folder.getRoot().toPath();
+        PartitionBuffer buffer = new PartitionBuffer(SCHEMA, null, 0);
+        for (int i = 0; i < 1000; i++) {
+            buffer.column(0).appendLong(i - 500);
+            buffer.column(1).appendLong(1_000_000_000_000L + i);
+            buffer.column(2).appendDouble(i / 4.0);
+            buffer.column(3).appendString("name-é-" + (i % 10));
+            buffer.rowAppended();
+        }
+        DataFileMeta meta = DataFileWriter.write(dir, "data/file.kdf", SCHEMA, buffer, codec);
+        assertEquals(1000, meta.getRowCount());
+        assertEquals(Files.size(dir.resolve("data/file.kdf")), meta.getSizeBytes());
+        assertEquals(new ColumnStats(ColumnType.INT, -500, 499), meta.getStats(0));
+        assertEquals(new ColumnStats(ColumnType.STRING, "name-é-0", "name-é-9"), meta.getStats(3));
+
+        try (DataFileReader reader = new DataFileReader(dir.resolve("data/file.kdf"))) {
+            assertEquals(1000, reader.getRowCount());
+            assertEquals(SCHEMA, reader.getFooter().getSchema());
+            assertEquals(codec, reader.getFooter().getChunk(1).getCodec());
+            ColumnVector ids = reader.readColumn(0);
+            ColumnVector offsets = reader.readColumn(1);
+            ColumnVector scores = reader.readColumn(2);
+            ColumnVector names = reader.readColumn(3);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i - 500, ids.getInt(i));
+                assertEquals(i - 500, ids.getLong(i));
+                assertEquals(1_000_000_000_000L + i, offsets.getLong(i));
+                assertEquals(i / 4.0, scores.getDouble(i), 0.0);
+                assertEquals("name-é-" + (i % 10), names.getString(i));
+            }
+            assertEquals(Integer.valueOf(7), ids.getValue(507));
+        }
+    }
+
+    @Test
+    public void testDeflateShrinksRepetitiveColumns() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        Schema schema = Schema.of(null, new Column("name", ColumnType.STRING));
+        PartitionBuffer plain = new PartitionBuffer(schema, null, 0);
+        PartitionBuffer compressed = new PartitionBuffer(schema, null, 0);
+        for (int i = 0; i < 10_000; i++) {
+            plain.column(0).appendString("tenant-" + (i % 3));
+            plain.rowAppended();
+            compressed.column(0).appendString("tenant-" + (i % 3));
+            compressed.rowAppended();
+        }
+        long plainBytes = DataFileWriter.write(dir, "plain.kdf", schema, plain, Codec.NONE).getSizeBytes();
+        long compressedBytes = DataFileWriter.write(dir, "deflate.kdf", schema, compressed, Codec.DEFLATE).getSizeBytes();
+        assertTrue(compressedBytes * 5 < plainBytes);
+    }
+
+    @Test
+    public void testNaNIsTheMaxOfDoubleStats() throws IOException {
+        Schema schema = Schema.of(null, new Column("x", ColumnType.DOUBLE));
+        PartitionBuffer buffer = new PartitionBuffer(schema, null, 0);
+        for (double value : new double[] {1.0, Double.NaN, 2.0}) {
+            buffer.column(0).appendDouble(value);
+            buffer.rowAppended();
+        }
+        DataFileMeta meta = DataFileWriter.write(folder.getRoot().toPath(), "nan.kdf", schema, buffer, Codec.NONE);
+        assertEquals(new ColumnStats(ColumnType.DOUBLE, 1.0, Double.NaN), meta.getStats(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testWrongAccessor() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        PartitionBuffer buffer = new PartitionBuffer(SCHEMA, null, 0);
+        buffer.column(0).appendLong(1);
+        buffer.column(1).appendLong(1);
+        buffer.column(2).appendDouble(1);
+        buffer.column(3).appendString("a");
+        buffer.rowAppended();
+        DataFileWriter.write(dir, "one.kdf", SCHEMA, buffer, Codec.NONE);
+        new DataFileReader(dir.resolve("one.kdf")).readColumn(3).getInt(0);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotADataFile() throws IOException {
+        Path file = folder.newFile("garbage.kdf").toPath();
+        Files.write(file, new byte[64]);
+        new DataFileReader(file);
+    }
+}
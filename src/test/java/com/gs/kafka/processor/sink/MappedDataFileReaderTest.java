@@ -0,0 +1,83 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for MappedDataFileReader
+ */
+public class MappedDataFileReaderTest {
+
+    private static final Schema SCHEMA = Schema.of(null,
+            new Column("id", ColumnType.INT),
+            new Column("offset", ColumnType.LONG),
+            new Column("score", ColumnType.DOUBLE),
+            new Column("name", ColumnType.STRING));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMatchesStreamReaderUncompressed() throws IOException {
+        assertMatchesStreamReader(Codec.NONE);
+    }
+
+    @Test
+    public void testMatchesStreamReaderDeflate() throws IOException {
+        assertMatchesStreamReader(Codec.DEFLATE);
+    }
+
+    private void assertMatchesStreamReader(Codec codec) throws IOException {
+        Path file = writeFile(codec, 1000);
+        try (DataFileReader stream = new DataFileReader(file);
+             MappedDataFileReader mapped = new MappedDataFileReader(file)) {
+            assertEquals(stream.getRowCount(), mapped.getRowCount());
+            assertEquals(stream.getFooter().getSchema(), mapped.getFooter().getSchema());
+            for (int column = 0; column < SCHEMA.size(); column++) {
+                ColumnVector expected = stream.readColumn(column);
+                ColumnVector actual = mapped.readColumn(column);
+                assertEquals(expected.size(), actual.size());
+                for (int row = 0; row < expected.size(); row++) {
+                    assertEquals(expected.getValue(row), actual.getValue(row));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testViewsOutliveReader() throws IOException {
+        Path file = writeFile(Codec.NONE, 10);
+        ColumnVector names;
+        try (MappedDataFileReader reader = new MappedDataFileReader(file)) {
+            names = reader.readColumn(3);
+        }
+        assertEquals("name-é-9", names.getString(9));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotADataFile() throws IOException {
+        Path file = folder.newFile("garbage.kdf").toPath();
+        Files.write(file, new byte[64]);
+        new MappedDataFileReader(file);
+    }
+
+    private Path writeFile(Codec codec, int rows) throws IOException {
+        Path dir = folder.getRoot().toPath();
+        PartitionBuffer buffer = new PartitionBuffer(SCHEMA, null, 0);
+        for (int i = 0; i < rows; i++) {
+            buffer.column(0).appendLong(i - 500);
+            buffer.column(1).appendLong(1_000_000_000_000L + i);
+            buffer.column(2).appendDouble(i / 4.0);
+            buffer.column(3).appendString("name-é-" + (i % 10));
+            buffer.rowAppended();
+        }
+        DataFileWriter.write(dir, "file.kdf", SCHEMA, buffer, codec);
+        return dir.resolve("file.kdf");
+    }
+}
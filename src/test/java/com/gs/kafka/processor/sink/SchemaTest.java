@@ -0,0 +1,124 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for Schema, Column and ColumnStats
+ */
+public class SchemaTest {
+
+    private static final Column ID = new Column("id", ColumnType.LONG);
+    private static final Column NAME = new Column("name", ColumnType.STRING);
+
+    @Test
+    public void testColumnsAndPartitioning() {
+        Schema schema = Schema.of("name", ID, NAME);
+        assertEquals(2, schema.size());
+        assertEquals(NAME, schema.get(1));
+        assertEquals(1, schema.indexOf("name"));
+        assertEquals(1, schema.getPartitionColumn());
+        assertTrue(schema.isPartitioned());
+        assertEquals("Schema[id LONG, name STRING] partitioned by name", schema.toString());
+
+        Schema unpartitioned = Schema.of(null, ID, NAME);
+        assertFalse(unpartitioned.isPartitioned());
+        assertEquals(-1, unpartitioned.getPartitionColumn());
+        assertEquals("Schema[id LONG, name STRING]", unpartitioned.toString());
+        assertEquals(unpartitioned.getColumns(), schema.getColumns());
+    }
+
+    @Test
+    public void testEquality() {
+        Schema schema = Schema.of("id", ID, NAME);
+        assertEquals(schema, schema);
+        assertEquals(Schema.of("id", ID, NAME), schema);
+        assertEquals(Schema.of("id", ID, NAME).hashCode(), schema.hashCode());
+        assertNotEquals(Schema.of(null, ID, NAME), schema);
+        assertNotEquals(Schema.of("id", ID, new Column("name", ColumnType.INT)), schema);
+        assertNotEquals(schema, "id");
+
+        assertEquals(ID, ID);
+        assertEquals(new Column("id", ColumnType.LONG), ID);
+        assertEquals(new Column("id", ColumnType.LONG).hashCode(), ID.hashCode());
+        assertNotEquals(new Column("id", ColumnType.INT), ID);
+        assertNotEquals(new Column("key", ColumnType.LONG), ID);
+        assertNotEquals(ID, "id");
+    }
+
+    @Test
+    public void testInvalidSchemas() {
+        assertInvalid(() -> Schema.of(null));
+        assertInvalid(() -> Schema.of(null, ID, new Column("id", ColumnType.INT)));
+        assertInvalid(() -> Schema.of("score", ID, new Column("score", ColumnType.DOUBLE)));
+        assertInvalid(() -> Schema.of("missing", ID));
+        assertInvalid(() -> new Column("", ColumnType.INT));
+        assertInvalid(() -> new Column(null, ColumnType.INT));
+        assertInvalid(() -> new Column("id", null));
+    }
+
+    private static void assertInvalid(Runnable constructor) {
+        try {
+            constructor.run();
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testColumnTypeWidths() {
+        assertEquals(4, ColumnType.INT.width());
+        assertTrue(ColumnType.DOUBLE.isFixedWidth());
+        assertFalse(ColumnType.STRING.isFixedWidth());
+    }
+
+    @Test
+    public void testMergeStats() {
+        ColumnStats empty = new ColumnStats(ColumnType.INT, null, null);
+        ColumnStats low = new ColumnStats(ColumnType.INT, 1, 5);
+        ColumnStats high = new ColumnStats(ColumnType.INT, 3, 9);
+        assertTrue(empty.isEmpty());
+        assertSame(low, empty.merge(low));
+        assertSame(low, low.merge(empty));
+        assertEquals(new ColumnStats(ColumnType.INT, 1, 9), low.merge(high));
+        assertEquals(new ColumnStats(ColumnType.INT, 1, 9), high.merge(low));
+        assertEquals(ColumnType.INT, low.merge(high).getType());
+        assertEquals("[1, 5]", low.toString());
+    }
+
+    @Test
+    public void testStatsEquality() {
+        ColumnStats stats = new ColumnStats(ColumnType.STRING, "a", "c");
+        ColumnStats empty = new ColumnStats(ColumnType.STRING, null, null);
+        assertEquals(stats, stats);
+        assertEquals(new ColumnStats(ColumnType.STRING, "a", "c"), stats);
+        assertEquals(new ColumnStats(ColumnType.STRING, "a", "c").hashCode(), stats.hashCode());
+        assertEquals(new ColumnStats(ColumnType.STRING, null, null), empty);
+        assertEquals(new ColumnStats(ColumnType.STRING, null, null).hashCode(), empty.hashCode());
+        assertNotEquals(empty, stats);
+        assertNotEquals(stats, empty);
+        assertNotEquals(new ColumnStats(ColumnType.STRING, "a", "b"), stats);
+        assertNotEquals(new ColumnStats(ColumnType.STRING, "b", "c"), stats);
+        assertNotEquals(new ColumnStats(ColumnType.INT, 1, 1), new ColumnStats(ColumnType.LONG, 1, 1));
+        assertNotEquals(stats, "[a, c]");
+    }
+
+    @Test
+    public void testStatsRoundTrip() throws IOException {
+        for (ColumnStats stats : new ColumnStats[] {
+                new ColumnStats(ColumnType.DOUBLE, -1.5, 2.5),
+                new ColumnStats(ColumnType.LONG, null, null)}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            stats.write(new DataOutputStream(bytes));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            assertEquals(stats, ColumnStats.read(in, stats.getType()));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.kafka.processor.query.ScanResult;
+import com.gs.kafka.processor.query.TableScan;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for TableCompactor and CompactionService
+ */
+public class TableCompactorTest {
+
+    private static final Schema SCHEMA = Schema.of("partition",
+            new Column("partition", ColumnType.INT),
+            new Column("offset", ColumnType.LONG),
+            new Column("key", ColumnType.STRING));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private Table table;
+
+    @Before
+    public void setUp() throws IOException {
+        table = Table.create(folder.getRoot().toPath().resolve("events"), SCHEMA, now::get);
+    }
+
+    /**
+     * Commits {@code commits} files per partition of {@code rowsPerFile} rows each, offsets descending
+     */
+    private long appendSmallFiles(int partitions, int commits, int rowsPerFile) throws IOException {
+        TableWriter writer = table.newWriter(SinkConfig.defaults());
+        long offset = (long) partitions * commits * rowsPerFile;
+        for (int commit = 0; commit < commits; commit++) {
+            for (int partition = 0; partition < partitions; partition++) {
+                for (int row = 0; row < rowsPerFile; row++) {
+                    offset--;
+                    writer.setInt(0, partition).setLong(1, offset).setString(2, "key-" + offset % 7).appendRow();
+                }
+            }
+            writer.commit();
+        }
+        return (long) partitions * commits * rowsPerFile;
+    }
+
+    private static CompactionConfig smallFiles() {
+        return CompactionConfig.defaults().withSmallFileBytes(1 << 20).withMinInputFiles(2);
+    }
+
+    @Test
+    public void testMergesSmallFilesPerPartition() throws IOException {
+        long rows = appendSmallFiles(3, 20, 50);
+        Snapshot before = table.currentSnapshot();
+        assertEquals(60, table.dataFiles(before).size());
+
+        TableCompactor compactor = new TableCompactor(table, smallFiles(), now::get);
+        Snapshot compacted = compactor.compact();
+        assertEquals("compact", compacted.getOperation());
+        assertEquals(before.getId(), compacted.getParentId());
+
+        MutableList<DataFileMeta> files = table.dataFiles(compacted);
+        assertEquals(3, files.size());
+        assertEquals(3, files.collect(DataFileMeta::getPartitionValue).toSet().size());
+        assertEquals(rows, files.sumOfInt(DataFileMeta::getRowCount));
+        assertEquals(1, compactor.getCompactions());
+        assertEquals(60, compactor.getFilesRewritten());
+        assertEquals(3, compactor.getFilesWritten());
+        assertEquals(rows, compactor.getRowsRewritten());
+
+        // The previous snapshot and its files stay readable
+        MutableList<DataFileMeta> old = table.dataFiles(before);
+        assertEquals(60, old.size());
+        assertTrue(old.allSatisfy(file -> Files.exists(table.resolve(file.getPath()))));
+        ScanResult scan = new TableScan(table).collect();
+        assertEquals(rows, scan.getRows().size());
+
+        assertNull("Nothing left to compact", compactor.compact());
+    }
+
+    @Test
+    public void testSortsByKeyKeepingCommitOrderOfTies() throws IOException {
+        appendSmallFiles(1, 10, 100);
+        TableCompactor compactor = new TableCompactor(table, smallFiles().withSortColumn("key"), now::get);
+        compactor.compact();
+
+        MutableList<DataFileMeta> files = table.dataFiles(table.currentSnapshot());
+        assertEquals(1, files.size());
+        DataFileMeta file = files.getFirst();
+        assertEquals("key-0", file.getStats(2).getMin());
+        assertEquals("key-6", file.getStats(2).getMax());
+        try (ColumnChunkReader reader = new MappedDataFileReader(table.resolve(file.getPath()))) {
+            ColumnVector offsets = reader.readColumn(1);
+            ColumnVector keys = reader.readColumn(2);
+            assertEquals(1000, keys.size());
+            for (int row = 1; row < keys.size(); row++) {
+                int comparison = keys.getString(row - 1).compareTo(keys.getString(row));
+                assertTrue(comparison <= 0);
+                if (comparison == 0) {
+                    assertTrue("Ties keep their input order", offsets.getLong(row - 1) > offsets.getLong(row));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitsOutputAtTargetSize() throws IOException {
+        long rows = appendSmallFiles(1, 10, 100);
+        // partition 4 + offset 8 + key offset 4 + 5 key bytes
+        CompactionConfig config = smallFiles().withTargetFileBytes(21 * 250).withSortColumn("offset");
+        TableCompactor compactor = new TableCompactor(table, config, now::get);
+        compactor.compact();
+
+        MutableList<DataFileMeta> files = table.dataFiles(table.currentSnapshot());
+        assertEquals(4, files.size());
+        assertEquals(rows, files.sumOfInt(DataFileMeta::getRowCount));
+        // Sorted output gives every file a disjoint offset range
+        MutableList<DataFileMeta> byMin = files.sortThisBy(file -> (Long) file.getStats(1).getMin());
+        for (int i = 1; i < byMin.size(); i++) {
+            assertTrue((Long) byMin.get(i - 1).getStats(1).getMax() < (Long) byMin.get(i).getStats(1).getMin());
+        }
+    }
+
+    @Test
+    public void testLeavesLargeAndLoneFiles() throws IOException {
+        appendSmallFiles(2, 1, 100);
+        TableCompactor compactor = new TableCompactor(table, smallFiles(), now::get);
+        assertNull("One small file per partition", compactor.compact());
+
+        appendSmallFiles(2, 3, 100);
+        TableCompactor tiny = new TableCompactor(table, smallFiles().withSmallFileBytes(16), now::get);
+        assertNull("No file is small", tiny.compact());
+        assertEquals(0, tiny.getCompactions());
+    }
+
+    @Test
+    public void testPlanPacksFilesUpToMaxInputBytes() throws IOException {
+        appendSmallFiles(1, 9, 100);
+        MutableList<DataFileMeta> files = table.dataFiles(table.currentSnapshot());
+        long fileBytes = files.getFirst().getSizeBytes();
+        CompactionConfig config = new CompactionConfig(1 << 20, fileBytes * 2, 2, fileBytes * 4 + fileBytes / 2,
+                null, Codec.DEFLATE);
+        MutableList<MutableList<DataFileMeta>> groups = new TableCompactor(table, config).plan(files);
+        assertEquals(2, groups.size());
+        assertEquals(4, groups.get(0).size());
+        assertEquals(4, groups.get(1).size());
+    }
+
+    @Test
+    public void testSortIsStable() {
+        Random random = new Random(42);
+        int[] keys = new int[10_001];
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(50);
+            order[i] = i;
+        }
+        TableCompactor.sort(order, (a, b) -> Integer.compare(keys[a], keys[b]));
+        for (int i = 1; i < order.length; i++) {
+            assertTrue(keys[order[i - 1]] <= keys[order[i]]);
+            if (keys[order[i - 1]] == keys[order[i]]) {
+                assertTrue(order[i - 1] < order[i]);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownSortColumnIsRejected() {
+        new TableCompactor(table, CompactionConfig.defaults().withSortColumn("missing"));
+    }
+
+    @Test
+    public void testServiceCompactsWhileWritersAppend() throws Exception {
+        TableCompactor compactor = new TableCompactor(table, smallFiles().withSortColumn("offset"));
+        long rows;
+        try (CompactionService service = new CompactionService(compactor, 5)) {
+            rows = appendSmallFiles(4, 200, 10);
+            while (service.getPasses() < 2) {
+                Thread.sleep(5);
+            }
+            assertNull(service.getLastFailure());
+        }
+        assertTrue(compactor.getCompactions() > 0);
+        compactor.compact();
+        MutableList<DataFileMeta> files = table.dataFiles(table.currentSnapshot());
+        assertEquals(rows, files.sumOfInt(DataFileMeta::getRowCount));
+        assertTrue(files.size() <= 8);
+        Path location = table.getLocation();
+        assertEquals(rows, new TableScan(Table.open(location)).collect().getRows().size());
+    }
+}
@@ -0,0 +1,47 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.IOException;
+
+import com.gs.kafka.processor.dummy.DummyService;
+import com.gs.kafka.processor.pipeline.BatchPipeline;
+import com.gs.kafka.processor.pipeline.BatchStage;
+import com.gs.kafka.processor.pipeline.InMemoryRecordSource;
+import com.gs.kafka.processor.pipeline.Record;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for TableSink
+ */
+public class TableSinkTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPipelineWritesIntoTable() throws IOException {
+        Schema schema = Schema.of("partition",
+                new Column("partition", ColumnType.INT),
+                new Column("offset", ColumnType.LONG),
+                new Column("value", ColumnType.INT));
+        Table table = Table.create(folder.getRoot().toPath(), schema);
+        DummyService service = new DummyService();
+        TableSink<Record> sink = new TableSink<>(table.newWriter(SinkConfig.defaults()), (record, row) -> row
+                .setInt(0, record.getPartition())
+                .setLong(1, record.getOffset())
+                .setInt(2, service.calculate(record.valueAsInt())));
+
+        new BatchPipeline<>(InMemoryRecordSource.ofInts(4, 10_000), batch -> batch,
+                BatchStage.perRecord(record -> record), sink).run();
+        sink.close();
+
+        assertEquals(10_000, sink.getWriter().getRowsWritten());
+        assertEquals(4, table.dataFiles(table.currentSnapshot()).size());
+        DataFileMeta file = table.dataFiles(table.currentSnapshot()).detect(each -> each.getPartitionValue().equals(0));
+        assertEquals(2500, file.getRowCount());
+        // Partition 0 gets every fourth record, values i % 100 that are multiples of 4, doubled above 10
+        assertEquals(new ColumnStats(ColumnType.INT, 0, 192), file.getStats(2));
+    }
+}
@@ -0,0 +1,238 @@
+package com.gs.kafka.processor.sink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.gs.collections.api.list.MutableList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for TableWriter and Table
+ */
+public class TableWriterTest {
+
+    private static final Schema SCHEMA = Schema.of("partition",
+            new Column("partition", ColumnType.INT),
+            new Column("offset", ColumnType.LONG),
+            new Column("key", ColumnType.STRING));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private Path location;
+    private Table table;
+
+    @Before
+    public void setUp() throws IOException {
+        location = folder.getRoot().toPath().resolve("events");
+        table = Table.create(location, SCHEMA, now::get);
+    }
+
+    private void append(TableWriter writer, int partition, long offset) throws IOException {
+        writer.setInt(0, partition).setLong(1, offset).setString(2, "key-" + offset).appendRow();
+    }
+
+    @Test
+    public void testCommitWritesOneFilePerPartition() throws IOException {
+        TableWriter writer = table.newWriter(SinkConfig.defaults());
+        for (int i = 0; i < 300; i++) {
+            append(writer, i % 3, i);
+        }
+        assertEquals(300, writer.getBufferedRows());
+        assertEquals(0, table.currentSnapshot().getId());
+
+        Snapshot snapshot = writer.commit();
+        assertEquals(1, snapshot.getId());
+        assertEquals(0, snapshot.getParentId());
+        assertEquals("append", snapshot.getOperation());
+        assertEquals(0, writer.getBufferedRows());
+        assertEquals(300, writer.getRowsWritten());
+        assertNull("Nothing left to commit", writer.commit());
+
+        MutableList<DataFileMeta> files = table.dataFiles(table.currentSnapshot());
+        assertEquals(3, files.size());
+        for (DataFileMeta file : files) {
+            assertEquals(100, file.getRowCount());
+            assertTrue(file.getPath().startsWith("data/partition=" + file.getPartitionValue() + "/"));
+            assertTrue(Files.exists(table.resolve(file.getPath())));
+            assertEquals(file.getPartitionValue(), file.getStats(0).getMin());
+            assertEquals(file.getPartitionValue(), file.getStats(0).getMax());
+        }
+    }
+
+    @Test
+    public void testRollsBySize() throws IOException {
+        // partition 4 + offset 8 + key offsets 4 + 5 or more key bytes
+        TableWriter writer = table.newWriter(SinkConfig.defaults().withTargetFileBytes(21 * 100));
+        for (int i = 0; i < 1000; i++) {
+            append(writer, 0, i);
+        }
+        assertTrue(writer.getFilesWritten() >= 9);
+        assertEquals(writer.getFilesWritten(), writer.getCommits());
+        writer.close();
+        MutableList<DataFileMeta> files = table.dataFiles(table.currentSnapshot());
+        assertEquals(1000, files.sumOfInt(DataFileMeta::getRowCount));
+        assertEquals(writer.getFilesWritten(), files.size());
+    }
+
+    @Test
+    public void testRollsByTime() throws IOException {
+        TableWriter writer = table.newWriter(SinkConfig.defaults().withRollIntervalMillis(500));
+        append(writer, 0, 0);
+        append(writer, 1, 1);
+        now.addAndGet(499);
+        append(writer, 0, 2);
+        assertEquals(0, writer.getCommits());
+        now.addAndGet(1);
+        append(writer, 1, 3);
+        assertEquals(1, writer.getCommits());
+        assertEquals(2, writer.getFilesWritten());
+        assertEquals(0, writer.getBufferedRows());
+        assertEquals(2, table.dataFiles(table.currentSnapshot()).size());
+    }
+
+    @Test
+    public void testFlushIfDueCommitsIdleBuffers() throws IOException {
+        TableWriter writer = table.newWriter(SinkConfig.defaults().withRollIntervalMillis(500));
+        TableSink<Long> sink = new TableSink<>(writer, (offset, row) -> row.setInt(0, 0).setLong(1, offset).setString(2, "k"));
+        assertNull(writer.flushIfDue());
+        append(writer, 0, 0);
+        now.addAndGet(499);
+        sink.flushIfDue();
+        assertEquals(0, writer.getCommits());
+        now.addAndGet(1);
+        sink.flushIfDue();
+        assertEquals(1, writer.getCommits());
+        assertEquals(0, writer.getBufferedRows());
+        assertEquals(1, table.dataFiles(table.currentSnapshot()).size());
+    }
+
+    @Test
+    public void testOpenReadsCommittedState() throws IOException {
+        try (TableWriter writer = table.newWriter(SinkConfig.defaults().withCodec(Codec.NONE))) {
+            append(writer, 5, 42);
+        }
+        Table reopened = Table.open(location);
+        assertEquals(SCHEMA, reopened.getSchema());
+        DataFileMeta file = reopened.dataFiles(reopened.currentSnapshot()).getFirst();
+        assertEquals(5, file.getPartitionValue());
+        try (DataFileReader reader = new DataFileReader(reopened.resolve(file.getPath()))) {
+            assertEquals(42L, reader.readColumn(1).getLong(0));
+            assertEquals("key-42", reader.readColumn(2).getString(0));
+        }
+    }
+
+    @Test
+    public void testCommitRemovesFiles() throws IOException {
+        TableWriter writer = table.newWriter(SinkConfig.defaults());
+        append(writer, 0, 0);
+        append(writer, 1, 1);
+        writer.commit();
+        MutableList<DataFileMeta> files = table.dataFiles(table.currentSnapshot());
+
+        Snapshot replaced = table.commit("replace", files.subList(0, 0), files.subList(0, 1));
+        assertEquals("replace", replaced.getOperation());
+        assertEquals(files.subList(1, 2), table.dataFiles(replaced));
+        assertEquals(2, table.dataFiles(table.snapshot(1)).size());
+
+        try {
+            table.commit("replace", files.subList(0, 0), files.subList(0, 1));
+            fail("Should not remove a file twice");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testUnpartitionedTableWithEveryType() throws IOException {
+        Schema schema = Schema.of(null,
+                new Column("id", ColumnType.LONG),
+                new Column("score", ColumnType.DOUBLE),
+                new Column("name", ColumnType.STRING));
+        Table flat = Table.create(folder.getRoot().toPath().resolve("flat"), schema, now::get);
+        try (TableWriter writer = flat.newWriter(SinkConfig.defaults())) {
+            for (int i = 0; i < 10; i++) {
+                writer.setLong(0, i).setDouble(1, i / 4.0).setString(2, "name-" + i).appendRow();
+            }
+            assertEquals(flat, writer.getTable());
+        }
+        MutableList<DataFileMeta> files = flat.dataFiles(flat.currentSnapshot());
+        assertEquals(1, files.size());
+        DataFileMeta file = files.get(0);
+        assertNull(file.getPartitionValue());
+        assertTrue(file.getPath(), file.getPath().startsWith("data/"));
+        assertEquals(new ColumnStats(ColumnType.DOUBLE, 0.0, 2.25), file.getStats(1));
+        assertTrue(file.toString().contains(file.getPath()));
+        assertTrue(flat.currentSnapshot().toString().contains("append"));
+        assertTrue(flat.toString().contains(schema.toString()));
+        try (DataFileReader reader = new DataFileReader(flat.resolve(file.getPath()))) {
+            assertEquals(7L, reader.readColumn(0).getValue(7));
+            assertEquals(1.75, reader.readColumn(1).getValue(7));
+            assertEquals("name-7", reader.readColumn(2).getValue(7));
+        }
+    }
+
+    @Test
+    public void testLongAndStringPartitions() throws IOException {
+        Schema byLong = Schema.of("offset", new Column("offset", ColumnType.LONG), new Column("key", ColumnType.STRING));
+        Schema byString = Schema.of("key", new Column("offset", ColumnType.LONG), new Column("key", ColumnType.STRING));
+        for (Schema schema : new Schema[] {byLong, byString}) {
+            Table partitioned = Table.create(folder.getRoot().toPath().resolve("by-" + schema.getPartitionColumn()),
+                    schema, now::get);
+            try (TableWriter writer = partitioned.newWriter(SinkConfig.defaults())) {
+                for (int i = 0; i < 12; i++) {
+                    writer.setLong(0, i % 2).setString(1, "k" + i % 2).appendRow();
+                }
+            }
+            MutableList<DataFileMeta> files = partitioned.dataFiles(partitioned.currentSnapshot());
+            assertEquals(2, files.size());
+            assertEquals(12, files.sumOfInt(DataFileMeta::getRowCount));
+            Comparable<?> expected = schema == byLong ? (Comparable<?>) 0L : "k0";
+            assertTrue(files.anySatisfy(file -> expected.equals(file.getPartitionValue())));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullString() {
+        table.newWriter(SinkConfig.defaults()).setString(2, null);
+    }
+
+    @Test
+    public void testMissingColumnIsRejected() throws IOException {
+        TableWriter writer = table.newWriter(SinkConfig.defaults());
+        writer.setInt(0, 1).setLong(1, 2);
+        try {
+            writer.appendRow();
+            fail("Should throw IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("key"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        table.newWriter(SinkConfig.defaults()).setLong(0, 1);
+    }
+
+    @Test(expected = IOException.class)
+    public void testCreateTwice() throws IOException {
+        Table.create(location, SCHEMA);
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenMissing() throws IOException {
+        Table.open(folder.getRoot().toPath().resolve("missing"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConfig() {
+        SinkConfig.defaults().withTargetFileBytes(0);
+    }
+}
@@ -0,0 +1,145 @@
+package com.gs.kafka.processor.window;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import com.gs.collections.api.list.MutableList;
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.collections.impl.map.mutable.UnifiedMap;
+import com.gs.collections.impl.set.mutable.UnifiedSet;
+import com.gs.kafka.processor.pipeline.Record;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for WindowAggregationStage and WindowSpec
+ */
+public class WindowAggregationStageTest {
+
+    private static Record record(String key, int value, long timestamp) {
+        return new Record(0, timestamp, key, ByteBuffer.allocate(4).putInt(value).array(), timestamp);
+    }
+
+    private static WindowAggregationStage<String> stage(WindowSpec spec) {
+        return new WindowAggregationStage<>(spec, Record::getKey, Record::valueAsInt);
+    }
+
+    @Test
+    public void testTumblingWindowEmitsOnWatermark() {
+        WindowAggregationStage<String> stage = stage(WindowSpec.tumbling(10));
+        assertTrue(stage.apply(FastList.newListWith(record("a", 1, 0), record("a", 2, 5), record("b", 7, 9))).isEmpty());
+
+        MutableList<WindowResult<String>> results = stage.apply(FastList.newListWith(record("a", 3, 10)));
+        assertEquals(2, results.size());
+        assertTrue(results.contains(new WindowResult<>("a", 0, 10, 2, 3, 0)));
+        assertTrue(results.contains(new WindowResult<>("b", 0, 10, 1, 7, 0)));
+        assertEquals(10, stage.getWatermark());
+        assertEquals(1, stage.getWindowsEmitted());
+
+        assertEquals(FastList.newListWith(new WindowResult<>("a", 10, 20, 1, 3, 0)), stage.drain());
+        assertEquals(0, stage.getOpenPanes());
+        assertTrue(stage.drain().isEmpty());
+    }
+
+    @Test
+    public void testSlidingWindowsSharePanes() {
+        WindowAggregationStage<String> stage = stage(WindowSpec.sliding(30, 10).withDistinctValues(true));
+        MutableList<WindowResult<String>> results =
+                stage.apply(FastList.newListWith(record("a", 1, 5), record("a", 1, 15), record("a", 4, 25)));
+        assertEquals(FastList.newListWith(
+                new WindowResult<>("a", -20, 10, 1, 1, 1),
+                new WindowResult<>("a", -10, 20, 2, 2, 1)), results);
+        assertEquals(FastList.newListWith(
+                new WindowResult<>("a", 0, 30, 3, 6, 2),
+                new WindowResult<>("a", 10, 40, 2, 5, 2),
+                new WindowResult<>("a", 20, 50, 1, 4, 1)), stage.drain());
+        assertEquals(0, stage.getOpenPanes());
+    }
+
+    @Test
+    public void testLateRecordsAreDropped() {
+        WindowAggregationStage<String> stage = stage(WindowSpec.tumbling(10).withAllowedLatenessMillis(5));
+        stage.apply(FastList.newListWith(record("a", 1, 3), record("a", 1, 14)));
+        assertEquals(9, stage.getWatermark());
+
+        // Within the allowed lateness: window [0, 10) is still open
+        stage.apply(FastList.newListWith(record("a", 1, 8)));
+        MutableList<WindowResult<String>> results = stage.apply(FastList.newListWith(record("a", 1, 15)));
+        assertEquals(FastList.newListWith(new WindowResult<>("a", 0, 10, 2, 2, 0)), results);
+
+        stage.apply(FastList.newListWith(record("a", 1, 9)));
+        assertEquals(1, stage.getLateRecords());
+        assertEquals(5, stage.getRecords());
+        assertEquals(FastList.newListWith(new WindowResult<>("a", 10, 20, 2, 2, 0)), stage.drain());
+    }
+
+    @Test
+    public void testSkipsEmptyWindows() {
+        WindowAggregationStage<String> stage = stage(WindowSpec.sliding(20, 10));
+        stage.apply(FastList.newListWith(record("a", 1, 0)));
+        MutableList<WindowResult<String>> results = stage.apply(FastList.newListWith(record("b", 1, 1_000_000)));
+        assertEquals(2, results.size());
+        assertEquals(2, stage.getWindowsEmitted());
+        assertEquals(FastList.newListWith(
+                new WindowResult<>("b", 999_990, 1_000_010, 1, 1, 0),
+                new WindowResult<>("b", 1_000_000, 1_000_020, 1, 1, 0)), stage.drain());
+    }
+
+    @Test
+    public void testMatchesRecomputationOnOutOfOrderInput() {
+        WindowSpec spec = new WindowSpec(60, 15, 40, true);
+        WindowAggregationStage<String> stage = stage(spec);
+        Random random = new Random(7);
+        MutableList<Record> all = FastList.newList();
+        MutableList<WindowResult<String>> emitted = FastList.newList();
+        long time = 1_000;
+        for (int batch = 0; batch < 200; batch++) {
+            MutableList<Record> records = FastList.newList();
+            for (int i = 0; i < 20; i++) {
+                time += random.nextInt(3);
+                // Out of order by less than the allowed lateness
+                long timestamp = time - random.nextInt(30);
+                records.add(record("key-" + random.nextInt(5), random.nextInt(8), timestamp));
+            }
+            all.addAll(records);
+            emitted.addAll(stage.apply(records));
+        }
+        emitted.addAll(stage.drain());
+        assertEquals(0, stage.getLateRecords());
+
+        UnifiedMap<String, WindowResult<String>> expected = UnifiedMap.newMap();
+        long first = all.collectLong(Record::getTimestamp).min();
+        long last = all.collectLong(Record::getTimestamp).max();
+        for (long end = Math.floorDiv(first, 15) * 15 + 15; end <= last + 60; end += 15) {
+            UnifiedMap<String, MutableList<Record>> byKey = UnifiedMap.newMap();
+            for (Record each : all) {
+                if (each.getTimestamp() >= end - 60 && each.getTimestamp() < end) {
+                    byKey.getIfAbsentPut(each.getKey(), FastList::new).add(each);
+                }
+            }
+            long windowEnd = end;
+            byKey.forEachKeyValue((key, records) -> expected.put(key + "@" + windowEnd, new WindowResult<>(key,
+                    windowEnd - 60, windowEnd, records.size(), records.sumOfInt(Record::valueAsInt),
+                    UnifiedSet.newSet(records.collect(Record::valueAsInt)).size())));
+        }
+        assertEquals(expected.size(), emitted.size());
+        for (WindowResult<String> result : emitted) {
+            assertEquals(expected.get(result.getKey() + "@" + result.getWindowEnd()), result);
+        }
+        for (int i = 1; i < emitted.size(); i++) {
+            assertTrue("Windows come out in order", emitted.get(i - 1).getWindowEnd() <= emitted.get(i).getWindowEnd());
+        }
+    }
+
+    @Test
+    public void testSpec() {
+        assertEquals(5, new WindowSpec(60, 25, 0, false).getPaneMillis());
+        assertEquals(10, WindowSpec.tumbling(10).getPaneMillis());
+        try {
+            WindowSpec.sliding(10, 20);
+            fail("Slide must not exceed the window");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+}